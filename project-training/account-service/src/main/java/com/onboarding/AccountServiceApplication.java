@@ -1,13 +1,18 @@
 package com.onboarding;
 
+import com.onboarding.config.NativeRuntimeHints;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.openfeign.EnableFeignClients;
+import org.springframework.context.annotation.ImportRuntimeHints;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@ImportRuntimeHints(NativeRuntimeHints.class)
 @EnableDiscoveryClient // Enables registration with Eureka
 @EnableFeignClients    // Scans for @FeignClient interfaces
+@EnableScheduling      // Runs the ReplicaLagMonitor heartbeat and the EventOutbox relay
 public class AccountServiceApplication {
 
     public static void main(String[] args) {
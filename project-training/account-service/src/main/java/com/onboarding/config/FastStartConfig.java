@@ -0,0 +1,34 @@
+package com.onboarding.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+@Configuration
+@Profile("fast-start")
+public class FastStartConfig {
+
+    /**
+     * With lazy initialization a bean that nobody injects is never created, so its
+     * @Scheduled methods would silently never run. Keep those beans eager.
+     */
+    @Bean
+    public static LazyInitializationExcludeFilter eagerScheduledJobs() {
+        return (beanName, beanDefinition, beanType) -> {
+            AtomicBoolean found = new AtomicBoolean();
+            ReflectionUtils.doWithMethods(beanType, method -> found.set(true), FastStartConfig::isScheduledJob);
+            return found.get();
+        };
+    }
+
+    private static boolean isScheduledJob(Method method) {
+        return AnnotatedElementUtils.hasAnnotation(method, Scheduled.class);
+    }
+}
@@ -0,0 +1,39 @@
+package com.onboarding.config;
+
+import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.config.TopicBuilder;
+
+/**
+ * account.changes carries the account change events (AccountStatusChanged, AccountNomineeChanged),
+ * keyed by customer id like the customer-service topics and published through EventOutbox.
+ */
+@Configuration
+public class KafkaTopicConfig {
+
+    public static final String TOPIC_ACCOUNT_CHANGES = "account.changes";
+
+    @Value("${kafka.topics.account-changes.partitions:6}")
+    private int accountChangePartitions;
+
+    @Value("${kafka.topics.replicas:1}")
+    private int replicas;
+
+    /**
+     * The record key for an event about the given customer. Null ids give a null key, which Kafka
+     * spreads over the partitions.
+     */
+    public static String key(Long id) {
+        return id == null ? null : id.toString();
+    }
+
+    @Bean
+    public NewTopic accountChangeTopic() {
+        return TopicBuilder.name(TOPIC_ACCOUNT_CHANGES)
+                .partitions(accountChangePartitions)
+                .replicas(replicas)
+                .build();
+    }
+}
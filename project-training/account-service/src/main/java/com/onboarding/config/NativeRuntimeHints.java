@@ -0,0 +1,47 @@
+package com.onboarding.config;
+
+import com.onboarding.dto.AccountCreationRequest;
+import com.onboarding.dto.AccountDTO;
+import com.onboarding.dto.AccountNomineeChangedEvent;
+import com.onboarding.dto.AccountStatusChangedEvent;
+import com.onboarding.dto.CustomerDTO;
+import com.onboarding.discovery.FileBackupRegistry;
+import com.onboarding.feign.CustomerClient;
+import com.onboarding.model.Account;
+import com.onboarding.model.OutboxEvent;
+import com.onboarding.persistence.ReplicaHeartbeat;
+import com.onboarding.persistence.SqlStatementCounter;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and proxy hints for the GraalVM native image (mvn -Pnative package).
+ * Spring AOT already covers most of this; these are the types it can't see on its own,
+ * e.g. Feign response types that are only reached through the client proxy.
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // JPA entities: Hibernate reads fields and calls the no-arg constructors reflectively
+        hints.reflection().registerType(Account.class, MemberCategory.values());
+        hints.reflection().registerType(OutboxEvent.class, MemberCategory.values());
+        hints.reflection().registerType(ReplicaHeartbeat.class, MemberCategory.values());
+
+        // Eureka creates the backup registry from eureka.client.backup-registry-impl by class name
+        hints.reflection().registerType(FileBackupRegistry.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Hibernate creates the statement inspector from hibernate.session_factory.statement_inspector by class name
+        hints.reflection().registerType(SqlStatementCounter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Feign client interfaces are implemented with JDK dynamic proxies
+        hints.proxies().registerJdkProxy(CustomerClient.class);
+
+        // JSON types read and written by Jackson (controllers, Feign and the change events)
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                AccountDTO.class, CustomerDTO.class, AccountCreationRequest.class,
+                AccountStatusChangedEvent.class, AccountNomineeChangedEvent.class);
+    }
+}
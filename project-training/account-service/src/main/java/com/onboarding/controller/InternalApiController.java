@@ -1,31 +1,70 @@
 package com.onboarding.controller;
 
 import com.onboarding.dto.AccountDTO;
+import com.onboarding.export.ExportFormat;
+import com.onboarding.export.ExportWriter;
 import com.onboarding.model.Account;
+import com.onboarding.pagination.KeysetCursor;
+import com.onboarding.pagination.KeysetPage;
+import com.onboarding.persistence.QueryLane;
 import com.onboarding.repository.AccountRepository;
 import com.onboarding.service.AccountService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/internal/accounts")
 public class InternalApiController {
+    private static final Logger LOGGER = LoggerFactory.getLogger(InternalApiController.class);
+
+    static final Map<String, Function<Account, Object>> EXPORT_COLUMNS = new LinkedHashMap<>();
+    static {
+        EXPORT_COLUMNS.put("id", Account::getId);
+        EXPORT_COLUMNS.put("customerId", Account::getCustomerId);
+        EXPORT_COLUMNS.put("kycApplicationId", Account::getKycApplicationId);
+        EXPORT_COLUMNS.put("accountNumber", Account::getAccountNumber);
+        EXPORT_COLUMNS.put("accountType", Account::getAccountType);
+        EXPORT_COLUMNS.put("accountStatus", Account::getAccountStatus);
+        EXPORT_COLUMNS.put("balance", Account::getBalance);
+        EXPORT_COLUMNS.put("branchName", Account::getBranchName);
+        EXPORT_COLUMNS.put("ifscCode", Account::getIfscCode);
+        EXPORT_COLUMNS.put("micrCode", Account::getMicrCode);
+        EXPORT_COLUMNS.put("createdAt", Account::getCreatedAt);
+        EXPORT_COLUMNS.put("dateOfAccountOpening", Account::getDateOfAccountOpening);
+        EXPORT_COLUMNS.put("modeOfOperation", Account::getModeOfOperation);
+        EXPORT_COLUMNS.put("nomineeRegistered", Account::getNomineeRegistered);
+        EXPORT_COLUMNS.put("nomineeName", Account::getNomineeName);
+        EXPORT_COLUMNS.put("netBankingEnabled", Account::getNetBankingEnabled);
+        EXPORT_COLUMNS.put("debitCardIssued", Account::getDebitCardIssued);
+        EXPORT_COLUMNS.put("chequeBookIssued", Account::getChequeBookIssued);
+        EXPORT_COLUMNS.put("chequeBookLeaves", Account::getChequeBookLeaves);
+    }
+
     private final AccountService accountService;
     private final AccountRepository accountRepository;
+    private final ObjectMapper objectMapper;
 
-    public InternalApiController(AccountService accountService, AccountRepository accountRepository) {
+    public InternalApiController(AccountService accountService, AccountRepository accountRepository, ObjectMapper objectMapper) {
         this.accountService = accountService;
         this.accountRepository = accountRepository;
+        this.objectMapper = objectMapper;
     }
     
  // In InternalApiController.java
 
-    private AccountDTO convertToDto(Account account) {
+    AccountDTO convertToDto(Account account) {
         AccountDTO dto = new AccountDTO();
         dto.setCustomerId(account.getCustomerId());
         dto.setAccountNumber(account.getAccountNumber());
@@ -49,6 +88,7 @@ public class InternalApiController {
         dto.setChequeBookIssued(account.getChequeBookIssued());
         
         dto.setChequeBookLeaves(account.getChequeBookLeaves());
+        dto.setVersion(account.getVersion());
         
         return dto;
     }
@@ -92,6 +132,7 @@ public class InternalApiController {
                 .map(this::convertToDto).collect(Collectors.toList()));
     }
 
+    // Whole window in one list, kept in its original shape for existing callers. New callers should use /pages.
     @GetMapping("/created-between")
     public ResponseEntity<List<AccountDTO>> getAccountsCreatedBetween(
             @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
@@ -99,7 +140,47 @@ public class InternalApiController {
         return ResponseEntity.ok(accountRepository.findByCreatedAtBetween(start, end).stream()
                 .map(this::convertToDto).collect(Collectors.toList()));
     }
+
+    // Keyset-paginated: pass the previous page's nextCursor to continue, count=true to also get the total
+    @GetMapping("/created-between/pages")
+    public ResponseEntity<KeysetPage<AccountDTO>> getAccountPageCreatedBetween(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean count) {
+        LocalDateTime afterCreatedAt = start;
+        long afterId = Long.MIN_VALUE;
+        if (cursor != null) {
+            KeysetCursor position = KeysetCursor.parse(cursor);
+            afterCreatedAt = position.dateTimeAt(0);
+            afterId = position.longAt(1);
+        }
+        int pageSize = KeysetPage.pageSize(size);
+        List<Account> accounts = accountRepository.findCreatedBetweenAfter(start, end, afterCreatedAt, afterId,
+                PageRequest.ofSize(pageSize + 1));
+        KeysetPage<Account> page = KeysetPage.of(accounts, pageSize,
+                account -> KeysetCursor.of(account.getCreatedAt(), account.getId()),
+                count ? accountRepository.countByCreatedAtBetween(start, end) : null);
+        return ResponseEntity.ok(page.map(this::convertToDto));
+    }
     
+    // Every account, streamed as format=ndjson (default) or format=csv. Runs on the reporting lane
+    // from the async thread that writes the body, so it never holds an interactive connection.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportAccounts(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        return exportFormat.respond("accounts", out -> {
+            long started = System.currentTimeMillis();
+            ExportWriter<Account> writer = new ExportWriter<>(exportFormat, out, objectMapper, EXPORT_COLUMNS);
+            long rows = QueryLane.REPORTING.call(() -> {
+                accountService.exportAccounts(writer::write);
+                return writer.finish();
+            });
+            LOGGER.info("Exported {} accounts as {} in {} ms", rows, exportFormat, System.currentTimeMillis() - started);
+        });
+    }
+
     @PutMapping("/customer/{customerId}")
     public ResponseEntity<AccountDTO> updateAccountDetails(
             @PathVariable Long customerId,
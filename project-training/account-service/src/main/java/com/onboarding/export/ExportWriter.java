@@ -0,0 +1,92 @@
+package com.onboarding.export;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Writes export rows one at a time as NDJSON (one JSON object per line) or CSV with a header line.
+ * Nothing is kept once a row is written, so an export runs in the same memory whatever its size.
+ * Columns are written in the order of the given map.
+ */
+public class ExportWriter<T> {
+
+    private final ExportFormat format;
+    private final Writer out;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Function<T, Object>> columns;
+    private long rows;
+
+    public ExportWriter(ExportFormat format, OutputStream out, ObjectMapper objectMapper,
+                        Map<String, Function<T, Object>> columns) {
+        this.format = format;
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        this.objectMapper = objectMapper;
+        this.columns = columns;
+        if (format == ExportFormat.CSV) {
+            writeLine(String.join(",", columns.keySet()));
+        }
+    }
+
+    // Unchecked so it can be called from a stream; an IOException here usually means the client went away
+    public void write(T row) {
+        if (format == ExportFormat.NDJSON) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            columns.forEach((name, column) -> values.put(name, column.apply(row)));
+            try {
+                writeLine(objectMapper.writeValueAsString(values));
+            } catch (JsonProcessingException e) {
+                throw new UncheckedIOException(e);
+            }
+        } else {
+            StringBuilder line = new StringBuilder();
+            for (Function<T, Object> column : columns.values()) {
+                if (line.length() > 0) {
+                    line.append(',');
+                }
+                line.append(csvValue(column.apply(row)));
+            }
+            writeLine(line.toString());
+        }
+        rows++;
+    }
+
+    public long finish() {
+        try {
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return rows;
+    }
+
+    private void writeLine(String line) {
+        try {
+            out.write(line);
+            out.write('\n');
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String csvValue(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = value.toString();
+        if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+            return text;
+        }
+        return '"' + text.replace("\"", "\"\"") + '"';
+    }
+}
@@ -1,6 +1,8 @@
 package com.onboarding.model;
 
 import jakarta.persistence.*;
+
+import org.hibernate.annotations.ColumnDefault;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 
@@ -8,7 +10,8 @@ import java.time.LocalDateTime;
 @Table(name = "ACCOUNTS")
 public class Account {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_seq")
+    @SequenceGenerator(name = "account_seq", sequenceName = "account_id_seq", allocationSize = 50)
     private Long id;
 
     // ... other fields are fine ...
@@ -48,6 +51,13 @@ public class Account {
     @Column(columnDefinition = "NUMBER(1,0) DEFAULT 0")
     private Boolean chequeBookIssued;
 
+    // Goes up with every change; the change events and AccountDTO carry it, so a consumer can tell which
+    // of two copies of the account is newer. The column default fills in rows that existed before it.
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     // --- Manual Getters and Setters ---
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -69,6 +79,8 @@ public class Account {
     public void setMicrCode(String micrCode) { this.micrCode = micrCode; }
     public LocalDateTime getCreatedAt() { return createdAt; }
     public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
     public LocalDateTime getDateOfAccountOpening() { return dateOfAccountOpening; }
     public void setDateOfAccountOpening(LocalDateTime dateOfAccountOpening) { this.dateOfAccountOpening = dateOfAccountOpening; }
     public String getModeOfOperation() { return modeOfOperation; }
@@ -0,0 +1,60 @@
+package com.onboarding.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * A change event written in the same transaction as the change itself and waiting to be published to
+ * Kafka, see {@link com.onboarding.service.EventOutbox}. Deleted once Kafka has it.
+ * Each service has its own outbox table, since the services can share a schema.
+ */
+@Entity
+@Table(name = "ACCOUNT_OUTBOX_EVENT")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "account_outbox_event_seq")
+    @SequenceGenerator(name = "account_outbox_event_seq", sequenceName = "account_outbox_event_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private String topic;
+
+    private String eventKey;
+
+    // Class name of the event, sent as the __TypeId__ header that JsonDeserializer reads
+    @Column(nullable = false, length = 200)
+    private String eventType;
+
+    // The event as JSON; change events are a few hundred bytes
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false)
+    private LocalDateTime createdAt;
+
+    // Set while an instance is sending the event, see EventOutbox
+    private LocalDateTime claimedUntil;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTopic() { return topic; }
+    public void setTopic(String topic) { this.topic = topic; }
+    public String getEventKey() { return eventKey; }
+    public void setEventKey(String eventKey) { this.eventKey = eventKey; }
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+    public String getPayload() { return payload; }
+    public void setPayload(String payload) { this.payload = payload; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public LocalDateTime getClaimedUntil() { return claimedUntil; }
+    public void setClaimedUntil(LocalDateTime claimedUntil) { this.claimedUntil = claimedUntil; }
+}
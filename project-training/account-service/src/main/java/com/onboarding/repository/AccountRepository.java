@@ -1,16 +1,50 @@
 package com.onboarding.repository;
 
 import com.onboarding.model.Account;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 import java.time.LocalDateTime;
 
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
+
 @Repository
 public interface AccountRepository extends JpaRepository<Account, Long> {
     Optional<Account> findByCustomerId(Long customerId);
     List<Account> findByCustomerIdIn(List<Long> customerIds);
     List<Account> findByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
+    // Keyset pages over a creation window, oldest first. Each page continues after the (createdAt, id)
+    // of the last row of the one before, so deep pages cost the same as the first.
+    @Query("SELECT a FROM Account a WHERE a.createdAt BETWEEN :start AND :end " +
+           "AND (a.createdAt > :afterCreatedAt OR (a.createdAt = :afterCreatedAt AND a.id > :afterId)) " +
+           "ORDER BY a.createdAt, a.id")
+    List<Account> findCreatedBetweenAfter(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                          @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                          @Param("afterId") long afterId, Pageable page);
+
+    long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
     Optional<Account> findByKycApplicationId(Long kycApplicationId);
+
+    // Scrolls over every account for exports: rows arrive from the driver EXPORT_FETCH_SIZE at a time,
+    // are loaded read-only (no snapshots for dirty checking) and get a timeout long enough for a full table
+    String EXPORT_FETCH_SIZE = "500";
+    String EXPORT_TIMEOUT_SECONDS = "1800";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"),
+            @QueryHint(name = HibernateHints.HINT_TIMEOUT, value = EXPORT_TIMEOUT_SECONDS)
+    })
+    @Query("SELECT a FROM Account a ORDER BY a.id")
+    Stream<Account> streamAllForExport();
 }
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.onboarding.security;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.provisioning.InMemoryUserDetailsManager;
+import org.springframework.security.web.SecurityFilterChain;
+
+import static org.springframework.security.config.Customizer.withDefaults;
+
+/**
+ * The account export is reachable through the gateway, so like customer-service's export it
+ * needs HTTP Basic as ADMIN or INTERNAL. The other internal APIs are only called by the
+ * services and stay open, as before.
+ */
+@Configuration
+@EnableWebSecurity
+public class SecurityConfig {
+
+    @Bean
+    public PasswordEncoder passwordEncoder() {
+        return new BCryptPasswordEncoder();
+    }
+
+    // The same hardcoded admin and internal users as kyc-service's UserDetailsServiceImpl
+    @Bean
+    public UserDetailsService userDetailsService(PasswordEncoder passwordEncoder) {
+        return new InMemoryUserDetailsManager(
+                User.withUsername("admin").password(passwordEncoder.encode("password")).roles("ADMIN").build(),
+                User.withUsername("internal-user").password(passwordEncoder.encode("internal-password")).roles("INTERNAL").build());
+    }
+
+    @Bean
+    public SecurityFilterChain apiFilterChain(HttpSecurity http) throws Exception {
+        http
+            .authorizeHttpRequests(authorize -> authorize
+                .requestMatchers("/api/internal/accounts/export").hasAnyRole("ADMIN", "INTERNAL")
+                .anyRequest().permitAll()
+            )
+            .csrf(AbstractHttpConfigurer::disable) // Disable CSRF for stateless APIs
+            .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+            .httpBasic(withDefaults());
+
+        return http.build();
+    }
+}
@@ -1,25 +1,49 @@
 package com.onboarding.service;
 
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.AccountNomineeChangedEvent;
+import com.onboarding.dto.AccountStatusChangedEvent;
 import com.onboarding.model.Account;
 import com.onboarding.repository.AccountRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import jakarta.persistence.EntityManager;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Random;
 import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class AccountService {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(AccountService.class);
     private final AccountRepository accountRepository;
+    private final EntityManager entityManager;
+    private final EventOutbox eventOutbox;
 
-    public AccountService(AccountRepository accountRepository) {
+    public AccountService(AccountRepository accountRepository, EntityManager entityManager, EventOutbox eventOutbox) {
         this.accountRepository = accountRepository;
+        this.entityManager = entityManager;
+        this.eventOutbox = eventOutbox;
+    }
+
+    // Hands every account to the sink in id order, detaching each once it has been written so the
+    // persistence context stays empty however many rows go by. The stream needs the transaction
+    // to stay open until it is drained.
+    @Transactional(readOnly = true)
+    public void exportAccounts(Consumer<Account> sink) {
+        try (Stream<Account> accounts = accountRepository.streamAllForExport()) {
+            accounts.forEach(account -> {
+                sink.accept(account);
+                entityManager.detach(account);
+            });
+        }
     }
 
     @Transactional
@@ -60,7 +84,8 @@ public class AccountService {
         account.setDebitCardIssued((Boolean) creationData.getOrDefault("debitCardIssued", false));
         account.setChequeBookIssued((Boolean) creationData.getOrDefault("chequeBookIssued", false));
 
-        Account savedAccount = accountRepository.save(account);
+        Account savedAccount = accountRepository.saveAndFlush(account);
+        recordStatusChange(savedAccount, null);
         LOGGER.info("Successfully created INACTIVE account {} for customer ID: {}", savedAccount.getAccountNumber(), customerId);
         return savedAccount;
     }
@@ -70,6 +95,7 @@ public class AccountService {
         LOGGER.info("Attempting to activate account for customer ID: {}", customerId);
         Account account = accountRepository.findByCustomerId(customerId)
             .orElseThrow(() -> new RuntimeException("Account not found for customer ID: " + customerId));
+        String previousStatus = account.getAccountStatus();
         
         account.setAccountStatus("ACTIVE");
         account.setDateOfAccountOpening(LocalDateTime.now());
@@ -82,12 +108,13 @@ public class AccountService {
             account.setChequeBookLeaves(25);
         }
 
-        Account updatedAccount = accountRepository.save(account);
+        Account updatedAccount = accountRepository.saveAndFlush(account);
+        recordStatusChange(updatedAccount, previousStatus);
         LOGGER.info("Successfully ACTIVATED account {} for customer ID: {}", updatedAccount.getAccountNumber(), customerId);
         return updatedAccount;
     }
 
-    private String generateAccountNumber() {
+    String generateAccountNumber() {
         long number = ThreadLocalRandom.current().nextLong(100_000_000_000L, 1_000_000_000_000L);
         return String.valueOf(number);
     }
@@ -102,6 +129,9 @@ public class AccountService {
         Account account = accountRepository.findByCustomerId(customerId)
             .orElseThrow(() -> new RuntimeException("Account not found for customer ID: " + customerId));
 
+        Boolean nomineeRegisteredBefore = account.getNomineeRegistered();
+        String nomineeNameBefore = account.getNomineeName();
+
         // Selectively update fields if they are present in the update map
         if (updateData.containsKey("nomineeRegistered")) {
             account.setNomineeRegistered((Boolean) updateData.get("nomineeRegistered"));
@@ -111,7 +141,18 @@ public class AccountService {
         }
         // Add more fields here if needed in the future (e.g., net banking status)
 
-        return accountRepository.save(account);
+        Account updatedAccount = accountRepository.saveAndFlush(account);
+        if (!Objects.equals(nomineeRegisteredBefore, updatedAccount.getNomineeRegistered())
+                || !Objects.equals(nomineeNameBefore, updatedAccount.getNomineeName())) {
+            AccountNomineeChangedEvent event = new AccountNomineeChangedEvent();
+            event.setCustomerId(updatedAccount.getCustomerId());
+            event.setAccountNumber(updatedAccount.getAccountNumber());
+            event.setNomineeRegistered(updatedAccount.getNomineeRegistered());
+            event.setNomineeName(updatedAccount.getNomineeName());
+            event.setVersion(updatedAccount.getVersion());
+            eventOutbox.append(KafkaTopicConfig.TOPIC_ACCOUNT_CHANGES, updatedAccount.getCustomerId(), event);
+        }
+        return updatedAccount;
     }
     
     @Transactional
@@ -125,11 +166,27 @@ public class AccountService {
             return account; // No change needed, just return the current state
         }
         
+        String previousStatus = account.getAccountStatus();
         account.setAccountStatus("INACTIVE");
         
-        Account updatedAccount = accountRepository.save(account);
+        Account updatedAccount = accountRepository.saveAndFlush(account);
+        recordStatusChange(updatedAccount, previousStatus);
         LOGGER.info("Successfully DEACTIVATED account {} for customer ID: {}", updatedAccount.getAccountNumber(), customerId);
         return updatedAccount;
     }
-    
+
+    // Change events go through the outbox, so they are published only if this transaction commits.
+    // The callers flush first, so the account's version is the one this change gave it.
+    private void recordStatusChange(Account account, String previousStatus) {
+        AccountStatusChangedEvent event = new AccountStatusChangedEvent();
+        event.setCustomerId(account.getCustomerId());
+        event.setAccountNumber(account.getAccountNumber());
+        event.setAccountType(account.getAccountType());
+        event.setPreviousStatus(previousStatus);
+        event.setAccountStatus(account.getAccountStatus());
+        event.setBranchName(account.getBranchName());
+        event.setIfscCode(account.getIfscCode());
+        event.setVersion(account.getVersion());
+        eventOutbox.append(KafkaTopicConfig.TOPIC_ACCOUNT_CHANGES, account.getCustomerId(), event);
+    }
 }
\ No newline at end of file
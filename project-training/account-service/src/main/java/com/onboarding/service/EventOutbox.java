@@ -0,0 +1,180 @@
+package com.onboarding.service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.kafka.KafkaException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.JacksonUtils;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.DomainEvent;
+import com.onboarding.model.OutboxEvent;
+import com.onboarding.repository.OutboxEventRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Transactional outbox for the change events on account.changes. {@link #append} stores an event in
+ * ACCOUNT_OUTBOX_EVENT inside the transaction that makes the change, so the event exists if and only
+ * if the change was committed. {@link #publishPending} then sends the stored events to Kafka, oldest
+ * first, and deletes them once the broker has acknowledged them.
+ *
+ * Delivery is at least once: if the relay fails part way through a batch, the whole batch is sent
+ * again on the next run. Consumers drop the repeats by eventId. With several instances, the relay
+ * claims a batch for kafka.outbox.claim-ms in a short transaction and sends it without holding row
+ * locks or a connection; the other instances publish nothing while the claim is live, so the events
+ * still go out in order. A claim left by an instance that died runs out and the batch is sent again.
+ * Claims are timed by each instance's clock, so the claim time should be well above any clock skew
+ * plus kafka.outbox.send-timeout-ms. Ids come from a pooled
+ * sequence, so two changes committed on different instances within one relay interval may be
+ * published in the other order; the version of the account they carry tells a consumer which one is newer.
+ */
+@Service
+public class EventOutbox {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(EventOutbox.class);
+
+    private final OutboxEventRepository outboxRepository;
+    private final KafkaTemplate<String, byte[]> rawKafkaTemplate;
+    private final TransactionTemplate transactionTemplate;
+    // Same settings as the JsonSerializer the other events go through
+    private final ObjectMapper objectMapper = JacksonUtils.enhancedObjectMapper();
+    private final int batchSize;
+    private final long sendTimeoutMillis;
+    private final long claimMillis;
+    private final Counter published;
+
+    public EventOutbox(OutboxEventRepository outboxRepository,
+                       KafkaTemplate<String, byte[]> rawKafkaTemplate,
+                       PlatformTransactionManager transactionManager,
+                       MeterRegistry registry,
+                       @Value("${kafka.outbox.batch-size:200}") int batchSize,
+                       @Value("${kafka.outbox.send-timeout-ms:10000}") long sendTimeoutMillis,
+                       @Value("${kafka.outbox.claim-ms:30000}") long claimMillis) {
+        this.outboxRepository = outboxRepository;
+        this.rawKafkaTemplate = rawKafkaTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.batchSize = Math.max(1, batchSize);
+        this.sendTimeoutMillis = sendTimeoutMillis;
+        this.claimMillis = Math.max(claimMillis, sendTimeoutMillis);
+        this.published = Counter.builder("kafka.outbox.published")
+                .description("Change events sent from the outbox to Kafka")
+                .register(registry);
+    }
+
+    /**
+     * Stores the event for publishing, keyed by the given customer id. Must be called inside the
+     * transaction that makes the change.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void append(String topic, Long key, DomainEvent event) {
+        event.stamp();
+        OutboxEvent entry = new OutboxEvent();
+        entry.setTopic(topic);
+        entry.setEventKey(KafkaTopicConfig.key(key));
+        entry.setEventType(event.getClass().getName());
+        try {
+            entry.setPayload(objectMapper.writeValueAsString(event));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event.getClass().getSimpleName(), e);
+        }
+        entry.setCreatedAt(LocalDateTime.now());
+        outboxRepository.save(entry);
+    }
+
+    /**
+     * Sends the stored events in batches until none are left. Failures are logged and retried on the
+     * next run.
+     */
+    @Scheduled(initialDelayString = "${kafka.outbox.relay-interval-ms:500}",
+            fixedDelayString = "${kafka.outbox.relay-interval-ms:500}")
+    public void publishPending() {
+        try {
+            int sent;
+            do {
+                sent = publishBatch();
+            } while (sent >= batchSize);
+        } catch (RuntimeException e) {
+            LOGGER.warn("Could not publish outbox events, will retry: {}", e.getMessage());
+        }
+    }
+
+    private int publishBatch() {
+        List<OutboxEvent> events = transactionTemplate.execute(status -> claimBatch());
+        if (events == null || events.isEmpty()) {
+            return 0;
+        }
+        long lastId = events.get(events.size() - 1).getId();
+        try {
+            send(events);
+        } catch (RuntimeException e) {
+            // Let the next run retry straight away instead of waiting for the claim to run out
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.releaseUpTo(lastId));
+            throw e;
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllInBatch(events));
+        published.increment(events.size());
+        LOGGER.debug("Published {} outbox events", events.size());
+        return events.size();
+    }
+
+    // The oldest events, now claimed by this instance; none while another instance's claim is live
+    private List<OutboxEvent> claimBatch() {
+        List<Long> ids = outboxRepository.findOldestIds(PageRequest.ofSize(batchSize));
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<OutboxEvent> events = outboxRepository.lockUpTo(ids.get(ids.size() - 1));
+        LocalDateTime now = LocalDateTime.now();
+        if (events.stream().anyMatch(event -> event.getClaimedUntil() != null && event.getClaimedUntil().isAfter(now))) {
+            return Collections.emptyList();
+        }
+        LocalDateTime claimedUntil = now.plus(claimMillis, ChronoUnit.MILLIS);
+        events.forEach(event -> event.setClaimedUntil(claimedUntil));
+        return events;
+    }
+
+    // Sends the events in order and waits until the broker has all of them
+    private void send(List<OutboxEvent> events) {
+        List<CompletableFuture<?>> sends = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            ProducerRecord<String, byte[]> record = new ProducerRecord<>(event.getTopic(), event.getEventKey(),
+                    event.getPayload().getBytes(StandardCharsets.UTF_8));
+            record.headers().add(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME,
+                    event.getEventType().getBytes(StandardCharsets.UTF_8));
+            sends.add(rawKafkaTemplate.send(record));
+        }
+        try {
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).get(sendTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new KafkaException("Interrupted while publishing outbox events", e);
+        } catch (ExecutionException | TimeoutException e) {
+            throw new KafkaException("Could not publish " + events.size() + " outbox events", e);
+        }
+    }
+}
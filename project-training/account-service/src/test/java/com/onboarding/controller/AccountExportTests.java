@@ -0,0 +1,123 @@
+package com.onboarding.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.function.Consumer;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import com.onboarding.model.Account;
+import com.onboarding.repository.AccountRepository;
+import com.onboarding.security.SecurityConfig;
+import com.onboarding.service.AccountService;
+
+/**
+ * The account export through MockMvc with the service's security config: admin or internal
+ * credentials are required, and rows stream out in the requested format.
+ */
+@WebMvcTest
+@ContextConfiguration(classes = {InternalApiController.class, SecurityConfig.class})
+class AccountExportTests {
+
+    @Autowired
+    private MockMvc mvc;
+
+    @MockBean
+    private AccountService accountService;
+    @MockBean
+    private AccountRepository accountRepository;
+
+    @Test
+    void exportNeedsAdminOrInternalCredentials() throws Exception {
+        mvc.perform(get("/api/internal/accounts/export")).andExpect(status().isUnauthorized());
+        mvc.perform(get("/api/internal/accounts/export").header(HttpHeaders.AUTHORIZATION, basic("admin", "wrong")))
+                .andExpect(status().isUnauthorized());
+
+        verifyNoInteractions(accountService);
+    }
+
+    @Test
+    void otherInternalApisStayOpen() throws Exception {
+        mvc.perform(get("/api/internal/accounts/by-customer-ids").param("customerIds", "1"))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void csvExportStreamsEveryAccount() throws Exception {
+        exportsAccounts(account(1L, "Main Branch"), account(2L, "Park Street, Kolkata"));
+
+        String body = export("csv", basic("admin", "password"));
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).startsWith("id,customerId,kycApplicationId,accountNumber,");
+        assertThat(lines[1]).startsWith("1,101,,100000001,SAVINGS,ACTIVE,1000.00,Main Branch,");
+        assertThat(lines[2]).contains(",\"Park Street, Kolkata\",");
+    }
+
+    @Test
+    void ndjsonExportWritesOneObjectPerAccount() throws Exception {
+        exportsAccounts(account(1L, "Main Branch"), account(2L, "Main Branch"));
+
+        String body = export("ndjson", basic("internal-user", "internal-password"));
+
+        String[] lines = body.split("\n");
+        assertThat(lines).hasSize(2);
+        assertThat(lines[0]).startsWith("{\"id\":1,\"customerId\":101,").contains("\"branchName\":\"Main Branch\"");
+        assertThat(lines[1]).startsWith("{\"id\":2,\"customerId\":102,");
+    }
+
+    private String export(String format, String authorization) throws Exception {
+        MvcResult started = mvc.perform(get("/api/internal/accounts/export").param("format", format)
+                        .header(HttpHeaders.AUTHORIZATION, authorization))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        return mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void exportsAccounts(Account... accounts) {
+        doAnswer(invocation -> {
+            Consumer<Account> sink = invocation.getArgument(0);
+            for (Account account : accounts) {
+                sink.accept(account);
+            }
+            return null;
+        }).when(accountService).exportAccounts(any(Consumer.class));
+    }
+
+    private static String basic(String username, String password) {
+        return "Basic " + Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Account account(long id, String branchName) {
+        Account account = new Account();
+        account.setId(id);
+        account.setCustomerId(100 + id);
+        account.setAccountNumber(String.valueOf(100000000 + id));
+        account.setAccountType("SAVINGS");
+        account.setAccountStatus("ACTIVE");
+        account.setBalance(new BigDecimal("1000.00"));
+        account.setBranchName(branchName);
+        return account;
+    }
+}
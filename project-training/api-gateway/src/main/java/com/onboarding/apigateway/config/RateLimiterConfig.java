@@ -0,0 +1,41 @@
+package com.onboarding.apigateway.config;
+
+import com.onboarding.apigateway.ratelimit.ClientIpRouteKeyResolver;
+import com.onboarding.apigateway.ratelimit.TokenBucketRateLimiter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+@Configuration
+public class RateLimiterConfig {
+
+    /**
+     * Key resolver referenced by the RequestRateLimiter default filter.
+     */
+    @Bean
+    public KeyResolver clientIpRouteKeyResolver(@Value("${gateway.rate-limit.trusted-proxies:0}") int trustedProxies) {
+        return new ClientIpRouteKeyResolver(trustedProxies);
+    }
+
+    /**
+     * In-memory limiter, used unless gateway.rate-limit.backend=redis.
+     * For the shared backend build with the "redis-rate-limiter" Maven profile; the gateway's
+     * own RedisRateLimiter is then the only RateLimiter bean and gets picked up instead.
+     */
+    @Bean
+    @Primary
+    @ConditionalOnProperty(name = "gateway.rate-limit.backend", havingValue = "in-memory", matchIfMissing = true)
+    public TokenBucketRateLimiter tokenBucketRateLimiter(ConfigurationService configurationService,
+                                                         @Value("${gateway.rate-limit.replenish-rate:10}") int replenishRate,
+                                                         @Value("${gateway.rate-limit.burst-capacity:20}") int burstCapacity,
+                                                         @Value("${gateway.rate-limit.max-buckets:100000}") int maxBuckets) {
+        TokenBucketRateLimiter.Config defaults = new TokenBucketRateLimiter.Config()
+                .setReplenishRate(replenishRate)
+                .setBurstCapacity(burstCapacity);
+        return new TokenBucketRateLimiter(configurationService, defaults, maxBuckets);
+    }
+}
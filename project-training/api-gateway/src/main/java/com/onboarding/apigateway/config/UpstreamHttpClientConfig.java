@@ -0,0 +1,22 @@
+package com.onboarding.apigateway.config;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.gateway.config.HttpClientCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.http.HttpProtocol;
+
+@Configuration
+public class UpstreamHttpClientConfig {
+
+    /**
+     * Talks HTTP/2 over cleartext (h2c) to the downstream services so many requests share a few
+     * pooled connections. HTTP/1.1 stays enabled: the client offers h2c via the Upgrade header and
+     * simply keeps using HTTP/1.1 with services that don't accept it (e.g. the Flask chatbot).
+     */
+    @Bean
+    @ConditionalOnProperty(name = "gateway.upstream.h2c.enabled", havingValue = "true", matchIfMissing = true)
+    public HttpClientCustomizer h2cHttpClientCustomizer() {
+        return httpClient -> httpClient.protocol(HttpProtocol.H2C, HttpProtocol.HTTP11);
+    }
+}
@@ -0,0 +1,118 @@
+package com.onboarding.apigateway.filter;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.GlobalFilter;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Admission control in front of each downstream route.
+ * When a service slows down its concurrency limit shrinks and extra requests are
+ * answered with 429 straight away, instead of queueing until the response timeout.
+ */
+@Component
+public class AdaptiveConcurrencyFilter implements GlobalFilter, Ordered {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdaptiveConcurrencyFilter.class);
+
+    private final Map<String, AdaptiveConcurrencyLimiter> limiters = new ConcurrentHashMap<>();
+
+    private final boolean enabled;
+    private final int initialLimit;
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+    private final List<PathPattern> unsampledPaths;
+
+    public AdaptiveConcurrencyFilter(@Value("${gateway.concurrency.enabled:true}") boolean enabled,
+                                     @Value("${gateway.concurrency.initial-limit:20}") int initialLimit,
+                                     @Value("${gateway.concurrency.min-limit:5}") int minLimit,
+                                     @Value("${gateway.concurrency.max-limit:200}") int maxLimit,
+                                     @Value("${gateway.concurrency.latency-tolerance:2.0}") double latencyTolerance,
+                                     @Value("${gateway.concurrency.backoff-ratio:0.9}") double backoffRatio,
+                                     @Value("${gateway.concurrency.unsampled-paths:}") List<String> unsampledPaths) {
+        this.enabled = enabled;
+        this.initialLimit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+        this.unsampledPaths = unsampledPaths.stream()
+                .filter(path -> !path.isBlank())
+                .map(PathPatternParser.defaultInstance::parse)
+                .collect(Collectors.toList());
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        if (!enabled || route == null) {
+            return chain.filter(exchange);
+        }
+
+        AdaptiveConcurrencyLimiter limiter = limiters.computeIfAbsent(route.getId(),
+                id -> new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, latencyTolerance, backoffRatio));
+
+        if (!limiter.tryAcquire()) {
+            LOGGER.warn("Concurrency limit {} reached for route {}, rejecting {}",
+                    limiter.getLimit(), route.getId(), exchange.getRequest().getPath());
+            exchange.getResponse().setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+            exchange.getResponse().getHeaders().set("Retry-After", "1");
+            return exchange.getResponse().setComplete();
+        }
+
+        if (isUnsampled(exchange)) {
+            return chain.filter(exchange).doFinally(signal -> limiter.releaseWithoutSample());
+        }
+
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doFinally(signal -> {
+                    long latencyMs = (System.nanoTime() - start) / 1_000_000;
+                    limiter.release(latencyMs, isFailure(exchange, signal));
+                });
+    }
+
+    // Streaming downloads take as long as the file does, so their latency would read as an overloaded service
+    private boolean isUnsampled(ServerWebExchange exchange) {
+        for (PathPattern pattern : unsampledPaths) {
+            if (pattern.matches(exchange.getRequest().getPath().pathWithinApplication())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean isFailure(ServerWebExchange exchange, SignalType signal) {
+        if (signal == SignalType.ON_ERROR) {
+            return true;
+        }
+        HttpStatusCode status = exchange.getResponse().getStatusCode();
+        return status != null && (status.value() == 502 || status.value() == 503 || status.value() == 504);
+    }
+
+    @Override
+    public int getOrder() {
+        // Run just before the load balancer picks an instance.
+        return ReactiveLoadBalancerClientFilter.LOAD_BALANCER_CLIENT_FILTER_ORDER - 1;
+    }
+}
@@ -0,0 +1,96 @@
+package com.onboarding.apigateway.filter;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Concurrency limit for one downstream route, adjusted from observed latency (AIMD).
+ *
+ * Two moving averages are kept: a slow one acting as the "healthy" baseline and a fast one
+ * tracking current latency. While the fast average stays within tolerance of the baseline the
+ * limit grows by roughly one per round trip; once it drifts above (queueing downstream) or a
+ * request fails, the limit is cut multiplicatively.
+ */
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double BASELINE_SMOOTHING = 0.01;
+    private static final double SAMPLE_SMOOTHING = 0.2;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double latencyTolerance;
+    private final double backoffRatio;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    private double limit;
+    private double baselineLatencyMs = -1;
+    private double recentLatencyMs = -1;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit,
+                                      double latencyTolerance, double backoffRatio) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.latencyTolerance = latencyTolerance;
+        this.backoffRatio = backoffRatio;
+    }
+
+    /**
+     * @return true if the caller may proceed; it must then call {@link #release} exactly once.
+     */
+    public boolean tryAcquire() {
+        int allowed = getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= allowed) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    public void release(long latencyMs, boolean failed) {
+        inFlight.decrementAndGet();
+        onSample(latencyMs, failed);
+    }
+
+    /**
+     * Frees the slot without feeding the latency into the limit, for requests whose duration says
+     * nothing about load, e.g. a full export that streams for minutes.
+     */
+    public void releaseWithoutSample() {
+        inFlight.decrementAndGet();
+    }
+
+    private synchronized void onSample(long latencyMs, boolean failed) {
+        if (failed) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+            return;
+        }
+
+        if (baselineLatencyMs < 0) {
+            baselineLatencyMs = latencyMs;
+            recentLatencyMs = latencyMs;
+        } else {
+            baselineLatencyMs += BASELINE_SMOOTHING * (latencyMs - baselineLatencyMs);
+            recentLatencyMs += SAMPLE_SMOOTHING * (latencyMs - recentLatencyMs);
+        }
+
+        if (recentLatencyMs > baselineLatencyMs * latencyTolerance) {
+            limit = Math.max(minLimit, limit * backoffRatio);
+        } else if (inFlight.get() >= (int) limit / 2) {
+            // Only grow when the current limit is actually being used.
+            limit = Math.min(maxLimit, limit + 1.0 / limit);
+        }
+    }
+
+    public synchronized int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,48 @@
+package com.onboarding.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.cloud.gateway.support.ipresolver.RemoteAddressResolver;
+import org.springframework.cloud.gateway.support.ipresolver.XForwardedRemoteAddressResolver;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+
+/**
+ * Builds the rate limit key as "routeId:clientIp".
+ * The gateway doesn't authenticate requests (the services check the Basic auth credentials), so
+ * the client address is the only identity it has. Keying on the username in the header would let
+ * a client pick a fresh bucket for every request just by changing it.
+ *
+ * Behind proxies or a load balancer the remote address is the last proxy's, so set trustedProxies
+ * to the number of proxies in front of the gateway: the client is then taken from X-Forwarded-For,
+ * counting that many hops back from the right. Entries further left are written by the client and
+ * are never used. With 0 the remote address is used and X-Forwarded-For is ignored.
+ */
+public class ClientIpRouteKeyResolver implements KeyResolver {
+
+    private final RemoteAddressResolver addressResolver;
+
+    public ClientIpRouteKeyResolver(int trustedProxies) {
+        this.addressResolver = trustedProxies > 0
+                ? XForwardedRemoteAddressResolver.maxTrustedIndex(trustedProxies)
+                : new RemoteAddressResolver() { };
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        Route route = exchange.getAttribute(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR);
+        String routeId = route != null ? route.getId() : "unknown-route";
+        return Mono.just(routeId + ":" + clientIp(exchange));
+    }
+
+    private String clientIp(ServerWebExchange exchange) {
+        InetSocketAddress address = addressResolver.resolve(exchange);
+        if (address == null) {
+            return "unknown";
+        }
+        return address.getAddress() != null ? address.getAddress().getHostAddress() : address.getHostString();
+    }
+}
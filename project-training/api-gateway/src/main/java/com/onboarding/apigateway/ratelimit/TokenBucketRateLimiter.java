@@ -0,0 +1,113 @@
+package com.onboarding.apigateway.ratelimit;
+
+import org.springframework.cloud.gateway.filter.ratelimit.AbstractRateLimiter;
+import org.springframework.cloud.gateway.support.ConfigurationService;
+import reactor.core.publisher.Mono;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory token bucket rate limiter used by the RequestRateLimiter filter.
+ * Each key (route + client IP, see {@link ClientIpRouteKeyResolver}) gets its own bucket.
+ * Limits are per gateway instance; use the Redis backend when running several gateways.
+ */
+public class TokenBucketRateLimiter extends AbstractRateLimiter<TokenBucketRateLimiter.Config> {
+
+    public static final String CONFIGURATION_PROPERTY_NAME = "in-memory-rate-limiter";
+
+    public static final String REMAINING_HEADER = "X-RateLimit-Remaining";
+    public static final String REPLENISH_RATE_HEADER = "X-RateLimit-Replenish-Rate";
+    public static final String BURST_CAPACITY_HEADER = "X-RateLimit-Burst-Capacity";
+
+    // Buckets that have been idle this long are full again, so they can be dropped safely.
+    private static final long IDLE_EVICTION_NANOS = TimeUnit.MINUTES.toNanos(10);
+
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+    private final Config defaultConfig;
+    private final int maxBuckets;
+
+    public TokenBucketRateLimiter(ConfigurationService configurationService, Config defaultConfig, int maxBuckets) {
+        super(Config.class, CONFIGURATION_PROPERTY_NAME, configurationService);
+        this.defaultConfig = defaultConfig;
+        this.maxBuckets = maxBuckets;
+    }
+
+    @Override
+    public Mono<Response> isAllowed(String routeId, String id) {
+        Config config = getConfig().getOrDefault(routeId, defaultConfig);
+        long now = System.nanoTime();
+
+        if (buckets.size() >= maxBuckets) {
+            evictIdleBuckets(now);
+        }
+
+        TokenBucket bucket = buckets.computeIfAbsent(id, key -> new TokenBucket(config.getBurstCapacity(), now));
+        long remaining = bucket.tryConsume(config, now);
+
+        return Mono.just(new Response(remaining >= 0, headers(config, Math.max(remaining, 0))));
+    }
+
+    private void evictIdleBuckets(long now) {
+        buckets.entrySet().removeIf(entry -> now - entry.getValue().lastRefillNanos() > IDLE_EVICTION_NANOS);
+    }
+
+    private Map<String, String> headers(Config config, long remaining) {
+        Map<String, String> headers = new HashMap<>();
+        headers.put(REMAINING_HEADER, String.valueOf(remaining));
+        headers.put(REPLENISH_RATE_HEADER, String.valueOf(config.getReplenishRate()));
+        headers.put(BURST_CAPACITY_HEADER, String.valueOf(config.getBurstCapacity()));
+        return headers;
+    }
+
+    /**
+     * A single bucket. Refills lazily on each call instead of using a timer.
+     */
+    static final class TokenBucket {
+
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefillNanos = now;
+        }
+
+        /**
+         * @return the tokens left after consuming, or -1 if the request must be rejected.
+         */
+        synchronized long tryConsume(Config config, long now) {
+            double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+            tokens = Math.min(config.getBurstCapacity(), tokens + elapsedSeconds * config.getReplenishRate());
+            lastRefillNanos = now;
+
+            if (tokens < config.getRequestedTokens()) {
+                return -1;
+            }
+            tokens -= config.getRequestedTokens();
+            return (long) tokens;
+        }
+
+        synchronized long lastRefillNanos() {
+            return lastRefillNanos;
+        }
+    }
+
+    public static class Config {
+
+        private int replenishRate = 10;
+        private int burstCapacity = 20;
+        private int requestedTokens = 1;
+
+        public int getReplenishRate() { return replenishRate; }
+        public Config setReplenishRate(int replenishRate) { this.replenishRate = replenishRate; return this; }
+
+        public int getBurstCapacity() { return burstCapacity; }
+        public Config setBurstCapacity(int burstCapacity) { this.burstCapacity = burstCapacity; return this; }
+
+        public int getRequestedTokens() { return requestedTokens; }
+        public Config setRequestedTokens(int requestedTokens) { this.requestedTokens = requestedTokens; return this; }
+    }
+}
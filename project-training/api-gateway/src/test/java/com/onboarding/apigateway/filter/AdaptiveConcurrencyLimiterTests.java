@@ -0,0 +1,75 @@
+package com.onboarding.apigateway.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+class AdaptiveConcurrencyLimiterTests {
+
+    @Test
+    void requestsBeyondTheLimitAreRejectedUntilOneIsReleased() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(2, 1, 10, 2.0, 0.5);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isTrue();
+        assertThat(limiter.tryAcquire()).isFalse();
+
+        limiter.release(10, false);
+        assertThat(limiter.getInFlight()).isEqualTo(1);
+        assertThat(limiter.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void limitGrowsWhileLatencyStaysAtTheBaseline() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 8, 2.0, 0.5);
+
+        for (int i = 0; i < 200; i++) {
+            fill(limiter);
+            while (limiter.getInFlight() > 0) {
+                limiter.release(10, false);
+            }
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    void failuresAndRisingLatencyCutTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(16, 2, 32, 2.0, 0.5);
+        limiter.tryAcquire();
+        limiter.release(10, false);
+
+        limiter.tryAcquire();
+        limiter.release(10, true);
+        assertThat(limiter.getLimit()).isEqualTo(8);
+
+        // Recent latency well above the baseline: queueing downstream
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.release(500, false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void releasingWithoutASampleLeavesTheLimitAlone() {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(4, 1, 8, 2.0, 0.5);
+        limiter.tryAcquire();
+        limiter.release(10, false);
+
+        // A long streaming download would otherwise read as queueing downstream
+        for (int i = 0; i < 10; i++) {
+            limiter.tryAcquire();
+            limiter.releaseWithoutSample();
+        }
+
+        assertThat(limiter.getLimit()).isEqualTo(4);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    private static void fill(AdaptiveConcurrencyLimiter limiter) {
+        while (limiter.tryAcquire()) {
+            // take every slot so the limit counts as used
+        }
+    }
+}
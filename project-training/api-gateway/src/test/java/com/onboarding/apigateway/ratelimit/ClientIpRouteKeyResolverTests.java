@@ -0,0 +1,68 @@
+package com.onboarding.apigateway.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.route.Route;
+import org.springframework.cloud.gateway.support.ServerWebExchangeUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+
+class ClientIpRouteKeyResolverTests {
+
+    @Test
+    void basicAuthUsernamesDontChangeTheKey() {
+        ClientIpRouteKeyResolver resolver = new ClientIpRouteKeyResolver(0);
+
+        String first = resolver.resolve(exchange("alice", null)).block();
+        String second = resolver.resolve(exchange("mallory", null)).block();
+
+        assertThat(first).isEqualTo("customer-service:10.0.0.7");
+        assertThat(second).isEqualTo(first);
+    }
+
+    @Test
+    void forwardedForIsIgnoredWithoutTrustedProxies() {
+        ClientIpRouteKeyResolver resolver = new ClientIpRouteKeyResolver(0);
+
+        assertThat(resolver.resolve(exchange(null, "203.0.113.5")).block()).isEqualTo("customer-service:10.0.0.7");
+    }
+
+    @Test
+    void clientsBehindATrustedProxyGetTheirOwnKey() {
+        ClientIpRouteKeyResolver resolver = new ClientIpRouteKeyResolver(1);
+
+        assertThat(resolver.resolve(exchange(null, "203.0.113.5")).block()).isEqualTo("customer-service:203.0.113.5");
+        assertThat(resolver.resolve(exchange(null, "198.51.100.9")).block()).isEqualTo("customer-service:198.51.100.9");
+    }
+
+    @Test
+    void addressesTheClientWroteItselfAreNotTrusted() {
+        ClientIpRouteKeyResolver resolver = new ClientIpRouteKeyResolver(1);
+
+        // The client sent "1.2.3.4"; the proxy appended the address it saw
+        assertThat(resolver.resolve(exchange(null, "1.2.3.4, 203.0.113.5")).block()).isEqualTo("customer-service:203.0.113.5");
+    }
+
+    private static ServerWebExchange exchange(String basicAuthUser, String forwardedFor) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get("/api/customers/1")
+                .remoteAddress(new InetSocketAddress("10.0.0.7", 50000));
+        if (basicAuthUser != null) {
+            request.header(HttpHeaders.AUTHORIZATION, "Basic " + Base64.getEncoder()
+                    .encodeToString((basicAuthUser + ":secret").getBytes(StandardCharsets.UTF_8)));
+        }
+        if (forwardedFor != null) {
+            request.header("X-Forwarded-For", forwardedFor);
+        }
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        exchange.getAttributes().put(ServerWebExchangeUtils.GATEWAY_ROUTE_ATTR,
+                Route.async().id("customer-service").uri("lb://CUSTOMER-SERVICE").predicate(e -> true).build());
+        return exchange;
+    }
+}
@@ -0,0 +1,52 @@
+package com.onboarding.apigateway.ratelimit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class TokenBucketRateLimiterTests {
+
+    private final TokenBucketRateLimiter.Config config = new TokenBucketRateLimiter.Config()
+            .setReplenishRate(10)
+            .setBurstCapacity(20);
+
+    @Test
+    void burstIsAllowedThenRequestsAreRejectedUntilTheBucketRefills() {
+        TokenBucketRateLimiter.TokenBucket bucket = new TokenBucketRateLimiter.TokenBucket(20, 0);
+
+        for (int i = 0; i < 20; i++) {
+            assertThat(bucket.tryConsume(config, 0)).isEqualTo(19 - i);
+        }
+        assertThat(bucket.tryConsume(config, 0)).isEqualTo(-1);
+
+        // 10 tokens a second: one is back after 100 ms, not before
+        assertThat(bucket.tryConsume(config, TimeUnit.MILLISECONDS.toNanos(50))).isEqualTo(-1);
+        assertThat(bucket.tryConsume(config, TimeUnit.MILLISECONDS.toNanos(150))).isEqualTo(0);
+    }
+
+    @Test
+    void refillStopsAtTheBurstCapacity() {
+        TokenBucketRateLimiter.TokenBucket bucket = new TokenBucketRateLimiter.TokenBucket(20, 0);
+        bucket.tryConsume(config, 0);
+
+        assertThat(bucket.tryConsume(config, TimeUnit.MINUTES.toNanos(1))).isEqualTo(19);
+    }
+
+    @Test
+    void eachKeyHasItsOwnBucket() {
+        TokenBucketRateLimiter limiter = new TokenBucketRateLimiter(null, new TokenBucketRateLimiter.Config()
+                .setReplenishRate(1)
+                .setBurstCapacity(2), 100);
+
+        assertThat(limiter.isAllowed("route", "route:ip:10.0.0.1").block().isAllowed()).isTrue();
+        assertThat(limiter.isAllowed("route", "route:ip:10.0.0.1").block().isAllowed()).isTrue();
+        TokenBucketRateLimiter.Response rejected = limiter.isAllowed("route", "route:ip:10.0.0.1").block();
+        assertThat(rejected.isAllowed()).isFalse();
+        assertThat(rejected.getHeaders()).containsEntry(TokenBucketRateLimiter.REMAINING_HEADER, "0")
+                .containsEntry(TokenBucketRateLimiter.BURST_CAPACITY_HEADER, "2");
+
+        assertThat(limiter.isAllowed("route", "route:ip:10.0.0.2").block().isAllowed()).isTrue();
+    }
+}
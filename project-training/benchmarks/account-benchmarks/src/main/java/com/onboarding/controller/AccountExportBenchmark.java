@@ -0,0 +1,93 @@
+package com.onboarding.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.onboarding.export.ExportFormat;
+import com.onboarding.export.ExportWriter;
+import com.onboarding.model.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of writing one account to the /export stream, with the export's columns, in each format.
+ * The output is discarded, so this is the per-row CPU cost without the network.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class AccountExportBenchmark {
+
+    private ObjectMapper objectMapper;
+    private ExportWriter<Account> csv;
+    private ExportWriter<Account> ndjson;
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        objectMapper = new ObjectMapper().findAndRegisterModules()
+                .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+        account = new Account();
+        account.setId(1L);
+        account.setCustomerId(1L);
+        account.setKycApplicationId(1L);
+        account.setAccountNumber("123456789012");
+        account.setAccountType("SAVINGS");
+        account.setAccountStatus("ACTIVE");
+        account.setBalance(new BigDecimal("25000.00"));
+        account.setBranchName("Pune Main Branch, Shivaji Nagar");
+        account.setIfscCode("ONBD0001234");
+        account.setMicrCode("411002001");
+        account.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30));
+        account.setDateOfAccountOpening(LocalDateTime.of(2024, 1, 16, 9, 0));
+        account.setModeOfOperation("Single");
+        account.setNomineeRegistered(true);
+        account.setNomineeName("Rohan Verma");
+        account.setNetBankingEnabled(true);
+        account.setDebitCardIssued(true);
+        account.setChequeBookIssued(true);
+        account.setChequeBookLeaves(25);
+    }
+
+    @Setup(Level.Iteration)
+    public void openWriters() {
+        csv = new ExportWriter<>(ExportFormat.CSV, OutputStream.nullOutputStream(), objectMapper,
+                InternalApiController.EXPORT_COLUMNS);
+        ndjson = new ExportWriter<>(ExportFormat.NDJSON, OutputStream.nullOutputStream(), objectMapper,
+                InternalApiController.EXPORT_COLUMNS);
+    }
+
+    @TearDown(Level.Iteration)
+    public void closeWriters() {
+        csv.finish();
+        ndjson.finish();
+    }
+
+    @Benchmark
+    public void writeCsvRow() {
+        csv.write(account);
+    }
+
+    @Benchmark
+    public void writeNdjsonRow() {
+        ndjson.write(account);
+    }
+}
@@ -0,0 +1,64 @@
+package com.onboarding.controller;
+
+import com.onboarding.dto.AccountDTO;
+import com.onboarding.model.Account;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account to AccountDTO mapping used by every internal account endpoint.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class AccountMapperBenchmark {
+
+    private InternalApiController controller;
+    private Account account;
+
+    @Setup
+    public void setUp() {
+        controller = new InternalApiController(null, null, null);
+
+        account = new Account();
+        account.setId(1L);
+        account.setCustomerId(1L);
+        account.setKycApplicationId(1L);
+        account.setAccountNumber("123456789012");
+        account.setAccountType("SAVINGS");
+        account.setAccountStatus("ACTIVE");
+        account.setBalance(new BigDecimal("25000.00"));
+        account.setBranchName("Pune Main Branch");
+        account.setIfscCode("ONBD0001234");
+        account.setMicrCode("411002001");
+        account.setCreatedAt(LocalDateTime.of(2024, 1, 15, 10, 30));
+        account.setDateOfAccountOpening(LocalDateTime.of(2024, 1, 16, 9, 0));
+        account.setModeOfOperation("Single");
+        account.setNomineeRegistered(true);
+        account.setNomineeName("Rohan Verma");
+        account.setNetBankingEnabled(true);
+        account.setDebitCardIssued(true);
+        account.setChequeBookIssued(true);
+        account.setChequeBookLeaves(25);
+    }
+
+    @Benchmark
+    public AccountDTO convertToDto() {
+        return controller.convertToDto(account);
+    }
+}
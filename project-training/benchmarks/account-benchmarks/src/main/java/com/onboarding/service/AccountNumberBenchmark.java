@@ -0,0 +1,45 @@
+package com.onboarding.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Account number generation, single threaded and under the concurrency of a batch of approvals.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class AccountNumberBenchmark {
+
+    private AccountService accountService;
+
+    @Setup
+    public void setUp() {
+        accountService = new AccountService(null, null, null);
+    }
+
+    @Benchmark
+    public String generateAccountNumber() {
+        return accountService.generateAccountNumber();
+    }
+
+    @Benchmark
+    @Threads(4)
+    public String generateAccountNumberContended() {
+        return accountService.generateAccountNumber();
+    }
+}
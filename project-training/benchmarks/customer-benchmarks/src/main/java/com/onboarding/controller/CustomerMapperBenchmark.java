@@ -0,0 +1,81 @@
+package com.onboarding.controller;
+
+import com.onboarding.dto.CustomerDTO;
+import com.onboarding.model.Customer;
+import com.onboarding.model.KycStatus;
+import com.onboarding.model.Nominee;
+import com.onboarding.service.CustomerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The two Customer to CustomerDTO mappers: CustomerService.convertToDto (customer API)
+ * and AdminApiController.convertToDto (admin list and detail pages).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class CustomerMapperBenchmark {
+
+    private CustomerService customerService;
+    private AdminApiController adminApiController;
+    private Customer customer;
+
+    @Setup
+    public void setUp() {
+        // The mappers don't touch the repositories or the password encoder
+        customerService = new CustomerService(null, null, null, null, null);
+        adminApiController = new AdminApiController(customerService, null, null);
+
+        customer = new Customer();
+        customer.setId(1L);
+        customer.setFullName("Asha Verma");
+        customer.setEmail("asha.verma@example.com");
+        customer.setPhone("9876543210");
+        customer.setDob(LocalDate.of(1990, 4, 12));
+        customer.setAddress("12 MG Road, Pune");
+        customer.setGender("Female");
+        customer.setMaritalStatus("Married");
+        customer.setFathersName("Rakesh Verma");
+        customer.setNationality("Indian");
+        customer.setProfession("Engineer");
+        customer.setPan("ABCDE1234F");
+        customer.setAadhaar("123412341234");
+        customer.setKycStatus(KycStatus.VERIFIED);
+        customer.setRequestedAccountType("SAVINGS");
+        customer.setNetBankingEnabled(true);
+        customer.setDebitCardIssued(true);
+        customer.setChequeBookIssued(false);
+
+        Nominee nominee = new Nominee();
+        nominee.setName("Rohan Verma");
+        nominee.setMobile("9876500000");
+        nominee.setAddress("12 MG Road, Pune");
+        nominee.setAadhaarNumber("432143214321");
+        customer.setNominee(nominee);
+    }
+
+    @Benchmark
+    public CustomerDTO customerServiceConvertToDto() {
+        return customerService.convertToDto(customer);
+    }
+
+    @Benchmark
+    public CustomerDTO adminApiControllerConvertToDto() {
+        return adminApiController.convertToDto(customer);
+    }
+}
@@ -0,0 +1,68 @@
+package com.onboarding.mail;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendering of the notification emails from the cached templates, as EmailNotificationService does
+ * it for each event. A status-update campaign is bounded by renderKycVerified/renderKycRejected.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class MailTemplateRenderBenchmark {
+
+    private MailTemplateRenderer renderer;
+    private Map<String, Object> newApplication;
+    private Map<String, Object> verified;
+    private Map<String, Object> rejected;
+
+    @Setup
+    public void setUp() {
+        renderer = new MailTemplateRenderer();
+
+        newApplication = new HashMap<>();
+        newApplication.put("applicantName", "Asha Verma");
+        newApplication.put("applicationId", 1L);
+
+        verified = new HashMap<>();
+        verified.put("customerName", "Asha Verma");
+        verified.put("accountNumber", "123456789012");
+        verified.put("accountType", "SAVINGS");
+        verified.put("ifscCode", "ONBD0001234");
+
+        rejected = new HashMap<>();
+        rejected.put("customerName", "Asha Verma");
+        rejected.put("rejectionReason", "PAN card photo is blurred");
+    }
+
+    @Benchmark
+    public String renderNewApplication() {
+        return renderer.render(MailTemplate.NEW_APPLICATION, newApplication);
+    }
+
+    @Benchmark
+    public String renderKycVerified() {
+        return renderer.render(MailTemplate.KYC_VERIFIED, verified);
+    }
+
+    @Benchmark
+    public String renderKycRejected() {
+        return renderer.render(MailTemplate.KYC_REJECTED, rejected);
+    }
+}
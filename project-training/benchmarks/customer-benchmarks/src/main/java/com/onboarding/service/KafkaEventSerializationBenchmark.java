@@ -0,0 +1,94 @@
+package com.onboarding.service;
+
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.KycStatusUpdateEvent;
+import com.onboarding.dto.NewCustomerEvent;
+import com.onboarding.dto.NewKycApplicationEvent;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the events customer-service publishes, and deserialization of the
+ * NewKycApplicationEvent it consumes, set up like KafkaProducerConfig and KafkaConsumerConfig.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class KafkaEventSerializationBenchmark {
+
+    private JsonSerializer<Object> serializer;
+    private JsonDeserializer<Object> deserializer;
+    private NewCustomerEvent newCustomerEvent;
+    private KycStatusUpdateEvent statusUpdateEvent;
+    private Headers newApplicationHeaders;
+    private byte[] newApplicationPayload;
+
+    @Setup
+    public void setUp() {
+        serializer = new JsonSerializer<>();
+        deserializer = new JsonDeserializer<>();
+        deserializer.addTrustedPackages("com.onboarding.dto");
+
+        newCustomerEvent = new NewCustomerEvent(1L, "Asha Verma", "asha.verma@example.com");
+
+        statusUpdateEvent = new KycStatusUpdateEvent();
+        statusUpdateEvent.setCustomerName("Asha Verma");
+        statusUpdateEvent.setCustomerEmail("asha.verma@example.com");
+        statusUpdateEvent.setKycStatus("VERIFIED");
+        statusUpdateEvent.setAccountNumber("123456789012");
+        statusUpdateEvent.setAccountType("SAVINGS");
+        statusUpdateEvent.setIfscCode("ONBD0001234");
+
+        // As KafkaProducerService sends them, with event id and time
+        newCustomerEvent.stamp();
+        statusUpdateEvent.stamp();
+
+        // A record as kyc-service sends it: JSON body plus the __TypeId__ header
+        NewKycApplicationEvent newApplicationEvent = new NewKycApplicationEvent(1L, "Asha Verma", "asha.verma@example.com");
+        newApplicationEvent.stamp();
+        newApplicationHeaders = new RecordHeaders();
+        newApplicationPayload = serializer.serialize(KafkaTopicConfig.TOPIC_CUSTOMER_REGISTRATION, newApplicationHeaders,
+                newApplicationEvent);
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+        deserializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializeNewCustomerEvent() {
+        return serializer.serialize(KafkaTopicConfig.TOPIC_CUSTOMER_REGISTRATION, new RecordHeaders(), newCustomerEvent);
+    }
+
+    @Benchmark
+    public byte[] serializeKycStatusUpdateEvent() {
+        return serializer.serialize(KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE, new RecordHeaders(), statusUpdateEvent);
+    }
+
+    @Benchmark
+    public Object deserializeNewKycApplicationEvent() {
+        // The deserializer removes the type headers it reads, so each record needs its own copy
+        Headers headers = new RecordHeaders(newApplicationHeaders.toArray());
+        return deserializer.deserialize(KafkaTopicConfig.TOPIC_CUSTOMER_REGISTRATION, headers, newApplicationPayload);
+    }
+}
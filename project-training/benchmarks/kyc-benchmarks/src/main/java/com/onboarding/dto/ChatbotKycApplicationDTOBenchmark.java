@@ -0,0 +1,74 @@
+package com.onboarding.dto;
+
+import com.onboarding.model.KycApplication;
+import com.onboarding.model.KycNominee;
+import com.onboarding.model.KycStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Mapping of a full KYC application (with its Base64 documents) to the chatbot DTO.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class ChatbotKycApplicationDTOBenchmark {
+
+    private KycApplication application;
+
+    @Setup
+    public void setUp() {
+        application = new KycApplication();
+        application.setId(1L);
+        application.setFullName("Asha Verma");
+        application.setDob(LocalDate.of(1990, 4, 12));
+        application.setGender("Female");
+        application.setMaritalStatus("Married");
+        application.setFathersName("Rakesh Verma");
+        application.setNationality("Indian");
+        application.setProfession("Engineer");
+        application.setAddress("12 MG Road, Pune");
+        application.setEmail("asha.verma@example.com");
+        application.setPhone("9876543210");
+        application.setPan("ABCDE1234F");
+        application.setAadhaar("123412341234");
+        application.setRequestedAccountType("SAVINGS");
+        application.setUsername("asha");
+        application.setKycStatus(KycStatus.PENDING);
+        application.setNetBankingEnabled(true);
+        application.setDebitCardIssued(true);
+        application.setChequeBookIssued(false);
+
+        String document = Base64.getEncoder().encodeToString(new byte[256 * 1024]);
+        application.setPassportPhotoBase64(document);
+        application.setPanPhotoBase64(document);
+        application.setAadhaarPhotoBase64(document);
+
+        KycNominee nominee = new KycNominee();
+        nominee.setName("Rohan Verma");
+        nominee.setMobile("9876500000");
+        nominee.setAddress("12 MG Road, Pune");
+        nominee.setAadhaarNumber("432143214321");
+        application.setKycNominee(nominee);
+    }
+
+    @Benchmark
+    public ChatbotKycApplicationDTO fromEntity() {
+        return ChatbotKycApplicationDTO.fromEntity(application);
+    }
+}
@@ -0,0 +1,77 @@
+package com.onboarding.service;
+
+import com.onboarding.model.KycApplication;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.util.Base64;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Document handling on the registration and approval paths: Base64 encoding of the three
+ * uploads in RegistrationService.processDocuments, and the data URI parsing in
+ * KycProcessingService when the documents are forwarded to customer-service.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class DocumentProcessingBenchmark {
+
+    // Size of each uploaded document; registration accepts a passport photo, PAN and Aadhaar scan
+    @Param({"64", "512"})
+    private int documentKb;
+
+    private RegistrationService registrationService;
+    private KycProcessingService kycProcessingService;
+    private MockMultipartFile passport;
+    private MockMultipartFile pan;
+    private MockMultipartFile aadhaar;
+    private String dataUri;
+
+    @Setup
+    public void setUp() {
+        // Neither method touches the repositories, Kafka or Feign
+        registrationService = new RegistrationService(null, null, null, null, null);
+        kycProcessingService = new KycProcessingService(null, null, null, null, null);
+
+        Random random = new Random(42);
+        byte[] content = new byte[documentKb * 1024];
+        random.nextBytes(content);
+        passport = new MockMultipartFile("passportPhoto", "passport.jpg", "image/jpeg", content);
+        pan = new MockMultipartFile("panDoc", "pan.pdf", "application/pdf", content);
+        aadhaar = new MockMultipartFile("aadhaarDoc", "aadhaar.pdf", "application/pdf", content);
+        dataUri = "data:image/jpeg;base64," + Base64.getEncoder().encodeToString(content);
+    }
+
+    @Benchmark
+    public KycApplication processDocuments() throws IOException {
+        KycApplication app = new KycApplication();
+        registrationService.processDocuments(app, passport, pan, aadhaar);
+        return app;
+    }
+
+    @Benchmark
+    public String extractBase64Data() {
+        return kycProcessingService.extractBase64Data(dataUri);
+    }
+
+    @Benchmark
+    public String extractMimeType() {
+        return kycProcessingService.extractMimeType(dataUri);
+    }
+}
@@ -0,0 +1,70 @@
+package com.onboarding.service;
+
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.KycStatusUpdateEvent;
+import com.onboarding.dto.NewKycApplicationEvent;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialization of the events kyc-service publishes, with the same JsonSerializer
+ * setup as KafkaProducerConfig (type info headers on).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(2)
+public class KafkaEventSerializationBenchmark {
+
+    private JsonSerializer<Object> serializer;
+    private NewKycApplicationEvent newApplicationEvent;
+    private KycStatusUpdateEvent statusUpdateEvent;
+
+    @Setup
+    public void setUp() {
+        serializer = new JsonSerializer<>();
+        newApplicationEvent = new NewKycApplicationEvent(1L, "Asha Verma", "asha.verma@example.com");
+
+        statusUpdateEvent = new KycStatusUpdateEvent();
+        statusUpdateEvent.setCustomerName("Asha Verma");
+        statusUpdateEvent.setCustomerEmail("asha.verma@example.com");
+        statusUpdateEvent.setKycStatus("VERIFIED");
+        statusUpdateEvent.setAccountNumber("123456789012");
+        statusUpdateEvent.setAccountType("SAVINGS");
+        statusUpdateEvent.setIfscCode("ONBD0001234");
+
+        // As KafkaProducerService sends them, with event id and time
+        newApplicationEvent.stamp();
+        statusUpdateEvent.stamp();
+    }
+
+    @TearDown
+    public void tearDown() {
+        serializer.close();
+    }
+
+    @Benchmark
+    public byte[] serializeNewKycApplicationEvent() {
+        return serializer.serialize(KafkaTopicConfig.TOPIC_CUSTOMER_REGISTRATION, new RecordHeaders(), newApplicationEvent);
+    }
+
+    @Benchmark
+    public byte[] serializeKycStatusUpdateEvent() {
+        return serializer.serialize(KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE, new RecordHeaders(), statusUpdateEvent);
+    }
+}
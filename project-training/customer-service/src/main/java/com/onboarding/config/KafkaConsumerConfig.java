@@ -8,11 +8,23 @@ import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DefaultErrorHandler;
+import org.springframework.kafka.support.serializer.ErrorHandlingDeserializer;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.backoff.FixedBackOff;
 
 import java.util.HashMap;
 import java.util.Map;
 
+/**
+ * Listeners get a whole poll at a time (up to max-poll-records) and acknowledge it once they have
+ * handled it; the offsets are then committed together instead of after every record. A record the
+ * listener fails on is moved to a retry topic by KafkaRetryRouter. Only when that isn't possible
+ * (the broker doesn't take it) does the listener throw BatchListenerFailedException with its index:
+ * the records before it are committed, and the failed record is retried here, blocking its partition,
+ * retry-attempts times.
+ */
 @Configuration
 public class KafkaConsumerConfig {
 
@@ -22,24 +34,65 @@ public class KafkaConsumerConfig {
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
+    @Value("${spring.kafka.consumer.auto-offset-reset:earliest}")
+    private String autoOffsetReset;
+
+    // Consumer threads per listener in this instance. Each partition is consumed by one thread, so more
+    // threads than partitions (across all instances) sit idle.
+    @Value("${kafka.listener.concurrency:6}")
+    private int concurrency;
+
+    @Value("${kafka.consumer.max-poll-records:200}")
+    private int maxPollRecords;
+
+    @Value("${kafka.consumer.fetch-min-bytes:16384}")
+    private int fetchMinBytes;
+
+    @Value("${kafka.consumer.fetch-max-wait-ms:100}")
+    private int fetchMaxWaitMs;
+
+    // A retry listener waiting for its next record to fall due checks back this often
+    @Value("${kafka.listener.poll-timeout-ms:1000}")
+    private long pollTimeoutMs;
+
+    @Value("${kafka.listener.retry-interval-ms:1000}")
+    private long retryIntervalMs;
+
+    @Value("${kafka.listener.retry-attempts:2}")
+    private long retryAttempts;
+
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
+        // A retry topic's first records may arrive before its listener has joined the group
+        props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, autoOffsetReset);
+        // Offsets are committed by the container when a listener acknowledges its batch
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords);
+        // During a burst the broker waits up to fetch-max-wait-ms to fill a fetch, so a poll brings a batch
+        props.put(ConsumerConfig.FETCH_MIN_BYTES_CONFIG, fetchMinBytes);
+        props.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, fetchMaxWaitMs);
         
         // Configure the JsonDeserializer
         JsonDeserializer<Object> jsonDeserializer = new JsonDeserializer<>();
         // This is a security feature: only trust DTOs from our package
         jsonDeserializer.addTrustedPackages("com.onboarding.dto");
 
-        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), jsonDeserializer);
+        // A record that can't be deserialized reaches the listener with a null value instead of failing the whole poll
+        return new DefaultKafkaConsumerFactory<>(props, new StringDeserializer(), new ErrorHandlingDeserializer<>(jsonDeserializer));
     }
 
     @Bean
     public ConcurrentKafkaListenerContainerFactory<String, Object> kafkaListenerContainerFactory() {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory = new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        factory.setBatchListener(true);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
+        factory.getContainerProperties().setPollTimeout(pollTimeoutMs);
+        factory.setCommonErrorHandler(new DefaultErrorHandler(new FixedBackOff(retryIntervalMs, retryAttempts)));
         return factory;
     }
-}
\ No newline at end of file
+}
@@ -1,29 +1,132 @@
 package com.onboarding.config;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.kafka.clients.admin.NewTopic;
+import org.apache.kafka.common.config.TopicConfig;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
+import org.springframework.kafka.core.KafkaAdmin;
 
+/**
+ * The onboarding topics. Partition counts come from kafka.topics.*.partitions and must be the same in
+ * kyc-service and customer-service. Raising them on an existing topic adds partitions at startup
+ * (Kafka can't remove any); records are keyed by entity id, so per-entity ordering survives that only
+ * for records produced after the change.
+ *
+ * customer-service also owns a chain of retry topics per onboarding topic (topic-retry-0 to
+ * topic-retry-2) and a dead-letter topic (topic-dlt), see KafkaRetryRouter. They get the same
+ * partition count as the topic they belong to.
+ *
+ * customer.changes carries the customer's own change events (CustomerUpdated, NomineeChanged), keyed
+ * by customer id and published through EventOutbox.
+ */
 @Configuration
 public class KafkaTopicConfig {
 
     public static final String TOPIC_CUSTOMER_REGISTRATION = "customer.registration";
     public static final String TOPIC_KYC_STATUS_UPDATE = "kyc.status.updates";
+    public static final String TOPIC_CUSTOMER_CHANGES = "customer.changes";
+
+    // A failed record moves through the retry topics in order and ends up on the dead-letter topic
+    public static final int RETRY_STAGES = 3;
+    private static final String RETRY_SUFFIX = "-retry-";
+    private static final String DEAD_LETTER_SUFFIX = "-dlt";
+
+    @Value("${kafka.topics.customer-registration.partitions:6}")
+    private int customerRegistrationPartitions;
+
+    @Value("${kafka.topics.kyc-status-updates.partitions:6}")
+    private int kycStatusUpdatePartitions;
+
+    @Value("${kafka.topics.customer-changes.partitions:6}")
+    private int customerChangePartitions;
+
+    @Value("${kafka.topics.replicas:1}")
+    private int replicas;
+
+    @Value("${kafka.topics.dead-letter.retention-ms:2592000000}")
+    private long deadLetterRetentionMs;
+
+    /**
+     * The record key for an event about the given application or customer. Null ids give a null key,
+     * which Kafka spreads over the partitions.
+     */
+    public static String key(Long id) {
+        return id == null ? null : id.toString();
+    }
+
+    public static String retryTopic(String topic, int stage) {
+        return topic + RETRY_SUFFIX + stage;
+    }
+
+    // Both onboarding topics' retry topics for one stage, for the retry listeners
+    public static String[] retryTopics(int stage) {
+        return new String[] {retryTopic(TOPIC_CUSTOMER_REGISTRATION, stage), retryTopic(TOPIC_KYC_STATUS_UPDATE, stage)};
+    }
+
+    public static String deadLetterTopic(String topic) {
+        return topic + DEAD_LETTER_SUFFIX;
+    }
+
+    /**
+     * The onboarding topic a retry or dead-letter topic belongs to; other topics are returned as they are.
+     */
+    public static String originalTopic(String topic) {
+        if (topic.endsWith(DEAD_LETTER_SUFFIX)) {
+            return topic.substring(0, topic.length() - DEAD_LETTER_SUFFIX.length());
+        }
+        int retry = topic.lastIndexOf(RETRY_SUFFIX);
+        return retry < 0 ? topic : topic.substring(0, retry);
+    }
+
+    public static boolean isOnboardingTopic(String topic) {
+        return TOPIC_CUSTOMER_REGISTRATION.equals(topic) || TOPIC_KYC_STATUS_UPDATE.equals(topic);
+    }
 
     @Bean
     public NewTopic customerRegistrationTopic() {
         return TopicBuilder.name(TOPIC_CUSTOMER_REGISTRATION)
-                .partitions(1)
-                .replicas(1)
+                .partitions(customerRegistrationPartitions)
+                .replicas(replicas)
                 .build();
     }
 
     @Bean
     public NewTopic kycStatusUpdateTopic() {
         return TopicBuilder.name(TOPIC_KYC_STATUS_UPDATE)
-                .partitions(1)
-                .replicas(1)
+                .partitions(kycStatusUpdatePartitions)
+                .replicas(replicas)
+                .build();
+    }
+
+    @Bean
+    public NewTopic customerChangeTopic() {
+        return TopicBuilder.name(TOPIC_CUSTOMER_CHANGES)
+                .partitions(customerChangePartitions)
+                .replicas(replicas)
                 .build();
     }
-}
\ No newline at end of file
+
+    @Bean
+    public KafkaAdmin.NewTopics retryAndDeadLetterTopics() {
+        List<NewTopic> topics = new ArrayList<>();
+        addRetryAndDeadLetterTopics(topics, TOPIC_CUSTOMER_REGISTRATION, customerRegistrationPartitions);
+        addRetryAndDeadLetterTopics(topics, TOPIC_KYC_STATUS_UPDATE, kycStatusUpdatePartitions);
+        return new KafkaAdmin.NewTopics(topics.toArray(new NewTopic[0]));
+    }
+
+    private void addRetryAndDeadLetterTopics(List<NewTopic> topics, String topic, int partitions) {
+        for (int stage = 0; stage < RETRY_STAGES; stage++) {
+            topics.add(TopicBuilder.name(retryTopic(topic, stage)).partitions(partitions).replicas(replicas).build());
+        }
+        topics.add(TopicBuilder.name(deadLetterTopic(topic))
+                .partitions(partitions)
+                .replicas(replicas)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(deadLetterRetentionMs))
+                .build());
+    }
+}
@@ -0,0 +1,79 @@
+package com.onboarding.config;
+
+import com.onboarding.dto.AccountCreationRequest;
+import com.onboarding.dto.AccountDTO;
+import com.onboarding.dto.AdminCustomerUpdateRequest;
+import com.onboarding.dto.CustomerCreationResponseDTO;
+import com.onboarding.dto.CustomerDTO;
+import com.onboarding.dto.CustomerUpdateRequest;
+import com.onboarding.dto.CustomerCreatedEvent;
+import com.onboarding.dto.CustomerUpdatedEvent;
+import com.onboarding.dto.FullRegistrationRequest;
+import com.onboarding.dto.KycApplicationDataDTO;
+import com.onboarding.dto.KycStatusUpdateEvent;
+import com.onboarding.dto.NewCustomerEvent;
+import com.onboarding.dto.NewKycApplicationEvent;
+import com.onboarding.dto.NomineeChangedEvent;
+import com.onboarding.dto.NomineeDTO;
+import com.onboarding.discovery.FileBackupRegistry;
+import com.onboarding.feign.AccountClient;
+import com.onboarding.model.AdminDigestEntry;
+import com.onboarding.model.Customer;
+import com.onboarding.model.CustomerImportJob;
+import com.onboarding.model.KycStatus;
+import com.onboarding.model.MailDeadLetter;
+import com.onboarding.model.Nominee;
+import com.onboarding.model.OutboxEvent;
+import com.onboarding.model.ProcessedEvent;
+import com.onboarding.model.Role;
+import com.onboarding.model.User;
+import com.onboarding.persistence.ReplicaHeartbeat;
+import com.onboarding.persistence.SqlStatementCounter;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+
+/**
+ * Reflection and proxy hints for the GraalVM native image (mvn -Pnative package).
+ * Spring AOT already covers most of this; these are the types it can't see on its own:
+ * Feign response types, and Kafka event classes that JsonSerializer/JsonDeserializer
+ * handle by class name (__TypeId__ header).
+ */
+public class NativeRuntimeHints implements RuntimeHintsRegistrar {
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        // JPA entities: Hibernate reads fields and calls the no-arg constructors reflectively.
+        // The mail templates also read AdminDigestEntry getters through SpEL.
+        for (Class<?> entity : new Class<?>[]{Customer.class, Nominee.class, User.class, Role.class, KycStatus.class,
+                CustomerImportJob.class, ReplicaHeartbeat.class, MailDeadLetter.class, AdminDigestEntry.class,
+                ProcessedEvent.class, OutboxEvent.class}) {
+            hints.reflection().registerType(entity, MemberCategory.values());
+        }
+
+        // Eureka creates the backup registry from eureka.client.backup-registry-impl by class name
+        hints.reflection().registerType(FileBackupRegistry.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // Hibernate creates the statement inspector from hibernate.session_factory.statement_inspector by class name
+        hints.reflection().registerType(SqlStatementCounter.class, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // MailTemplateRenderer loads the email templates from the classpath itself, outside Spring's resource handling
+        hints.resources().registerPattern("mail/*.html");
+
+        // The retry listeners get their topics from KafkaTopicConfig.retryTopics(..) through SpEL
+        hints.reflection().registerType(KafkaTopicConfig.class, MemberCategory.INVOKE_PUBLIC_METHODS);
+
+        // Feign client interfaces are implemented with JDK dynamic proxies
+        hints.proxies().registerJdkProxy(AccountClient.class);
+
+        // JSON types: REST bodies, Feign payloads and Kafka events.
+        // Spring Security needs nothing extra here, BCrypt and the basic auth filter chain are covered by Spring's own hints.
+        new BindingReflectionHintsRegistrar().registerReflectionHints(hints.reflection(),
+                CustomerDTO.class, NomineeDTO.class, AccountDTO.class, AccountCreationRequest.class,
+                AdminCustomerUpdateRequest.class, CustomerUpdateRequest.class, CustomerCreationResponseDTO.class,
+                FullRegistrationRequest.class, KycApplicationDataDTO.class,
+                NewCustomerEvent.class, NewKycApplicationEvent.class, KycStatusUpdateEvent.class,
+                CustomerCreatedEvent.class, CustomerUpdatedEvent.class, NomineeChangedEvent.class);
+    }
+}
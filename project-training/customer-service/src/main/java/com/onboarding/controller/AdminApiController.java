@@ -2,30 +2,78 @@ package com.onboarding.controller;
 
 import com.onboarding.dto.AdminCustomerUpdateRequest;
 import com.onboarding.dto.CustomerDTO;
+import com.onboarding.dto.CustomerImportResult;
 import com.onboarding.dto.NomineeDTO;
+import com.onboarding.export.ExportFormat;
+import com.onboarding.export.ExportWriter;
 import com.onboarding.model.Customer;
+import com.onboarding.model.CustomerImportJob;
+import com.onboarding.pagination.KeysetPage;
+import com.onboarding.persistence.QueryLane;
+import com.onboarding.repository.CustomerRepository.ExportRow;
+import com.onboarding.service.CustomerImportService;
 import com.onboarding.service.CustomerService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 
 import jakarta.validation.Valid;
 
+import java.io.InputStream;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/api/admin/customers")
 public class AdminApiController {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdminApiController.class);
+
+    private static final Map<String, Function<ExportRow, Object>> EXPORT_COLUMNS = new LinkedHashMap<>();
+    static {
+        EXPORT_COLUMNS.put("id", ExportRow::getId);
+        EXPORT_COLUMNS.put("fullName", ExportRow::getFullName);
+        EXPORT_COLUMNS.put("email", ExportRow::getEmail);
+        EXPORT_COLUMNS.put("phone", ExportRow::getPhone);
+        EXPORT_COLUMNS.put("dob", ExportRow::getDob);
+        EXPORT_COLUMNS.put("gender", ExportRow::getGender);
+        EXPORT_COLUMNS.put("maritalStatus", ExportRow::getMaritalStatus);
+        EXPORT_COLUMNS.put("fathersName", ExportRow::getFathersName);
+        EXPORT_COLUMNS.put("nationality", ExportRow::getNationality);
+        EXPORT_COLUMNS.put("profession", ExportRow::getProfession);
+        EXPORT_COLUMNS.put("address", ExportRow::getAddress);
+        EXPORT_COLUMNS.put("pan", ExportRow::getPan);
+        EXPORT_COLUMNS.put("aadhaar", ExportRow::getAadhaar);
+        EXPORT_COLUMNS.put("kycStatus", ExportRow::getKycStatus);
+        EXPORT_COLUMNS.put("requestedAccountType", ExportRow::getRequestedAccountType);
+        EXPORT_COLUMNS.put("netBankingEnabled", ExportRow::getNetBankingEnabled);
+        EXPORT_COLUMNS.put("debitCardIssued", ExportRow::getDebitCardIssued);
+        EXPORT_COLUMNS.put("chequeBookIssued", ExportRow::getChequeBookIssued);
+    }
+
     private final CustomerService customerService;
+    private final CustomerImportService customerImportService;
+    private final ObjectMapper objectMapper;
 
-    public AdminApiController(CustomerService customerService) {
+    public AdminApiController(CustomerService customerService, CustomerImportService customerImportService, ObjectMapper objectMapper) {
         this.customerService = customerService;
+        this.customerImportService = customerImportService;
+        this.objectMapper = objectMapper;
     }
 
+    // Page-numbered listing, kept in its original shape for existing callers. New callers should use /pages.
     @GetMapping
     public ResponseEntity<Page<CustomerDTO>> getCustomers(
             @RequestParam(required = false) String keyword,
@@ -33,10 +81,60 @@ public class AdminApiController {
         Page<Customer> customerPage = (keyword == null || keyword.isBlank())
                 ? customerService.findAllCustomers(pageable)
                 : customerService.searchCustomers(keyword, pageable);
-        
+
+        return ResponseEntity.ok(customerPage.map(this::convertToDto));
+    }
+
+    // Keyset-paginated, newest first: pass the previous page's nextCursor to continue, count=true to also get the total
+    @GetMapping("/pages")
+    public ResponseEntity<KeysetPage<CustomerDTO>> getCustomerPage(
+            @RequestParam(required = false) String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean count) {
+        KeysetPage<Customer> customerPage = customerService.findCustomers(keyword, cursor, size, count);
         return ResponseEntity.ok(customerPage.map(this::convertToDto));
     }
 
+    // Every customer, streamed as format=ndjson (default) or format=csv. Runs on the reporting lane
+    // from the async thread that writes the body, so it never holds an interactive connection.
+    @GetMapping("/export")
+    public ResponseEntity<StreamingResponseBody> exportCustomers(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        return exportFormat.respond("customers", out -> {
+            long started = System.currentTimeMillis();
+            ExportWriter<ExportRow> writer = new ExportWriter<>(exportFormat, out, objectMapper, EXPORT_COLUMNS);
+            long rows = QueryLane.REPORTING.call(() -> {
+                customerService.exportCustomers(writer::write);
+                return writer.finish();
+            });
+            LOGGER.info("Exported {} customers as {} in {} ms", rows, exportFormat, System.currentTimeMillis() - started);
+        });
+    }
+
+    // Bulk import of existing customers; the request body is the file, format=ndjson (default) or format=csv.
+    // Posting the same file again under the same job id resumes after the last checkpoint.
+    @PostMapping("/import/{jobId}")
+    public ResponseEntity<CustomerImportResult> importCustomers(@PathVariable String jobId,
+                                                                @RequestParam(defaultValue = "ndjson") String format,
+                                                                InputStream body) {
+        if (!jobId.matches("[A-Za-z0-9._-]{1,64}")) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Job id must be 1-64 letters, digits, '.', '_' or '-'.");
+        }
+        CustomerImportResult result = customerImportService.importCustomers(jobId, ExportFormat.fromParam(format), body);
+        HttpStatus status = CustomerImportJob.Status.FAILED.name().equals(result.getStatus())
+                ? HttpStatus.INTERNAL_SERVER_ERROR : HttpStatus.OK;
+        return ResponseEntity.status(status).body(result);
+    }
+
+    @GetMapping("/import/{jobId}")
+    public ResponseEntity<CustomerImportResult> getImportJob(@PathVariable String jobId) {
+        return customerImportService.findJob(jobId)
+                .map(job -> new CustomerImportResult(job, Collections.<String>emptyList()))
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<CustomerDTO> getCustomerById(@PathVariable Long id) {
         return customerService.findCustomerById(id)
@@ -45,7 +143,7 @@ public class AdminApiController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    private CustomerDTO convertToDto(Customer customer) {
+    CustomerDTO convertToDto(Customer customer) {
         CustomerDTO dto = new CustomerDTO();
         dto.setId(customer.getId());
         dto.setFullName(customer.getFullName());
@@ -82,6 +180,7 @@ public class AdminApiController {
             nomineeDTO.setAadhaarNumber(customer.getNominee().getAadhaarNumber());
             dto.setNominee(nomineeDTO);
         }
+        dto.setVersion(customer.getVersion());
         return dto;
     }
     
@@ -37,6 +37,7 @@ public class InternalApiController {
             CustomerCreationResponseDTO response = new CustomerCreationResponseDTO();
             response.setId(newCustomer.getId());
             response.setFullname(newCustomer.getFullName());
+            response.setVersion(newCustomer.getVersion());
             
             LOGGER.info("Successfully created approved customer with ID: {}", newCustomer.getId());
             return ResponseEntity.ok(response);
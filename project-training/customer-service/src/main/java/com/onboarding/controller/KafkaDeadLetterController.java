@@ -0,0 +1,49 @@
+package com.onboarding.controller;
+
+import com.onboarding.service.KafkaDeadLetterService;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// KYC events the listeners gave up on (the *-dlt topics), and a way to replay them once the cause is fixed
+@RestController
+@RequestMapping("/api/admin/kafka")
+public class KafkaDeadLetterController {
+
+    private final KafkaDeadLetterService deadLetterService;
+
+    public KafkaDeadLetterController(KafkaDeadLetterService deadLetterService) {
+        this.deadLetterService = deadLetterService;
+    }
+
+    // topic is the onboarding topic, e.g. kyc.status.updates; lists the dead letters not replayed yet
+    @GetMapping("/dead-letters/{topic}")
+    public ResponseEntity<List<Map<String, Object>>> getDeadLetters(@PathVariable String topic,
+                                                                    @RequestParam(defaultValue = "100") int max) {
+        try {
+            return ResponseEntity.ok(deadLetterService.list(topic, clamp(max)));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    @PostMapping("/dead-letters/{topic}/replay")
+    public ResponseEntity<Map<String, Object>> replayDeadLetters(@PathVariable String topic,
+                                                                 @RequestParam(defaultValue = "100") int max) {
+        try {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("replayed", deadLetterService.replay(topic, clamp(max)));
+            return ResponseEntity.ok(body);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
+    private static int clamp(int max) {
+        return Math.max(1, Math.min(max, 500));
+    }
+}
@@ -0,0 +1,55 @@
+package com.onboarding.controller;
+
+import com.onboarding.mail.MailDispatcher;
+import com.onboarding.model.MailDeadLetter;
+import com.onboarding.repository.MailDeadLetterRepository;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+// Emails the MailDispatcher gave up on, and a way to send them again once the SMTP problem is fixed
+@RestController
+@RequestMapping("/api/admin/mail")
+public class MailAdminController {
+
+    private final MailDispatcher mailDispatcher;
+    private final MailDeadLetterRepository deadLetterRepository;
+
+    public MailAdminController(MailDispatcher mailDispatcher, MailDeadLetterRepository deadLetterRepository) {
+        this.mailDispatcher = mailDispatcher;
+        this.deadLetterRepository = deadLetterRepository;
+    }
+
+    // Oldest first, without the bodies
+    @GetMapping("/dead-letters")
+    public ResponseEntity<List<Map<String, Object>>> getDeadLetters() {
+        List<Map<String, Object>> deadLetters = deadLetterRepository.findTop100ByOrderByIdAsc().stream()
+                .map(this::summary)
+                .collect(Collectors.toList());
+        return ResponseEntity.ok(deadLetters);
+    }
+
+    @PostMapping("/dead-letters/redrive")
+    public ResponseEntity<Map<String, Object>> redriveDeadLetters(@RequestParam(defaultValue = "100") int max) {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("requeued", mailDispatcher.redriveDeadLetters(Math.max(0, Math.min(max, 100))));
+        body.put("queueSize", mailDispatcher.getQueueSize());
+        return ResponseEntity.ok(body);
+    }
+
+    private Map<String, Object> summary(MailDeadLetter deadLetter) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("id", deadLetter.getId());
+        summary.put("to", deadLetter.getTo());
+        summary.put("subject", deadLetter.getSubject());
+        summary.put("attempts", deadLetter.getAttempts());
+        summary.put("lastError", deadLetter.getLastError());
+        summary.put("failedAt", deadLetter.getFailedAt());
+        return summary;
+    }
+}
@@ -3,6 +3,8 @@ package com.onboarding.dto;
 public class CustomerCreationResponseDTO {
     private Long id;
     private String fullname;
+    // The new customer row's version
+    private Long version;
 
     // A default constructor is good practice for DTOs
     public CustomerCreationResponseDTO() {
@@ -24,4 +26,12 @@ public class CustomerCreationResponseDTO {
     public void setFullname(String fullname) {
         this.fullname = fullname;
     }
+
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
 }
\ No newline at end of file
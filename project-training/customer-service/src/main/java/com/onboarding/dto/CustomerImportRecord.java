@@ -0,0 +1,143 @@
+package com.onboarding.dto;
+
+import java.time.LocalDate;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.Email;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Past;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+
+/**
+ * One customer from a bulk import file (a CSV row or an NDJSON line), flat so both formats use the
+ * same column names. The nominee is optional; when nomineeName is set the other nominee fields are
+ * required too. The password has to arrive already BCrypt-hashed: hashing millions of passwords
+ * here would take longer than the rest of the import. Free-text fields are capped at the
+ * VARCHAR(255) columns they land in, so an over-long value rejects its record instead of failing
+ * the whole chunk's insert.
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class CustomerImportRecord {
+
+    private static final int MAX_TEXT = 255;
+
+    @NotBlank(message = "Full name is required.")
+    @Size(max = MAX_TEXT, message = "Full name is too long.")
+    private String fullName;
+
+    @NotBlank(message = "Email is required.")
+    @Email(message = "Invalid email address.")
+    @Size(max = MAX_TEXT, message = "Email is too long.")
+    private String email;
+
+    @NotBlank(message = "Phone number is required.")
+    @Pattern(regexp = "^[6-9]\\d{9}$", message = "Invalid 10-digit mobile number.")
+    private String phone;
+
+    @NotNull(message = "Date of birth is required.")
+    @Past(message = "Date of birth must be in the past.")
+    private LocalDate dob;
+
+    @Size(max = MAX_TEXT, message = "Gender is too long.")
+    private String gender;
+    @Size(max = MAX_TEXT, message = "Marital status is too long.")
+    private String maritalStatus;
+    @Size(max = MAX_TEXT, message = "Father's name is too long.")
+    private String fathersName;
+    @Size(max = MAX_TEXT, message = "Nationality is too long.")
+    private String nationality;
+    @Size(max = MAX_TEXT, message = "Profession is too long.")
+    private String profession;
+    @Size(max = MAX_TEXT, message = "Address is too long.")
+    private String address;
+
+    @NotBlank(message = "PAN is required.")
+    @Pattern(regexp = "[A-Z]{5}[0-9]{4}[A-Z]{1}", message = "Invalid PAN format.")
+    private String pan;
+
+    @NotBlank(message = "Aadhaar is required.")
+    @Pattern(regexp = "\\d{12}", message = "Aadhaar number must be 12 digits.")
+    private String aadhaar;
+
+    @Size(max = MAX_TEXT, message = "Requested account type is too long.")
+    private String requestedAccountType;
+    private Boolean netBankingEnabled;
+    private Boolean debitCardIssued;
+    private Boolean chequeBookIssued;
+
+    @NotBlank(message = "Username is required.")
+    @Size(min = 5, max = MAX_TEXT, message = "Username must be 5 to 255 characters long.")
+    private String username;
+
+    @NotBlank(message = "Password hash is required.")
+    @Pattern(regexp = "^\\$2[aby]?\\$\\d{2}\\$[./A-Za-z0-9]{53}$", message = "Password hash must be BCrypt.")
+    private String passwordHash;
+
+    @Size(max = MAX_TEXT, message = "Nominee name is too long.")
+    private String nomineeName;
+    @Size(max = MAX_TEXT, message = "Nominee mobile is too long.")
+    private String nomineeMobile;
+    @Size(max = MAX_TEXT, message = "Nominee address is too long.")
+    private String nomineeAddress;
+
+    @Pattern(regexp = "\\d{12}", message = "Nominee Aadhaar number must be 12 digits.")
+    private String nomineeAadhaar;
+
+    public boolean hasNominee() {
+        return nomineeName != null && !nomineeName.isBlank();
+    }
+
+    @AssertTrue(message = "Nominee mobile, address and Aadhaar are required with a nominee name.")
+    public boolean isNomineeComplete() {
+        return !hasNominee() || (nomineeMobile != null && nomineeAddress != null && nomineeAadhaar != null);
+    }
+
+    public String getFullName() { return fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+    public LocalDate getDob() { return dob; }
+    public void setDob(LocalDate dob) { this.dob = dob; }
+    public String getGender() { return gender; }
+    public void setGender(String gender) { this.gender = gender; }
+    public String getMaritalStatus() { return maritalStatus; }
+    public void setMaritalStatus(String maritalStatus) { this.maritalStatus = maritalStatus; }
+    public String getFathersName() { return fathersName; }
+    public void setFathersName(String fathersName) { this.fathersName = fathersName; }
+    public String getNationality() { return nationality; }
+    public void setNationality(String nationality) { this.nationality = nationality; }
+    public String getProfession() { return profession; }
+    public void setProfession(String profession) { this.profession = profession; }
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+    public String getPan() { return pan; }
+    public void setPan(String pan) { this.pan = pan; }
+    public String getAadhaar() { return aadhaar; }
+    public void setAadhaar(String aadhaar) { this.aadhaar = aadhaar; }
+    public String getRequestedAccountType() { return requestedAccountType; }
+    public void setRequestedAccountType(String requestedAccountType) { this.requestedAccountType = requestedAccountType; }
+    public Boolean getNetBankingEnabled() { return netBankingEnabled; }
+    public void setNetBankingEnabled(Boolean netBankingEnabled) { this.netBankingEnabled = netBankingEnabled; }
+    public Boolean getDebitCardIssued() { return debitCardIssued; }
+    public void setDebitCardIssued(Boolean debitCardIssued) { this.debitCardIssued = debitCardIssued; }
+    public Boolean getChequeBookIssued() { return chequeBookIssued; }
+    public void setChequeBookIssued(Boolean chequeBookIssued) { this.chequeBookIssued = chequeBookIssued; }
+    public String getUsername() { return username; }
+    public void setUsername(String username) { this.username = username; }
+    public String getPasswordHash() { return passwordHash; }
+    public void setPasswordHash(String passwordHash) { this.passwordHash = passwordHash; }
+    public String getNomineeName() { return nomineeName; }
+    public void setNomineeName(String nomineeName) { this.nomineeName = nomineeName; }
+    public String getNomineeMobile() { return nomineeMobile; }
+    public void setNomineeMobile(String nomineeMobile) { this.nomineeMobile = nomineeMobile; }
+    public String getNomineeAddress() { return nomineeAddress; }
+    public void setNomineeAddress(String nomineeAddress) { this.nomineeAddress = nomineeAddress; }
+    public String getNomineeAadhaar() { return nomineeAadhaar; }
+    public void setNomineeAadhaar(String nomineeAadhaar) { this.nomineeAadhaar = nomineeAadhaar; }
+}
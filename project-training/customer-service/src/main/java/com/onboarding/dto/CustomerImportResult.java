@@ -0,0 +1,52 @@
+package com.onboarding.dto;
+
+import java.util.List;
+
+import com.onboarding.model.CustomerImportJob;
+
+/**
+ * Outcome of a bulk import run. The counters cover the whole job, including earlier runs that were
+ * interrupted; rejections only lists the first few records this run turned away.
+ */
+public class CustomerImportResult {
+
+    private String jobId;
+    private String status;
+    private long recordsProcessed;
+    private long imported;
+    private long duplicates;
+    private long rejected;
+    private String lastError;
+    private List<String> rejections;
+
+    public CustomerImportResult() {
+    }
+
+    public CustomerImportResult(CustomerImportJob job, List<String> rejections) {
+        this.jobId = job.getJobId();
+        this.status = job.getStatus();
+        this.recordsProcessed = job.getRecordsProcessed();
+        this.imported = job.getImported();
+        this.duplicates = job.getDuplicates();
+        this.rejected = job.getRejected();
+        this.lastError = job.getLastError();
+        this.rejections = rejections;
+    }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public long getRecordsProcessed() { return recordsProcessed; }
+    public void setRecordsProcessed(long recordsProcessed) { this.recordsProcessed = recordsProcessed; }
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+    public long getDuplicates() { return duplicates; }
+    public void setDuplicates(long duplicates) { this.duplicates = duplicates; }
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public List<String> getRejections() { return rejections; }
+    public void setRejections(List<String> rejections) { this.rejections = rejections; }
+}
@@ -0,0 +1,49 @@
+package com.onboarding.dto;
+
+/**
+ * A customer's profile after they or an admin changed it. Carries the whole editable profile rather
+ * than the changed fields, so a consumer can simply overwrite its copy. PAN, Aadhaar and the document
+ * photos can't be changed after approval and are left out.
+ */
+public class CustomerUpdatedEvent extends DomainEvent {
+
+    public static final String BY_CUSTOMER = "CUSTOMER";
+    public static final String BY_ADMIN = "ADMIN";
+
+    private Long customerId;
+    private String fullName;
+    private String email;
+    private String phone;
+    private String address;
+    private String maritalStatus;
+    private String profession;
+    private String fathersName;
+    private String kycStatus;
+    private String updatedBy;
+    // The customer row's version after this change
+    private Long version;
+
+    // Getters and Setters
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    public String getFullName() { return fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+    public String getMaritalStatus() { return maritalStatus; }
+    public void setMaritalStatus(String maritalStatus) { this.maritalStatus = maritalStatus; }
+    public String getProfession() { return profession; }
+    public void setProfession(String profession) { this.profession = profession; }
+    public String getFathersName() { return fathersName; }
+    public void setFathersName(String fathersName) { this.fathersName = fathersName; }
+    public String getKycStatus() { return kycStatus; }
+    public void setKycStatus(String kycStatus) { this.kycStatus = kycStatus; }
+    public String getUpdatedBy() { return updatedBy; }
+    public void setUpdatedBy(String updatedBy) { this.updatedBy = updatedBy; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
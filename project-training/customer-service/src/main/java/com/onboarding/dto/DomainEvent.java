@@ -0,0 +1,48 @@
+package com.onboarding.dto;
+
+import java.io.Serializable;
+import java.util.UUID;
+
+/**
+ * The envelope of every Kafka event: a unique id, which consumers use to recognise an event they
+ * have already handled when Kafka delivers it again, and when the event was published (epoch
+ * millis). KafkaProducerService stamps both just before sending, EventOutbox when it stores a change
+ * event; they travel in the JSON.
+ *
+ * Events from a producer that predates these fields arrive without an id and are never taken for
+ * duplicates. Must match the class of the same name in the other services.
+ */
+public abstract class DomainEvent implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private String eventId;
+    private Long occurredAt;
+
+    /**
+     * Gives the event its id and time, unless it has them already, so sending the same event
+     * object again keeps its id.
+     */
+    public void stamp() {
+        if (eventId == null) {
+            eventId = UUID.randomUUID().toString();
+            occurredAt = System.currentTimeMillis();
+        }
+    }
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public Long getOccurredAt() {
+        return occurredAt;
+    }
+
+    public void setOccurredAt(Long occurredAt) {
+        this.occurredAt = occurredAt;
+    }
+}
@@ -2,10 +2,12 @@ package com.onboarding.dto;
 
 import java.io.Serializable;
 
-public class KycStatusUpdateEvent implements Serializable {
+public class KycStatusUpdateEvent extends DomainEvent implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
+    // Also the record key, so all updates for one application land on the same partition
+    private Long kycApplicationId;
     private String customerName;
     private String customerEmail;
     private String kycStatus; // "VERIFIED" or "REJECTED"
@@ -24,6 +26,14 @@ public class KycStatusUpdateEvent implements Serializable {
 
     // Getters and Setters for all fields...
 
+    public Long getKycApplicationId() {
+        return kycApplicationId;
+    }
+
+    public void setKycApplicationId(Long kycApplicationId) {
+        this.kycApplicationId = kycApplicationId;
+    }
+
     public String getCustomerName() {
         return customerName;
     }
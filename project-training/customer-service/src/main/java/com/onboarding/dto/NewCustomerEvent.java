@@ -1,6 +1,6 @@
 package com.onboarding.dto;
 
-public class NewCustomerEvent {
+public class NewCustomerEvent extends DomainEvent {
     private Long customerId;
     private String customerName;
     private String customerEmail;
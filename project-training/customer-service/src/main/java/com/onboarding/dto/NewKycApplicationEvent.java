@@ -4,7 +4,7 @@ import java.io.Serializable;
 
 // This class represents an event received from the kyc-service.
 // Its structure must exactly match the version in the producing service.
-public class NewKycApplicationEvent implements Serializable {
+public class NewKycApplicationEvent extends DomainEvent implements Serializable {
 
     private static final long serialVersionUID = 1L;
 
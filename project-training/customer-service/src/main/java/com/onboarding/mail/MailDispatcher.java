@@ -0,0 +1,342 @@
+package com.onboarding.mail;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import com.onboarding.model.MailDeadLetter;
+import com.onboarding.repository.MailDeadLetterRepository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+
+/**
+ * Sends notification emails off the Kafka listener threads. Listeners {@link #submit} into a bounded
+ * queue; each sender thread takes what has queued up, up to mail.dispatch.batch-size at a time, and
+ * sends it over its own SMTP connection, which stays open between batches until it has been idle for
+ * mail.dispatch.idle-close-ms or has carried mail.dispatch.max-messages-per-connection messages.
+ *
+ * A send that fails is retried with exponential backoff. After mail.dispatch.max-attempts, or straight
+ * away when the server rejects the recipient, the email goes to MAIL_DEAD_LETTER. So does anything still
+ * queued at shutdown, and anything that can't be queued within mail.dispatch.enqueue-timeout-ms.
+ */
+@Component
+public class MailDispatcher {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(MailDispatcher.class);
+
+    static final String SENDER_EMAIL = "umeshsawant112233@gmail.com";
+    // How often an idle sender thread looks at the running flag and its connection's idle time
+    private static final long POLL_MILLIS = 200;
+
+    private final JavaMailSenderImpl mailSender;
+    private final MailDeadLetterRepository deadLetterRepository;
+    private final BlockingQueue<OutgoingMail> queue;
+    private final Set<OutgoingMail> awaitingRetry = ConcurrentHashMap.newKeySet();
+    private final ScheduledExecutorService retryScheduler;
+    private final List<Thread> senders = new ArrayList<>();
+    private final int connections;
+    private final int batchSize;
+    private final int maxMessagesPerConnection;
+    private final long idleCloseMillis;
+    private final int maxAttempts;
+    private final long initialBackoffMillis;
+    private final long maxBackoffMillis;
+    private final long enqueueTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final Counter sent;
+    private final Counter retried;
+    private final Counter deadLettered;
+    private final Counter connectionsOpened;
+    private volatile boolean running;
+
+    public MailDispatcher(JavaMailSenderImpl mailSender,
+                          MailDeadLetterRepository deadLetterRepository,
+                          MeterRegistry registry,
+                          @Value("${mail.dispatch.queue-capacity:1000}") int queueCapacity,
+                          @Value("${mail.dispatch.connections:2}") int connections,
+                          @Value("${mail.dispatch.batch-size:20}") int batchSize,
+                          @Value("${mail.dispatch.max-messages-per-connection:100}") int maxMessagesPerConnection,
+                          @Value("${mail.dispatch.idle-close-ms:30000}") long idleCloseMillis,
+                          @Value("${mail.dispatch.max-attempts:5}") int maxAttempts,
+                          @Value("${mail.dispatch.initial-backoff-ms:2000}") long initialBackoffMillis,
+                          @Value("${mail.dispatch.max-backoff-ms:60000}") long maxBackoffMillis,
+                          @Value("${mail.dispatch.enqueue-timeout-ms:5000}") long enqueueTimeoutMillis,
+                          @Value("${mail.dispatch.shutdown-timeout-ms:10000}") long shutdownTimeoutMillis) {
+        this.mailSender = mailSender;
+        this.deadLetterRepository = deadLetterRepository;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.connections = Math.max(1, connections);
+        this.batchSize = Math.max(1, batchSize);
+        this.maxMessagesPerConnection = Math.max(1, maxMessagesPerConnection);
+        this.idleCloseMillis = idleCloseMillis;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMillis = initialBackoffMillis;
+        this.maxBackoffMillis = maxBackoffMillis;
+        this.enqueueTimeoutMillis = enqueueTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.retryScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mail-retry");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        Gauge.builder("mail.queue.size", queue, BlockingQueue::size)
+                .description("Emails waiting for a sender thread")
+                .register(registry);
+        this.sent = Counter.builder("mail.sent").register(registry);
+        this.retried = Counter.builder("mail.retries").register(registry);
+        this.deadLettered = Counter.builder("mail.dead.letters").register(registry);
+        this.connectionsOpened = Counter.builder("mail.connections.opened")
+                .description("SMTP connections opened; stays low while connections are being reused")
+                .register(registry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        for (int i = 1; i <= connections; i++) {
+            Thread sender = new Thread(this::sendLoop, "mail-sender-" + i);
+            sender.setDaemon(true);
+            sender.start();
+            senders.add(sender);
+        }
+    }
+
+    /**
+     * Queues an email for sending. Waits up to mail.dispatch.enqueue-timeout-ms for room in the
+     * queue, then stores the email as a dead letter rather than holding up the caller any longer.
+     */
+    public void submit(OutgoingMail mail) {
+        if (!running) {
+            deadLetter(mail, "Mail dispatcher is stopped");
+            return;
+        }
+        try {
+            if (!queue.offer(mail, enqueueTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                deadLetter(mail, "Mail queue is full");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            deadLetter(mail, "Interrupted while queueing");
+        }
+    }
+
+    /**
+     * Queues up to max dead letters again, oldest first, with a fresh attempt count, and removes them
+     * from the store once they are queued. Stops early when the queue is full; the rest stay stored.
+     * Returns how many were queued.
+     */
+    public int redriveDeadLetters(int max) {
+        if (!running) {
+            return 0;
+        }
+        List<MailDeadLetter> deadLetters = deadLetterRepository.findTop100ByOrderByIdAsc();
+        List<MailDeadLetter> requeued = new ArrayList<>();
+        for (MailDeadLetter deadLetter : deadLetters.subList(0, Math.min(max, deadLetters.size()))) {
+            if (!queue.offer(new OutgoingMail(deadLetter.getTo(), deadLetter.getSubject(), deadLetter.getHtmlBody()))) {
+                break;
+            }
+            requeued.add(deadLetter);
+        }
+        // Deleted only after queueing: a failure in between can send an email twice, but never loses one
+        deadLetterRepository.deleteAllInBatch(requeued);
+        LOGGER.info("Re-queued {} dead-lettered emails", requeued.size());
+        return requeued.size();
+    }
+
+    public int getQueueSize() {
+        return queue.size();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        retryScheduler.shutdownNow();
+        long deadline = System.currentTimeMillis() + shutdownTimeoutMillis;
+        for (Thread sender : senders) {
+            try {
+                sender.join(Math.max(1, deadline - System.currentTimeMillis()));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        senders.forEach(Thread::interrupt);
+
+        List<OutgoingMail> unsent = new ArrayList<>(awaitingRetry);
+        awaitingRetry.clear();
+        queue.drainTo(unsent);
+        unsent.forEach(mail -> deadLetter(mail, "Not sent before shutdown"));
+        if (!unsent.isEmpty()) {
+            LOGGER.warn("Stored {} unsent emails as dead letters at shutdown", unsent.size());
+        }
+    }
+
+    // Runs until stop(); after that, keeps sending until the queue is empty or the shutdown timeout ends it
+    private void sendLoop() {
+        SmtpConnection connection = new SmtpConnection();
+        List<OutgoingMail> batch = new ArrayList<>(batchSize);
+        long idleSince = System.currentTimeMillis();
+        try {
+            while (running || !queue.isEmpty()) {
+                OutgoingMail first = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+                if (first == null) {
+                    if (System.currentTimeMillis() - idleSince >= idleCloseMillis) {
+                        connection.close();
+                    }
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, batchSize - 1);
+                for (OutgoingMail mail : batch) {
+                    send(connection, mail);
+                }
+                batch.clear();
+                idleSince = System.currentTimeMillis();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            connection.close();
+        }
+    }
+
+    private void send(SmtpConnection connection, OutgoingMail mail) {
+        try {
+            MimeMessage message = toMimeMessage(mail);
+            connection.open().sendMessage(message, message.getAllRecipients());
+            connection.sentOne();
+            sent.increment();
+        } catch (SendFailedException e) {
+            // The server refused the recipient; the connection itself is still usable
+            if (e.getInvalidAddresses() != null && e.getInvalidAddresses().length > 0) {
+                mail.failed();
+                deadLetter(mail, e.getMessage());
+            } else {
+                connection.close();
+                retryOrDeadLetter(mail, e);
+            }
+        } catch (MessagingException | RuntimeException e) {
+            connection.close();
+            retryOrDeadLetter(mail, e);
+        }
+    }
+
+    private MimeMessage toMimeMessage(OutgoingMail mail) throws MessagingException {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(SENDER_EMAIL);
+        helper.setTo(mail.getTo());
+        helper.setSubject(mail.getSubject());
+        helper.setText(mail.getHtmlBody(), true);
+        message.saveChanges();
+        return message;
+    }
+
+    private void retryOrDeadLetter(OutgoingMail mail, Exception cause) {
+        int attempts = mail.failed();
+        if (attempts >= maxAttempts || !running) {
+            deadLetter(mail, cause.getMessage());
+            return;
+        }
+        long backoff = Math.min(maxBackoffMillis, initialBackoffMillis << Math.min(attempts - 1, 20));
+        LOGGER.warn("Sending '{}' to {} failed (attempt {} of {}), retrying in {} ms: {}",
+                mail.getSubject(), mail.getTo(), attempts, maxAttempts, backoff, cause.getMessage());
+        retried.increment();
+        awaitingRetry.add(mail);
+        retryScheduler.schedule(() -> {
+            if (awaitingRetry.remove(mail) && !queue.offer(mail)) {
+                deadLetter(mail, "Mail queue is full");
+            }
+        }, backoff, TimeUnit.MILLISECONDS);
+    }
+
+    private void deadLetter(OutgoingMail mail, String reason) {
+        deadLettered.increment();
+        LOGGER.error("Giving up on '{}' to {} after {} attempts: {}", mail.getSubject(), mail.getTo(), mail.getAttempts(), reason);
+        MailDeadLetter deadLetter = new MailDeadLetter();
+        deadLetter.setTo(mail.getTo());
+        deadLetter.setSubject(mail.getSubject());
+        deadLetter.setHtmlBody(mail.getHtmlBody());
+        deadLetter.setAttempts(mail.getAttempts());
+        deadLetter.setLastError(reason == null ? null : reason.substring(0, Math.min(reason.length(), 1000)));
+        deadLetter.setFailedAt(LocalDateTime.now());
+        try {
+            deadLetterRepository.save(deadLetter);
+        } catch (RuntimeException e) {
+            LOGGER.error("Could not store the dead letter for '{}' to {}: {}", mail.getSubject(), mail.getTo(), e.getMessage());
+        }
+    }
+
+    /**
+     * One sender thread's SMTP connection, opened on first use and reopened after a failure or once
+     * it has carried maxMessagesPerConnection messages.
+     */
+    private class SmtpConnection {
+
+        private Transport transport;
+        private int messagesSent;
+
+        Transport open() throws MessagingException {
+            if (transport != null && (messagesSent >= maxMessagesPerConnection || !transport.isConnected())) {
+                close();
+            }
+            if (transport == null) {
+                // Resolved the way JavaMailSenderImpl does: its own setting, then the session's, then smtp
+                String protocol = mailSender.getProtocol();
+                if (protocol == null) {
+                    protocol = mailSender.getSession().getProperty("mail.transport.protocol");
+                }
+                Transport fresh = mailSender.getSession().getTransport(protocol != null ? protocol : "smtp");
+                String username = mailSender.getUsername();
+                String password = mailSender.getPassword();
+                fresh.connect(mailSender.getHost(), mailSender.getPort(),
+                        StringUtils.hasLength(username) ? username : null,
+                        StringUtils.hasLength(password) ? password : null);
+                connectionsOpened.increment();
+                transport = fresh;
+                messagesSent = 0;
+            }
+            return transport;
+        }
+
+        void sentOne() {
+            messagesSent++;
+        }
+
+        void close() {
+            if (transport == null) {
+                return;
+            }
+            try {
+                transport.close();
+            } catch (MessagingException e) {
+                LOGGER.debug("Error closing SMTP connection: {}", e.getMessage());
+            }
+            transport = null;
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package com.onboarding.mail;
+
+/**
+ * The notification emails, each an HTML template under classpath:mail/ with a fixed subject.
+ */
+public enum MailTemplate {
+
+    NEW_APPLICATION("new-application", "New Customer Registration Pending KYC"),
+    KYC_VERIFIED("kyc-verified", "Congratulations! Your KYC with OFSS Bank has been Verified"),
+    KYC_REJECTED("kyc-rejected", "Important: Update on Your KYC Verification with OFSS Bank"),
+    ADMIN_DIGEST("admin-digest", "KYC Applications Pending Verification");
+
+    private final String templateName;
+    private final String subject;
+
+    MailTemplate(String templateName, String subject) {
+        this.templateName = templateName;
+        this.subject = subject;
+    }
+
+    public String getTemplateName() { return templateName; }
+    public String getSubject() { return subject; }
+}
@@ -0,0 +1,27 @@
+package com.onboarding.mail;
+
+/**
+ * An HTML email waiting in the {@link MailDispatcher} queue. Attempts counts the failed sends so far.
+ */
+public class OutgoingMail {
+
+    private final String to;
+    private final String subject;
+    private final String htmlBody;
+    private int attempts;
+
+    public OutgoingMail(String to, String subject, String htmlBody) {
+        this.to = to;
+        this.subject = subject;
+        this.htmlBody = htmlBody;
+    }
+
+    public String getTo() { return to; }
+    public String getSubject() { return subject; }
+    public String getHtmlBody() { return htmlBody; }
+    public int getAttempts() { return attempts; }
+
+    int failed() {
+        return ++attempts;
+    }
+}
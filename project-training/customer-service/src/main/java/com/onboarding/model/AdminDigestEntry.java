@@ -0,0 +1,46 @@
+package com.onboarding.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * A new or resubmitted KYC application waiting to go out in the next admin digest email.
+ * Kept in the database so an open digest window survives a restart.
+ */
+@Entity
+@Table(name = "ADMIN_DIGEST_ENTRY")
+public class AdminDigestEntry {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "admin_digest_entry_seq")
+    @SequenceGenerator(name = "admin_digest_entry_seq", sequenceName = "admin_digest_entry_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(nullable = false)
+    private Long applicationId;
+
+    private String applicantName;
+
+    private boolean reapplication;
+
+    @Column(nullable = false)
+    private LocalDateTime receivedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public Long getApplicationId() { return applicationId; }
+    public void setApplicationId(Long applicationId) { this.applicationId = applicationId; }
+    public String getApplicantName() { return applicantName; }
+    public void setApplicantName(String applicantName) { this.applicantName = applicantName; }
+    public boolean isReapplication() { return reapplication; }
+    public void setReapplication(boolean reapplication) { this.reapplication = reapplication; }
+    public LocalDateTime getReceivedAt() { return receivedAt; }
+    public void setReceivedAt(LocalDateTime receivedAt) { this.receivedAt = receivedAt; }
+}
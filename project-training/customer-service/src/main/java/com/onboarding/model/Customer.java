@@ -2,16 +2,21 @@ package com.onboarding.model;
 
 import jakarta.persistence.*;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
 
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
-@Table(name = "customers")
+// Admin lists page through customers newest first on (createdAt, id)
+@Table(name = "customers", indexes = @Index(name = "IDX_CUSTOMERS_CREATED", columnList = "createdAt, id"))
 public class Customer {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "customer_seq")
-    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "customer_seq", sequenceName = "customer_id_seq", allocationSize = 50)
     private Long id;
 
     // --- Personal Details ---
@@ -77,6 +82,21 @@ public class Customer {
     @Column(name = "aadhaar_photo_content_type")
     private String aadhaarPhotoContentType;
     
+    // Ids come from pooled sequences and don't follow creation order across instances.
+    // The column default fills in rows that existed before the column was added.
+    @Column(nullable = false, updatable = false)
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    @CreationTimestamp
+    private LocalDateTime createdAt;
+
+    // Goes up with every change, the nominee's included (CustomerService locks the row with
+    // PESSIMISTIC_FORCE_INCREMENT to edit it). The change events and CustomerDTO carry it, so a consumer
+    // can tell which of two copies of the customer is newer.
+    @Version
+    @Column(nullable = false)
+    @ColumnDefault("0")
+    private Long version;
+
     @OneToOne(mappedBy = "customer", cascade = CascadeType.ALL, fetch = FetchType.LAZY, orphanRemoval = true)
     @JsonManagedReference
     private Nominee nominee;
@@ -86,6 +106,10 @@ public class Customer {
 
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
+    public LocalDateTime getCreatedAt() { return createdAt; }
+    public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
     public String getFullName() { return fullName; }
     public void setFullName(String fullName) { this.fullName = fullName; }
     public String getEmail() { return email; }
@@ -0,0 +1,85 @@
+package com.onboarding.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+
+/**
+ * Progress of one bulk import, updated in the same transaction as each chunk it writes.
+ * recordsProcessed is the checkpoint: a rerun of the same job skips that many records of the file
+ * and carries on, so nothing is imported twice. The version guards against two runs of one job.
+ */
+@Entity
+@Table(name = "CUSTOMER_IMPORT_JOB")
+public class CustomerImportJob {
+
+    public enum Status { RUNNING, FAILED, COMPLETED }
+
+    @Id
+    @Column(name = "JOB_ID", length = 64)
+    private String jobId;
+
+    @Column(nullable = false, length = 16)
+    private String status;
+
+    @Column(nullable = false)
+    private long recordsProcessed;
+
+    @Column(nullable = false)
+    private long imported;
+
+    @Column(nullable = false)
+    private long duplicates;
+
+    @Column(nullable = false)
+    private long rejected;
+
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime startedAt;
+
+    private LocalDateTime updatedAt;
+
+    @Version
+    private Long version;
+
+    public CustomerImportJob() {
+    }
+
+    public CustomerImportJob(String jobId) {
+        this.jobId = jobId;
+        this.status = Status.RUNNING.name();
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = startedAt;
+    }
+
+    public Status getStatusValue() {
+        return Status.valueOf(status);
+    }
+
+    public String getJobId() { return jobId; }
+    public void setJobId(String jobId) { this.jobId = jobId; }
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+    public long getRecordsProcessed() { return recordsProcessed; }
+    public void setRecordsProcessed(long recordsProcessed) { this.recordsProcessed = recordsProcessed; }
+    public long getImported() { return imported; }
+    public void setImported(long imported) { this.imported = imported; }
+    public long getDuplicates() { return duplicates; }
+    public void setDuplicates(long duplicates) { this.duplicates = duplicates; }
+    public long getRejected() { return rejected; }
+    public void setRejected(long rejected) { this.rejected = rejected; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public LocalDateTime getStartedAt() { return startedAt; }
+    public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+    public LocalDateTime getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(LocalDateTime updatedAt) { this.updatedAt = updatedAt; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
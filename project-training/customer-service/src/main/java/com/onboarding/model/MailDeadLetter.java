@@ -0,0 +1,59 @@
+package com.onboarding.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * An email the {@link com.onboarding.mail.MailDispatcher} gave up on, kept with the last error so it
+ * can be looked at and sent again from /api/admin/mail/dead-letters.
+ */
+@Entity
+@Table(name = "MAIL_DEAD_LETTER")
+public class MailDeadLetter {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "mail_dead_letter_seq")
+    @SequenceGenerator(name = "mail_dead_letter_seq", sequenceName = "mail_dead_letter_id_seq", allocationSize = 50)
+    private Long id;
+
+    @Column(name = "RECIPIENT", nullable = false)
+    private String to;
+
+    @Column(nullable = false)
+    private String subject;
+
+    @Lob
+    @Column(name = "HTML_BODY", columnDefinition = "CLOB", nullable = false)
+    private String htmlBody;
+
+    private int attempts;
+
+    @Column(length = 1000)
+    private String lastError;
+
+    @Column(nullable = false)
+    private LocalDateTime failedAt;
+
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+    public String getTo() { return to; }
+    public void setTo(String to) { this.to = to; }
+    public String getSubject() { return subject; }
+    public void setSubject(String subject) { this.subject = subject; }
+    public String getHtmlBody() { return htmlBody; }
+    public void setHtmlBody(String htmlBody) { this.htmlBody = htmlBody; }
+    public int getAttempts() { return attempts; }
+    public void setAttempts(int attempts) { this.attempts = attempts; }
+    public String getLastError() { return lastError; }
+    public void setLastError(String lastError) { this.lastError = lastError; }
+    public LocalDateTime getFailedAt() { return failedAt; }
+    public void setFailedAt(LocalDateTime failedAt) { this.failedAt = failedAt; }
+}
@@ -9,7 +9,7 @@ public class Nominee {
 
     @Id
     @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "nominee_seq")
-    @SequenceGenerator(name = "nominee_seq", sequenceName = "nominee_id_seq", allocationSize = 1)
+    @SequenceGenerator(name = "nominee_seq", sequenceName = "nominee_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
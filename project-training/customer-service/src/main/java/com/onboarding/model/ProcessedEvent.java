@@ -0,0 +1,42 @@
+package com.onboarding.model;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+
+/**
+ * The id of a Kafka event this service has handled, so that a redelivery of it can be dropped.
+ * Written and read with plain JDBC by {@link com.onboarding.service.ProcessedEventStore}; mapped so
+ * that the table is created and validated with the rest of the schema.
+ */
+@Entity
+@Table(name = "PROCESSED_EVENT", indexes = @Index(name = "IDX_PROCESSED_EVENT_AT", columnList = "PROCESSED_AT"))
+public class ProcessedEvent {
+
+    @Id
+    @Column(name = "EVENT_ID", length = 36)
+    private String eventId;
+
+    @Column(name = "PROCESSED_AT", nullable = false)
+    private LocalDateTime processedAt;
+
+    public String getEventId() {
+        return eventId;
+    }
+
+    public void setEventId(String eventId) {
+        this.eventId = eventId;
+    }
+
+    public LocalDateTime getProcessedAt() {
+        return processedAt;
+    }
+
+    public void setProcessedAt(LocalDateTime processedAt) {
+        this.processedAt = processedAt;
+    }
+}
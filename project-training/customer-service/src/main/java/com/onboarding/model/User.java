@@ -9,7 +9,8 @@ import java.util.Set;
 public class User {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "user_seq")
+    @SequenceGenerator(name = "user_seq", sequenceName = "app_user_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
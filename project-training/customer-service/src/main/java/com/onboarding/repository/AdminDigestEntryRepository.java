@@ -0,0 +1,25 @@
+package com.onboarding.repository;
+
+import com.onboarding.model.AdminDigestEntry;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface AdminDigestEntryRepository extends JpaRepository<AdminDigestEntry, Long> {
+
+    @Query("SELECT MIN(e.receivedAt) FROM AdminDigestEntry e")
+    LocalDateTime findOldestReceivedAt();
+
+    // Locked so that two instances closing the same window don't both send it
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM AdminDigestEntry e ORDER BY e.id")
+    List<AdminDigestEntry> lockAllPending();
+}
@@ -0,0 +1,9 @@
+package com.onboarding.repository;
+
+import com.onboarding.model.CustomerImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomerImportJobRepository extends JpaRepository<CustomerImportJob, String> {
+}
@@ -5,36 +5,133 @@ import com.onboarding.model.KycStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+
+import org.hibernate.jpa.HibernateHints;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<Customer, Long> {
 
-	@Query("SELECT c FROM Customer c WHERE " +
-	           "LOWER(c.fullName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-	           "LOWER(c.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-	           "c.phone LIKE CONCAT('%', :keyword, '%') OR " +
-	           "c.pan LIKE CONCAT('%', :keyword, '%') OR " +
-	           "c.aadhaar LIKE CONCAT('%', :keyword, '%') OR " +
-	           "LOWER(c.address) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-	           "LOWER(c.gender) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-	           "LOWER(c.maritalStatus) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-	           "LOWER(c.profession) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-	           "LOWER(c.requestedAccountType) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
-	           "CAST(c.id AS string) LIKE CONCAT('%', :keyword, '%')")
-	    Page<Customer> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+    String KEYWORD_MATCH =
+            "LOWER(c.fullName) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(c.email) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "c.phone LIKE CONCAT('%', :keyword, '%') OR " +
+            "c.pan LIKE CONCAT('%', :keyword, '%') OR " +
+            "c.aadhaar LIKE CONCAT('%', :keyword, '%') OR " +
+            "LOWER(c.address) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(c.gender) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(c.maritalStatus) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(c.profession) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "LOWER(c.requestedAccountType) LIKE LOWER(CONCAT('%', :keyword, '%')) OR " +
+            "CAST(c.id AS string) LIKE CONCAT('%', :keyword, '%')";
+
+    @Query("SELECT c FROM Customer c WHERE " + KEYWORD_MATCH)
+    Page<Customer> searchByKeyword(@Param("keyword") String keyword, Pageable pageable);
+
+    // Keyset pages for the admin customer list, newest first: each page seeks below the (createdAt, id)
+    // of the last row of the one before. Ids alone don't give creation order, because every
+    // instance hands them out from its own pooled block.
+    String OLDER_THAN = "(c.createdAt < :beforeCreatedAt OR (c.createdAt = :beforeCreatedAt AND c.id < :beforeId))";
+
+    @Query("SELECT c FROM Customer c WHERE " + OLDER_THAN + " ORDER BY c.createdAt DESC, c.id DESC")
+    List<Customer> findOlderThan(@Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                 @Param("beforeId") long beforeId, Pageable page);
+
+    @Query("SELECT c FROM Customer c WHERE " + OLDER_THAN + " AND (" + KEYWORD_MATCH + ") ORDER BY c.createdAt DESC, c.id DESC")
+    List<Customer> searchOlderThan(@Param("keyword") String keyword, @Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                   @Param("beforeId") long beforeId, Pageable page);
 
+    @Query("SELECT COUNT(c) FROM Customer c WHERE " + KEYWORD_MATCH)
+    long countByKeyword(@Param("keyword") String keyword);
+
+    // Export columns only: leaves out the photo CLOBs and the nominee (one more query per customer when
+    // the entity is loaded). Projected rows are not managed, so nothing piles up in the session either.
+    interface ExportRow {
+        Long getId();
+        String getFullName();
+        String getEmail();
+        String getPhone();
+        LocalDate getDob();
+        String getGender();
+        String getMaritalStatus();
+        String getFathersName();
+        String getNationality();
+        String getProfession();
+        String getAddress();
+        String getPan();
+        String getAadhaar();
+        KycStatus getKycStatus();
+        String getRequestedAccountType();
+        Boolean getNetBankingEnabled();
+        Boolean getDebitCardIssued();
+        Boolean getChequeBookIssued();
+    }
+
+    // Scrolls over every customer, EXPORT_FETCH_SIZE rows per round trip, with a timeout long enough for a full table
+    String EXPORT_FETCH_SIZE = "500";
+    String EXPORT_TIMEOUT_SECONDS = "1800";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_TIMEOUT, value = EXPORT_TIMEOUT_SECONDS)
+    })
+    @Query("SELECT c.id AS id, c.fullName AS fullName, c.email AS email, c.phone AS phone, c.dob AS dob, " +
+           "c.gender AS gender, c.maritalStatus AS maritalStatus, c.fathersName AS fathersName, " +
+           "c.nationality AS nationality, c.profession AS profession, c.address AS address, c.pan AS pan, " +
+           "c.aadhaar AS aadhaar, c.kycStatus AS kycStatus, c.requestedAccountType AS requestedAccountType, " +
+           "c.netBankingEnabled AS netBankingEnabled, c.debitCardIssued AS debitCardIssued, " +
+           "c.chequeBookIssued AS chequeBookIssued FROM Customer c ORDER BY c.id")
+    Stream<ExportRow> streamAllForExport();
+
+    // Loads a customer to edit: locks the row until the transaction ends and bumps its version even if
+    // only the nominee changes, so every change gets a version of its own.
+    @Lock(LockModeType.PESSIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT c FROM Customer c WHERE c.id = :id")
+    Optional<Customer> findByIdForUpdate(@Param("id") Long id);
 
     // --- Methods for duplicate checks during registration ---
     Optional<Customer> findByEmail(String email);
     Optional<Customer> findByPan(String pan);
     Optional<Customer> findByAadhaar(String aadhaar);
 
+    // Which unique keys of an approved application are already taken, in one round trip.
+    // Returns PAN, AADHAAR, USERNAME and/or NOMINEE_AADHAAR (Oracle pads the literals to the same length).
+    @Query(value = "SELECT 'PAN' FROM customers WHERE pan = :pan " +
+                   "UNION ALL SELECT 'AADHAAR' FROM customers WHERE aadhaar = :aadhaar " +
+                   "UNION ALL SELECT 'USERNAME' FROM APP_USER WHERE username = :username " +
+                   "UNION ALL SELECT 'NOMINEE_AADHAAR' FROM nominee WHERE aadhaar_number = :nomineeAadhaar",
+           nativeQuery = true)
+    List<String> findTakenUniqueKeys(@Param("pan") String pan, @Param("aadhaar") String aadhaar,
+                                     @Param("username") String username, @Param("nomineeAadhaar") String nomineeAadhaar);
+
+    // The bulk import's version of the query above: which of a chunk's unique keys are already taken,
+    // as (key type, value) pairs. Lists must not be empty and must stay under Oracle's 1000-item IN limit.
+    @Query(value = "SELECT 'PAN', pan FROM customers WHERE pan IN (:pans) " +
+                   "UNION ALL SELECT 'AADHAAR', aadhaar FROM customers WHERE aadhaar IN (:aadhaars) " +
+                   "UNION ALL SELECT 'EMAIL', email FROM customers WHERE email IN (:emails) " +
+                   "UNION ALL SELECT 'PHONE', phone FROM customers WHERE phone IN (:phones) " +
+                   "UNION ALL SELECT 'USERNAME', username FROM APP_USER WHERE username IN (:usernames) " +
+                   "UNION ALL SELECT 'NOMINEE_AADHAAR', aadhaar_number FROM nominee WHERE aadhaar_number IN (:nomineeAadhaars)",
+           nativeQuery = true)
+    List<Object[]> findTakenUniqueKeysIn(@Param("pans") Collection<String> pans, @Param("aadhaars") Collection<String> aadhaars,
+                                         @Param("emails") Collection<String> emails, @Param("phones") Collection<String> phones,
+                                         @Param("usernames") Collection<String> usernames,
+                                         @Param("nomineeAadhaars") Collection<String> nomineeAadhaars);
+
     // --- Methods for dashboard stats ---
     long countByKycStatus(KycStatus kycStatus);
     List<Customer> findTop5ByKycStatusOrderByIdDesc(KycStatus kycStatus);
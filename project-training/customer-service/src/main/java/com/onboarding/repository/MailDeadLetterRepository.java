@@ -0,0 +1,13 @@
+package com.onboarding.repository;
+
+import com.onboarding.model.MailDeadLetter;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface MailDeadLetterRepository extends JpaRepository<MailDeadLetter, Long> {
+
+    List<MailDeadLetter> findTop100ByOrderByIdAsc();
+}
@@ -0,0 +1,32 @@
+package com.onboarding.repository;
+
+import com.onboarding.model.OutboxEvent;
+
+import jakarta.persistence.LockModeType;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+
+    @Query("SELECT e.id FROM OutboxEvent e ORDER BY e.id")
+    List<Long> findOldestIds(Pageable pageable);
+
+    // Locked while an instance claims the events, so two instances don't claim the same ones.
+    // Bounded by id instead of a row limit, which Oracle doesn't allow together with FOR UPDATE.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT e FROM OutboxEvent e WHERE e.id <= :lastId ORDER BY e.id")
+    List<OutboxEvent> lockUpTo(@Param("lastId") long lastId);
+
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.claimedUntil = NULL WHERE e.id <= :lastId")
+    int releaseUpTo(@Param("lastId") long lastId);
+}
@@ -0,0 +1,110 @@
+package com.onboarding.service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.onboarding.dto.NewKycApplicationEvent;
+import com.onboarding.mail.MailDispatcher;
+import com.onboarding.mail.MailTemplate;
+import com.onboarding.mail.MailTemplateRenderer;
+import com.onboarding.mail.OutgoingMail;
+import com.onboarding.model.AdminDigestEntry;
+import com.onboarding.repository.AdminDigestEntryRepository;
+
+/**
+ * Digest mode for the admin's new-application emails (mail.admin-digest.enabled). Each new or
+ * resubmitted application is stored in ADMIN_DIGEST_ENTRY instead of being emailed. Once the oldest
+ * stored entry is mail.admin-digest.window old, every stored entry goes out in one summary email with
+ * the counts and application ids, and a new window starts with the next application.
+ *
+ * The entries are removed in the same transaction that reads them for the summary, and the summary is
+ * then queued with {@link MailDispatcher}, which keeps it as a dead letter if it can't be sent.
+ */
+@Service
+public class AdminDigestService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(AdminDigestService.class);
+
+    private final AdminDigestEntryRepository entryRepository;
+    private final MailDispatcher mailDispatcher;
+    private final MailTemplateRenderer mailTemplateRenderer;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration window;
+    private final int maxListed;
+
+    public AdminDigestService(AdminDigestEntryRepository entryRepository,
+                              MailDispatcher mailDispatcher,
+                              MailTemplateRenderer mailTemplateRenderer,
+                              PlatformTransactionManager transactionManager,
+                              @Value("${mail.admin-digest.enabled:false}") boolean enabled,
+                              @Value("${mail.admin-digest.window:15m}") Duration window,
+                              @Value("${mail.admin-digest.max-listed:200}") int maxListed) {
+        this.entryRepository = entryRepository;
+        this.mailDispatcher = mailDispatcher;
+        this.mailTemplateRenderer = mailTemplateRenderer;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.window = window;
+        this.maxListed = maxListed;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void record(NewKycApplicationEvent event) {
+        AdminDigestEntry entry = new AdminDigestEntry();
+        entry.setApplicationId(event.getKycApplicationId());
+        entry.setApplicantName(event.getApplicantName());
+        entry.setReapplication(event.isReapplication());
+        entry.setReceivedAt(LocalDateTime.now());
+        entryRepository.save(entry);
+    }
+
+    /**
+     * Sends the digest if its window has closed. Also runs with digest mode switched off, so entries
+     * stored before the switch still go out.
+     */
+    @Scheduled(fixedDelayString = "${mail.admin-digest.check-interval-ms:30000}")
+    public void sendDueDigest() {
+        LocalDateTime oldest = entryRepository.findOldestReceivedAt();
+        if (oldest == null || oldest.plus(window).isAfter(LocalDateTime.now())) {
+            return;
+        }
+        List<AdminDigestEntry> entries = transactionTemplate.execute(status -> {
+            List<AdminDigestEntry> pending = entryRepository.lockAllPending();
+            entryRepository.deleteAllInBatch(pending);
+            return pending;
+        });
+        if (entries == null || entries.isEmpty()) {
+            return;
+        }
+
+        long reapplications = entries.stream().filter(AdminDigestEntry::isReapplication).count();
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("total", entries.size());
+        variables.put("newApplications", entries.size() - reapplications);
+        variables.put("reapplications", reapplications);
+        List<LocalDateTime> received = entries.stream().map(AdminDigestEntry::getReceivedAt).sorted().collect(Collectors.toList());
+        variables.put("from", received.get(0));
+        variables.put("to", received.get(received.size() - 1));
+        variables.put("entries", entries.size() > maxListed ? entries.subList(0, maxListed) : entries);
+        variables.put("unlisted", Math.max(0, entries.size() - maxListed));
+        mailDispatcher.submit(new OutgoingMail(EmailNotificationService.ADMIN_EMAIL, MailTemplate.ADMIN_DIGEST.getSubject() + " (" + entries.size() + ")",
+                mailTemplateRenderer.render(MailTemplate.ADMIN_DIGEST, variables)));
+        LOGGER.info("Queued admin digest of {} applications ({} resubmitted)", entries.size(), reapplications);
+    }
+}
@@ -0,0 +1,148 @@
+package com.onboarding.service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onboarding.dto.CustomerImportRecord;
+import com.onboarding.export.ExportFormat;
+
+/**
+ * Reads a bulk import file a chunk at a time without holding more than one chunk in memory.
+ * Records are only split out here; turning them into {@link CustomerImportRecord}s is left to
+ * {@link RawRecord#parse}, so that the expensive part can run on the validation threads.
+ */
+class CustomerImportReader {
+
+    private final ExportFormat format;
+    private final BufferedReader in;
+    private List<String> header;
+    private long recordNumber;
+
+    CustomerImportReader(ExportFormat format, InputStream in) throws IOException {
+        this.format = format;
+        this.in = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (format == ExportFormat.CSV) {
+            header = readCsvRow();
+            if (header == null) {
+                throw new IOException("The CSV file is empty, a header line is required.");
+            }
+            header.set(0, header.get(0).replace("\uFEFF", ""));
+            header.replaceAll(String::trim);
+        }
+    }
+
+    /** Skips the records an earlier run of the same job already processed. */
+    void skip(long records) throws IOException {
+        while (recordNumber < records && nextRaw() != null) {
+            // nothing to do with the record itself
+        }
+    }
+
+    /** Up to max records; an empty list at the end of the file. */
+    List<RawRecord> next(int max) throws IOException {
+        List<RawRecord> chunk = new ArrayList<>(max);
+        RawRecord record;
+        while (chunk.size() < max && (record = nextRaw()) != null) {
+            chunk.add(record);
+        }
+        return chunk;
+    }
+
+    private RawRecord nextRaw() throws IOException {
+        if (format == ExportFormat.NDJSON) {
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!line.isBlank()) {
+                    return new RawRecord(++recordNumber, line, null);
+                }
+            }
+            return null;
+        }
+        List<String> row;
+        while ((row = readCsvRow()) != null) {
+            if (row.size() == 1 && row.get(0).isBlank()) {
+                continue;
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < row.size() && i < header.size(); i++) {
+                // Empty cells are missing values, not empty strings (matters for dates and flags)
+                if (!row.get(i).isEmpty()) {
+                    values.put(header.get(i), row.get(i));
+                }
+            }
+            return new RawRecord(++recordNumber, null, values);
+        }
+        return null;
+    }
+
+    // RFC 4180: quoted fields may contain commas, doubled quotes and line breaks
+    private List<String> readCsvRow() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean read = false;
+        int c;
+        while ((c = in.read()) != -1) {
+            read = true;
+            if (quoted) {
+                if (c != '"') {
+                    field.append((char) c);
+                    continue;
+                }
+                in.mark(1);
+                int next = in.read();
+                if (next == '"') {
+                    field.append('"');
+                } else {
+                    quoted = false;
+                    if (next != -1) {
+                        in.reset();
+                    }
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\n') {
+                break;
+            } else if (c != '\r') {
+                field.append((char) c);
+            }
+        }
+        if (!read) {
+            return null;
+        }
+        if (quoted) {
+            throw new IOException("Unterminated quoted field after record " + recordNumber + ".");
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    static final class RawRecord {
+        final long number;
+        private final String json;
+        private final Map<String, String> csvValues;
+
+        RawRecord(long number, String json, Map<String, String> csvValues) {
+            this.number = number;
+            this.json = json;
+            this.csvValues = csvValues;
+        }
+
+        CustomerImportRecord parse(ObjectMapper objectMapper) throws IOException {
+            return json != null
+                    ? objectMapper.readValue(json, CustomerImportRecord.class)
+                    : objectMapper.convertValue(csvValues, CustomerImportRecord.class);
+        }
+    }
+}
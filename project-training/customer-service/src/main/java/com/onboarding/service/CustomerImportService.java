@@ -0,0 +1,355 @@
+package com.onboarding.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.server.ResponseStatusException;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.CustomerCreatedEvent;
+import com.onboarding.dto.CustomerImportRecord;
+import com.onboarding.dto.CustomerImportResult;
+import com.onboarding.export.ExportFormat;
+import com.onboarding.model.Customer;
+import com.onboarding.model.CustomerImportJob;
+import com.onboarding.model.KycStatus;
+import com.onboarding.model.Nominee;
+import com.onboarding.model.Role;
+import com.onboarding.model.User;
+import com.onboarding.repository.CustomerImportJobRepository;
+import com.onboarding.repository.CustomerRepository;
+import com.onboarding.repository.RoleRepository;
+import com.onboarding.service.CustomerImportReader.RawRecord;
+
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+/**
+ * Loads existing bank customers from a CSV or NDJSON file, a chunk at a time:
+ * <ol>
+ *   <li>the next chunk is parsed and validated on the validation threads while the current one is written</li>
+ *   <li>the chunk's PANs, Aadhaars, emails, phones, usernames and nominee Aadhaars are checked against the
+ *       database in one query, and against each other</li>
+ *   <li>customers, nominees, users and their CustomerCreated events are inserted in JDBC batches, and
+ *       the job's checkpoint is moved past the chunk, all in one transaction</li>
+ * </ol>
+ * A run that fails or is cut off can be repeated with the same job id and file; it skips what the
+ * checkpoint says is done. Imported customers are VERIFIED, as if their KYC had been approved here.
+ * They have no KYC application, so kyc-service's uniqueness check does not see them; a registration
+ * reusing their PAN, Aadhaar, email or username is only turned away when it is approved.
+ */
+@Service
+public class CustomerImportService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(CustomerImportService.class);
+
+    // The duplicate check puts a whole chunk into IN lists, and Oracle allows at most 1000 items in one
+    private static final int MAX_CHUNK_SIZE = 1000;
+    private static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private final CustomerRepository customerRepository;
+    private final CustomerImportJobRepository jobRepository;
+    private final RoleRepository roleRepository;
+    private final EventOutbox eventOutbox;
+    private final EntityManager entityManager;
+    private final TransactionTemplate transactionTemplate;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+    private final int chunkSize;
+    private final int validationThreads;
+    private final ExecutorService validationPool;
+    private final Set<String> runningJobs = ConcurrentHashMap.newKeySet();
+
+    public CustomerImportService(CustomerRepository customerRepository, CustomerImportJobRepository jobRepository,
+                                 RoleRepository roleRepository, EventOutbox eventOutbox, EntityManager entityManager,
+                                 PlatformTransactionManager transactionManager, Validator validator, ObjectMapper objectMapper,
+                                 @Value("${customer.import.chunk-size:500}") int chunkSize,
+                                 @Value("${customer.import.validation-threads:4}") int validationThreads) {
+        this.customerRepository = customerRepository;
+        this.jobRepository = jobRepository;
+        this.roleRepository = roleRepository;
+        this.eventOutbox = eventOutbox;
+        this.entityManager = entityManager;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+        this.chunkSize = Math.max(1, Math.min(chunkSize, MAX_CHUNK_SIZE));
+        this.validationThreads = Math.max(1, validationThreads);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.validationPool = Executors.newFixedThreadPool(this.validationThreads, runnable -> {
+            Thread thread = new Thread(runnable, "customer-import-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void shutdown() {
+        validationPool.shutdownNow();
+    }
+
+    public Optional<CustomerImportJob> findJob(String jobId) {
+        return jobRepository.findById(jobId);
+    }
+
+    public CustomerImportResult importCustomers(String jobId, ExportFormat format, InputStream in) {
+        if (!runningJobs.add(jobId)) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Import job " + jobId + " is already running.");
+        }
+        List<String> rejections = new ArrayList<>();
+        try {
+            CustomerImportJob job = transactionTemplate.execute(status -> startJob(jobId));
+            if (job.getStatusValue() == CustomerImportJob.Status.COMPLETED) {
+                return new CustomerImportResult(job, rejections);
+            }
+            long started = System.currentTimeMillis();
+            long resumedAt = job.getRecordsProcessed();
+            Long customerRoleId = roleRepository.findByName("ROLE_CUSTOMER")
+                    .orElseThrow(() -> new IllegalStateException("CRITICAL: ROLE_CUSTOMER not found."))
+                    .getId();
+
+            CustomerImportReader reader = new CustomerImportReader(format, in);
+            reader.skip(resumedAt);
+            CompletableFuture<List<CheckedRecord>> pending = validate(reader.next(chunkSize));
+            List<CheckedRecord> chunk;
+            while (!(chunk = pending.join()).isEmpty()) {
+                pending = validate(reader.next(chunkSize));
+                List<CheckedRecord> current = chunk;
+                job = transactionTemplate.execute(status -> writeChunk(jobId, current, customerRoleId, rejections));
+            }
+
+            job = finish(jobId, CustomerImportJob.Status.COMPLETED, null);
+            LOGGER.info("Import job {} completed in {} ms: {} records from record {} on, {} imported, {} duplicates, {} rejected in total.",
+                    jobId, System.currentTimeMillis() - started, job.getRecordsProcessed() - resumedAt, resumedAt + 1,
+                    job.getImported(), job.getDuplicates(), job.getRejected());
+            return new CustomerImportResult(job, rejections);
+        } catch (RuntimeException | IOException e) {
+            LOGGER.error("Import job {} failed; rerun it with the same file to resume from its last checkpoint.", jobId, e);
+            return new CustomerImportResult(finish(jobId, CustomerImportJob.Status.FAILED, String.valueOf(e.getMessage())), rejections);
+        } finally {
+            runningJobs.remove(jobId);
+        }
+    }
+
+    private CustomerImportJob startJob(String jobId) {
+        CustomerImportJob job = jobRepository.findById(jobId).orElseGet(() -> new CustomerImportJob(jobId));
+        if (job.getStatusValue() != CustomerImportJob.Status.COMPLETED) {
+            job.setStatus(CustomerImportJob.Status.RUNNING.name());
+            job.setLastError(null);
+            job.setUpdatedAt(LocalDateTime.now());
+        }
+        return jobRepository.save(job);
+    }
+
+    private CustomerImportJob finish(String jobId, CustomerImportJob.Status status, String error) {
+        return transactionTemplate.execute(tx -> {
+            CustomerImportJob job = jobRepository.findById(jobId).orElseGet(() -> new CustomerImportJob(jobId));
+            job.setStatus(status.name());
+            job.setLastError(error == null || error.length() <= 255 ? error : error.substring(0, 255));
+            job.setUpdatedAt(LocalDateTime.now());
+            return jobRepository.save(job);
+        });
+    }
+
+    // Splits the chunk across the validation threads; parsing and bean validation are the CPU-heavy part
+    private CompletableFuture<List<CheckedRecord>> validate(List<RawRecord> records) {
+        if (records.isEmpty()) {
+            return CompletableFuture.completedFuture(Collections.<CheckedRecord>emptyList());
+        }
+        int sliceSize = (records.size() + validationThreads - 1) / validationThreads;
+        List<CompletableFuture<List<CheckedRecord>>> slices = new ArrayList<>();
+        for (int from = 0; from < records.size(); from += sliceSize) {
+            List<RawRecord> slice = records.subList(from, Math.min(from + sliceSize, records.size()));
+            slices.add(CompletableFuture.supplyAsync(
+                    () -> slice.stream().map(this::check).collect(Collectors.toList()), validationPool));
+        }
+        return CompletableFuture.allOf(slices.toArray(new CompletableFuture<?>[0]))
+                .thenApply(done -> slices.stream().flatMap(slice -> slice.join().stream()).collect(Collectors.toList()));
+    }
+
+    private CheckedRecord check(RawRecord raw) {
+        CustomerImportRecord record;
+        try {
+            record = raw.parse(objectMapper);
+        } catch (IOException | IllegalArgumentException e) {
+            String message = String.valueOf(e.getMessage());
+            int lineBreak = message.indexOf('\n');
+            return new CheckedRecord(raw.number, null, "Unreadable record: " + (lineBreak < 0 ? message : message.substring(0, lineBreak)));
+        }
+        Set<ConstraintViolation<CustomerImportRecord>> violations = validator.validate(record);
+        if (!violations.isEmpty()) {
+            return new CheckedRecord(raw.number, null, violations.stream()
+                    .map(ConstraintViolation::getMessage).sorted().collect(Collectors.joining(" ")));
+        }
+        return new CheckedRecord(raw.number, record, null);
+    }
+
+    private CustomerImportJob writeChunk(String jobId, List<CheckedRecord> chunk, Long customerRoleId, List<String> rejections) {
+        CustomerImportJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalStateException("Import job " + jobId + " disappeared."));
+        List<CheckedRecord> valid = new ArrayList<>();
+        for (CheckedRecord checked : chunk) {
+            if (checked.rejection != null) {
+                job.setRejected(job.getRejected() + 1);
+                report(rejections, checked.number, checked.rejection);
+            } else {
+                valid.add(checked);
+            }
+        }
+
+        Set<String> taken = takenKeys(valid);
+        Role customerRole = entityManager.getReference(Role.class, customerRoleId);
+        for (CheckedRecord checked : valid) {
+            List<String> keys = uniqueKeys(checked.record);
+            Optional<String> clash = keys.stream().filter(taken::contains).findFirst();
+            if (clash.isPresent()) {
+                job.setDuplicates(job.getDuplicates() + 1);
+                report(rejections, checked.number, "Duplicate " + clash.get().substring(0, clash.get().indexOf(':')) + ".");
+                continue;
+            }
+            // Later records in the chunk must not reuse these keys either
+            taken.addAll(keys);
+            persist(checked.record, customerRole);
+            job.setImported(job.getImported() + 1);
+        }
+
+        job.setRecordsProcessed(job.getRecordsProcessed() + chunk.size());
+        job.setUpdatedAt(LocalDateTime.now());
+        entityManager.flush();
+        entityManager.clear();
+        return job;
+    }
+
+    // "PAN:ABCDE1234F" etc. for everything in the chunk that the database already has
+    private Set<String> takenKeys(List<CheckedRecord> records) {
+        Set<String> pans = new HashSet<>();
+        Set<String> aadhaars = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<String> phones = new HashSet<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> nomineeAadhaars = new HashSet<>();
+        for (CheckedRecord checked : records) {
+            CustomerImportRecord record = checked.record;
+            pans.add(record.getPan());
+            aadhaars.add(record.getAadhaar());
+            emails.add(record.getEmail());
+            phones.add(record.getPhone());
+            usernames.add(record.getUsername());
+            if (record.hasNominee()) {
+                nomineeAadhaars.add(record.getNomineeAadhaar());
+            }
+        }
+        Set<String> taken = new HashSet<>();
+        if (records.isEmpty()) {
+            return taken;
+        }
+        for (Object[] row : customerRepository.findTakenUniqueKeysIn(pans, aadhaars, emails, phones, usernames,
+                orNothing(nomineeAadhaars))) {
+            taken.add(row[0].toString().trim() + ":" + row[1]);
+        }
+        return taken;
+    }
+
+    // An empty IN list is a syntax error; a blank value matches nothing (it is NULL on Oracle)
+    private static Collection<String> orNothing(Set<String> values) {
+        return values.isEmpty() ? Collections.singleton("") : values;
+    }
+
+    private static List<String> uniqueKeys(CustomerImportRecord record) {
+        List<String> keys = new ArrayList<>();
+        keys.add("PAN:" + record.getPan());
+        keys.add("AADHAAR:" + record.getAadhaar());
+        keys.add("EMAIL:" + record.getEmail());
+        keys.add("PHONE:" + record.getPhone());
+        keys.add("USERNAME:" + record.getUsername());
+        if (record.hasNominee()) {
+            keys.add("NOMINEE_AADHAAR:" + record.getNomineeAadhaar());
+        }
+        return keys;
+    }
+
+    private void persist(CustomerImportRecord record, Role customerRole) {
+        Customer customer = new Customer();
+        customer.setFullName(record.getFullName());
+        customer.setDob(record.getDob());
+        customer.setGender(record.getGender());
+        customer.setMaritalStatus(record.getMaritalStatus());
+        customer.setFathersName(record.getFathersName());
+        customer.setNationality(record.getNationality());
+        customer.setProfession(record.getProfession());
+        customer.setAddress(record.getAddress());
+        customer.setEmail(record.getEmail());
+        customer.setPhone(record.getPhone());
+        customer.setPan(record.getPan());
+        customer.setAadhaar(record.getAadhaar());
+        customer.setRequestedAccountType(record.getRequestedAccountType());
+        customer.setNetBankingEnabled(Boolean.TRUE.equals(record.getNetBankingEnabled()));
+        customer.setDebitCardIssued(Boolean.TRUE.equals(record.getDebitCardIssued()));
+        customer.setChequeBookIssued(Boolean.TRUE.equals(record.getChequeBookIssued()));
+        customer.setKycStatus(KycStatus.VERIFIED);
+        customer.setPanLinked(true);
+        customer.setAadhaarLinked(true);
+
+        if (record.hasNominee()) {
+            Nominee nominee = new Nominee();
+            nominee.setName(record.getNomineeName());
+            nominee.setMobile(record.getNomineeMobile());
+            nominee.setAddress(record.getNomineeAddress());
+            nominee.setAadhaarNumber(record.getNomineeAadhaar());
+            customer.setNominee(nominee);
+        }
+        entityManager.persist(customer);
+
+        User user = new User();
+        user.setUsername(record.getUsername());
+        user.setPassword(record.getPasswordHash());
+        user.setRoles(Set.of(customerRole));
+        user.setCustomer(customer);
+        entityManager.persist(user);
+
+        eventOutbox.append(KafkaTopicConfig.TOPIC_CUSTOMER_CHANGES, customer.getId(),
+                CustomerService.createdEvent(customer, CustomerCreatedEvent.FROM_IMPORT));
+    }
+
+    private static void report(List<String> rejections, long recordNumber, String reason) {
+        if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+            rejections.add("Record " + recordNumber + ": " + reason);
+        }
+    }
+
+    private static final class CheckedRecord {
+        final long number;
+        final CustomerImportRecord record;
+        final String rejection;
+
+        CheckedRecord(long number, CustomerImportRecord record, String rejection) {
+            this.number = number;
+            this.record = record;
+            this.rejection = rejection;
+        }
+    }
+}
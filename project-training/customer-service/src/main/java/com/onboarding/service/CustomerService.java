@@ -1,24 +1,37 @@
 package com.onboarding.service;
 
+import com.onboarding.config.KafkaTopicConfig;
 import com.onboarding.dto.AdminCustomerUpdateRequest;
 import com.onboarding.dto.CustomerDTO;
 import com.onboarding.dto.CustomerUpdateRequest;
+import com.onboarding.dto.CustomerCreatedEvent;
+import com.onboarding.dto.CustomerUpdatedEvent;
 import com.onboarding.dto.KycApplicationDataDTO;
+import com.onboarding.dto.NomineeChangedEvent;
 import com.onboarding.dto.NomineeDTO;
 import com.onboarding.exception.CustomerAlreadyExistsException;
 import com.onboarding.model.*;
+import com.onboarding.pagination.KeysetCursor;
+import com.onboarding.pagination.KeysetPage;
 import com.onboarding.repository.CustomerRepository;
-import com.onboarding.repository.NomineeRepository;
+import com.onboarding.repository.CustomerRepository.ExportRow;
 import com.onboarding.repository.RoleRepository;
 import com.onboarding.repository.UserRepository;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 public class CustomerService {
@@ -26,30 +39,29 @@ public class CustomerService {
     private final CustomerRepository customerRepository;
     private final UserRepository userRepository;
     private final RoleRepository roleRepository;
-    private final NomineeRepository nomineeRepository;
     private final PasswordEncoder passwordEncoder;
+    private final EventOutbox eventOutbox;
 
-    public CustomerService(CustomerRepository customerRepository, UserRepository userRepository, RoleRepository roleRepository, NomineeRepository nomineeRepository, PasswordEncoder passwordEncoder) {
+    public CustomerService(CustomerRepository customerRepository, UserRepository userRepository, RoleRepository roleRepository,
+                           PasswordEncoder passwordEncoder, EventOutbox eventOutbox) {
         this.customerRepository = customerRepository;
         this.userRepository = userRepository;
         this.roleRepository = roleRepository;
-        this.nomineeRepository = nomineeRepository;
         this.passwordEncoder = passwordEncoder;
+        this.eventOutbox = eventOutbox;
     }
 
     @Transactional
     public Customer createApprovedCustomer(KycApplicationDataDTO kycData) {
-        // Validation for uniqueness
-        if (customerRepository.findByPan(kycData.getPan()).isPresent() ||
-            userRepository.findByUsername(kycData.getUsername()).isPresent() ||
-            customerRepository.findByAadhaar(kycData.getAadhaar()).isPresent()) {
+        // Validation for uniqueness: PAN, Aadhaar, username and nominee Aadhaar in one query
+        String nomineeAadhaar = kycData.getNominee() != null ? kycData.getNominee().getAadhaarNumber() : null;
+        List<String> takenKeys = customerRepository.findTakenUniqueKeys(kycData.getPan(), kycData.getAadhaar(), kycData.getUsername(), nomineeAadhaar)
+                .stream().map(String::trim).collect(Collectors.toList());
+        if (takenKeys.contains("PAN") || takenKeys.contains("AADHAAR") || takenKeys.contains("USERNAME")) {
             throw new CustomerAlreadyExistsException("A customer or user with these unique details already exists.");
         }
-        
-        if (kycData.getNominee() != null) {
-            nomineeRepository.findByAadhaarNumber(kycData.getNominee().getAadhaarNumber()).ifPresent(n -> {
-                 throw new CustomerAlreadyExistsException("A nominee with that Aadhaar number is already registered.");
-            });
+        if (takenKeys.contains("NOMINEE_AADHAAR")) {
+            throw new CustomerAlreadyExistsException("A nominee with that Aadhaar number is already registered.");
         }
 
         Customer customer = new Customer();
@@ -105,13 +117,16 @@ public class CustomerService {
         user.setCustomer(savedCustomer);
         userRepository.save(user);
 
+        eventOutbox.append(KafkaTopicConfig.TOPIC_CUSTOMER_CHANGES, savedCustomer.getId(),
+                createdEvent(savedCustomer, CustomerCreatedEvent.FROM_APPROVAL));
         return savedCustomer;
     }
     
     @Transactional
     public Customer updateApprovedCustomer(Long customerId, CustomerUpdateRequest request) {
-        Customer existingCustomer = customerRepository.findById(customerId)
+        Customer existingCustomer = customerRepository.findByIdForUpdate(customerId)
             .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + customerId));
+        List<String> nomineeBefore = nomineeDetails(existingCustomer.getNominee());
 
         // Only update the allowed fields
         existingCustomer.setEmail(request.getEmail());
@@ -136,7 +151,9 @@ public class CustomerService {
             existingCustomer.setNominee(null);
         }
 
-        return customerRepository.save(existingCustomer);
+        Customer savedCustomer = customerRepository.saveAndFlush(existingCustomer);
+        recordChanges(savedCustomer, CustomerUpdatedEvent.BY_CUSTOMER, nomineeBefore);
+        return savedCustomer;
     }
     
     public CustomerDTO convertToDto(Customer customer) {
@@ -173,13 +190,15 @@ public class CustomerService {
             nomineeDTO.setAadhaarNumber(customer.getNominee().getAadhaarNumber());
             dto.setNominee(nomineeDTO);
         }
+        dto.setVersion(customer.getVersion());
         return dto;
     }
     
     @Transactional
     public Customer updateCustomerByAdmin(Long customerId, AdminCustomerUpdateRequest request) {
-        Customer existingCustomer = customerRepository.findById(customerId)
+        Customer existingCustomer = customerRepository.findByIdForUpdate(customerId)
             .orElseThrow(() -> new RuntimeException("Customer not found with ID: " + customerId));
+        List<String> nomineeBefore = nomineeDetails(existingCustomer.getNominee());
 
         // Update all fields from the admin request
         existingCustomer.setFullName(request.getFullName());
@@ -206,7 +225,79 @@ public class CustomerService {
             existingCustomer.setNominee(null);
         }
 
-        return customerRepository.save(existingCustomer);
+        Customer savedCustomer = customerRepository.saveAndFlush(existingCustomer);
+        recordChanges(savedCustomer, CustomerUpdatedEvent.BY_ADMIN, nomineeBefore);
+        return savedCustomer;
+    }
+
+    // Change events go through the outbox, so they are published only if this transaction commits.
+    // CustomerUpdated goes out on every update, NomineeChanged only when the nominee actually changed.
+    // Both carry the version the customer was flushed with.
+    private void recordChanges(Customer customer, String updatedBy, List<String> nomineeBefore) {
+        CustomerUpdatedEvent updated = new CustomerUpdatedEvent();
+        updated.setCustomerId(customer.getId());
+        updated.setFullName(customer.getFullName());
+        updated.setEmail(customer.getEmail());
+        updated.setPhone(customer.getPhone());
+        updated.setAddress(customer.getAddress());
+        updated.setMaritalStatus(customer.getMaritalStatus());
+        updated.setProfession(customer.getProfession());
+        updated.setFathersName(customer.getFathersName());
+        if (customer.getKycStatus() != null) {
+            updated.setKycStatus(customer.getKycStatus().name());
+        }
+        updated.setUpdatedBy(updatedBy);
+        updated.setVersion(customer.getVersion());
+        eventOutbox.append(KafkaTopicConfig.TOPIC_CUSTOMER_CHANGES, customer.getId(), updated);
+
+        Nominee nominee = customer.getNominee();
+        List<String> nomineeAfter = nomineeDetails(nominee);
+        if (Objects.equals(nomineeBefore, nomineeAfter)) {
+            return;
+        }
+        NomineeChangedEvent nomineeChanged = new NomineeChangedEvent();
+        nomineeChanged.setCustomerId(customer.getId());
+        nomineeChanged.setVersion(customer.getVersion());
+        nomineeChanged.setChange(nomineeBefore == null ? NomineeChangedEvent.ADDED
+                : nomineeAfter == null ? NomineeChangedEvent.REMOVED : NomineeChangedEvent.UPDATED);
+        if (nominee != null) {
+            nomineeChanged.setNomineeName(nominee.getName());
+            nomineeChanged.setNomineeMobile(nominee.getMobile());
+            nomineeChanged.setNomineeAddress(nominee.getAddress());
+            nomineeChanged.setNomineeAadhaarNumber(nominee.getAadhaarNumber());
+        }
+        eventOutbox.append(KafkaTopicConfig.TOPIC_CUSTOMER_CHANGES, customer.getId(), nomineeChanged);
+    }
+
+    // Also used by CustomerImportService for imported customers
+    static CustomerCreatedEvent createdEvent(Customer customer, String createdFrom) {
+        CustomerCreatedEvent created = new CustomerCreatedEvent();
+        created.setCustomerId(customer.getId());
+        created.setFullName(customer.getFullName());
+        created.setEmail(customer.getEmail());
+        created.setPhone(customer.getPhone());
+        created.setAddress(customer.getAddress());
+        created.setMaritalStatus(customer.getMaritalStatus());
+        created.setProfession(customer.getProfession());
+        created.setFathersName(customer.getFathersName());
+        if (customer.getKycStatus() != null) {
+            created.setKycStatus(customer.getKycStatus().name());
+        }
+        Nominee nominee = customer.getNominee();
+        if (nominee != null) {
+            created.setNomineeName(nominee.getName());
+            created.setNomineeMobile(nominee.getMobile());
+            created.setNomineeAddress(nominee.getAddress());
+            created.setNomineeAadhaarNumber(nominee.getAadhaarNumber());
+        }
+        created.setCreatedFrom(createdFrom);
+        created.setVersion(customer.getVersion());
+        return created;
+    }
+
+    private static List<String> nomineeDetails(Nominee nominee) {
+        return nominee == null ? null
+                : Arrays.asList(nominee.getName(), nominee.getMobile(), nominee.getAddress(), nominee.getAadhaarNumber());
     }
 
 
@@ -218,6 +309,35 @@ public class CustomerService {
     public Page<Customer> searchCustomers(String keyword, Pageable pageable) {
         return customerRepository.searchByKeyword(keyword, pageable);
     }
+    // One keyset page of customers, newest first, optionally filtered by keyword.
+    // The total is only counted when asked for; the page itself costs the same however deep it is.
+    public KeysetPage<Customer> findCustomers(String keyword, String cursor, int size, boolean count) {
+        // The first page starts below a creation time no row can have
+        LocalDateTime beforeCreatedAt = LocalDateTime.of(9999, 12, 31, 0, 0);
+        long beforeId = Long.MAX_VALUE;
+        if (cursor != null) {
+            KeysetCursor position = KeysetCursor.parse(cursor);
+            beforeCreatedAt = position.dateTimeAt(0);
+            beforeId = position.longAt(1);
+        }
+        int pageSize = KeysetPage.pageSize(size);
+        Pageable window = PageRequest.ofSize(pageSize + 1);
+        boolean search = keyword != null && !keyword.isBlank();
+        List<Customer> customers = search
+                ? customerRepository.searchOlderThan(keyword, beforeCreatedAt, beforeId, window)
+                : customerRepository.findOlderThan(beforeCreatedAt, beforeId, window);
+        Long total = !count ? null : search ? customerRepository.countByKeyword(keyword) : customerRepository.count();
+        return KeysetPage.of(customers, pageSize,
+                customer -> KeysetCursor.of(customer.getCreatedAt(), customer.getId()), total);
+    }
+    // The stream needs the transaction to stay open until it is drained
+    @Transactional(readOnly = true)
+    public void exportCustomers(Consumer<ExportRow> sink) {
+        try (Stream<ExportRow> rows = customerRepository.streamAllForExport()) {
+            rows.forEach(sink);
+        }
+    }
+
     public Optional<Customer> findCustomerById(Long id) {
         return customerRepository.findById(id);
     }
@@ -1,27 +1,61 @@
 package com.onboarding.service;
-import java.io.IOException;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.mail.javamail.JavaMailSender;
-import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Service;
 
 import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.DomainEvent;
 import com.onboarding.dto.KycStatusUpdateEvent;
 import com.onboarding.dto.NewKycApplicationEvent;
+import com.onboarding.mail.MailDispatcher;
+import com.onboarding.mail.MailTemplate;
+import com.onboarding.mail.MailTemplateRenderer;
+import com.onboarding.mail.OutgoingMail;
 
-import jakarta.mail.MessagingException;
-import jakarta.mail.internet.MimeMessage;
+/**
+ * Turns KYC events into notification emails, rendered from the {@link MailTemplate} templates.
+ * Sending is left to {@link MailDispatcher}, so the listeners return as soon as the email is
+ * queued instead of waiting on the SMTP server. In digest mode the admin gets one summary per
+ * window from {@link AdminDigestService} instead of an email per application.
+ *
+ * The listeners take a poll's worth of records at a time and acknowledge them together (see
+ * KafkaConsumerConfig). A record that fails is handed to {@link KafkaRetryRouter}, which puts it on a
+ * retry topic, and the listener goes on with the next one. Each retry stage has its own listener that
+ * waits until a record is due, without holding up the main topics or the other stages.
+ *
+ * Kafka may deliver an event again, e.g. after a rebalance. Events already handled are recognised
+ * by their id in {@link ProcessedEventStore} and skipped, so nobody gets the same email twice.
+ */
 @Service
 public class EmailNotificationService {
     private static final Logger LOGGER = LoggerFactory.getLogger(EmailNotificationService.class);
-    private static final String ADMIN_EMAIL = "umeshsawant112233@gmail.com";
-    private static final String SENDER_EMAIL = "umeshsawant112233@gmail.com";
-    private final JavaMailSender javaMailSender;
-    public EmailNotificationService(JavaMailSender javaMailSender) {
-        this.javaMailSender = javaMailSender;
+    static final String ADMIN_EMAIL = "umeshsawant112233@gmail.com";
+    private final MailDispatcher mailDispatcher;
+    private final MailTemplateRenderer mailTemplateRenderer;
+    private final AdminDigestService adminDigestService;
+    private final KafkaRetryRouter retryRouter;
+    private final ProcessedEventStore processedEvents;
+    public EmailNotificationService(MailDispatcher mailDispatcher, MailTemplateRenderer mailTemplateRenderer,
+                                    AdminDigestService adminDigestService, KafkaRetryRouter retryRouter,
+                                    ProcessedEventStore processedEvents) {
+        this.mailDispatcher = mailDispatcher;
+        this.mailTemplateRenderer = mailTemplateRenderer;
+        this.adminDigestService = adminDigestService;
+        this.retryRouter = retryRouter;
+        this.processedEvents = processedEvents;
     }
     /**
      * Listens for new KYC application events from Kafka.
@@ -31,26 +65,24 @@ public class EmailNotificationService {
             groupId = "onboarding_group",
             containerFactory = "kafkaListenerContainerFactory"
     )
-    public void consumeNewKycApplicationEvent(NewKycApplicationEvent event) {
+    public void consumeNewKycApplicationEvents(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        handleEach(records);
+        acknowledgment.acknowledge();
+    }
+
+    private void notifyNewKycApplication(NewKycApplicationEvent event) {
         LOGGER.info("--> Received New KYC Application Event for ID: {}", event.getKycApplicationId());
-        String subject = "New Customer Registration Pending KYC";
-        String adminDashboardLink = "http://localhost:8080/login" + event.getKycApplicationId();
-        String htmlBody = "<html><body>" +
-                "<img src='cid:favicon'>" +
-                "<h2>New Customer Verification</h2>" +
-                "<p>Hello Admin,</p>" +
-                "<p>A new customer has been submitted by, <b>" + event.getApplicantName() + "</b> (Application ID: " + event.getKycApplicationId() + "),  and is awaiting KYC verification.</p>" +
-                "<hr>" +
-                "<p>To review the applicant's details,please follow the link to the secure Admin Dashboard</p>" +
-                "<p style=\"text-align: center;\"><a href=\"" + adminDashboardLink + "\" style=\"background-color: #007BFF; color: white; padding: 12px 25px; text-decoration: none; border-radius: 5px; display: inline-block;\">Review Application</a></p>" +
-                "<p>Regards,<br>The OFSS Onboarding System</p>" +
-                "</body></html>";
-        try {
-            sendHtmlEmail(ADMIN_EMAIL, subject, htmlBody);
-            LOGGER.info("Successfully sent new application notification email to admin for app ID: {}", event.getKycApplicationId());
-        } catch (MessagingException | IOException e) {
-            LOGGER.error("Failed to send new application notification email to admin for app ID: {}. Error: {}", event.getKycApplicationId(), e.getMessage());
+        if (adminDigestService.isEnabled()) {
+            adminDigestService.record(event);
+            LOGGER.info("Added app ID: {} to the next admin digest", event.getKycApplicationId());
+            return;
         }
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("applicantName", event.getApplicantName());
+        variables.put("applicationId", event.getKycApplicationId());
+        String htmlBody = mailTemplateRenderer.render(MailTemplate.NEW_APPLICATION, variables);
+        mailDispatcher.submit(new OutgoingMail(ADMIN_EMAIL, MailTemplate.NEW_APPLICATION.getSubject(), htmlBody));
+        LOGGER.info("Queued new application notification email to admin for app ID: {}", event.getKycApplicationId());
     }
     /**
      * Listens for KYC status update events from Kafka.
@@ -60,74 +92,142 @@ public class EmailNotificationService {
             groupId = "onboarding_group",
             containerFactory = "kafkaListenerContainerFactory"
     )
-    public void consumeKycStatusUpdate(KycStatusUpdateEvent event) {
+    public void consumeKycStatusUpdates(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        handleEach(records);
+        acknowledgment.acknowledge();
+    }
+
+    private void notifyKycStatusUpdate(KycStatusUpdateEvent event) {
         LOGGER.info("--> Received KYC Status Update Event for: {}", event.getCustomerName());
-        String customerLoginLink = "http://localhost:8080/login";
-        String subject;
-        String htmlBody;
-        if ("VERIFIED".equalsIgnoreCase(event.getKycStatus())) {
-            subject = "Congratulations! Your KYC with OFSS Bank has been Verified";
-            htmlBody = "<html><body>" +
-                    "<img src='cid:favicon'>" +
-                    "<p>Dear Ms. " + event.getCustomerName() + ",</p>" +
-                    "<p>Thank you for completing your KYC verification with OFSS Bank. We are pleased to inform you that your verification was successful.</p>" +
-                    "<hr>" +
-                    "<p style='font-weight: bold;'>Your Account Details:</p>" +
-                    "<ul>" +
-                    "<li>Account Number: " + event.getAccountNumber() + "</li>" +
-                    "<li>Account Type: " + event.getAccountType() + "</li>" +
-                    "<li>IFSC Code: " + event.getIfscCode() + "</li>" +
-                    "</ul>" +
-                    "<p>You can now log in to your customer dashboard here:<br><a href=\"" + customerLoginLink + "\">Customer Dashboard</a></p>" +
-                    "<p>We look forward to providing you with excellent service.</p>" +
-                    "<p>Warm regards,<br>OFSS Onboarding Team</p>" +
-                    "</body></html>";
-        } else { // REJECTED
-            subject = "Important: Update on Your KYC Verification with OFSS Bank";
-            String rejectionReason = event.getRejectionReason() != null ? event.getRejectionReason() : "Mismatched information or unclear documents.";
-            htmlBody = "<html><body>" +
-                    "<img src='cid:favicon'>" +
-                    "<p>Dear Ms. " + event.getCustomerName() + ",</p>" +
-                    "<p>Thank you for submitting your KYC documents to OFSS Bank. We truly value your interest in banking with us and appreciate the time you took to complete your application.</p>" +
-                    "<p>After a thorough review of your submission, we regret to inform you that your <b>KYC verification has not been approved</b> at this time.</p>" +
-                    "<hr>" +
-                    "<p style='font-weight: bold;'>Reason for Rejection:</p>" +
-                    "<p><b>" + rejectionReason + "</b></p>" +
-                    "<hr>" +
-                    "<p style='font-weight: bold;'>Next Steps:</p>" +
-                    "<ol>" +
-                    "<li>Upload a valid and clearly visible Photo ID (e.g., Aadhaar Card, PAN Card, Passport, or Driving License).</li>" +
-                    "<li>Ensure the document is not cropped, all details are legible, and the image is well-lit.</li>" +
-                    "<li>Resubmit your documents through your onboarding dashboard.</li>" +
-                    "</ol>" +
-                    "<hr>" +
-                    "<p style='font-weight: bold;'>Need Help?</p>" +
-                    "<p>Our support team is here to help you:<br>" +
-                    "&#x2709;&#xFE0F; Email: support@ofssbank.com<br>" +
-                    "&#x260E;&#xFE0F; Phone: 1800-123-4567 (Mon–Sat, 9 AM to 6 PM)</p>" +
-                    "<p>We encourage you to reapply at your earliest convenience so we can proceed with creating your account.</p>" +
-                    "<p>Thank you for your patience and understanding.</p>" +
-                    "<p>Warm regards,<br>OFSS Onboarding Team</p>" +
-                    "</body></html>";
+        MailTemplate template = "VERIFIED".equalsIgnoreCase(event.getKycStatus())
+                ? MailTemplate.KYC_VERIFIED : MailTemplate.KYC_REJECTED;
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("customerName", event.getCustomerName());
+        variables.put("accountNumber", event.getAccountNumber());
+        variables.put("accountType", event.getAccountType());
+        variables.put("ifscCode", event.getIfscCode());
+        variables.put("rejectionReason", event.getRejectionReason());
+        String htmlBody = mailTemplateRenderer.render(template, variables);
+        mailDispatcher.submit(new OutgoingMail(event.getCustomerEmail(), template.getSubject(), htmlBody));
+        LOGGER.info("Queued KYC status update email to customer: {}", event.getCustomerName());
+    }
+
+    /**
+     * Listeners for the retry topics of both onboarding topics, one per stage so that a record waiting
+     * out a long delay doesn't hold up the shorter stages.
+     */
+    @KafkaListener(
+            topics = "#{T(com.onboarding.config.KafkaTopicConfig).retryTopics(0)}",
+            groupId = "onboarding_group",
+            concurrency = "${kafka.retry.concurrency:1}",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void consumeFirstRetries(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        consumeRetries(records, acknowledgment);
+    }
+
+    @KafkaListener(
+            topics = "#{T(com.onboarding.config.KafkaTopicConfig).retryTopics(1)}",
+            groupId = "onboarding_group",
+            concurrency = "${kafka.retry.concurrency:1}",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void consumeSecondRetries(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        consumeRetries(records, acknowledgment);
+    }
+
+    @KafkaListener(
+            topics = "#{T(com.onboarding.config.KafkaTopicConfig).retryTopics(2)}",
+            groupId = "onboarding_group",
+            concurrency = "${kafka.retry.concurrency:1}",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void consumeLastRetries(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        consumeRetries(records, acknowledgment);
+    }
+
+    /**
+     * Handles the records of a retry batch that are due. At the first one that isn't, the records
+     * before it are committed and the consumer pauses until it is due; every record of a stage waits
+     * the same delay, so the records after it are due later still.
+     */
+    void consumeRetries(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        long now = System.currentTimeMillis();
+        int due = 0;
+        while (due < records.size() && KafkaRetryRouter.dueAt(records.get(due)) <= now) {
+            due++;
         }
+        handleEach(records.subList(0, due));
+        if (due < records.size()) {
+            long wait = KafkaRetryRouter.dueAt(records.get(due)) - System.currentTimeMillis();
+            acknowledgment.nack(due, Duration.ofMillis(Math.max(0, wait)));
+        } else {
+            acknowledgment.acknowledge();
+        }
+    }
+
+    /**
+     * Handles a batch, skipping events that have been handled before (looked up for the whole batch
+     * at once), and records the ones it handles, also when the batch stops early.
+     */
+    private void handleEach(List<ConsumerRecord<String, Object>> records) {
+        List<String> eventIds = new ArrayList<>(records.size());
+        for (ConsumerRecord<String, Object> record : records) {
+            if (record.value() instanceof DomainEvent) {
+                eventIds.add(((DomainEvent) record.value()).getEventId());
+            }
+        }
+        Set<String> seen = processedEvents.findProcessed(eventIds);
+        List<String> handled = new ArrayList<>(eventIds.size());
         try {
-            sendHtmlEmail(event.getCustomerEmail(), subject, htmlBody);
-            LOGGER.info("Successfully sent KYC status update email to customer: {}", event.getCustomerName());
-        } catch (MessagingException | IOException e) {
-            LOGGER.error("Failed to send KYC status update email to customer: {}. Error: {}", event.getCustomerName(), e.getMessage());
+            for (int i = 0; i < records.size(); i++) {
+                ConsumerRecord<String, Object> record = records.get(i);
+                String eventId = record.value() instanceof DomainEvent ? ((DomainEvent) record.value()).getEventId() : null;
+                if (eventId != null && !seen.add(eventId)) {
+                    LOGGER.info("Skipping event {} at {}-{}@{}: already handled", eventId, record.topic(), record.partition(), record.offset());
+                    continue;
+                }
+                if (handle(record, i) && eventId != null) {
+                    handled.add(eventId);
+                }
+            }
+        } finally {
+            processedEvents.markProcessed(handled);
+        }
+    }
+
+    // Records from the retry topics are handled as records of the topic they came from
+    private boolean handle(ConsumerRecord<String, Object> record, int index) {
+        if (KafkaTopicConfig.TOPIC_CUSTOMER_REGISTRATION.equals(KafkaTopicConfig.originalTopic(record.topic()))) {
+            return handle(record, index, NewKycApplicationEvent.class, this::notifyNewKycApplication);
         }
+        return handle(record, index, KycStatusUpdateEvent.class, this::notifyKycStatusUpdate);
     }
+
     /**
-     * Helper method to send an HTML email with an embedded image.
+     * Hands a record to the handler. A record that couldn't be deserialized (its value is null) goes
+     * straight to the dead-letter topic, one the handler fails on goes to the next retry topic, and a
+     * record of some other event type is logged and skipped. Only if the record can't be forwarded
+     * does the batch stop there: the error handler then commits the records before it and retries it.
+     * Returns whether the handler went through.
      */
-    private void sendHtmlEmail(String to, String subject, String htmlText) throws MessagingException, IOException {
-        MimeMessage message = javaMailSender.createMimeMessage();
-        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8"); // 'true' enables multipart/mixed mode for attachments/inline resources
-        helper.setFrom(SENDER_EMAIL);
-        helper.setTo(to);
-        helper.setSubject(subject);
-        helper.setText(htmlText, true); // The 'true' flag here is crucial; it tells the helper to treat the text as HTML
-        // Add the favicon.ico from the static folder as an inline image
-        javaMailSender.send(message);
+    private <T> boolean handle(ConsumerRecord<String, Object> record, int index, Class<T> type, Consumer<T> handler) {
+        try {
+            if (record.value() == null) {
+                retryRouter.deadLetterUnreadable(record);
+            } else if (!type.isInstance(record.value())) {
+                LOGGER.error("Skipping record {}-{}@{}: not a {}", record.topic(), record.partition(), record.offset(), type.getSimpleName());
+            } else {
+                try {
+                    handler.accept(type.cast(record.value()));
+                    return true;
+                } catch (RuntimeException e) {
+                    retryRouter.retryLater(record, e);
+                }
+            }
+        } catch (RuntimeException e) {
+            throw new BatchListenerFailedException("Failed to forward " + type.getSimpleName() + " at offset " + record.offset(), e, index);
+        }
+        return false;
     }
-}
\ No newline at end of file
+}
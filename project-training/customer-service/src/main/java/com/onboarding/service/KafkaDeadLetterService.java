@@ -0,0 +1,190 @@
+package com.onboarding.service;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import com.onboarding.config.KafkaTopicConfig;
+
+/**
+ * Reads the dead-letter topics for the admin API and replays their records. Records are read from the
+ * position of the onboarding_dlt_admin consumer group, which only moves when records are replayed, so
+ * a listing shows the dead letters that haven't been replayed yet, oldest first within each partition.
+ *
+ * A replayed record goes back to its onboarding topic with its original key, value and headers, minus
+ * the retry and error headers, and starts over with a full set of retries.
+ */
+@Service
+public class KafkaDeadLetterService {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaDeadLetterService.class);
+
+    static final String ADMIN_GROUP_ID = "onboarding_dlt_admin";
+    private static final Duration POLL_TIMEOUT = Duration.ofMillis(500);
+    // Stops reading if the topic's end can't be reached in time, e.g. while the broker is unavailable
+    private static final long READ_TIMEOUT_MILLIS = 10000;
+
+    private final KafkaTemplate<String, byte[]> rawKafkaTemplate;
+    private final String bootstrapServers;
+
+    public KafkaDeadLetterService(KafkaTemplate<String, byte[]> rawKafkaTemplate,
+                                  @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+        this.rawKafkaTemplate = rawKafkaTemplate;
+        this.bootstrapServers = bootstrapServers;
+    }
+
+    /**
+     * Up to max dead letters of the given onboarding topic that haven't been replayed yet.
+     */
+    public synchronized List<Map<String, Object>> list(String topic, int max) {
+        try (KafkaConsumer<String, byte[]> consumer = openConsumer(max)) {
+            return readPending(consumer, KafkaTopicConfig.deadLetterTopic(requireOnboardingTopic(topic)), max).stream()
+                    .map(this::summary)
+                    .collect(Collectors.toList());
+        }
+    }
+
+    /**
+     * Sends up to max dead letters back to the given onboarding topic and moves the admin group past
+     * them. Returns how many were replayed.
+     */
+    public synchronized int replay(String topic, int max) {
+        requireOnboardingTopic(topic);
+        try (KafkaConsumer<String, byte[]> consumer = openConsumer(max)) {
+            List<ConsumerRecord<String, byte[]>> records = readPending(consumer, KafkaTopicConfig.deadLetterTopic(topic), max);
+            List<CompletableFuture<?>> sends = new ArrayList<>();
+            Map<TopicPartition, OffsetAndMetadata> replayed = new HashMap<>();
+            for (ConsumerRecord<String, byte[]> record : records) {
+                sends.add(rawKafkaTemplate.send(new ProducerRecord<>(topic, null, record.key(), record.value(), replayHeaders(record))));
+                replayed.put(new TopicPartition(record.topic(), record.partition()), new OffsetAndMetadata(record.offset() + 1));
+            }
+            // Only move past the records once the broker has all of them
+            CompletableFuture.allOf(sends.toArray(new CompletableFuture[0])).join();
+            if (!replayed.isEmpty()) {
+                consumer.commitSync(replayed);
+            }
+            LOGGER.info("Replayed {} dead letter(s) to {}", records.size(), topic);
+            return records.size();
+        }
+    }
+
+    private static String requireOnboardingTopic(String topic) {
+        if (!KafkaTopicConfig.isOnboardingTopic(topic)) {
+            throw new IllegalArgumentException("Unknown topic: " + topic);
+        }
+        return topic;
+    }
+
+    private KafkaConsumer<String, byte[]> openConsumer(int max) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.GROUP_ID_CONFIG, ADMIN_GROUP_ID);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, Math.max(1, max));
+        return new KafkaConsumer<>(props, new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    /**
+     * Reads from the admin group's committed offsets (or the start of each partition) until max records
+     * or the end of the topic. What is returned is a prefix of each partition's pending records.
+     */
+    private List<ConsumerRecord<String, byte[]>> readPending(KafkaConsumer<String, byte[]> consumer, String deadLetterTopic, int max) {
+        List<TopicPartition> partitions = consumer.partitionsFor(deadLetterTopic).stream()
+                .map(info -> new TopicPartition(deadLetterTopic, info.partition()))
+                .collect(Collectors.toList());
+        consumer.assign(partitions);
+        Map<TopicPartition, OffsetAndMetadata> committed = consumer.committed(new HashSet<>(partitions));
+        for (TopicPartition partition : partitions) {
+            OffsetAndMetadata offset = committed.get(partition);
+            if (offset == null) {
+                consumer.seekToBeginning(Collections.singleton(partition));
+            } else {
+                consumer.seek(partition, offset.offset());
+            }
+        }
+        Map<TopicPartition, Long> endOffsets = consumer.endOffsets(partitions);
+
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        long deadline = System.currentTimeMillis() + READ_TIMEOUT_MILLIS;
+        while (records.size() < max && !caughtUp(consumer, endOffsets) && System.currentTimeMillis() < deadline) {
+            for (ConsumerRecord<String, byte[]> record : consumer.poll(POLL_TIMEOUT)) {
+                if (records.size() == max) {
+                    break;
+                }
+                records.add(record);
+            }
+        }
+        return records;
+    }
+
+    private static boolean caughtUp(KafkaConsumer<?, ?> consumer, Map<TopicPartition, Long> endOffsets) {
+        for (Map.Entry<TopicPartition, Long> end : endOffsets.entrySet()) {
+            if (consumer.position(end.getKey()) < end.getValue()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static Headers replayHeaders(ConsumerRecord<String, byte[]> record) {
+        Headers headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith("kafka_dlt-")
+                    && !header.key().equals(KafkaRetryRouter.ATTEMPT_HEADER)
+                    && !header.key().equals(KafkaRetryRouter.DUE_AT_HEADER)) {
+                headers.add(header);
+            }
+        }
+        return headers;
+    }
+
+    private Map<String, Object> summary(ConsumerRecord<String, byte[]> record) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("partition", record.partition());
+        summary.put("offset", record.offset());
+        summary.put("key", record.key());
+        summary.put("timestamp", record.timestamp());
+        summary.put("attempts", KafkaRetryRouter.attempt(record));
+        summary.put("originalTopic", text(record, KafkaHeaders.DLT_ORIGINAL_TOPIC));
+        Header partition = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_PARTITION);
+        summary.put("originalPartition", partition == null ? null : ByteBuffer.wrap(partition.value()).getInt());
+        Header offset = record.headers().lastHeader(KafkaHeaders.DLT_ORIGINAL_OFFSET);
+        summary.put("originalOffset", offset == null ? null : ByteBuffer.wrap(offset.value()).getLong());
+        summary.put("exception", text(record, KafkaHeaders.DLT_EXCEPTION_FQCN));
+        summary.put("error", text(record, KafkaHeaders.DLT_EXCEPTION_MESSAGE));
+        summary.put("payload", record.value() == null ? null : new String(record.value(), StandardCharsets.UTF_8));
+        return summary;
+    }
+
+    private static String text(ConsumerRecord<?, ?> record, String headerName) {
+        Header header = record.headers().lastHeader(headerName);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
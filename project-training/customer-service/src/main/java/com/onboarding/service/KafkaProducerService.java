@@ -8,6 +8,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+/**
+ * Events are keyed by customer or application id, so the events for one customer stay in order on
+ * one partition while different customers are consumed in parallel.
+ * Each event is stamped with its id and time (see DomainEvent) just before it is sent.
+ */
 @Service
 public class KafkaProducerService {
 
@@ -21,11 +26,13 @@ public class KafkaProducerService {
 
     public void sendNewCustomerNotification(NewCustomerEvent event) {
         LOGGER.info("Publishing new customer event for customer ID: {}", event.getCustomerId());
-        kafkaTemplate.send(KafkaTopicConfig.TOPIC_CUSTOMER_REGISTRATION, event);
+        event.stamp();
+        kafkaTemplate.send(KafkaTopicConfig.TOPIC_CUSTOMER_REGISTRATION, KafkaTopicConfig.key(event.getCustomerId()), event);
     }
 
     public void sendKycUpdateNotification(KycStatusUpdateEvent event) {
         LOGGER.info("Publishing KYC status update event for customer: {}", event.getCustomerName());
-        kafkaTemplate.send(KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE, event);
+        event.stamp();
+        kafkaTemplate.send(KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE, KafkaTopicConfig.key(event.getKycApplicationId()), event);
     }
 }
\ No newline at end of file
@@ -0,0 +1,153 @@
+package com.onboarding.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.log.LogAccessor;
+import org.springframework.kafka.core.KafkaOperations;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+import org.springframework.stereotype.Component;
+
+import com.onboarding.config.KafkaTopicConfig;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Moves a record that a listener failed on to the next retry topic, so the listener can go on with
+ * the rest of its partition. A record that fails on its first delivery goes to topic-retry-0, after
+ * another failure to topic-retry-1, and so on; after the last stage it goes to topic-dlt. Each stage
+ * waits longer before the record is tried again: kafka.retry.initial-delay-ms, multiplied by
+ * kafka.retry.multiplier per stage and capped at kafka.retry.max-delay-ms. A record that couldn't be
+ * deserialized is not retried and goes to the dead-letter topic as the bytes it arrived with.
+ *
+ * Forwarded records keep their key, value and headers. The first forward adds the original topic,
+ * partition and offset, and every forward replaces the exception class, message and stack trace
+ * with those of the latest failure (the kafka_dlt-* headers of DeadLetterPublishingRecoverer).
+ */
+@Component
+public class KafkaRetryRouter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaRetryRouter.class);
+    private static final LogAccessor LOG_ACCESSOR = new LogAccessor(KafkaRetryRouter.class);
+
+    // Failed deliveries so far, and when the record on a retry topic may be tried again (epoch millis)
+    static final String ATTEMPT_HEADER = "onboarding-retry-attempt";
+    static final String DUE_AT_HEADER = "onboarding-retry-due-at";
+
+    private final DeadLetterPublishingRecoverer recoverer;
+    private final long initialDelayMillis;
+    private final double multiplier;
+    private final long maxDelayMillis;
+    private final Counter retried;
+    private final Counter deadLettered;
+
+    public KafkaRetryRouter(KafkaTemplate<String, Object> kafkaTemplate,
+                            KafkaTemplate<String, byte[]> rawKafkaTemplate,
+                            MeterRegistry registry,
+                            @Value("${kafka.retry.initial-delay-ms:10000}") long initialDelayMillis,
+                            @Value("${kafka.retry.multiplier:5}") double multiplier,
+                            @Value("${kafka.retry.max-delay-ms:600000}") long maxDelayMillis) {
+        this.initialDelayMillis = initialDelayMillis;
+        this.multiplier = Math.max(1, multiplier);
+        this.maxDelayMillis = maxDelayMillis;
+
+        // The recoverer picks the template by value type; poison records carry their raw bytes
+        Map<Class<?>, KafkaOperations<?, ?>> templates = new LinkedHashMap<>();
+        templates.put(byte[].class, rawKafkaTemplate);
+        templates.put(Object.class, kafkaTemplate);
+        this.recoverer = new DeadLetterPublishingRecoverer(templates, this::destination);
+        this.recoverer.setHeadersFunction(this::retryHeaders);
+        // Keep the original topic, partition and offset of the first delivery on every hop
+        this.recoverer.setAppendOriginalHeaders(false);
+
+        this.retried = Counter.builder("kafka.records.retried")
+                .description("Records moved to a retry topic after a listener failed on them")
+                .register(registry);
+        this.deadLettered = Counter.builder("kafka.records.dead.lettered").register(registry);
+    }
+
+    /**
+     * Sends the record on to its next retry topic, or to the dead-letter topic when it has used up
+     * its retries. Throws if the broker doesn't take it, so the listener doesn't commit past it.
+     */
+    public void retryLater(ConsumerRecord<?, ?> record, Exception cause) {
+        recoverer.accept(record, cause);
+        if (isDeadLetter(record)) {
+            deadLettered.increment();
+            LOGGER.error("Record {}-{}@{} sent to {} after {} attempt(s): {}", record.topic(), record.partition(),
+                    record.offset(), KafkaTopicConfig.deadLetterTopic(KafkaTopicConfig.originalTopic(record.topic())),
+                    attempt(record) + 1, cause.getMessage());
+        } else {
+            retried.increment();
+            LOGGER.warn("Record {}-{}@{} will be retried in {} ms: {}", record.topic(), record.partition(),
+                    record.offset(), delayMillis(attempt(record)), cause.getMessage());
+        }
+    }
+
+    /**
+     * Sends a record whose value couldn't be deserialized straight to the dead-letter topic, with the
+     * deserializer's error as the cause.
+     */
+    public void deadLetterUnreadable(ConsumerRecord<?, ?> record) {
+        DeserializationException cause = SerializationUtils.getExceptionFromHeader(
+                record, SerializationUtils.VALUE_DESERIALIZER_EXCEPTION_HEADER, LOG_ACCESSOR);
+        retryLater(record, cause != null ? cause : new IllegalArgumentException("Record has no value"));
+    }
+
+    /**
+     * How many times the record has failed before this delivery; 0 on its first delivery.
+     */
+    public static int attempt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(ATTEMPT_HEADER);
+        return header == null ? 0 : Integer.parseInt(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    /**
+     * When a record on a retry topic is due to be tried again; 0 for records without a due time.
+     */
+    public static long dueAt(ConsumerRecord<?, ?> record) {
+        Header header = record.headers().lastHeader(DUE_AT_HEADER);
+        return header == null ? 0 : Long.parseLong(new String(header.value(), StandardCharsets.UTF_8));
+    }
+
+    long delayMillis(int stage) {
+        return (long) Math.min(maxDelayMillis, initialDelayMillis * Math.pow(multiplier, stage));
+    }
+
+    private boolean isDeadLetter(ConsumerRecord<?, ?> record) {
+        return record.value() == null || attempt(record) >= KafkaTopicConfig.RETRY_STAGES;
+    }
+
+    // Partition -1 lets the producer partition by key, as for the original record
+    private TopicPartition destination(ConsumerRecord<?, ?> record, Exception cause) {
+        String topic = KafkaTopicConfig.originalTopic(record.topic());
+        if (isDeadLetter(record)) {
+            return new TopicPartition(KafkaTopicConfig.deadLetterTopic(topic), -1);
+        }
+        return new TopicPartition(KafkaTopicConfig.retryTopic(topic, attempt(record)), -1);
+    }
+
+    private Headers retryHeaders(ConsumerRecord<?, ?> record, Exception cause) {
+        int attempt = attempt(record);
+        Headers headers = new RecordHeaders();
+        headers.add(ATTEMPT_HEADER, String.valueOf(attempt + 1).getBytes(StandardCharsets.UTF_8));
+        if (!isDeadLetter(record)) {
+            long dueAt = System.currentTimeMillis() + delayMillis(attempt);
+            headers.add(DUE_AT_HEADER, String.valueOf(dueAt).getBytes(StandardCharsets.UTF_8));
+        }
+        return headers;
+    }
+}
@@ -0,0 +1,169 @@
+package com.onboarding.service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Remembers which Kafka events (by {@link com.onboarding.dto.DomainEvent#getEventId()}) have been
+ * handled, so the listeners can drop an event that Kafka delivers again, e.g. after a rebalance.
+ *
+ * The ids handled recently sit in an in-memory LRU of kafka.dedup.cache-size entries. A redelivery
+ * to the same instance is found there without touching the database. Ids that aren't in it are
+ * looked up in PROCESSED_EVENT, once per batch of records, which also catches events handled by
+ * another instance or before a restart. Rows older than kafka.dedup.ttl are deleted on a schedule;
+ * Kafka doesn't redeliver anything that old.
+ *
+ * The store never holds up the listeners: if the database can't be read or written, the LRU alone
+ * decides and a warning is logged.
+ */
+@Component
+public class ProcessedEventStore {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ProcessedEventStore.class);
+
+    // Keeps the IN list well under Oracle's limit of 1000 expressions
+    private static final int LOOKUP_CHUNK = 500;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final Map<String, Boolean> recent;
+    private final Duration ttl;
+    private final Counter duplicates;
+
+    public ProcessedEventStore(DataSource dataSource,
+                               MeterRegistry registry,
+                               @Value("${kafka.dedup.cache-size:10000}") int cacheSize,
+                               @Value("${kafka.dedup.ttl:7d}") Duration ttl) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.namedJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        int capacity = Math.max(1, cacheSize);
+        this.recent = new LinkedHashMap<String, Boolean>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Boolean> eldest) {
+                return size() > capacity;
+            }
+        };
+        this.ttl = ttl;
+        this.duplicates = Counter.builder("kafka.events.duplicates")
+                .description("Redelivered events dropped because they had been handled already")
+                .register(registry);
+    }
+
+    /**
+     * The ids among the given ones that have been handled already.
+     */
+    public Set<String> findProcessed(Collection<String> eventIds) {
+        Set<String> processed = new HashSet<>();
+        List<String> unknown = new ArrayList<>();
+        synchronized (recent) {
+            for (String eventId : eventIds) {
+                if (recent.get(eventId) != null) {
+                    processed.add(eventId);
+                } else {
+                    unknown.add(eventId);
+                }
+            }
+        }
+        if (!unknown.isEmpty()) {
+            Set<String> stored = lookUp(unknown);
+            remember(stored);
+            processed.addAll(stored);
+        }
+        duplicates.increment(processed.size());
+        return processed;
+    }
+
+    /**
+     * Records the given events as handled.
+     */
+    public void markProcessed(Collection<String> eventIds) {
+        if (eventIds.isEmpty()) {
+            return;
+        }
+        remember(eventIds);
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> rows = new ArrayList<>(eventIds.size());
+        for (String eventId : eventIds) {
+            rows.add(new Object[] {eventId, now});
+        }
+        try {
+            jdbcTemplate.batchUpdate("INSERT INTO PROCESSED_EVENT (EVENT_ID, PROCESSED_AT) VALUES (?, ?)", rows);
+        } catch (DuplicateKeyException e) {
+            // Another instance got some of them in first; insert the rest one by one
+            insertMissing(rows);
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not store {} processed event ids: {}", rows.size(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${kafka.dedup.cleanup-interval-ms:3600000}")
+    public void deleteExpired() {
+        try {
+            int deleted = jdbcTemplate.update("DELETE FROM PROCESSED_EVENT WHERE PROCESSED_AT < ?",
+                    Timestamp.valueOf(LocalDateTime.now().minus(ttl)));
+            if (deleted > 0) {
+                LOGGER.info("Deleted {} processed event ids older than {}", deleted, ttl);
+            }
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not delete expired processed event ids: {}", e.getMessage());
+        }
+    }
+
+    private Set<String> lookUp(List<String> eventIds) {
+        Set<String> stored = new HashSet<>();
+        try {
+            for (int from = 0; from < eventIds.size(); from += LOOKUP_CHUNK) {
+                List<String> chunk = eventIds.subList(from, Math.min(eventIds.size(), from + LOOKUP_CHUNK));
+                stored.addAll(namedJdbcTemplate.queryForList("SELECT EVENT_ID FROM PROCESSED_EVENT WHERE EVENT_ID IN (:ids)",
+                        Collections.singletonMap("ids", chunk), String.class));
+            }
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not look up processed event ids, relying on the in-memory ones: {}", e.getMessage());
+        }
+        return stored;
+    }
+
+    private void insertMissing(List<Object[]> rows) {
+        for (Object[] row : rows) {
+            try {
+                jdbcTemplate.update("INSERT INTO PROCESSED_EVENT (EVENT_ID, PROCESSED_AT) VALUES (?, ?)", row);
+            } catch (DuplicateKeyException e) {
+                LOGGER.debug("Event {} was already stored", row[0]);
+            } catch (DataAccessException e) {
+                LOGGER.warn("Could not store processed event id {}: {}", row[0], e.getMessage());
+            }
+        }
+    }
+
+    private void remember(Collection<String> eventIds) {
+        synchronized (recent) {
+            for (String eventId : eventIds) {
+                recent.put(eventId, Boolean.TRUE);
+            }
+        }
+    }
+}
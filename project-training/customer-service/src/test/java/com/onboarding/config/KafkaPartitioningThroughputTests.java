@@ -0,0 +1,150 @@
+package com.onboarding.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.kafka.clients.admin.AdminClient;
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.OffsetAndMetadata;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.config.KafkaListenerEndpointRegistry;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.kafka.test.utils.ContainerTestUtils;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.onboarding.dto.KycStatusUpdateEvent;
+import com.onboarding.service.KafkaProducerService;
+
+/**
+ * Sends keyed status updates through KafkaProducerService to an embedded broker and consumes them with
+ * the listener factory from KafkaConsumerConfig. The topic starts with one partition, as older
+ * deployments created it, and KafkaTopicConfig has to raise it to the configured six. The listener
+ * takes batches and acknowledges each one, as EmailNotificationService does.
+ */
+@SpringJUnitConfig({KafkaTopicConfig.class, KafkaProducerConfig.class, KafkaConsumerConfig.class,
+        KafkaPartitioningThroughputTests.Listener.class})
+@EmbeddedKafka(kraft = true, partitions = 1, topics = KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE)
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.group-id=throughput-test",
+        "kafka.topics.kyc-status-updates.partitions=6",
+        "kafka.listener.concurrency=6"
+})
+class KafkaPartitioningThroughputTests {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(KafkaPartitioningThroughputTests.class);
+
+    private static final int APPLICATIONS = 60;
+    private static final int UPDATES_PER_APPLICATION = 10;
+    private static final int EVENTS = APPLICATIONS * UPDATES_PER_APPLICATION;
+    // Stands in for the per-event work of a listener
+    private static final long WORK_MILLIS = 5;
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    @Autowired
+    private KafkaAdmin kafkaAdmin;
+    @Autowired
+    private KafkaListenerEndpointRegistry registry;
+    @Autowired
+    private Listener listener;
+
+    @Test
+    void keyedEventsAreConsumedInParallelAndInOrderPerApplication() throws Exception {
+        assertThat(kafkaAdmin.describeTopics(KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE)
+                .get(KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE).partitions()).hasSize(6);
+        ContainerTestUtils.waitForAssignment(registry.getListenerContainer("throughput"), 6);
+
+        KafkaProducerService producer = new KafkaProducerService(kafkaTemplate);
+        long start = System.nanoTime();
+        for (int update = 0; update < UPDATES_PER_APPLICATION; update++) {
+            for (long application = 1; application <= APPLICATIONS; application++) {
+                KycStatusUpdateEvent event = new KycStatusUpdateEvent();
+                event.setKycApplicationId(application);
+                event.setKycStatus("REJECTED");
+                event.setRejectionReason(String.valueOf(update));
+                producer.sendKycUpdateNotification(event);
+            }
+        }
+        assertThat(listener.received.await(30, TimeUnit.SECONDS)).isTrue();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        LOGGER.info("Consumed {} events on {} threads in {} ms ({} events/s)", EVENTS, listener.threads.size(),
+                elapsedMillis, EVENTS * 1000 / Math.max(1, elapsedMillis));
+
+        // Each application's updates arrive in the order they were sent, all from one partition
+        for (long application = 1; application <= APPLICATIONS; application++) {
+            assertThat(listener.updates.get(application)).containsExactly("0", "1", "2", "3", "4", "5", "6", "7", "8", "9");
+            assertThat(listener.partitions.get(application)).hasSize(1);
+        }
+        // The work is spread over all six partitions, each consumed by its own thread
+        assertThat(listener.threadsByPartition).hasSize(6);
+        listener.threadsByPartition.values().forEach(threads -> assertThat(threads).hasSize(1));
+        assertThat(listener.threads).hasSize(6);
+        assertThat(committedOffsets()).isEqualTo(EVENTS);
+    }
+
+    // Acknowledged batches are committed on the consumer thread's next poll, so give it a moment
+    private long committedOffsets() throws Exception {
+        long committed = 0;
+        try (AdminClient admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            for (int attempt = 0; attempt < 50 && committed < EVENTS; attempt++) {
+                Thread.sleep(100);
+                committed = admin.listConsumerGroupOffsets("throughput-test").partitionsToOffsetAndMetadata().get()
+                        .values().stream().mapToLong(OffsetAndMetadata::offset).sum();
+            }
+        }
+        return committed;
+    }
+
+    @Configuration
+    @EnableKafka
+    static class Listener {
+
+        final CountDownLatch received = new CountDownLatch(EVENTS);
+        final Map<Long, List<String>> updates = new ConcurrentHashMap<>();
+        final Map<Long, Set<Integer>> partitions = new ConcurrentHashMap<>();
+        final Map<Integer, Set<String>> threadsByPartition = new ConcurrentHashMap<>();
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        @Bean
+        KafkaAdmin kafkaAdmin(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+            return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+        }
+
+        @KafkaListener(id = "throughput", groupId = "throughput-test", topics = KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE,
+                containerFactory = "kafkaListenerContainerFactory")
+        void consume(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) throws InterruptedException {
+            for (ConsumerRecord<String, Object> record : records) {
+                KycStatusUpdateEvent event = (KycStatusUpdateEvent) record.value();
+                Thread.sleep(WORK_MILLIS);
+                updates.computeIfAbsent(event.getKycApplicationId(), id -> new CopyOnWriteArrayList<>()).add(event.getRejectionReason());
+                partitions.computeIfAbsent(event.getKycApplicationId(), id -> ConcurrentHashMap.newKeySet()).add(record.partition());
+                threadsByPartition.computeIfAbsent(record.partition(), partition -> ConcurrentHashMap.newKeySet())
+                        .add(Thread.currentThread().getName());
+                threads.add(Thread.currentThread().getName());
+            }
+            acknowledgment.acknowledge();
+            records.forEach(record -> received.countDown());
+        }
+    }
+}
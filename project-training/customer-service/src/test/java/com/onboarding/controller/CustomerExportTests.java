@@ -0,0 +1,114 @@
+package com.onboarding.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.onboarding.model.Customer;
+import com.onboarding.model.KycStatus;
+import com.onboarding.repository.CustomerRepository;
+import com.onboarding.service.CustomerImportService;
+import com.onboarding.service.CustomerService;
+import com.onboarding.service.EventOutbox;
+
+/**
+ * The customer export end to end against H2: the streaming query, the export columns and both formats.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(CustomerService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerExportTests {
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+    @MockBean
+    private EventOutbox eventOutbox;
+    @MockBean
+    private CustomerImportService customerImportService;
+
+    private AdminApiController controller;
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAll();
+        controller = new AdminApiController(customerService, customerImportService,
+                new ObjectMapper().findAndRegisterModules().disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS));
+    }
+
+    @Test
+    void csvExportHasEveryCustomerWithoutDocuments() throws IOException {
+        Customer first = customerRepository.save(customer(1, "1 Test Street"));
+        customerRepository.save(customer(2, "Flat 2, \"Rose\" Villa"));
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportCustomers("csv");
+        String csv = body(response);
+
+        assertThat(response.getHeaders().getFirst(HttpHeaders.CONTENT_DISPOSITION)).contains("customers.csv");
+        String[] lines = csv.split("\n");
+        assertThat(lines).hasSize(3);
+        assertThat(lines[0]).isEqualTo("id,fullName,email,phone,dob,gender,maritalStatus,fathersName,nationality,"
+                + "profession,address,pan,aadhaar,kycStatus,requestedAccountType,netBankingEnabled,debitCardIssued,chequeBookIssued");
+        assertThat(csv).contains(first.getId() + ",Customer 1,customer1@example.com,9800000001,1990-01-01,")
+                .contains(",\"Flat 2, \"\"Rose\"\" Villa\",ABCDE0002F,")
+                .doesNotContain("base64");
+        assertThat(lines[1] + lines[2]).contains(",VERIFIED,");
+    }
+
+    @Test
+    void ndjsonExportWritesOneObjectPerCustomer() throws IOException {
+        customerRepository.save(customer(1, "1 Test Street"));
+        customerRepository.save(customer(2, "2 Test Street"));
+
+        ResponseEntity<StreamingResponseBody> response = controller.exportCustomers("ndjson");
+        String[] lines = body(response).split("\n");
+
+        assertThat(response.getHeaders().getContentType()).hasToString("application/x-ndjson");
+        assertThat(lines).hasSize(2);
+        for (String line : lines) {
+            assertThat(line).startsWith("{\"id\":").contains("\"dob\":\"1990-01-01\"").contains("\"kycStatus\":\"VERIFIED\"");
+        }
+    }
+
+    private static String body(ResponseEntity<StreamingResponseBody> response) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        response.getBody().writeTo(out);
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static Customer customer(int n, String address) {
+        Customer customer = new Customer();
+        customer.setFullName("Customer " + n);
+        customer.setEmail("customer" + n + "@example.com");
+        customer.setPhone(String.format("98%08d", n));
+        customer.setDob(LocalDate.of(1990, 1, 1));
+        customer.setAddress(address);
+        customer.setPan(String.format("ABCDE%04dF", n));
+        customer.setAadhaar(String.format("1234%08d", n));
+        customer.setKycStatus(KycStatus.VERIFIED);
+        customer.setPassportPhotoBase64("data:image/png;base64,AAAA");
+        return customer;
+    }
+}
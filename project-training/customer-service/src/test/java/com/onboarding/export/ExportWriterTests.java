@@ -0,0 +1,70 @@
+package com.onboarding.export;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+class ExportWriterTests {
+
+    private static final Map<String, Function<String[], Object>> COLUMNS = new LinkedHashMap<>();
+    static {
+        COLUMNS.put("name", row -> row[0]);
+        COLUMNS.put("address", row -> row[1]);
+        COLUMNS.put("dob", row -> row[2] == null ? null : LocalDate.parse(row[2]));
+    }
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @Test
+    void csvHasAHeaderAndQuotesOnlyValuesThatNeedIt() {
+        String csv = write(ExportFormat.CSV, Arrays.asList(
+                new String[] {"Plain", "1 Test Street", "1990-01-01"},
+                new String[] {"Comma", "Flat 2, Park Street", null},
+                new String[] {"Quote \"Q\"", "Line one\nline two", null},
+                new String[] {"Return", "a\rb", "2000-02-29"}));
+
+        assertThat(csv).isEqualTo("name,address,dob\n"
+                + "Plain,1 Test Street,1990-01-01\n"
+                + "Comma,\"Flat 2, Park Street\",\n"
+                + "\"Quote \"\"Q\"\"\",\"Line one\nline two\",\n"
+                + "Return,\"a\rb\",2000-02-29\n");
+    }
+
+    @Test
+    void ndjsonWritesOneObjectPerLineInColumnOrder() {
+        String ndjson = write(ExportFormat.NDJSON, Arrays.asList(
+                new String[] {"Plain", "1 Test Street", "1990-01-01"},
+                new String[] {"Quote \"Q\"", "Line one\nline two", null}));
+
+        assertThat(ndjson).isEqualTo(
+                "{\"name\":\"Plain\",\"address\":\"1 Test Street\",\"dob\":\"1990-01-01\"}\n"
+                + "{\"name\":\"Quote \\\"Q\\\"\",\"address\":\"Line one\\nline two\",\"dob\":null}\n");
+    }
+
+    @Test
+    void emptyExportsStillHaveTheCsvHeader() {
+        assertThat(write(ExportFormat.CSV, Arrays.<String[]>asList())).isEqualTo("name,address,dob\n");
+        assertThat(write(ExportFormat.NDJSON, Arrays.<String[]>asList())).isEmpty();
+    }
+
+    private String write(ExportFormat format, List<String[]> rows) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter<String[]> writer = new ExportWriter<>(format, out, objectMapper, COLUMNS);
+        rows.forEach(writer::write);
+        assertThat(writer.finish()).isEqualTo(rows.size());
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+}
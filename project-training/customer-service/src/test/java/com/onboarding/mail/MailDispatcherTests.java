@@ -0,0 +1,130 @@
+package com.onboarding.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetupTest;
+import com.onboarding.model.MailDeadLetter;
+import com.onboarding.repository.MailDeadLetterRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the dispatcher against a GreenMail SMTP server on a free port, the same stand-in the load tests use.
+ */
+class MailDispatcherTests {
+
+    private final MailDeadLetterRepository deadLetterRepository = mock(MailDeadLetterRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private GreenMail smtp;
+    private MailDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        smtp = new GreenMail(ServerSetupTest.SMTP.dynamicPort())
+                .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+        smtp.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (dispatcher != null) {
+            dispatcher.stop();
+        }
+        smtp.stop();
+    }
+
+    @Test
+    void queuedEmailsGoOutInBatchesOverReusedConnections() throws Exception {
+        dispatcher = dispatcher(smtp.getSmtp().getPort(), 5);
+        dispatcher.start();
+
+        for (int i = 0; i < 40; i++) {
+            dispatcher.submit(new OutgoingMail("admin@example.com", "New application " + i, "<p>Application " + i + "</p>"));
+        }
+
+        assertThat(smtp.waitForIncomingEmail(10_000, 40)).isTrue();
+        assertThat(smtp.getReceivedMessages()[0].getSubject()).startsWith("New application");
+        // A sender counts a message after the server has it; stopping waits for the senders to finish
+        dispatcher.stop();
+        // Two sender threads, each keeping its connection open across batches
+        assertThat(registry.counter("mail.connections.opened").count()).isLessThanOrEqualTo(2);
+        assertThat(registry.counter("mail.sent").count()).isEqualTo(40);
+    }
+
+    @Test
+    void failingSendsAreRetriedThenDeadLettered() throws Exception {
+        dispatcher = dispatcher(unusedPort(), 3);
+        dispatcher.start();
+
+        dispatcher.submit(new OutgoingMail("customer@example.com", "KYC verified", "<p>Welcome</p>"));
+
+        verify(deadLetterRepository, timeout(5_000)).save(argThat(deadLetter ->
+                deadLetter.getAttempts() == 3 && "customer@example.com".equals(deadLetter.getTo())));
+        assertThat(registry.counter("mail.retries").count()).isEqualTo(2);
+        assertThat(registry.counter("mail.sent").count()).isZero();
+    }
+
+    @Test
+    void redrivenDeadLettersAreRemovedOnceQueued() throws Exception {
+        List<MailDeadLetter> stored = Arrays.asList(deadLetter(1), deadLetter(2), deadLetter(3));
+        when(deadLetterRepository.findTop100ByOrderByIdAsc()).thenReturn(stored);
+        dispatcher = dispatcher(smtp.getSmtp().getPort(), 3);
+        dispatcher.start();
+
+        assertThat(dispatcher.redriveDeadLetters(2)).isEqualTo(2);
+
+        verify(deadLetterRepository).deleteAllInBatch(stored.subList(0, 2));
+        assertThat(smtp.waitForIncomingEmail(10_000, 2)).isTrue();
+        assertThat(smtp.getReceivedMessages()).extracting(message -> message.getSubject())
+                .containsExactlyInAnyOrder("KYC verified 1", "KYC verified 2");
+    }
+
+    @Test
+    void nothingIsRedrivenOnceStopped() {
+        dispatcher = dispatcher(smtp.getSmtp().getPort(), 3);
+
+        assertThat(dispatcher.redriveDeadLetters(100)).isZero();
+        verify(deadLetterRepository, never()).deleteAllInBatch(any());
+    }
+
+    private static MailDeadLetter deadLetter(int n) {
+        MailDeadLetter deadLetter = new MailDeadLetter();
+        deadLetter.setTo("customer" + n + "@example.com");
+        deadLetter.setSubject("KYC verified " + n);
+        deadLetter.setHtmlBody("<p>Welcome</p>");
+        return deadLetter;
+    }
+
+    private MailDispatcher dispatcher(int port, int maxAttempts) {
+        JavaMailSenderImpl mailSender = new JavaMailSenderImpl();
+        mailSender.setHost("localhost");
+        mailSender.setPort(port);
+        return new MailDispatcher(mailSender, deadLetterRepository, registry,
+                100, 2, 10, 100, 30_000, maxAttempts, 10, 50, 1_000, 5_000);
+    }
+
+    private static int unusedPort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,39 @@
+package com.onboarding.mail;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+class MailTemplateRendererTests {
+
+    private final MailTemplateRenderer renderer = new MailTemplateRenderer();
+
+    @Test
+    void customerSuppliedValuesAreEscaped() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("applicantName", "<script>alert('x')</script> & Co");
+        variables.put("applicationId", 42L);
+
+        String html = renderer.render(MailTemplate.NEW_APPLICATION, variables);
+
+        assertThat(html).contains("<b>&lt;script&gt;alert(&#39;x&#39;)&lt;/script&gt; &amp; Co</b>")
+                .doesNotContain("<script>")
+                .contains("Application ID: <span>42</span>")
+                .contains("href=\"http://localhost:8080/admin/customer/42\"");
+    }
+
+    @Test
+    void rejectionFallsBackToTheDefaultReason() {
+        Map<String, Object> variables = new HashMap<>();
+        variables.put("customerName", "Asha Verma");
+
+        String html = renderer.render(MailTemplate.KYC_REJECTED, variables);
+
+        assertThat(html).contains("Dear Ms. <span>Asha Verma</span>,")
+                .contains("<b>Mismatched information or unclear documents.</b>")
+                .contains("Mon–Sat");
+    }
+}
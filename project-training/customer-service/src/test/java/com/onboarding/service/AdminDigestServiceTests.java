@@ -0,0 +1,76 @@
+package com.onboarding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.onboarding.dto.NewKycApplicationEvent;
+import com.onboarding.mail.MailDispatcher;
+import com.onboarding.mail.MailTemplateRenderer;
+import com.onboarding.mail.OutgoingMail;
+import com.onboarding.repository.AdminDigestEntryRepository;
+
+/**
+ * Digest mode against H2 with a zero-length window, so each check sends whatever is stored.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "mail.admin-digest.enabled=true",
+        "mail.admin-digest.window=0s",
+        "mail.admin-digest.max-listed=2"
+})
+@Import({AdminDigestService.class, MailTemplateRenderer.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AdminDigestServiceTests {
+
+    @Autowired
+    private AdminDigestService digestService;
+    @Autowired
+    private AdminDigestEntryRepository entryRepository;
+
+    @MockBean
+    private MailDispatcher mailDispatcher;
+
+    @BeforeEach
+    void setUp() {
+        entryRepository.deleteAll();
+    }
+
+    @Test
+    void storedApplicationsGoOutAsOneSummary() {
+        digestService.record(new NewKycApplicationEvent(101L, "Asha Verma", "asha@example.com"));
+        digestService.record(new NewKycApplicationEvent(102L, "Ravi <Kumar>", "ravi@example.com"));
+        digestService.record(new NewKycApplicationEvent(103L, "Meera Shah", "meera@example.com", true));
+
+        digestService.sendDueDigest();
+
+        ArgumentCaptor<OutgoingMail> mail = ArgumentCaptor.forClass(OutgoingMail.class);
+        verify(mailDispatcher).submit(mail.capture());
+        assertThat(mail.getValue().getTo()).isEqualTo(EmailNotificationService.ADMIN_EMAIL);
+        assertThat(mail.getValue().getSubject()).endsWith("(3)");
+        assertThat(mail.getValue().getHtmlBody())
+                .contains("<b>3</b> applications", "<b>2</b> new", "<b>1</b> resubmitted")
+                .contains(">101<", ">102<", "Ravi &lt;Kumar&gt;")
+                .doesNotContain(">103<")
+                .contains("and <span>1</span> more");
+        assertThat(entryRepository.count()).isZero();
+    }
+
+    @Test
+    void nothingIsSentWhileTheWindowIsEmpty() {
+        digestService.sendDueDigest();
+
+        verify(mailDispatcher, never()).submit(any());
+    }
+}
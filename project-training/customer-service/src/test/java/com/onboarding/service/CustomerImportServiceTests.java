@@ -0,0 +1,197 @@
+package com.onboarding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.jackson.JacksonAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.onboarding.dto.CustomerImportResult;
+import com.onboarding.export.ExportFormat;
+import com.onboarding.model.Role;
+import com.onboarding.persistence.SqlStatementCounter;
+import com.onboarding.repository.CustomerImportJobRepository;
+import com.onboarding.repository.CustomerRepository;
+import com.onboarding.repository.NomineeRepository;
+import com.onboarding.repository.OutboxEventRepository;
+import com.onboarding.repository.RoleRepository;
+import com.onboarding.repository.UserRepository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs the bulk import against H2 with chunks of 100 records: duplicate and invalid records are
+ * turned away without stopping the import, and a run that breaks off resumes from its checkpoint.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "customer.import.chunk-size=100"
+})
+@ImportAutoConfiguration({JacksonAutoConfiguration.class, ValidationAutoConfiguration.class})
+@Import({CustomerImportService.class, EventOutbox.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerImportServiceTests {
+
+    private static final String CSV_HEADER = "fullName,email,phone,dob,pan,aadhaar,username,passwordHash,"
+            + "requestedAccountType,netBankingEnabled,nomineeName,nomineeMobile,nomineeAddress,nomineeAadhaar\n";
+    private static final String BCRYPT_HASH = "$2a$10$N9qo8uLOickgx2ZMRZoMyeIjZAgcfl7p92ldGxad68LJZdL17lhWy";
+
+    @Autowired
+    private CustomerImportService importService;
+    @Autowired
+    private CustomerImportJobRepository jobRepository;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private NomineeRepository nomineeRepository;
+    @Autowired
+    private UserRepository userRepository;
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+
+    @MockBean
+    private KafkaTemplate<String, byte[]> rawKafkaTemplate;
+    @Autowired
+    private RoleRepository roleRepository;
+
+    @BeforeEach
+    void setUp() {
+        userRepository.deleteAll();
+        customerRepository.deleteAll();
+        jobRepository.deleteAll();
+        outboxRepository.deleteAllInBatch();
+        if (roleRepository.findByName("ROLE_CUSTOMER").isEmpty()) {
+            Role role = new Role();
+            role.setName("ROLE_CUSTOMER");
+            roleRepository.save(role);
+        }
+    }
+
+    @Test
+    void importsInBatchesAndTurnsAwayDuplicatesAndInvalidRecords() {
+        StringBuilder csv = new StringBuilder(CSV_HEADER);
+        for (int i = 0; i < 250; i++) {
+            csv.append(csvRow(i, String.format("ABCDE%04dF", i)));
+        }
+        csv.append(csvRow(250, "ABCDE0010F"));  // PAN of a record imported two chunks earlier
+        csv.append(csvRow(251, "ABCDE0251F"));
+        csv.append(csvRow(251, "ABCDE0252F"));  // same email, phone and username as the record before
+        csv.append(csvRow(253, "not-a-pan"));
+
+        long before = SqlStatementCounter.current();
+        CustomerImportResult result = importService.importCustomers("legacy-1", ExportFormat.CSV, stream(csv));
+        long statements = SqlStatementCounter.current() - before;
+
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(result.getRecordsProcessed()).isEqualTo(254);
+        assertThat(result.getImported()).isEqualTo(251);
+        assertThat(result.getDuplicates()).isEqualTo(2);
+        assertThat(result.getRejected()).isEqualTo(1);
+        assertThat(result.getRejections()).containsExactlyInAnyOrder(
+                "Record 251: Duplicate PAN.", "Record 253: Duplicate AADHAAR.", "Record 254: Invalid PAN format.");
+        assertThat(customerRepository.count()).isEqualTo(251);
+        assertThat(userRepository.count()).isEqualTo(251);
+        assertThat(nomineeRepository.count()).isEqualTo(125);
+        // One CustomerCreated event per imported customer, published later by the relay
+        assertThat(outboxRepository.count()).isEqualTo(251);
+        // Four inserts per customer arrive in JDBC batches of 50, so far fewer statements than rows
+        assertThat(statements).isLessThan(251);
+    }
+
+    @Test
+    void overLongTextIsRejectedInsteadOfFailingTheChunk() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 3; i++) {
+            ndjson.append(jsonRow(i));
+        }
+        // Longer than the 255-character ADDRESS column
+        ndjson.append(jsonRow(3).replace("\"fullName\"", "\"address\":\"" + "x".repeat(256) + "\",\"fullName\""));
+
+        CustomerImportResult result = importService.importCustomers("legacy-3", ExportFormat.NDJSON, stream(ndjson));
+
+        assertThat(result.getStatus()).isEqualTo("COMPLETED");
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getRejections()).containsExactly("Record 4: Address is too long.");
+        assertThat(customerRepository.count()).isEqualTo(3);
+    }
+
+    @Test
+    void rerunResumesAfterTheLastCheckpoint() {
+        StringBuilder ndjson = new StringBuilder();
+        for (int i = 0; i < 300; i++) {
+            ndjson.append(jsonRow(i));
+        }
+        byte[] file = ndjson.toString().getBytes(StandardCharsets.UTF_8);
+
+        // The connection drops while the third chunk is read; the first chunk is already committed
+        CustomerImportResult interrupted = importService.importCustomers("legacy-2", ExportFormat.NDJSON,
+                new BreakingInputStream(file, file.length * 250 / 300));
+        assertThat(interrupted.getStatus()).isEqualTo("FAILED");
+        assertThat(interrupted.getRecordsProcessed()).isEqualTo(100);
+        assertThat(customerRepository.count()).isEqualTo(100);
+
+        CustomerImportResult resumed = importService.importCustomers("legacy-2", ExportFormat.NDJSON, new ByteArrayInputStream(file));
+        assertThat(resumed.getStatus()).isEqualTo("COMPLETED");
+        assertThat(resumed.getRecordsProcessed()).isEqualTo(300);
+        assertThat(resumed.getImported()).isEqualTo(300);
+        assertThat(resumed.getDuplicates()).isZero();
+        assertThat(customerRepository.count()).isEqualTo(300);
+
+        CustomerImportResult again = importService.importCustomers("legacy-2", ExportFormat.NDJSON, new ByteArrayInputStream(file));
+        assertThat(again.getImported()).isEqualTo(300);
+        assertThat(customerRepository.count()).isEqualTo(300);
+    }
+
+    private static String csvRow(int n, String pan) {
+        String nominee = n % 2 == 0
+                ? "\"Nominee, " + n + "\"," + String.format("97%08d", n) + ",\"1 Test Street\"," + String.format("5678%08d", n)
+                : ",,,";
+        return "Customer " + n + ",customer" + n + "@legacy.example," + String.format("98%08d", n) + ",1980-01-01,"
+                + pan + "," + String.format("1234%08d", n) + ",legacy" + n + "," + BCRYPT_HASH + ",SAVINGS,true," + nominee + "\n";
+    }
+
+    private static String jsonRow(int n) {
+        return "{\"fullName\":\"Customer " + n + "\",\"email\":\"customer" + n + "@legacy.example\",\"phone\":\""
+                + String.format("98%08d", n) + "\",\"dob\":\"1980-01-01\",\"pan\":\"" + String.format("ABCDE%04dF", n)
+                + "\",\"aadhaar\":\"" + String.format("1234%08d", n) + "\",\"username\":\"legacy" + n
+                + "\",\"passwordHash\":\"" + BCRYPT_HASH + "\"}\n";
+    }
+
+    private static InputStream stream(CharSequence content) {
+        return new ByteArrayInputStream(content.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class BreakingInputStream extends FilterInputStream {
+        private int remaining;
+
+        BreakingInputStream(byte[] content, int breakAt) {
+            super(new ByteArrayInputStream(content));
+            this.remaining = breakAt;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            if (remaining <= 0) {
+                throw new IOException("Connection reset");
+            }
+            int read = super.read(buffer, offset, Math.min(length, remaining));
+            remaining -= Math.max(read, 0);
+            return read;
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.onboarding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.onboarding.model.Customer;
+import com.onboarding.model.KycStatus;
+import com.onboarding.pagination.KeysetPage;
+import com.onboarding.repository.CustomerRepository;
+
+/**
+ * Keyset pages of the admin customer list against H2. Ids come from pooled sequences, so the
+ * fixture gives the highest ids the oldest creation times and checks pages follow createdAt.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import(CustomerService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class CustomerPagingTests {
+
+    private static final int CUSTOMERS = 7;
+    private static final LocalDateTime FIRST_CREATED = LocalDateTime.of(2024, 1, 1, 9, 0);
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private CustomerRepository customerRepository;
+    @Autowired
+    private DataSource dataSource;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+    @MockBean
+    private EventOutbox eventOutbox;
+
+    private final List<Long> newestFirst = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        customerRepository.deleteAll();
+        newestFirst.clear();
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        for (int i = 0; i < CUSTOMERS; i++) {
+            Customer customer = customerRepository.save(customer(i));
+            // Later ids were created earlier; the two oldest share a creation time
+            LocalDateTime createdAt = FIRST_CREATED.plusMinutes(Math.max(CUSTOMERS - 2 - i, 0));
+            jdbc.update("UPDATE customers SET createdAt = ? WHERE id = ?", Timestamp.valueOf(createdAt), customer.getId());
+            newestFirst.add(customer.getId());
+        }
+        // Of the two sharing a creation time, the higher id comes first
+        Collections.swap(newestFirst, CUSTOMERS - 2, CUSTOMERS - 1);
+    }
+
+    @Test
+    void pagesFollowCreationTimeNotId() {
+        List<Long> seen = new ArrayList<>();
+        String cursor = null;
+        int pages = 0;
+        do {
+            KeysetPage<Customer> page = customerService.findCustomers(null, cursor, 3, pages == 0);
+            if (pages == 0) {
+                assertThat(page.getTotal()).isEqualTo((long) CUSTOMERS);
+            }
+            seen.addAll(page.getContent().stream().map(Customer::getId).collect(Collectors.toList()));
+            cursor = page.getNextCursor();
+            pages++;
+        } while (cursor != null);
+
+        assertThat(pages).isEqualTo(3);
+        assertThat(seen).containsExactlyElementsOf(newestFirst);
+    }
+
+    @Test
+    void keywordPagesUseTheSameOrder() {
+        KeysetPage<Customer> first = customerService.findCustomers("example.com", null, 4, false);
+        KeysetPage<Customer> second = customerService.findCustomers("example.com", first.getNextCursor(), 4, false);
+
+        assertThat(first.getContent()).extracting(Customer::getId).containsExactlyElementsOf(newestFirst.subList(0, 4));
+        assertThat(second.getContent()).extracting(Customer::getId).containsExactlyElementsOf(newestFirst.subList(4, CUSTOMERS));
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    private static Customer customer(int n) {
+        Customer customer = new Customer();
+        customer.setFullName("Customer " + n);
+        customer.setEmail("customer" + n + "@example.com");
+        customer.setPhone(String.format("98%08d", n));
+        customer.setDob(LocalDate.of(1990, 1, 1));
+        customer.setPan(String.format("ABCDE%04dF", n));
+        customer.setAadhaar(String.format("1234%08d", n));
+        customer.setKycStatus(KycStatus.VERIFIED);
+        return customer;
+    }
+}
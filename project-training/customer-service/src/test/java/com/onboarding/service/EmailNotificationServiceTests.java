@@ -0,0 +1,152 @@
+package com.onboarding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.KafkaException;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.KycStatusUpdateEvent;
+import com.onboarding.mail.MailDispatcher;
+import com.onboarding.mail.MailTemplateRenderer;
+import com.onboarding.mail.OutgoingMail;
+
+class EmailNotificationServiceTests {
+
+    private final MailDispatcher mailDispatcher = mock(MailDispatcher.class);
+    private final AdminDigestService adminDigestService = mock(AdminDigestService.class);
+    private final KafkaRetryRouter retryRouter = mock(KafkaRetryRouter.class);
+    private final ProcessedEventStore processedEvents = mock(ProcessedEventStore.class);
+    private final Acknowledgment acknowledgment = mock(Acknowledgment.class);
+    private final EmailNotificationService service = new EmailNotificationService(
+            mailDispatcher, new MailTemplateRenderer(), adminDigestService, retryRouter, processedEvents);
+
+    @Test
+    void unreadableRecordsAreDeadLetteredAndTheBatchIsAcknowledgedOnce() {
+        List<ConsumerRecord<String, Object>> batch = Arrays.asList(
+                record(0, statusUpdate("asha@example.com")),
+                record(1, null),
+                record(2, statusUpdate("ravi@example.com")));
+
+        service.consumeKycStatusUpdates(batch, acknowledgment);
+
+        ArgumentCaptor<OutgoingMail> mails = ArgumentCaptor.forClass(OutgoingMail.class);
+        verify(mailDispatcher, times(2)).submit(mails.capture());
+        assertThat(mails.getAllValues()).extracting(OutgoingMail::getTo).containsExactly("asha@example.com", "ravi@example.com");
+        verify(retryRouter).deadLetterUnreadable(same(batch.get(1)));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void aFailingRecordIsSentToRetryAndTheRestOfTheBatchCarriesOn() {
+        IllegalStateException failure = new IllegalStateException("boom");
+        doNothing().doThrow(failure).doNothing().when(mailDispatcher).submit(any());
+        List<ConsumerRecord<String, Object>> batch = Arrays.asList(
+                record(0, statusUpdate("asha@example.com")),
+                record(1, statusUpdate("ravi@example.com")),
+                record(2, statusUpdate("meera@example.com")));
+
+        service.consumeKycStatusUpdates(batch, acknowledgment);
+
+        verify(mailDispatcher, times(3)).submit(any());
+        verify(retryRouter).retryLater(same(batch.get(1)), same(failure));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void aRecordThatCantBeForwardedIsReportedByIndexAndTheBatchIsNotAcknowledged() {
+        doNothing().doThrow(new IllegalStateException("boom")).when(mailDispatcher).submit(any());
+        doThrow(new KafkaException("broker unavailable")).when(retryRouter).retryLater(any(), any());
+        List<ConsumerRecord<String, Object>> batch = Arrays.asList(
+                record(0, statusUpdate("asha@example.com")),
+                record(1, statusUpdate("ravi@example.com")),
+                record(2, statusUpdate("meera@example.com")));
+
+        assertThatThrownBy(() -> service.consumeKycStatusUpdates(batch, acknowledgment))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class, e -> assertThat(e.getIndex()).isEqualTo(1));
+        verify(mailDispatcher, times(2)).submit(any());
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    @Test
+    void eventsHandledBeforeAreSkippedAndTheOthersAreRecorded() {
+        KycStatusUpdateEvent redelivered = statusUpdate("asha@example.com");
+        KycStatusUpdateEvent fresh = statusUpdate("ravi@example.com");
+        KycStatusUpdateEvent failing = statusUpdate("meera@example.com");
+        when(processedEvents.findProcessed(any())).thenReturn(new HashSet<>(Collections.singleton(redelivered.getEventId())));
+        doNothing().doThrow(new IllegalStateException("boom")).when(mailDispatcher).submit(any());
+
+        // The same event twice in one batch, as a producer retry can cause, is also handled once
+        service.consumeKycStatusUpdates(Arrays.asList(
+                record(0, redelivered), record(1, fresh), record(2, fresh), record(3, failing)), acknowledgment);
+
+        ArgumentCaptor<OutgoingMail> mails = ArgumentCaptor.forClass(OutgoingMail.class);
+        verify(mailDispatcher, times(2)).submit(mails.capture());
+        assertThat(mails.getAllValues()).extracting(OutgoingMail::getTo).containsExactly("ravi@example.com", "meera@example.com");
+        verify(processedEvents).findProcessed(Arrays.asList(redelivered.getEventId(), fresh.getEventId(), fresh.getEventId(), failing.getEventId()));
+        // The failed event goes to retry and isn't recorded, so its retry isn't taken for a duplicate
+        verify(processedEvents).markProcessed(Collections.singletonList(fresh.getEventId()));
+        verify(acknowledgment).acknowledge();
+    }
+
+    @Test
+    void retriesWaitForTheFirstRecordThatIsNotDueYet() {
+        long now = System.currentTimeMillis();
+        ConsumerRecord<String, Object> due = retryRecord(0, statusUpdate("asha@example.com"), now - 1000);
+        ConsumerRecord<String, Object> notDue = retryRecord(1, statusUpdate("ravi@example.com"), now + 60000);
+        ConsumerRecord<String, Object> later = retryRecord(2, statusUpdate("meera@example.com"), now + 61000);
+
+        service.consumeRetries(Arrays.asList(due, notDue, later), acknowledgment);
+
+        ArgumentCaptor<OutgoingMail> mails = ArgumentCaptor.forClass(OutgoingMail.class);
+        verify(mailDispatcher).submit(mails.capture());
+        assertThat(mails.getValue().getTo()).isEqualTo("asha@example.com");
+        ArgumentCaptor<Duration> wait = ArgumentCaptor.forClass(Duration.class);
+        verify(acknowledgment).nack(eq(1), wait.capture());
+        assertThat(wait.getValue()).isBetween(Duration.ofSeconds(55), Duration.ofSeconds(60));
+        verify(acknowledgment, never()).acknowledge();
+    }
+
+    private static KycStatusUpdateEvent statusUpdate(String email) {
+        KycStatusUpdateEvent event = new KycStatusUpdateEvent();
+        event.setKycApplicationId(1L);
+        event.setCustomerName("Customer");
+        event.setCustomerEmail(email);
+        event.setKycStatus("VERIFIED");
+        event.stamp();
+        return event;
+    }
+
+    private static ConsumerRecord<String, Object> record(long offset, Object value) {
+        return new ConsumerRecord<>(KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE, 0, offset, "1", value);
+    }
+
+    private static ConsumerRecord<String, Object> retryRecord(long offset, Object value, long dueAt) {
+        ConsumerRecord<String, Object> record =
+                new ConsumerRecord<>(KafkaTopicConfig.retryTopic(KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE, 1), 0, offset, "1", value);
+        record.headers().add(KafkaRetryRouter.DUE_AT_HEADER, String.valueOf(dueAt).getBytes(StandardCharsets.UTF_8));
+        return record;
+    }
+}
@@ -0,0 +1,273 @@
+package com.onboarding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.mapping.AbstractJavaTypeMapper;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.CustomerCreatedEvent;
+import com.onboarding.dto.CustomerUpdateRequest;
+import com.onboarding.dto.CustomerUpdatedEvent;
+import com.onboarding.dto.KycApplicationDataDTO;
+import com.onboarding.dto.NomineeChangedEvent;
+import com.onboarding.dto.NomineeDTO;
+import com.onboarding.model.Customer;
+import com.onboarding.model.Role;
+import com.onboarding.repository.OutboxEventRepository;
+import com.onboarding.repository.RoleRepository;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Customer changes against H2 with a mocked Kafka template: the change events are stored with the
+ * change, published in order with their type header outside any transaction, and kept until Kafka has them.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        // The application enables scheduling; keep the relay from claiming the events the tests publish
+        "kafka.outbox.relay-interval-ms=3600000"
+})
+@Import({CustomerService.class, EventOutbox.class, EventOutboxTests.Config.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventOutboxTests {
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private EventOutbox eventOutbox;
+    @Autowired
+    private OutboxEventRepository outboxRepository;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private KafkaTemplate<String, byte[]> rawKafkaTemplate;
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+
+    private long n;
+    private Customer customer;
+
+    @BeforeEach
+    void setUp() {
+        if (roleRepository.findByName("ROLE_CUSTOMER").isEmpty()) {
+            Role role = new Role();
+            role.setName("ROLE_CUSTOMER");
+            roleRepository.save(role);
+        }
+        n = System.nanoTime() % 100000;
+        customer = customerService.createApprovedCustomer(approvedApplication(n));
+        outboxRepository.deleteAllInBatch();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void approvedCustomersArePublishedAsCreated() {
+        when(rawKafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        Customer created = customerService.createApprovedCustomer(approvedApplication(n + 1));
+        eventOutbox.publishPending();
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(rawKafkaTemplate).send(sent.capture());
+        assertThat(sent.getValue().key()).isEqualTo(created.getId().toString());
+        assertThat(typeOf(sent.getValue())).isEqualTo(CustomerCreatedEvent.class.getName());
+        assertThat(new String(sent.getValue().value(), StandardCharsets.UTF_8))
+                .contains("\"createdFrom\":\"APPROVAL\"", "\"kycStatus\":\"VERIFIED\"", "\"nomineeName\":\"Nominee " + (n + 1) + "\"",
+                        "\"version\":" + created.getVersion());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void committedChangesArePublishedInOrderAndRemoved() {
+        when(rawKafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+
+        Customer updated = customerService.updateApprovedCustomer(customer.getId(), update(n, null));
+        eventOutbox.publishPending();
+
+        ArgumentCaptor<ProducerRecord<String, byte[]>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(rawKafkaTemplate, times(2)).send(sent.capture());
+        List<ProducerRecord<String, byte[]>> records = sent.getAllValues();
+        assertThat(updated.getVersion()).isGreaterThan(customer.getVersion());
+        assertThat(records).allSatisfy(record -> {
+            assertThat(record.topic()).isEqualTo(KafkaTopicConfig.TOPIC_CUSTOMER_CHANGES);
+            assertThat(record.key()).isEqualTo(customer.getId().toString());
+            assertThat(new String(record.value(), StandardCharsets.UTF_8)).contains("\"version\":" + updated.getVersion());
+        });
+        assertThat(typeOf(records.get(0))).isEqualTo(CustomerUpdatedEvent.class.getName());
+        assertThat(new String(records.get(0).value(), StandardCharsets.UTF_8))
+                .contains("\"email\":\"new" + n + "@example.com\"", "\"updatedBy\":\"CUSTOMER\"", "\"eventId\":");
+        assertThat(typeOf(records.get(1))).isEqualTo(NomineeChangedEvent.class.getName());
+        assertThat(new String(records.get(1).value(), StandardCharsets.UTF_8)).contains("\"change\":\"REMOVED\"");
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void nomineeOnlyChangesGetAVersionOfTheirOwn() {
+        when(rawKafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        Customer first = customerService.updateApprovedCustomer(customer.getId(), update(n, nominee(n)));
+        NomineeDTO renamed = nominee(n);
+        renamed.setName("Renamed " + n);
+
+        Customer second = customerService.updateApprovedCustomer(customer.getId(), update(n, renamed));
+        eventOutbox.publishPending();
+
+        assertThat(second.getVersion()).isGreaterThan(first.getVersion());
+        ArgumentCaptor<ProducerRecord<String, byte[]>> sent = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(rawKafkaTemplate, times(3)).send(sent.capture());
+        ProducerRecord<String, byte[]> nomineeChanged = sent.getAllValues().get(2);
+        assertThat(typeOf(nomineeChanged)).isEqualTo(NomineeChangedEvent.class.getName());
+        assertThat(new String(nomineeChanged.value(), StandardCharsets.UTF_8))
+                .contains("\"nomineeName\":\"Renamed " + n + "\"", "\"version\":" + second.getVersion());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void eventsStayInTheOutboxUntilKafkaHasThem() {
+        when(rawKafkaTemplate.send(any(ProducerRecord.class)))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("Broker not available")))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Same nominee as before, so only CustomerUpdated
+        customerService.updateApprovedCustomer(customer.getId(), update(n, nominee(n)));
+        eventOutbox.publishPending();
+        assertThat(outboxRepository.count()).isEqualTo(1);
+
+        eventOutbox.publishPending();
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void eventsAreSentOutsideTheClaimingTransaction() {
+        List<Boolean> inTransaction = new ArrayList<>();
+        when(rawKafkaTemplate.send(any(ProducerRecord.class))).thenAnswer(invocation -> {
+            inTransaction.add(TransactionSynchronizationManager.isActualTransactionActive());
+            return CompletableFuture.completedFuture(null);
+        });
+
+        customerService.updateApprovedCustomer(customer.getId(), update(n, null));
+        eventOutbox.publishPending();
+
+        assertThat(inTransaction).containsExactly(false, false);
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void anotherInstancesClaimHoldsBackTheRelayUntilItRunsOut() {
+        when(rawKafkaTemplate.send(any(ProducerRecord.class))).thenReturn(CompletableFuture.completedFuture(null));
+        customerService.updateApprovedCustomer(customer.getId(), update(n, null));
+        claimAll(LocalDateTime.now().plusMinutes(1));
+
+        eventOutbox.publishPending();
+        verify(rawKafkaTemplate, never()).send(any(ProducerRecord.class));
+        assertThat(outboxRepository.count()).isEqualTo(2);
+
+        claimAll(LocalDateTime.now().minusSeconds(1));
+        eventOutbox.publishPending();
+        verify(rawKafkaTemplate, times(2)).send(any(ProducerRecord.class));
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    @Test
+    void rolledBackChangesLeaveNoEvents() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.executeWithoutResult(status -> {
+            customerService.updateApprovedCustomer(customer.getId(), update(n, null));
+            status.setRollbackOnly();
+        });
+
+        assertThat(outboxRepository.count()).isZero();
+    }
+
+    private void claimAll(LocalDateTime claimedUntil) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                outboxRepository.findAll().forEach(event -> event.setClaimedUntil(claimedUntil)));
+    }
+
+    private static String typeOf(ProducerRecord<String, byte[]> record) {
+        return new String(record.headers().lastHeader(AbstractJavaTypeMapper.DEFAULT_CLASSID_FIELD_NAME).value(),
+                StandardCharsets.UTF_8);
+    }
+
+    private static CustomerUpdateRequest update(long n, NomineeDTO nominee) {
+        CustomerUpdateRequest request = new CustomerUpdateRequest();
+        request.setEmail("new" + n + "@example.com");
+        request.setPhone(String.format("96%08d", n));
+        request.setAddress("2 Test Street");
+        request.setMaritalStatus("Married");
+        request.setNominee(nominee);
+        return request;
+    }
+
+    private static NomineeDTO nominee(long n) {
+        NomineeDTO nominee = new NomineeDTO();
+        nominee.setName("Nominee " + n);
+        nominee.setMobile(String.format("97%08d", n));
+        nominee.setAddress("1 Test Street");
+        nominee.setAadhaarNumber(String.format("5678%08d", n));
+        return nominee;
+    }
+
+    private static KycApplicationDataDTO approvedApplication(long n) {
+        KycApplicationDataDTO data = new KycApplicationDataDTO();
+        data.setFullName("Applicant " + n);
+        data.setDob(LocalDate.of(1990, 1, 1));
+        data.setGender("Female");
+        data.setMaritalStatus("Single");
+        data.setFathersName("Father " + n);
+        data.setNationality("Indian");
+        data.setProfession("Engineer");
+        data.setAddress("1 Test Street");
+        data.setEmail("applicant" + n + "@example.com");
+        data.setPhone(String.format("98%08d", n));
+        data.setPan(String.format("ABCDE%05d", n));
+        data.setAadhaar(String.format("1234%08d", n));
+        data.setUsername("applicant" + n);
+        data.setPassword("{noop}secret");
+        data.setRequestedAccountType("SAVINGS");
+        data.setNominee(nominee(n));
+        return data;
+    }
+
+    static class Config {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
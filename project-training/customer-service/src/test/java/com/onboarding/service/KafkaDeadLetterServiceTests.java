@@ -0,0 +1,143 @@
+package com.onboarding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import org.apache.kafka.clients.admin.AdminClientConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.kafka.annotation.EnableKafka;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.test.context.EmbeddedKafka;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import com.onboarding.config.KafkaConsumerConfig;
+import com.onboarding.config.KafkaProducerConfig;
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.KycStatusUpdateEvent;
+import com.onboarding.mail.MailDispatcher;
+import com.onboarding.mail.MailTemplateRenderer;
+import com.onboarding.mail.OutgoingMail;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Runs EmailNotificationService against an embedded broker with retry delays of 200, 400 and 800 ms.
+ * An event whose email can't be queued goes through the three retry topics to the dead-letter topic
+ * while later events on the same topic are handled straight away; a poison record goes to the
+ * dead-letter topic at once. Both are listed and replayed through KafkaDeadLetterService.
+ */
+@SpringJUnitConfig({KafkaTopicConfig.class, KafkaProducerConfig.class, KafkaConsumerConfig.class,
+        EmailNotificationService.class, KafkaRetryRouter.class, KafkaDeadLetterService.class, MailTemplateRenderer.class,
+        KafkaDeadLetterServiceTests.Config.class})
+@EmbeddedKafka(kraft = true)
+@TestPropertySource(properties = {
+        "spring.kafka.bootstrap-servers=${spring.embedded.kafka.brokers}",
+        "spring.kafka.consumer.group-id=onboarding_group",
+        "kafka.topics.customer-registration.partitions=2",
+        "kafka.topics.kyc-status-updates.partitions=2",
+        "kafka.listener.concurrency=2",
+        "kafka.retry.initial-delay-ms=200",
+        "kafka.retry.multiplier=2"
+})
+class KafkaDeadLetterServiceTests {
+
+    private static final String TOPIC = KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE;
+
+    @Autowired
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    @Autowired
+    private KafkaTemplate<String, byte[]> rawKafkaTemplate;
+    @Autowired
+    private KafkaDeadLetterService deadLetterService;
+    @MockBean
+    private MailDispatcher mailDispatcher;
+    @MockBean
+    private AdminDigestService adminDigestService;
+    @MockBean
+    private ProcessedEventStore processedEventStore;
+
+    @Test
+    void failedEventsEndUpOnTheDeadLetterTopicAndCanBeReplayed() throws Exception {
+        doAnswer(invocation -> {
+            if ("fail@example.com".equals(invocation.<OutgoingMail>getArgument(0).getTo())) {
+                throw new IllegalStateException("Mail queue is full");
+            }
+            return null;
+        }).when(mailDispatcher).submit(any());
+
+        kafkaTemplate.send(TOPIC, "1", statusUpdate(1L, "fail@example.com")).get();
+        rawKafkaTemplate.send(TOPIC, "2", "{not json".getBytes(StandardCharsets.UTF_8)).get();
+        kafkaTemplate.send(TOPIC, "1", statusUpdate(1L, "ok@example.com")).get();
+
+        // The event after the failed one, on the same partition, doesn't wait for its retries
+        verify(mailDispatcher, timeout(10000)).submit(argThat(mail -> "ok@example.com".equals(mail.getTo())));
+        assertThat(deadLetterService.list(TOPIC, 100)).extracting(deadLetter -> deadLetter.get("key")).doesNotContain("1");
+
+        List<Map<String, Object>> deadLetters = awaitDeadLetters(2);
+        Map<String, Map<String, Object>> byKey = deadLetters.stream()
+                .collect(Collectors.toMap(deadLetter -> (String) deadLetter.get("key"), deadLetter -> deadLetter));
+        assertThat(byKey.get("1")).containsEntry("attempts", 4)
+                .containsEntry("originalTopic", TOPIC)
+                .containsEntry("exception", IllegalStateException.class.getName())
+                .containsEntry("error", "Mail queue is full");
+        assertThat((String) byKey.get("1").get("payload")).contains("fail@example.com");
+        assertThat(byKey.get("2")).containsEntry("attempts", 1).containsEntry("payload", "{not json");
+
+        // Once the cause is fixed the event goes through; the poison record comes straight back
+        reset(mailDispatcher);
+        assertThat(deadLetterService.replay(TOPIC, 100)).isEqualTo(2);
+        verify(mailDispatcher, timeout(10000)).submit(argThat(mail -> "fail@example.com".equals(mail.getTo())));
+        assertThat(awaitDeadLetters(1)).extracting(deadLetter -> deadLetter.get("key")).containsExactly("2");
+    }
+
+    private List<Map<String, Object>> awaitDeadLetters(int expected) throws InterruptedException {
+        List<Map<String, Object>> deadLetters = deadLetterService.list(TOPIC, 100);
+        for (int attempt = 0; attempt < 100 && deadLetters.size() != expected; attempt++) {
+            Thread.sleep(200);
+            deadLetters = deadLetterService.list(TOPIC, 100);
+        }
+        return deadLetters;
+    }
+
+    private static KycStatusUpdateEvent statusUpdate(Long applicationId, String email) {
+        KycStatusUpdateEvent event = new KycStatusUpdateEvent();
+        event.setKycApplicationId(applicationId);
+        event.setCustomerName("Customer");
+        event.setCustomerEmail(email);
+        event.setKycStatus("VERIFIED");
+        return event;
+    }
+
+    @Configuration
+    @EnableKafka
+    static class Config {
+
+        @Bean
+        KafkaAdmin kafkaAdmin(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers) {
+            return new KafkaAdmin(Map.of(AdminClientConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers));
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
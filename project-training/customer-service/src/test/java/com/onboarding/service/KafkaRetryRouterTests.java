@@ -0,0 +1,126 @@
+package com.onboarding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Header;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.kafka.support.serializer.DeserializationException;
+import org.springframework.kafka.support.serializer.SerializationUtils;
+
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.KycStatusUpdateEvent;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class KafkaRetryRouterTests {
+
+    private static final String TOPIC = KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE;
+
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, Object> kafkaTemplate = mock(KafkaTemplate.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, byte[]> rawKafkaTemplate = mock(KafkaTemplate.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final KafkaRetryRouter router =
+            new KafkaRetryRouter(kafkaTemplate, rawKafkaTemplate, registry, 10000, 5, 100000);
+
+    @BeforeEach
+    void setUp() {
+        when(kafkaTemplate.send(ArgumentMatchers.<ProducerRecord<String, Object>>any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(rawKafkaTemplate.send(ArgumentMatchers.<ProducerRecord<String, byte[]>>any())).thenReturn(CompletableFuture.completedFuture(null));
+    }
+
+    @Test
+    void eachFailureMovesTheRecordToTheNextStageWithAGrowingDelay() {
+        ConsumerRecord<String, Object> record = new ConsumerRecord<>(TOPIC, 3, 42, "7", new KycStatusUpdateEvent());
+
+        long before = System.currentTimeMillis();
+        router.retryLater(record, new IllegalStateException("SMTP down"));
+        ProducerRecord<?, ?> first = sent(kafkaTemplate);
+
+        assertThat(first.topic()).isEqualTo(TOPIC + "-retry-0");
+        assertThat(first.key()).isEqualTo("7");
+        assertThat(header(first, KafkaRetryRouter.ATTEMPT_HEADER)).isEqualTo("1");
+        assertThat(Long.parseLong(header(first, KafkaRetryRouter.DUE_AT_HEADER)) - before).isBetween(10000L, 11000L);
+        assertThat(header(first, KafkaHeaders.DLT_ORIGINAL_TOPIC)).isEqualTo(TOPIC);
+        assertThat(header(first, KafkaHeaders.DLT_EXCEPTION_MESSAGE)).isEqualTo("SMTP down");
+
+        ConsumerRecord<String, Object> retried = redeliver(first, 1);
+        router.retryLater(retried, new IllegalStateException("SMTP still down"));
+        ProducerRecord<?, ?> second = sent(kafkaTemplate);
+
+        assertThat(second.topic()).isEqualTo(TOPIC + "-retry-1");
+        assertThat(header(second, KafkaRetryRouter.ATTEMPT_HEADER)).isEqualTo("2");
+        assertThat(Long.parseLong(header(second, KafkaRetryRouter.DUE_AT_HEADER)) - before).isBetween(50000L, 51000L);
+        // The first delivery's topic is kept, the error is the latest one
+        assertThat(header(second, KafkaHeaders.DLT_ORIGINAL_TOPIC)).isEqualTo(TOPIC);
+        assertThat(header(second, KafkaHeaders.DLT_EXCEPTION_MESSAGE)).isEqualTo("SMTP still down");
+        assertThat(registry.counter("kafka.records.retried").count()).isEqualTo(2);
+    }
+
+    @Test
+    void aRecordGoesToTheDeadLetterTopicAfterTheLastStage() {
+        ConsumerRecord<String, Object> record = new ConsumerRecord<>(TOPIC + "-retry-2", 0, 5, "7", new KycStatusUpdateEvent());
+        record.headers().add(KafkaRetryRouter.ATTEMPT_HEADER, "3".getBytes(StandardCharsets.UTF_8));
+
+        router.retryLater(record, new IllegalStateException("SMTP down"));
+        ProducerRecord<?, ?> deadLetter = sent(kafkaTemplate);
+
+        assertThat(deadLetter.topic()).isEqualTo(TOPIC + "-dlt");
+        assertThat(header(deadLetter, KafkaRetryRouter.ATTEMPT_HEADER)).isEqualTo("4");
+        assertThat(deadLetter.headers().lastHeader(KafkaRetryRouter.DUE_AT_HEADER)).isNull();
+        assertThat(header(deadLetter, KafkaHeaders.DLT_EXCEPTION_FQCN)).isEqualTo(IllegalStateException.class.getName());
+        assertThat(registry.counter("kafka.records.dead.lettered").count()).isEqualTo(1);
+    }
+
+    @Test
+    void anUnreadableRecordGoesStraightToTheDeadLetterTopicAsItsOriginalBytes() {
+        byte[] payload = "{not json".getBytes(StandardCharsets.UTF_8);
+        ConsumerRecord<String, Object> record = new ConsumerRecord<>(TOPIC, 1, 9, "7", null);
+        SerializationUtils.deserializationException(record.headers(), payload,
+                new DeserializationException("failed to deserialize", payload, false, new IllegalArgumentException("bad json")), false);
+
+        router.deadLetterUnreadable(record);
+        ProducerRecord<?, ?> deadLetter = sent(rawKafkaTemplate);
+
+        assertThat(deadLetter.topic()).isEqualTo(TOPIC + "-dlt");
+        assertThat((byte[]) deadLetter.value()).isEqualTo(payload);
+        assertThat(header(deadLetter, KafkaHeaders.DLT_EXCEPTION_FQCN)).isEqualTo(DeserializationException.class.getName());
+        verify(kafkaTemplate, never()).send(ArgumentMatchers.<ProducerRecord<String, Object>>any());
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static ProducerRecord<?, ?> sent(KafkaTemplate<?, ?> template) {
+        ArgumentCaptor<ProducerRecord> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify((KafkaTemplate) template, atLeastOnce()).send(captor.capture());
+        return captor.getValue();
+    }
+
+    private static ConsumerRecord<String, Object> redeliver(ProducerRecord<?, ?> sent, long offset) {
+        ConsumerRecord<String, Object> record = new ConsumerRecord<>(sent.topic(), 0, offset, (String) sent.key(), sent.value());
+        for (Header header : sent.headers()) {
+            record.headers().add(header);
+        }
+        return record;
+    }
+
+    private static String header(ProducerRecord<?, ?> record, String name) {
+        Header header = record.headers().lastHeader(name);
+        return header == null ? null : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
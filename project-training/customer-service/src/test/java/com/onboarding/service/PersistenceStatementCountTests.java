@@ -0,0 +1,111 @@
+package com.onboarding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDate;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.onboarding.dto.KycApplicationDataDTO;
+import com.onboarding.dto.NomineeDTO;
+import com.onboarding.model.Role;
+import com.onboarding.persistence.SqlStatementBudget;
+import com.onboarding.repository.RoleRepository;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Guards the number of JDBC statements it costs to create the customer for an approved KYC
+ * application. Runs against H2 with the batching settings from application.properties;
+ * statements are counted by {@link com.onboarding.persistence.SqlStatementCounter}.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@Import(CustomerService.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PersistenceStatementCountTests {
+
+    private static final int APPROVALS = 20;
+
+    @Autowired
+    private CustomerService customerService;
+    @Autowired
+    private RoleRepository roleRepository;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+    @MockBean
+    private EventOutbox eventOutbox;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        if (roleRepository.findByName("ROLE_CUSTOMER").isEmpty()) {
+            Role role = new Role();
+            role.setName("ROLE_CUSTOMER");
+            roleRepository.save(role);
+        }
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+
+    // Per approval: one uniqueness query (PAN, username, Aadhaar, nominee Aadhaar) and the role lookup,
+    // then the customer, nominee, user and user_roles inserts. Ids come in blocks of 50,
+    // so each of the three sequences is called at most twice for the whole run.
+    @Test
+    @SqlStatementBudget(APPROVALS * 6 + 6)
+    void approvedCustomerIsTwoLookupsAndFourInserts() {
+        statistics.clear();
+        for (int i = 0; i < APPROVALS; i++) {
+            customerService.createApprovedCustomer(approvedApplication(i));
+        }
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(APPROVALS * 3);
+    }
+
+    private KycApplicationDataDTO approvedApplication(int n) {
+        KycApplicationDataDTO data = new KycApplicationDataDTO();
+        data.setId((long) n);
+        data.setFullName("Applicant " + n);
+        data.setDob(LocalDate.of(1990, 1, 1));
+        data.setGender("Male");
+        data.setMaritalStatus("Single");
+        data.setFathersName("Father " + n);
+        data.setNationality("Indian");
+        data.setProfession("Engineer");
+        data.setAddress("1 Test Street");
+        data.setEmail("applicant" + n + "@example.com");
+        data.setPhone(String.format("98%08d", n));
+        data.setPan(String.format("ABCDE%04dF", n));
+        data.setAadhaar(String.format("1234%08d", n));
+        data.setUsername("applicant" + n);
+        data.setPassword("{noop}secret");
+        data.setRequestedAccountType("SAVINGS");
+        data.setNetBankingEnabled(true);
+        data.setDebitCardIssued(true);
+        data.setChequeBookIssued(false);
+
+        NomineeDTO nominee = new NomineeDTO();
+        nominee.setName("Nominee " + n);
+        nominee.setMobile(String.format("97%08d", n));
+        nominee.setAddress("1 Test Street");
+        nominee.setAadhaarNumber(String.format("5678%08d", n));
+        data.setNominee(nominee);
+        return data;
+    }
+}
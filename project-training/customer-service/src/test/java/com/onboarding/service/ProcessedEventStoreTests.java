@@ -0,0 +1,81 @@
+package com.onboarding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Collections;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Two stores on one H2 database stand in for two instances of customer-service.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ProcessedEventStoreTests {
+
+    @Autowired
+    private DataSource dataSource;
+
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.update("DELETE FROM PROCESSED_EVENT");
+    }
+
+    @Test
+    void eventsHandledByOneInstanceAreRecognisedByAnother() {
+        ProcessedEventStore first = store(100);
+        ProcessedEventStore second = store(100);
+
+        first.markProcessed(Arrays.asList("a", "b"));
+        assertThat(second.findProcessed(Arrays.asList("a", "b", "c"))).containsExactlyInAnyOrder("a", "b");
+
+        // Both instances handled "c" at the same time; the second one to store it doesn't fail
+        first.markProcessed(Collections.singletonList("c"));
+        second.markProcessed(Arrays.asList("c", "d"));
+        assertThat(jdbcTemplate.queryForList("SELECT EVENT_ID FROM PROCESSED_EVENT", String.class))
+                .containsExactlyInAnyOrder("a", "b", "c", "d");
+    }
+
+    @Test
+    void recentEventsAreRecognisedWithoutTheTableUpToTheCacheSize() {
+        ProcessedEventStore store = store(2);
+        store.markProcessed(Arrays.asList("a", "b", "c"));
+
+        jdbcTemplate.update("DELETE FROM PROCESSED_EVENT");
+
+        assertThat(store.findProcessed(Arrays.asList("a", "b", "c"))).containsExactlyInAnyOrder("b", "c");
+    }
+
+    @Test
+    void idsOlderThanTheTtlAreDeleted() {
+        jdbcTemplate.update("INSERT INTO PROCESSED_EVENT (EVENT_ID, PROCESSED_AT) VALUES (?, ?)",
+                "old", Timestamp.valueOf(LocalDateTime.now().minusDays(8)));
+        ProcessedEventStore store = store(100);
+        store.markProcessed(Collections.singletonList("new"));
+
+        store.deleteExpired();
+
+        assertThat(jdbcTemplate.queryForList("SELECT EVENT_ID FROM PROCESSED_EVENT", String.class)).containsExactly("new");
+    }
+
+    private ProcessedEventStore store(int cacheSize) {
+        return new ProcessedEventStore(dataSource, new SimpleMeterRegistry(), cacheSize, Duration.ofDays(7));
+    }
+}
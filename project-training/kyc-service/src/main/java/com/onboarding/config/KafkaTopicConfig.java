@@ -1,29 +1,58 @@
 package com.onboarding.config;
 
 import org.apache.kafka.clients.admin.NewTopic;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.TopicBuilder;
 
+/**
+ * The onboarding topics. Partition counts come from kafka.topics.*.partitions and must be the same in
+ * kyc-service and customer-service. Raising them on an existing topic adds partitions at startup
+ * (Kafka can't remove any); records are keyed by entity id, so per-entity ordering survives that only
+ * for records produced after the change.
+ *
+ * customer.changes and account.changes are created by customer-service and account-service, which
+ * publish to them; kyc-service only reads them, see Customer360Service.
+ */
 @Configuration
 public class KafkaTopicConfig {
 
     public static final String TOPIC_CUSTOMER_REGISTRATION = "customer.registration";
     public static final String TOPIC_KYC_STATUS_UPDATE = "kyc.status.updates";
+    public static final String TOPIC_CUSTOMER_CHANGES = "customer.changes";
+    public static final String TOPIC_ACCOUNT_CHANGES = "account.changes";
+
+    @Value("${kafka.topics.customer-registration.partitions:6}")
+    private int customerRegistrationPartitions;
+
+    @Value("${kafka.topics.kyc-status-updates.partitions:6}")
+    private int kycStatusUpdatePartitions;
+
+    @Value("${kafka.topics.replicas:1}")
+    private int replicas;
+
+    /**
+     * The record key for an event about the given application or customer. Null ids give a null key,
+     * which Kafka spreads over the partitions.
+     */
+    public static String key(Long id) {
+        return id == null ? null : id.toString();
+    }
 
     @Bean
     public NewTopic customerRegistrationTopic() {
         return TopicBuilder.name(TOPIC_CUSTOMER_REGISTRATION)
-                .partitions(1)
-                .replicas(1)
+                .partitions(customerRegistrationPartitions)
+                .replicas(replicas)
                 .build();
     }
 
     @Bean
     public NewTopic kycStatusUpdateTopic() {
         return TopicBuilder.name(TOPIC_KYC_STATUS_UPDATE)
-                .partitions(1)
-                .replicas(1)
+                .partitions(kycStatusUpdatePartitions)
+                .replicas(replicas)
                 .build();
     }
-}
\ No newline at end of file
+}
@@ -1,27 +1,43 @@
 package com.onboarding.controller;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory; 
 
-import com.onboarding.dto.AccountDTO;
 import com.onboarding.dto.AdminCustomerUpdateRequest;
 import com.onboarding.dto.CustomerDTO;
 import com.onboarding.dto.NomineeDTO;
+import com.onboarding.export.ExportFormat;
+import com.onboarding.export.ExportWriter;
 import com.onboarding.feign.AccountClient;
 import com.onboarding.feign.CustomerClient;
+import com.onboarding.model.Customer360;
 import com.onboarding.model.KycApplication; // Import the correct local entity
 import com.onboarding.model.KycStatus;
+import com.onboarding.pagination.KeysetCursor;
+import com.onboarding.pagination.KeysetPage;
+import com.onboarding.persistence.QueryLane;
 import com.onboarding.repository.KycApplicationRepository; // Import the local repository
+import com.onboarding.repository.KycApplicationRepository.ExportRow;
+import com.onboarding.service.Customer360Service;
+import com.onboarding.service.KycApplicationService;
 import com.onboarding.service.KycProcessingService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
 import org.springframework.util.StringUtils;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import org.springframework.web.servlet.mvc.support.RedirectAttributes;
 
 @Controller
@@ -33,18 +49,67 @@ public class AdminController {
     private final KycProcessingService kycProcessingService;
     private final CustomerClient customerClient;
     private final AccountClient accountClient; 
+    private final KycApplicationService kycApplicationService;
+    private final Customer360Service customer360Service;
+    private final ObjectMapper objectMapper;
     private static final Logger LOGGER = LoggerFactory.getLogger(AdminController.class);
 
-    public AdminController(KycApplicationRepository kycApplicationRepository, KycProcessingService kycProcessingService,CustomerClient customerClient,AccountClient accountClient) {
+    // Dashboard cursors start beyond either end of the (createdAt, id) range
+    private static final LocalDateTime LATEST = LocalDateTime.of(9999, 12, 31, 0, 0);
+    private static final LocalDateTime EARLIEST = LocalDateTime.of(1970, 1, 1, 0, 0);
+
+    private static final Map<String, Function<ExportRow, Object>> EXPORT_COLUMNS = new LinkedHashMap<>();
+    static {
+        EXPORT_COLUMNS.put("id", ExportRow::getId);
+        EXPORT_COLUMNS.put("fullName", ExportRow::getFullName);
+        EXPORT_COLUMNS.put("email", ExportRow::getEmail);
+        EXPORT_COLUMNS.put("phone", ExportRow::getPhone);
+        EXPORT_COLUMNS.put("dob", ExportRow::getDob);
+        EXPORT_COLUMNS.put("gender", ExportRow::getGender);
+        EXPORT_COLUMNS.put("maritalStatus", ExportRow::getMaritalStatus);
+        EXPORT_COLUMNS.put("fathersName", ExportRow::getFathersName);
+        EXPORT_COLUMNS.put("nationality", ExportRow::getNationality);
+        EXPORT_COLUMNS.put("profession", ExportRow::getProfession);
+        EXPORT_COLUMNS.put("address", ExportRow::getAddress);
+        EXPORT_COLUMNS.put("pan", ExportRow::getPan);
+        EXPORT_COLUMNS.put("aadhaar", ExportRow::getAadhaar);
+        EXPORT_COLUMNS.put("requestedAccountType", ExportRow::getRequestedAccountType);
+        EXPORT_COLUMNS.put("kycStatus", ExportRow::getKycStatus);
+        EXPORT_COLUMNS.put("customerId", ExportRow::getCustomerId);
+        EXPORT_COLUMNS.put("createdAt", ExportRow::getCreatedAt);
+    }
+
+    public AdminController(KycApplicationRepository kycApplicationRepository, KycProcessingService kycProcessingService,CustomerClient customerClient,AccountClient accountClient,
+                           KycApplicationService kycApplicationService, Customer360Service customer360Service, ObjectMapper objectMapper) {
         this.kycApplicationRepository = kycApplicationRepository;
         this.kycProcessingService = kycProcessingService;
         this.accountClient=accountClient;
         this.customerClient=customerClient;
+        this.kycApplicationService = kycApplicationService;
+        this.customer360Service = customer360Service;
+        this.objectMapper = objectMapper;
+    }
+
+    // Every application, streamed as format=ndjson (default) or format=csv. Runs on the reporting lane
+    // from the async thread that writes the body, so it never holds an interactive connection.
+    @GetMapping("/applications/export")
+    public ResponseEntity<StreamingResponseBody> exportApplications(@RequestParam(defaultValue = "ndjson") String format) {
+        ExportFormat exportFormat = ExportFormat.fromParam(format);
+        return exportFormat.respond("kyc-applications", out -> {
+            long started = System.currentTimeMillis();
+            ExportWriter<ExportRow> writer = new ExportWriter<>(exportFormat, out, objectMapper, EXPORT_COLUMNS);
+            long rows = QueryLane.REPORTING.call(() -> {
+                kycApplicationService.exportApplications(writer::write);
+                return writer.finish();
+            });
+            LOGGER.info("Exported {} applications as {} in {} ms", rows, exportFormat, System.currentTimeMillis() - started);
+        });
     }
 
     @GetMapping("/dashboard")
     public String adminDashboard(Model model,
-                                 @RequestParam(defaultValue = "0") int page,
+                                 @RequestParam(required = false) String before,
+                                 @RequestParam(required = false) String after,
                                  @RequestParam(defaultValue = "10") int size,
                                  @RequestParam(required = false) String keyword) {
         
@@ -80,10 +145,41 @@ public class AdminController {
             model.addAttribute("searchResults", combinedResults);
             
         } else {
-            // --- DEFAULT PAGINATED VIEW LOGIC ---
-            Pageable pageable = PageRequest.of(page, size);
-            Page<KycApplication> applicationPage = kycApplicationRepository.findAll(pageable);
-            model.addAttribute("applications", applicationPage);
+            // --- DEFAULT VIEW: keyset pages, newest first ---
+            // "before" pages towards older applications, "after" towards newer ones. Each page is an
+            // index seek from the cursor's (createdAt, id), so the last page costs the same as the first.
+            int pageSize = KeysetPage.pageSize(size);
+            Pageable window = PageRequest.ofSize(pageSize + 1);
+            List<KycApplication> applications;
+            boolean hasOlder;
+            boolean hasNewer;
+            if (after != null) {
+                KeysetCursor position = KeysetCursor.parse(after);
+                List<KycApplication> rows = kycApplicationRepository.findNewerThan(position.dateTimeAt(0), position.longAt(1), window);
+                hasNewer = rows.size() > pageSize;
+                applications = new ArrayList<>(rows.subList(0, Math.min(pageSize, rows.size())));
+                Collections.reverse(applications);
+                KycApplication oldest = applications.isEmpty() ? null : applications.get(applications.size() - 1);
+                hasOlder = oldest != null && kycApplicationRepository.existsOlderThan(oldest.getCreatedAt(), oldest.getId());
+            } else {
+                LocalDateTime beforeCreatedAt = LATEST;
+                long beforeId = Long.MAX_VALUE;
+                if (before != null) {
+                    KeysetCursor position = KeysetCursor.parse(before);
+                    beforeCreatedAt = position.dateTimeAt(0);
+                    beforeId = position.longAt(1);
+                }
+                List<KycApplication> rows = kycApplicationRepository.findOlderThan(beforeCreatedAt, beforeId, window);
+                hasOlder = rows.size() > pageSize;
+                applications = rows.subList(0, Math.min(pageSize, rows.size()));
+                KycApplication newest = applications.isEmpty() ? null : applications.get(0);
+                hasNewer = before != null && newest != null
+                        && kycApplicationRepository.existsNewerThan(newest.getCreatedAt(), newest.getId());
+            }
+            model.addAttribute("applications", new KeysetPage<>(applications,
+                    hasOlder ? cursorOf(applications.get(applications.size() - 1)) : null, totalApplications));
+            model.addAttribute("newerCursor", hasNewer ? cursorOf(applications.get(0)) : null);
+            model.addAttribute("oldestCursor", KeysetCursor.of(EARLIEST, 0L));
         }
         
         
@@ -97,13 +193,11 @@ public class AdminController {
             .orElseThrow(() -> new IllegalArgumentException("Invalid application Id:" + id));
         
         if ("VERIFIED".equals(application.getKycStatus().name()) && application.getCustomerId() != null) {
-            LOGGER.info("Admin is viewing a VERIFIED profile. Fetching live data for customer ID: {}", application.getCustomerId());
+            LOGGER.info("Admin is viewing a VERIFIED profile. Using the customer 360 view for customer ID: {}", application.getCustomerId());
             try {
-                CustomerDTO customer = customerClient.getCustomerById(application.getCustomerId());
-                model.addAttribute("customer", customer);
-
-                AccountDTO account = accountClient.getAccountByCustomerId(application.getCustomerId());
-                model.addAttribute("account", account);
+                Customer360 view = customer360Service.forApplication(application);
+                model.addAttribute("customer", customer360Service.toCustomerDto(view, application));
+                model.addAttribute("account", customer360Service.toAccountDto(view));
                 
             } catch (Exception e) {
                 LOGGER.error("Could not fetch downstream data for verified customer ID {}: {}", application.getCustomerId(), e.getMessage());
@@ -173,6 +267,7 @@ public class AdminController {
                                      RedirectAttributes redirectAttributes) {
         try {
             customerClient.updateCustomerByAdmin(id, updateRequest);
+            customer360Service.evict(id);
             redirectAttributes.addFlashAttribute("message", "Customer " + id + " updated successfully.");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", "Error updating customer: " + e.getMessage());
@@ -197,10 +292,15 @@ public class AdminController {
             }
             
             accountClient.deactivateAccount(app.getCustomerId());
+            customer360Service.evict(app.getCustomerId());
             redirectAttributes.addFlashAttribute("message", "Account for customer " + app.getCustomerId() + " has been deactivated.");
         } catch (Exception e) {
             redirectAttributes.addFlashAttribute("errorMessage", "Error deactivating account: " + e.getMessage());
         }
         return "redirect:/admin/dashboard";
     }
-}
\ No newline at end of file
+
+    private static String cursorOf(KycApplication application) {
+        return KeysetCursor.of(application.getCreatedAt(), application.getId());
+    }
+}
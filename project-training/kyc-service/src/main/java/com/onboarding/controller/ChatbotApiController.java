@@ -2,13 +2,16 @@ package com.onboarding.controller;
 
 import com.onboarding.dto.AccountDTO;
 import com.onboarding.dto.ChatbotKycApplicationDTO;
-import com.onboarding.dto.CustomerDTO;
 import com.onboarding.feign.AccountClient;
-import com.onboarding.feign.CustomerClient;
+import com.onboarding.model.Customer360;
 import com.onboarding.model.KycApplication;
 import com.onboarding.model.KycStatus;
+import com.onboarding.pagination.KeysetCursor;
+import com.onboarding.pagination.KeysetPage;
 import com.onboarding.repository.KycApplicationRepository;
+import com.onboarding.service.Customer360Service;
 
+import org.springframework.data.domain.PageRequest;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -18,6 +21,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -29,13 +33,13 @@ import java.util.stream.Collectors;
 public class ChatbotApiController {
 
     private final KycApplicationRepository kycRepo;
-    private final CustomerClient customerClient;
     private final AccountClient accountClient;
+    private final Customer360Service customer360Service;
 
-    public ChatbotApiController(KycApplicationRepository kycRepo, CustomerClient customerClient, AccountClient accountClient) {
+    public ChatbotApiController(KycApplicationRepository kycRepo, AccountClient accountClient, Customer360Service customer360Service) {
         this.kycRepo = kycRepo;
-        this.customerClient = customerClient;
         this.accountClient = accountClient;
+        this.customer360Service = customer360Service;
     }
 
     /**
@@ -58,15 +62,15 @@ public class ChatbotApiController {
         Map<String, Object> response = new HashMap<>();
         response.put("kycApplication", lightweightAppDTO); // Send the lightweight object
 
-        // The logic to enrich with customer and account data remains the same
+        // Customer and account come from the local read model
         if (app.getCustomerId() != null) {
             try {
-                CustomerDTO customer = customerClient.getCustomerById(app.getCustomerId());
-                response.put("customer", customer);
-            } catch (Exception e) {}
-            try {
-                AccountDTO account = accountClient.getAccountByCustomerId(app.getCustomerId());
-                response.put("account", account);
+                Customer360 view = customer360Service.forApplication(app);
+                response.put("customer", customer360Service.toCustomerDto(view, app));
+                AccountDTO account = customer360Service.toAccountDto(view);
+                if (account != null) {
+                    response.put("account", account);
+                }
             } catch (Exception e) {}
         }
         return ResponseEntity.ok(response);
@@ -109,33 +113,63 @@ public class ChatbotApiController {
             LocalDateTime startOfDay = date.atStartOfDay();
             LocalDateTime endOfDay = date.plusDays(1).atStartOfDay().minusNanos(1);
             
-            //Make the actual Feign client call
-            List<AccountDTO> accounts = accountClient.getAccountsCreatedBetween(startOfDay, endOfDay);
+            // The chatbot gets the whole day in one list; account-service hands it over a page at a time
+            List<AccountDTO> accounts = new ArrayList<>();
+            String cursor = null;
+            do {
+                KeysetPage<AccountDTO> page = accountClient.getAccountsCreatedBetween(startOfDay, endOfDay, cursor, KeysetPage.MAX_SIZE);
+                accounts.addAll(page.getContent());
+                cursor = page.getNextCursor();
+            } while (cursor != null);
             return ResponseEntity.ok(accounts);
         } catch (Exception e) {
             return ResponseEntity.badRequest().build();
         }
     }
     
+    // Whole window in one list, kept in its original shape for existing callers. New callers should use /pages.
     @GetMapping("/admin/applications-created-between")
     public ResponseEntity<List<Map<String, Object>>> getApplicationsByDate(
             @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
             @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end) {
-        
-        List<KycApplication> applications = kycRepo.findByCreatedAtBetween(start, end);
-        
+        return ResponseEntity.ok(kycRepo.findByCreatedAtBetween(start, end).stream()
+                .map(ChatbotApiController::summary)
+                .collect(Collectors.toList()));
+    }
+
+    // Keyset-paginated: pass the previous page's nextCursor to continue, count=true to also get the total
+    @GetMapping("/admin/applications-created-between/pages")
+    public ResponseEntity<KeysetPage<Map<String, Object>>> getApplicationPageByDate(
+            @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
+            @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "" + KeysetPage.DEFAULT_SIZE) int size,
+            @RequestParam(defaultValue = "false") boolean count) {
+
+        LocalDateTime afterCreatedAt = start;
+        long afterId = Long.MIN_VALUE;
+        if (cursor != null) {
+            KeysetCursor position = KeysetCursor.parse(cursor);
+            afterCreatedAt = position.dateTimeAt(0);
+            afterId = position.longAt(1);
+        }
+        int pageSize = KeysetPage.pageSize(size);
+        List<KycApplication> applications = kycRepo.findCreatedBetweenAfter(start, end, afterCreatedAt, afterId,
+                PageRequest.ofSize(pageSize + 1));
+        KeysetPage<KycApplication> page = KeysetPage.of(applications, pageSize,
+                app -> KeysetCursor.of(app.getCreatedAt(), app.getId()),
+                count ? kycRepo.countByCreatedAtBetween(start, end) : null);
+
+        return ResponseEntity.ok(page.map(ChatbotApiController::summary));
+    }
+
+    private static Map<String, Object> summary(KycApplication app) {
         // Instead of Map.of(), we create a new HashMap for each application.
         // This ensures the type is exactly Map<String, Object>.
-        List<Map<String, Object>> result = applications.stream()
-                .map(app -> {
-                    Map<String, Object> map = new HashMap<>();
-                    map.put("id", app.getId());
-                    map.put("fullName", app.getFullName());
-                    map.put("createdAt", app.getCreatedAt());
-                    return map;
-                })
-                .collect(Collectors.toList());
-                
-        return ResponseEntity.ok(result);
+        Map<String, Object> map = new HashMap<>();
+        map.put("id", app.getId());
+        map.put("fullName", app.getFullName());
+        map.put("createdAt", app.getCreatedAt());
+        return map;
     }
-}
\ No newline at end of file
+}
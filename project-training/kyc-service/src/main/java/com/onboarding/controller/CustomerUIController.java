@@ -6,8 +6,10 @@ import com.onboarding.dto.CustomerUpdateRequest;
 import com.onboarding.dto.NomineeDTO;
 import com.onboarding.feign.AccountClient;
 import com.onboarding.feign.CustomerClient;
+import com.onboarding.model.Customer360;
 import com.onboarding.model.KycApplication;
 import com.onboarding.repository.KycApplicationRepository;
+import com.onboarding.service.Customer360Service;
 
 import java.util.Base64; // <-- Import Base64
 import java.util.HashMap;
@@ -39,11 +41,14 @@ public class CustomerUIController {
     private final KycApplicationRepository kycApplicationRepository;
     private final AccountClient accountClient;
     private final CustomerClient customerClient;
+    private final Customer360Service customer360Service;
 
-    public CustomerUIController(KycApplicationRepository kycApplicationRepository, AccountClient accountClient, CustomerClient custClient) {
+    public CustomerUIController(KycApplicationRepository kycApplicationRepository, AccountClient accountClient, CustomerClient custClient,
+                                Customer360Service customer360Service) {
         this.kycApplicationRepository = kycApplicationRepository;
         this.accountClient = accountClient;
         this.customerClient = custClient;
+        this.customer360Service = customer360Service;
     }
 
     @GetMapping("/dashboard")
@@ -53,15 +58,12 @@ public class CustomerUIController {
             .orElseThrow(() -> new RuntimeException("Could not find application for user: " + username));
 
         if (application.getCustomerId() != null && "VERIFIED".equals(application.getKycStatus().name())) {
-            LOGGER.info("User {} is VERIFIED. Fetching final profile from customer-service.", username);
+            LOGGER.info("User {} is VERIFIED. Using the customer 360 view.", username);
             try {
-                CustomerDTO customer = customerClient.getApprovedCustomerById(application.getCustomerId());
-                
-                // Merge document info from local record for modal viewing
-                addDocumentInfoToDto(customer, application);
-
-                model.addAttribute("customer", customer);
-                model.addAttribute("account", accountClient.getAccountByCustomerId(application.getCustomerId()));
+                // Document info comes from the local record, for modal viewing
+                Customer360 view = customer360Service.forApplication(application);
+                model.addAttribute("customer", customer360Service.toCustomerDto(view, application));
+                model.addAttribute("account", customer360Service.toAccountDto(view));
 
             } catch (Exception e) {
                 LOGGER.error("Error fetching approved profile for user {}: {}", username, e.getMessage());
@@ -212,6 +214,7 @@ public class CustomerUIController {
             }
             
             accountClient.updateAccountDetails(app.getCustomerId(), accountUpdateData);
+            customer360Service.evict(app.getCustomerId());
 
             redirectAttributes.addFlashAttribute("successMessage", "Your profile has been updated successfully!");
         } catch (Exception e) {
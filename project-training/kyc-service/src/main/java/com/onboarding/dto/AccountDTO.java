@@ -24,6 +24,8 @@ public class AccountDTO {
     private String debitCardLast4Digits;
     private Boolean chequeBookIssued;
     private Integer chequeBookLeaves;
+    // The account row's version when this was read
+    private Long version;
 
     // --- Manual Getters and Setters for ALL fields ---
 
@@ -61,4 +63,6 @@ public class AccountDTO {
     public void setChequeBookIssued(Boolean chequeBookIssued) { this.chequeBookIssued = chequeBookIssued; }
     public Integer getChequeBookLeaves() { return chequeBookLeaves; }
     public void setChequeBookLeaves(Integer chequeBookLeaves) { this.chequeBookLeaves = chequeBookLeaves; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
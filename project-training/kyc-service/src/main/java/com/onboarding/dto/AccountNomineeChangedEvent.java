@@ -0,0 +1,27 @@
+package com.onboarding.dto;
+
+/**
+ * The nominee registered on an account changed. The nominee's own details are in customer-service's
+ * NomineeChangedEvent; this is the account's copy of the registration.
+ */
+public class AccountNomineeChangedEvent extends DomainEvent {
+
+    private Long customerId;
+    private String accountNumber;
+    private Boolean nomineeRegistered;
+    private String nomineeName;
+    // The account row's version after this change
+    private Long version;
+
+    // Getters and Setters
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+    public Boolean getNomineeRegistered() { return nomineeRegistered; }
+    public void setNomineeRegistered(Boolean nomineeRegistered) { this.nomineeRegistered = nomineeRegistered; }
+    public String getNomineeName() { return nomineeName; }
+    public void setNomineeName(String nomineeName) { this.nomineeName = nomineeName; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -0,0 +1,35 @@
+package com.onboarding.dto;
+
+/**
+ * An account was opened (previousStatus is null), activated or deactivated.
+ */
+public class AccountStatusChangedEvent extends DomainEvent {
+
+    private Long customerId;
+    private String accountNumber;
+    private String accountType;
+    private String previousStatus;
+    private String accountStatus;
+    private String branchName;
+    private String ifscCode;
+    // The account row's version after this change
+    private Long version;
+
+    // Getters and Setters
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+    public String getAccountType() { return accountType; }
+    public void setAccountType(String accountType) { this.accountType = accountType; }
+    public String getPreviousStatus() { return previousStatus; }
+    public void setPreviousStatus(String previousStatus) { this.previousStatus = previousStatus; }
+    public String getAccountStatus() { return accountStatus; }
+    public void setAccountStatus(String accountStatus) { this.accountStatus = accountStatus; }
+    public String getBranchName() { return branchName; }
+    public void setBranchName(String branchName) { this.branchName = branchName; }
+    public String getIfscCode() { return ifscCode; }
+    public void setIfscCode(String ifscCode) { this.ifscCode = ifscCode; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -0,0 +1,61 @@
+package com.onboarding.dto;
+
+/**
+ * A customer was created, either when their KYC application was approved or by a bulk import. Carries
+ * the same profile as {@link CustomerUpdatedEvent} plus the nominee, so a consumer can start its copy
+ * from this event alone.
+ */
+public class CustomerCreatedEvent extends DomainEvent {
+
+    public static final String FROM_APPROVAL = "APPROVAL";
+    public static final String FROM_IMPORT = "IMPORT";
+
+    private Long customerId;
+    private String fullName;
+    private String email;
+    private String phone;
+    private String address;
+    private String maritalStatus;
+    private String profession;
+    private String fathersName;
+    private String kycStatus;
+    private String nomineeName;
+    private String nomineeMobile;
+    private String nomineeAddress;
+    private String nomineeAadhaarNumber;
+    private String createdFrom;
+    // The customer row's version after this change
+    private Long version;
+
+    // Getters and Setters
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    public String getFullName() { return fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+    public String getMaritalStatus() { return maritalStatus; }
+    public void setMaritalStatus(String maritalStatus) { this.maritalStatus = maritalStatus; }
+    public String getProfession() { return profession; }
+    public void setProfession(String profession) { this.profession = profession; }
+    public String getFathersName() { return fathersName; }
+    public void setFathersName(String fathersName) { this.fathersName = fathersName; }
+    public String getKycStatus() { return kycStatus; }
+    public void setKycStatus(String kycStatus) { this.kycStatus = kycStatus; }
+    public String getNomineeName() { return nomineeName; }
+    public void setNomineeName(String nomineeName) { this.nomineeName = nomineeName; }
+    public String getNomineeMobile() { return nomineeMobile; }
+    public void setNomineeMobile(String nomineeMobile) { this.nomineeMobile = nomineeMobile; }
+    public String getNomineeAddress() { return nomineeAddress; }
+    public void setNomineeAddress(String nomineeAddress) { this.nomineeAddress = nomineeAddress; }
+    public String getNomineeAadhaarNumber() { return nomineeAadhaarNumber; }
+    public void setNomineeAadhaarNumber(String nomineeAadhaarNumber) { this.nomineeAadhaarNumber = nomineeAadhaarNumber; }
+    public String getCreatedFrom() { return createdFrom; }
+    public void setCreatedFrom(String createdFrom) { this.createdFrom = createdFrom; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -33,7 +33,8 @@ public class CustomerDTO {
 
     // *** THE FIX: Add the missing field for the passport photo's content type ***
     private String passportPhotoContentType;
-
+    // The customer row's version when this was read
+    private Long version;
 
     // Manual Getters and Setters for all fields...
     public Long getId() { return id; }
@@ -92,4 +93,6 @@ public class CustomerDTO {
     public void setPassportPhotoContentType(String passportPhotoContentType) {
         this.passportPhotoContentType = passportPhotoContentType;
     }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
 }
\ No newline at end of file
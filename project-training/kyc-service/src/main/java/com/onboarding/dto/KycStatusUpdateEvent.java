@@ -1,6 +1,8 @@
 package com.onboarding.dto;
 
-public class KycStatusUpdateEvent {
+public class KycStatusUpdateEvent extends DomainEvent {
+    // Also the record key, so all updates for one application land on the same partition
+    private Long kycApplicationId;
     private String customerName;
     private String customerEmail;
     private String kycStatus;
@@ -12,6 +14,8 @@ public class KycStatusUpdateEvent {
     public KycStatusUpdateEvent() {}
 
     // Getters and Setters for all fields...
+    public Long getKycApplicationId() { return kycApplicationId; }
+    public void setKycApplicationId(Long kycApplicationId) { this.kycApplicationId = kycApplicationId; }
     public String getCustomerName() { return customerName; }
     public void setCustomerName(String customerName) { this.customerName = customerName; }
     public String getCustomerEmail() { return customerEmail; }
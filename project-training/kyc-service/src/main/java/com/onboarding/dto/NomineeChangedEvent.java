@@ -0,0 +1,36 @@
+package com.onboarding.dto;
+
+/**
+ * A customer's nominee was added, changed or removed. After a removal the nominee fields are null.
+ */
+public class NomineeChangedEvent extends DomainEvent {
+
+    public static final String ADDED = "ADDED";
+    public static final String UPDATED = "UPDATED";
+    public static final String REMOVED = "REMOVED";
+
+    private Long customerId;
+    private String change;
+    private String nomineeName;
+    private String nomineeMobile;
+    private String nomineeAddress;
+    private String nomineeAadhaarNumber;
+    // The customer row's version after this change
+    private Long version;
+
+    // Getters and Setters
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    public String getChange() { return change; }
+    public void setChange(String change) { this.change = change; }
+    public String getNomineeName() { return nomineeName; }
+    public void setNomineeName(String nomineeName) { this.nomineeName = nomineeName; }
+    public String getNomineeMobile() { return nomineeMobile; }
+    public void setNomineeMobile(String nomineeMobile) { this.nomineeMobile = nomineeMobile; }
+    public String getNomineeAddress() { return nomineeAddress; }
+    public void setNomineeAddress(String nomineeAddress) { this.nomineeAddress = nomineeAddress; }
+    public String getNomineeAadhaarNumber() { return nomineeAadhaarNumber; }
+    public void setNomineeAadhaarNumber(String nomineeAadhaarNumber) { this.nomineeAadhaarNumber = nomineeAadhaarNumber; }
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+}
@@ -1,6 +1,7 @@
 package com.onboarding.feign;
 
 import com.onboarding.dto.AccountDTO;
+import com.onboarding.pagination.KeysetPage;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -11,7 +12,6 @@ import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
 import java.time.LocalDateTime;
-import java.util.List;
 import java.util.Map;
 
 @FeignClient(name = "ACCOUNT-SERVICE")
@@ -36,10 +36,12 @@ public interface AccountClient {
     @PostMapping("/api/internal/accounts/customer/{customerId}/deactivate")
     AccountDTO deactivateAccount(@PathVariable("customerId") Long customerId);
     
-    @GetMapping("/api/internal/accounts/created-between")
-    List<AccountDTO> getAccountsCreatedBetween(
+    @GetMapping("/api/internal/accounts/created-between/pages")
+    KeysetPage<AccountDTO> getAccountsCreatedBetween(
         @RequestParam("start") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime start,
-        @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end);
+        @RequestParam("end") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime end,
+        @RequestParam(value = "cursor", required = false) String cursor,
+        @RequestParam("size") int size);
     
     
 }
\ No newline at end of file
@@ -0,0 +1,157 @@
+package com.onboarding.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * Everything the customer views show about a verified customer in one row: the approved application,
+ * the customer's profile and nominee from customer-service and the account from account-service.
+ * Maintained by {@link com.onboarding.service.Customer360Service} from the services' change events.
+ *
+ * Each part records the version of the source row (the customer in customer-service, the account in
+ * account-service) it was last set from, so a change event that arrives late or twice can't overwrite
+ * newer data. Versions come from the source databases, so no two clocks are ever compared.
+ */
+@Entity
+@Table(name = "CUSTOMER_360")
+public class Customer360 {
+
+    @Id
+    private Long customerId;
+
+    @Column(nullable = false, unique = true)
+    private Long applicationId;
+
+    // --- Profile (CustomerUpdated), with the details that can't change after approval ---
+    private String fullName;
+    private String email;
+    private String phone;
+    private String address;
+    private String maritalStatus;
+    private String profession;
+    private String fathersName;
+    private String kycStatus;
+    private LocalDate dob;
+    private String gender;
+    private String nationality;
+    private String pan;
+    private String aadhaar;
+    private String requestedAccountType;
+    private Boolean netBankingEnabled;
+    private Boolean debitCardIssued;
+    private Boolean chequeBookIssued;
+    private Long profileRowVersion;
+
+    // --- Nominee (NomineeChanged) ---
+    private String nomineeName;
+    private String nomineeMobile;
+    private String nomineeAddress;
+    private String nomineeAadhaarNumber;
+    private Long nomineeRowVersion;
+
+    // --- Account (AccountStatusChanged), the rest is fixed once the account is active ---
+    private String accountNumber;
+    private String accountType;
+    private String accountStatus;
+    private BigDecimal balance;
+    private String branchName;
+    private String ifscCode;
+    private String micrCode;
+    private LocalDateTime dateOfAccountOpening;
+    private String modeOfOperation;
+    private String debitCardLast4Digits;
+    private Integer chequeBookLeaves;
+    private Long accountRowVersion;
+
+    // --- Account nominee registration (AccountNomineeChanged) ---
+    private Boolean accountNomineeRegistered;
+    private String accountNomineeName;
+    private Long accountNomineeRowVersion;
+
+    public Long getCustomerId() { return customerId; }
+    public void setCustomerId(Long customerId) { this.customerId = customerId; }
+    public Long getApplicationId() { return applicationId; }
+    public void setApplicationId(Long applicationId) { this.applicationId = applicationId; }
+    public String getFullName() { return fullName; }
+    public void setFullName(String fullName) { this.fullName = fullName; }
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+    public String getPhone() { return phone; }
+    public void setPhone(String phone) { this.phone = phone; }
+    public String getAddress() { return address; }
+    public void setAddress(String address) { this.address = address; }
+    public String getMaritalStatus() { return maritalStatus; }
+    public void setMaritalStatus(String maritalStatus) { this.maritalStatus = maritalStatus; }
+    public String getProfession() { return profession; }
+    public void setProfession(String profession) { this.profession = profession; }
+    public String getFathersName() { return fathersName; }
+    public void setFathersName(String fathersName) { this.fathersName = fathersName; }
+    public String getKycStatus() { return kycStatus; }
+    public void setKycStatus(String kycStatus) { this.kycStatus = kycStatus; }
+    public LocalDate getDob() { return dob; }
+    public void setDob(LocalDate dob) { this.dob = dob; }
+    public String getGender() { return gender; }
+    public void setGender(String gender) { this.gender = gender; }
+    public String getNationality() { return nationality; }
+    public void setNationality(String nationality) { this.nationality = nationality; }
+    public String getPan() { return pan; }
+    public void setPan(String pan) { this.pan = pan; }
+    public String getAadhaar() { return aadhaar; }
+    public void setAadhaar(String aadhaar) { this.aadhaar = aadhaar; }
+    public String getRequestedAccountType() { return requestedAccountType; }
+    public void setRequestedAccountType(String requestedAccountType) { this.requestedAccountType = requestedAccountType; }
+    public Boolean getNetBankingEnabled() { return netBankingEnabled; }
+    public void setNetBankingEnabled(Boolean netBankingEnabled) { this.netBankingEnabled = netBankingEnabled; }
+    public Boolean getDebitCardIssued() { return debitCardIssued; }
+    public void setDebitCardIssued(Boolean debitCardIssued) { this.debitCardIssued = debitCardIssued; }
+    public Boolean getChequeBookIssued() { return chequeBookIssued; }
+    public void setChequeBookIssued(Boolean chequeBookIssued) { this.chequeBookIssued = chequeBookIssued; }
+    public Long getProfileRowVersion() { return profileRowVersion; }
+    public void setProfileRowVersion(Long profileRowVersion) { this.profileRowVersion = profileRowVersion; }
+    public String getNomineeName() { return nomineeName; }
+    public void setNomineeName(String nomineeName) { this.nomineeName = nomineeName; }
+    public String getNomineeMobile() { return nomineeMobile; }
+    public void setNomineeMobile(String nomineeMobile) { this.nomineeMobile = nomineeMobile; }
+    public String getNomineeAddress() { return nomineeAddress; }
+    public void setNomineeAddress(String nomineeAddress) { this.nomineeAddress = nomineeAddress; }
+    public String getNomineeAadhaarNumber() { return nomineeAadhaarNumber; }
+    public void setNomineeAadhaarNumber(String nomineeAadhaarNumber) { this.nomineeAadhaarNumber = nomineeAadhaarNumber; }
+    public Long getNomineeRowVersion() { return nomineeRowVersion; }
+    public void setNomineeRowVersion(Long nomineeRowVersion) { this.nomineeRowVersion = nomineeRowVersion; }
+    public String getAccountNumber() { return accountNumber; }
+    public void setAccountNumber(String accountNumber) { this.accountNumber = accountNumber; }
+    public String getAccountType() { return accountType; }
+    public void setAccountType(String accountType) { this.accountType = accountType; }
+    public String getAccountStatus() { return accountStatus; }
+    public void setAccountStatus(String accountStatus) { this.accountStatus = accountStatus; }
+    public BigDecimal getBalance() { return balance; }
+    public void setBalance(BigDecimal balance) { this.balance = balance; }
+    public String getBranchName() { return branchName; }
+    public void setBranchName(String branchName) { this.branchName = branchName; }
+    public String getIfscCode() { return ifscCode; }
+    public void setIfscCode(String ifscCode) { this.ifscCode = ifscCode; }
+    public String getMicrCode() { return micrCode; }
+    public void setMicrCode(String micrCode) { this.micrCode = micrCode; }
+    public LocalDateTime getDateOfAccountOpening() { return dateOfAccountOpening; }
+    public void setDateOfAccountOpening(LocalDateTime dateOfAccountOpening) { this.dateOfAccountOpening = dateOfAccountOpening; }
+    public String getModeOfOperation() { return modeOfOperation; }
+    public void setModeOfOperation(String modeOfOperation) { this.modeOfOperation = modeOfOperation; }
+    public String getDebitCardLast4Digits() { return debitCardLast4Digits; }
+    public void setDebitCardLast4Digits(String debitCardLast4Digits) { this.debitCardLast4Digits = debitCardLast4Digits; }
+    public Integer getChequeBookLeaves() { return chequeBookLeaves; }
+    public void setChequeBookLeaves(Integer chequeBookLeaves) { this.chequeBookLeaves = chequeBookLeaves; }
+    public Long getAccountRowVersion() { return accountRowVersion; }
+    public void setAccountRowVersion(Long accountRowVersion) { this.accountRowVersion = accountRowVersion; }
+    public Boolean getAccountNomineeRegistered() { return accountNomineeRegistered; }
+    public void setAccountNomineeRegistered(Boolean accountNomineeRegistered) { this.accountNomineeRegistered = accountNomineeRegistered; }
+    public String getAccountNomineeName() { return accountNomineeName; }
+    public void setAccountNomineeName(String accountNomineeName) { this.accountNomineeName = accountNomineeName; }
+    public Long getAccountNomineeRowVersion() { return accountNomineeRowVersion; }
+    public void setAccountNomineeRowVersion(Long accountNomineeRowVersion) { this.accountNomineeRowVersion = accountNomineeRowVersion; }
+}
@@ -13,11 +13,13 @@ import org.hibernate.annotations.CreationTimestamp;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 
 @Entity
-@Table(name = "KYC_APPLICATIONS")
+// The admin dashboard pages through applications newest first on (createdAt, id)
+@Table(name = "KYC_APPLICATIONS", indexes = @Index(name = "IDX_KYC_APPLICATIONS_CREATED", columnList = "createdAt, id"))
 public class KycApplication {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "kyc_application_seq")
+    @SequenceGenerator(name = "kyc_application_seq", sequenceName = "kyc_application_id_seq", allocationSize = 50)
     private Long id;
 
     // --- Personal & Contact Info (Existing fields are correct) ---
@@ -9,7 +9,8 @@ import jakarta.persistence.*;
 public class KycNominee {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "kyc_nominee_seq")
+    @SequenceGenerator(name = "kyc_nominee_seq", sequenceName = "kyc_nominee_id_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
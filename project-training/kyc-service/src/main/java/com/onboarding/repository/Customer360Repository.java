@@ -0,0 +1,9 @@
+package com.onboarding.repository;
+
+import com.onboarding.model.Customer360;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface Customer360Repository extends JpaRepository<Customer360, Long> {
+}
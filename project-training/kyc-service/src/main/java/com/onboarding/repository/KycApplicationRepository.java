@@ -2,16 +2,21 @@ package com.onboarding.repository;
 
 import com.onboarding.model.KycApplication;
 import com.onboarding.model.KycStatus;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface KycApplicationRepository extends JpaRepository<KycApplication, Long> {
@@ -21,7 +26,62 @@ public interface KycApplicationRepository extends JpaRepository<KycApplication,
     Optional<KycApplication> findByPan(String pan);
     Optional<KycApplication> findByAadhaar(String aadhaar);
     
-    boolean existsByEmailOrUsernameOrPanOrAadhaar(String email, String username, String pan, String aadhaar);
+    // Unique keys only, without the document LOBs (used by UniquenessValidator)
+    interface UniqueKeys {
+        String getUsername();
+        String getEmail();
+        String getPan();
+        String getAadhaar();
+    }
+
+    @Query("SELECT app.username AS username, app.email AS email, app.pan AS pan, app.aadhaar AS aadhaar FROM KycApplication app " +
+           "WHERE app.username = :username OR app.email = :email OR app.pan = :pan OR app.aadhaar = :aadhaar")
+    List<UniqueKeys> findUniqueKeyMatches(@Param("username") String username, @Param("email") String email,
+                                          @Param("pan") String pan, @Param("aadhaar") String aadhaar);
+
+    @Query("SELECT app.username AS username, app.email AS email, app.pan AS pan, app.aadhaar AS aadhaar FROM KycApplication app WHERE app.id = :id")
+    Optional<UniqueKeys> findUniqueKeysById(@Param("id") Long id);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT app.username AS username, app.email AS email, app.pan AS pan, app.aadhaar AS aadhaar FROM KycApplication app")
+    Stream<UniqueKeys> streamAllUniqueKeys();
+
+    // Export columns only: no document LOBs, no credentials, and no nominee (one more query per
+    // application when the entity is loaded). Projected rows are not managed, so nothing piles up in the session.
+    interface ExportRow {
+        Long getId();
+        String getFullName();
+        String getEmail();
+        String getPhone();
+        LocalDate getDob();
+        String getGender();
+        String getMaritalStatus();
+        String getFathersName();
+        String getNationality();
+        String getProfession();
+        String getAddress();
+        String getPan();
+        String getAadhaar();
+        String getRequestedAccountType();
+        KycStatus getKycStatus();
+        Long getCustomerId();
+        LocalDateTime getCreatedAt();
+    }
+
+    // Scrolls over every application, EXPORT_FETCH_SIZE rows per round trip, with a timeout long enough for a full table
+    String EXPORT_FETCH_SIZE = "500";
+    String EXPORT_TIMEOUT_SECONDS = "1800";
+
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = EXPORT_FETCH_SIZE),
+            @QueryHint(name = HibernateHints.HINT_TIMEOUT, value = EXPORT_TIMEOUT_SECONDS)
+    })
+    @Query("SELECT app.id AS id, app.fullName AS fullName, app.email AS email, app.phone AS phone, app.dob AS dob, " +
+           "app.gender AS gender, app.maritalStatus AS maritalStatus, app.fathersName AS fathersName, " +
+           "app.nationality AS nationality, app.profession AS profession, app.address AS address, app.pan AS pan, " +
+           "app.aadhaar AS aadhaar, app.requestedAccountType AS requestedAccountType, app.kycStatus AS kycStatus, " +
+           "app.customerId AS customerId, app.createdAt AS createdAt FROM KycApplication app ORDER BY app.id")
+    Stream<ExportRow> streamAllForExport();
 
     // Required by CustomerUIController to find the application for the logged-in user.
     Optional<KycApplication> findByUsername(String username);
@@ -69,7 +129,37 @@ public interface KycApplicationRepository extends JpaRepository<KycApplication,
             "app.aadhaar = :keyword")
      Optional<KycApplication> findByKeywordWithNominee(@Param("keyword") String keyword);
     
+    // Keyset pages over a creation window, oldest first. Each page continues after the (createdAt, id)
+    // of the last row of the one before, so deep pages cost the same as the first.
+    @Query("SELECT app FROM KycApplication app WHERE app.createdAt BETWEEN :start AND :end " +
+           "AND (app.createdAt > :afterCreatedAt OR (app.createdAt = :afterCreatedAt AND app.id > :afterId)) " +
+           "ORDER BY app.createdAt, app.id")
+    List<KycApplication> findCreatedBetweenAfter(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end,
+                                                 @Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                                 @Param("afterId") long afterId, Pageable page);
+
+    long countByCreatedAtBetween(LocalDateTime start, LocalDateTime end);
+
     @Query("SELECT app FROM KycApplication app WHERE app.createdAt BETWEEN :start AND :end")
     List<KycApplication> findByCreatedAtBetween(@Param("start") LocalDateTime start, @Param("end") LocalDateTime end);
 
+    // Keyset pages for the admin dashboard, newest first on (createdAt, id): older pages seek below a
+    // position, newer ones above it. Pooled ids don't follow creation order, so id alone can't be the key.
+    String OLDER_THAN = "(app.createdAt < :beforeCreatedAt OR (app.createdAt = :beforeCreatedAt AND app.id < :beforeId))";
+    String NEWER_THAN = "(app.createdAt > :afterCreatedAt OR (app.createdAt = :afterCreatedAt AND app.id > :afterId))";
+
+    @Query("SELECT app FROM KycApplication app WHERE " + OLDER_THAN + " ORDER BY app.createdAt DESC, app.id DESC")
+    List<KycApplication> findOlderThan(@Param("beforeCreatedAt") LocalDateTime beforeCreatedAt,
+                                       @Param("beforeId") long beforeId, Pageable page);
+
+    @Query("SELECT app FROM KycApplication app WHERE " + NEWER_THAN + " ORDER BY app.createdAt ASC, app.id ASC")
+    List<KycApplication> findNewerThan(@Param("afterCreatedAt") LocalDateTime afterCreatedAt,
+                                       @Param("afterId") long afterId, Pageable page);
+
+    @Query("SELECT COUNT(app) > 0 FROM KycApplication app WHERE " + OLDER_THAN)
+    boolean existsOlderThan(@Param("beforeCreatedAt") LocalDateTime beforeCreatedAt, @Param("beforeId") long beforeId);
+
+    @Query("SELECT COUNT(app) > 0 FROM KycApplication app WHERE " + NEWER_THAN)
+    boolean existsNewerThan(@Param("afterCreatedAt") LocalDateTime afterCreatedAt, @Param("afterId") long afterId);
+
 }
\ No newline at end of file
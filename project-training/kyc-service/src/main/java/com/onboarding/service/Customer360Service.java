@@ -0,0 +1,381 @@
+package com.onboarding.service;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.AccountDTO;
+import com.onboarding.dto.AccountNomineeChangedEvent;
+import com.onboarding.dto.AccountStatusChangedEvent;
+import com.onboarding.dto.CustomerCreatedEvent;
+import com.onboarding.dto.CustomerCreationResponseDTO;
+import com.onboarding.dto.CustomerDTO;
+import com.onboarding.dto.CustomerUpdatedEvent;
+import com.onboarding.dto.NomineeChangedEvent;
+import com.onboarding.dto.NomineeDTO;
+import com.onboarding.feign.AccountClient;
+import com.onboarding.feign.CustomerClient;
+import com.onboarding.model.Customer360;
+import com.onboarding.model.KycApplication;
+import com.onboarding.model.KycNominee;
+import com.onboarding.repository.Customer360Repository;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import jakarta.persistence.EntityManager;
+
+/**
+ * Keeps the {@link Customer360} read model, so showing a verified customer is one lookup by customer id
+ * instead of a call to customer-service and another to account-service.
+ *
+ * A row is written when the application is approved, from the application and the activated account,
+ * and from then on follows the change events on customer.changes and account.changes. Each part of the
+ * row only takes events at least as new as what it holds, by the version of the customer or account row
+ * the event was written from, so redelivered and out of order events are harmless and no processed-event
+ * store is needed. Customers approved before the read
+ * model existed, and customers whose row was evicted after an edit made here, get their row loaded from
+ * the two services on their first view.
+ */
+@Service
+public class Customer360Service {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(Customer360Service.class);
+
+    private final Customer360Repository viewRepo;
+    private final EntityManager entityManager;
+    private final CustomerClient customerClient;
+    private final AccountClient accountClient;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter localViews;
+    private final Counter loadedViews;
+
+    public Customer360Service(Customer360Repository viewRepo, EntityManager entityManager, CustomerClient customerClient,
+                              AccountClient accountClient, PlatformTransactionManager transactionManager, MeterRegistry registry) {
+        this.viewRepo = viewRepo;
+        this.entityManager = entityManager;
+        this.customerClient = customerClient;
+        this.accountClient = accountClient;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.localViews = registry.counter("customer360.views", "outcome", "local");
+        this.loadedViews = registry.counter("customer360.views", "outcome", "loaded");
+    }
+
+    /**
+     * The row of a verified application, loaded from customer-service and account-service if there is
+     * none yet. Throws whatever the Feign clients throw when they are needed and unavailable.
+     */
+    public Customer360 forApplication(KycApplication application) {
+        Optional<Customer360> existing = viewRepo.findById(application.getCustomerId());
+        if (existing.isPresent()) {
+            localViews.increment();
+            return existing.get();
+        }
+
+        CustomerDTO customer = customerClient.getCustomerById(application.getCustomerId());
+        AccountDTO account = accountClient.getAccountByCustomerId(application.getCustomerId());
+
+        Customer360 view = new Customer360();
+        view.setCustomerId(application.getCustomerId());
+        view.setApplicationId(application.getId());
+        copyProfile(view, customer);
+        copyAccount(view, account);
+        try {
+            // persist rather than save: the id is assigned, so save would look the row up first
+            transactionTemplate.executeWithoutResult(status -> entityManager.persist(view));
+        } catch (DataIntegrityViolationException e) {
+            // Another request or instance loaded it at the same time
+            LOGGER.debug("Customer 360 row for customer {} was loaded concurrently", application.getCustomerId());
+        }
+        loadedViews.increment();
+        LOGGER.info("Loaded the customer 360 row for customer {} from customer-service and account-service.",
+                application.getCustomerId());
+        return view;
+    }
+
+    /**
+     * Writes the row of an application that is being approved, in the approval's transaction. The
+     * customer was just created from the application, so its profile is the application's.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordApproval(KycApplication application, CustomerCreationResponseDTO newCustomer, AccountDTO activeAccount) {
+        Customer360 view = new Customer360();
+        view.setCustomerId(application.getCustomerId());
+        view.setApplicationId(application.getId());
+        view.setFullName(application.getFullName());
+        view.setEmail(application.getEmail());
+        view.setPhone(application.getPhone());
+        view.setAddress(application.getAddress());
+        view.setMaritalStatus(application.getMaritalStatus());
+        view.setProfession(application.getProfession());
+        view.setFathersName(application.getFathersName());
+        view.setKycStatus(application.getKycStatus().name());
+        view.setDob(application.getDob());
+        view.setGender(application.getGender());
+        view.setNationality(application.getNationality());
+        view.setPan(application.getPan());
+        view.setAadhaar(application.getAadhaar());
+        view.setRequestedAccountType(application.getRequestedAccountType());
+        view.setNetBankingEnabled(application.getNetBankingEnabled());
+        view.setDebitCardIssued(application.getDebitCardIssued());
+        view.setChequeBookIssued(application.getChequeBookIssued());
+        view.setProfileRowVersion(newCustomer.getVersion());
+
+        KycNominee nominee = application.getKycNominee();
+        if (nominee != null) {
+            view.setNomineeName(nominee.getName());
+            view.setNomineeMobile(nominee.getMobile());
+            view.setNomineeAddress(nominee.getAddress());
+            view.setNomineeAadhaarNumber(nominee.getAadhaarNumber());
+        }
+        view.setNomineeRowVersion(newCustomer.getVersion());
+
+        copyAccount(view, activeAccount);
+        entityManager.persist(view);
+    }
+
+    /**
+     * Drops a customer's row after a change made through kyc-service, so the next view loads it from
+     * the services and shows the change even if its events haven't arrived yet.
+     */
+    public void evict(Long customerId) {
+        if (customerId != null) {
+            viewRepo.deleteById(customerId);
+        }
+    }
+
+    /**
+     * All kyc-service instances share one consumer group: the read model is in the shared database, so
+     * each event has to be applied once, not once per instance. Each event is applied in its own
+     * transaction, so when one fails the error handler can commit the ones before it.
+     */
+    @KafkaListener(
+            topics = {KafkaTopicConfig.TOPIC_CUSTOMER_CHANGES, KafkaTopicConfig.TOPIC_ACCOUNT_CHANGES},
+            groupId = "kyc-customer-360",
+            properties = "auto.offset.reset=earliest",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void onChanges(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, Object> record = records.get(i);
+            try {
+                transactionTemplate.executeWithoutResult(status -> apply(record));
+            } catch (RuntimeException e) {
+                throw new BatchListenerFailedException("Could not apply the change at offset " + record.offset(), e, i);
+            }
+        }
+        acknowledgment.acknowledge();
+    }
+
+    void apply(ConsumerRecord<String, Object> record) {
+        Object event = record.value();
+        if (event instanceof CustomerCreatedEvent) {
+            // Approved customers get their row from the same data in recordApproval; imported ones
+            // have no application and are never shown here
+            return;
+        }
+        if (event instanceof CustomerUpdatedEvent) {
+            apply((CustomerUpdatedEvent) event);
+        } else if (event instanceof NomineeChangedEvent) {
+            apply((NomineeChangedEvent) event);
+        } else if (event instanceof AccountStatusChangedEvent) {
+            apply((AccountStatusChangedEvent) event);
+        } else if (event instanceof AccountNomineeChangedEvent) {
+            apply((AccountNomineeChangedEvent) event);
+        } else {
+            // Unreadable (null) or some other event type; nothing here depends on it
+            LOGGER.error("Skipping record {}-{}@{}: not a change event", record.topic(), record.partition(), record.offset());
+        }
+    }
+
+    private void apply(CustomerUpdatedEvent event) {
+        Customer360 view = rowFor(event.getCustomerId());
+        if (view == null || isOlder(event.getVersion(), view.getProfileRowVersion())) {
+            return;
+        }
+        view.setFullName(event.getFullName());
+        view.setEmail(event.getEmail());
+        view.setPhone(event.getPhone());
+        view.setAddress(event.getAddress());
+        view.setMaritalStatus(event.getMaritalStatus());
+        view.setProfession(event.getProfession());
+        view.setFathersName(event.getFathersName());
+        view.setKycStatus(event.getKycStatus());
+        view.setProfileRowVersion(event.getVersion());
+    }
+
+    private void apply(NomineeChangedEvent event) {
+        Customer360 view = rowFor(event.getCustomerId());
+        if (view == null || isOlder(event.getVersion(), view.getNomineeRowVersion())) {
+            return;
+        }
+        view.setNomineeName(event.getNomineeName());
+        view.setNomineeMobile(event.getNomineeMobile());
+        view.setNomineeAddress(event.getNomineeAddress());
+        view.setNomineeAadhaarNumber(event.getNomineeAadhaarNumber());
+        view.setNomineeRowVersion(event.getVersion());
+    }
+
+    private void apply(AccountStatusChangedEvent event) {
+        Customer360 view = rowFor(event.getCustomerId());
+        if (view == null || isOlder(event.getVersion(), view.getAccountRowVersion())) {
+            return;
+        }
+        view.setAccountNumber(event.getAccountNumber());
+        view.setAccountType(event.getAccountType());
+        view.setAccountStatus(event.getAccountStatus());
+        view.setBranchName(event.getBranchName());
+        view.setIfscCode(event.getIfscCode());
+        view.setAccountRowVersion(event.getVersion());
+    }
+
+    private void apply(AccountNomineeChangedEvent event) {
+        Customer360 view = rowFor(event.getCustomerId());
+        if (view == null || isOlder(event.getVersion(), view.getAccountNomineeRowVersion())) {
+            return;
+        }
+        view.setAccountNomineeRegistered(event.getNomineeRegistered());
+        view.setAccountNomineeName(event.getNomineeName());
+        view.setAccountNomineeRowVersion(event.getVersion());
+    }
+
+    // Events for customers without a row are dropped: the row is loaded with their current state when needed
+    private Customer360 rowFor(Long customerId) {
+        return customerId == null ? null : viewRepo.findById(customerId).orElse(null);
+    }
+
+    // Events and rows from a producer that predates the versions can't be ordered and are applied.
+    // Both events of one customer update carry the same version, so equal isn't older.
+    private static boolean isOlder(Long eventVersion, Long rowVersion) {
+        return eventVersion != null && rowVersion != null && eventVersion < rowVersion;
+    }
+
+    /**
+     * The customer as the views expect it from customer-service, with the documents of the application.
+     */
+    public CustomerDTO toCustomerDto(Customer360 view, KycApplication application) {
+        CustomerDTO dto = new CustomerDTO();
+        dto.setId(view.getCustomerId());
+        dto.setFullName(view.getFullName());
+        dto.setEmail(view.getEmail());
+        dto.setPhone(view.getPhone());
+        dto.setDob(view.getDob());
+        dto.setAddress(view.getAddress());
+        dto.setGender(view.getGender());
+        dto.setMaritalStatus(view.getMaritalStatus());
+        dto.setFathersName(view.getFathersName());
+        dto.setNationality(view.getNationality());
+        dto.setProfession(view.getProfession());
+        dto.setPan(view.getPan());
+        dto.setAadhaar(view.getAadhaar());
+        dto.setKycStatus(view.getKycStatus());
+        dto.setRequestedAccountType(view.getRequestedAccountType());
+        dto.setNetBankingEnabled(Boolean.TRUE.equals(view.getNetBankingEnabled()));
+        dto.setDebitCardIssued(Boolean.TRUE.equals(view.getDebitCardIssued()));
+        dto.setChequeBookIssued(Boolean.TRUE.equals(view.getChequeBookIssued()));
+        if (view.getNomineeName() != null) {
+            NomineeDTO nominee = new NomineeDTO();
+            nominee.setName(view.getNomineeName());
+            nominee.setMobile(view.getNomineeMobile());
+            nominee.setAddress(view.getNomineeAddress());
+            nominee.setAadhaarNumber(view.getNomineeAadhaarNumber());
+            dto.setNominee(nominee);
+        }
+        dto.setPassportPhotoBase64(application.getPassportPhotoBase64());
+        dto.setPassportPhotoContentType(application.getPassportPhotoContentType());
+        dto.setPanPhotoBase64(application.getPanPhotoBase64());
+        dto.setPanPhotoContentType(application.getPanPhotoContentType());
+        dto.setAadhaarPhotoBase64(application.getAadhaarPhotoBase64());
+        dto.setAadhaarPhotoContentType(application.getAadhaarPhotoContentType());
+        return dto;
+    }
+
+    /**
+     * The account as the views expect it from account-service; null if the customer has none.
+     */
+    public AccountDTO toAccountDto(Customer360 view) {
+        if (view.getAccountNumber() == null) {
+            return null;
+        }
+        AccountDTO dto = new AccountDTO();
+        dto.setCustomerId(view.getCustomerId());
+        dto.setAccountNumber(view.getAccountNumber());
+        dto.setAccountType(view.getAccountType());
+        dto.setAccountStatus(view.getAccountStatus());
+        dto.setBalance(view.getBalance());
+        dto.setBranchName(view.getBranchName());
+        dto.setIfscCode(view.getIfscCode());
+        dto.setMicrCode(view.getMicrCode());
+        dto.setDateOfAccountOpening(view.getDateOfAccountOpening());
+        dto.setModeOfOperation(view.getModeOfOperation());
+        dto.setNomineeRegistered(view.getAccountNomineeRegistered());
+        dto.setNomineeName(view.getAccountNomineeName());
+        dto.setNetBankingEnabled(view.getNetBankingEnabled());
+        dto.setDebitCardIssued(view.getDebitCardIssued());
+        dto.setDebitCardLast4Digits(view.getDebitCardLast4Digits());
+        dto.setChequeBookIssued(view.getChequeBookIssued());
+        dto.setChequeBookLeaves(view.getChequeBookLeaves());
+        return dto;
+    }
+
+    private static void copyProfile(Customer360 view, CustomerDTO customer) {
+        view.setFullName(customer.getFullName());
+        view.setEmail(customer.getEmail());
+        view.setPhone(customer.getPhone());
+        view.setAddress(customer.getAddress());
+        view.setMaritalStatus(customer.getMaritalStatus());
+        view.setProfession(customer.getProfession());
+        view.setFathersName(customer.getFathersName());
+        view.setKycStatus(customer.getKycStatus());
+        view.setDob(customer.getDob());
+        view.setGender(customer.getGender());
+        view.setNationality(customer.getNationality());
+        view.setPan(customer.getPan());
+        view.setAadhaar(customer.getAadhaar());
+        view.setRequestedAccountType(customer.getRequestedAccountType());
+        view.setNetBankingEnabled(customer.isNetBankingEnabled());
+        view.setDebitCardIssued(customer.isDebitCardIssued());
+        view.setChequeBookIssued(customer.isChequeBookIssued());
+        view.setProfileRowVersion(customer.getVersion());
+
+        NomineeDTO nominee = customer.getNominee();
+        view.setNomineeName(nominee == null ? null : nominee.getName());
+        view.setNomineeMobile(nominee == null ? null : nominee.getMobile());
+        view.setNomineeAddress(nominee == null ? null : nominee.getAddress());
+        view.setNomineeAadhaarNumber(nominee == null ? null : nominee.getAadhaarNumber());
+        view.setNomineeRowVersion(customer.getVersion());
+    }
+
+    private static void copyAccount(Customer360 view, AccountDTO account) {
+        if (account != null) {
+            view.setAccountNumber(account.getAccountNumber());
+            view.setAccountType(account.getAccountType());
+            view.setAccountStatus(account.getAccountStatus());
+            view.setBalance(account.getBalance());
+            view.setBranchName(account.getBranchName());
+            view.setIfscCode(account.getIfscCode());
+            view.setMicrCode(account.getMicrCode());
+            view.setDateOfAccountOpening(account.getDateOfAccountOpening());
+            view.setModeOfOperation(account.getModeOfOperation());
+            view.setDebitCardLast4Digits(account.getDebitCardLast4Digits());
+            view.setChequeBookLeaves(account.getChequeBookLeaves());
+            view.setAccountNomineeRegistered(account.getNomineeRegistered());
+            view.setAccountNomineeName(account.getNomineeName());
+            view.setAccountRowVersion(account.getVersion());
+            view.setAccountNomineeRowVersion(account.getVersion());
+        }
+    }
+}
@@ -8,6 +8,11 @@ import org.slf4j.LoggerFactory;
 import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Service;
 
+/**
+ * Events are keyed by application id, so the events for one application stay in order on one
+ * partition while different applications are consumed in parallel.
+ * Each event is stamped with its id and time (see DomainEvent) just before it is sent.
+ */
 @Service
 public class KafkaProducerService {
 
@@ -20,11 +25,13 @@ public class KafkaProducerService {
 
     public void sendNewKycApplicationNotification(NewKycApplicationEvent event) {
         LOGGER.info("Publishing new KYC application event for applicant: {}", event.getApplicantName());
-        kafkaTemplate.send(KafkaTopicConfig.TOPIC_CUSTOMER_REGISTRATION, event);
+        event.stamp();
+        kafkaTemplate.send(KafkaTopicConfig.TOPIC_CUSTOMER_REGISTRATION, KafkaTopicConfig.key(event.getKycApplicationId()), event);
     }
 
     public void sendKycUpdateNotification(KycStatusUpdateEvent event) {
         LOGGER.info("Publishing KYC status update event for customer: {}", event.getCustomerName());
-        kafkaTemplate.send(KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE, event);
+        event.stamp();
+        kafkaTemplate.send(KafkaTopicConfig.TOPIC_KYC_STATUS_UPDATE, KafkaTopicConfig.key(event.getKycApplicationId()), event);
     }
 }
\ No newline at end of file
@@ -5,12 +5,18 @@ import com.onboarding.exception.CustomerAlreadyExistsException;
 import com.onboarding.model.KycApplication;
 import com.onboarding.model.KycStatus;
 import com.onboarding.repository.KycApplicationRepository;
+import com.onboarding.repository.KycApplicationRepository.ExportRow;
+import com.onboarding.validation.UniqueKey;
+import com.onboarding.validation.UniquenessValidator;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class KycApplicationService {
@@ -18,33 +24,28 @@ public class KycApplicationService {
     private final KycApplicationRepository kycApplicationRepository;
     private final PasswordEncoder passwordEncoder;
     private final KafkaProducerService kafkaProducerService;
+    private final UniquenessValidator uniquenessValidator;
 
-    public KycApplicationService(KycApplicationRepository kycRepo, PasswordEncoder encoder, KafkaProducerService kafka) {
+    public KycApplicationService(KycApplicationRepository kycRepo, PasswordEncoder encoder, KafkaProducerService kafka, UniquenessValidator uniquenessValidator) {
         this.kycApplicationRepository = kycRepo;
         this.passwordEncoder = encoder;
         this.kafkaProducerService = kafka;
+        this.uniquenessValidator = uniquenessValidator;
     }
 
     @Transactional
     public KycApplication submitApplication(KycApplication application) {
         // --- Validation ---
-        kycApplicationRepository.findByUsername(application.getUsername()).ifPresent(u -> {
-            throw new CustomerAlreadyExistsException("Username '" + application.getUsername() + "' is already taken.");
-        });
-        kycApplicationRepository.findByEmail(application.getEmail()).ifPresent(u -> {
-            throw new CustomerAlreadyExistsException("Email '" + application.getEmail() + "' is already registered.");
-        });
-        kycApplicationRepository.findByPan(application.getPan()).ifPresent(u -> {
-            throw new CustomerAlreadyExistsException("PAN '" + application.getPan() + "' is already registered.");
-        });
-        kycApplicationRepository.findByAadhaar(application.getAadhaar()).ifPresent(u -> {
-            throw new CustomerAlreadyExistsException("Aadhaar '" + application.getAadhaar() + "' is already registered.");
-        });
+        Set<UniqueKey> collisions = uniquenessValidator.findCollisions(application.getUsername(), application.getEmail(), application.getPan(), application.getAadhaar());
+        if (!collisions.isEmpty()) {
+            throw new CustomerAlreadyExistsException(UniquenessValidator.describe(collisions));
+        }
 
         // Encrypt the password before saving
         application.setPassword(passwordEncoder.encode(application.getPassword()));
         
         KycApplication savedApplication = kycApplicationRepository.save(application);
+        uniquenessValidator.remember(savedApplication.getUsername(), savedApplication.getEmail(), savedApplication.getPan(), savedApplication.getAadhaar());
         
         // Notify admin about the new application via Kafka
         NewKycApplicationEvent event = new NewKycApplicationEvent(
@@ -62,6 +63,14 @@ public class KycApplicationService {
         return kycApplicationRepository.findAll(pageable);
     }
 
+    // The stream needs the transaction to stay open until it is drained
+    @Transactional(readOnly = true)
+    public void exportApplications(Consumer<ExportRow> sink) {
+        try (Stream<ExportRow> rows = kycApplicationRepository.streamAllForExport()) {
+            rows.forEach(sink);
+        }
+    }
+
     public Optional<KycApplication> findApplicationById(Long id) {
         return kycApplicationRepository.findById(id);
     }
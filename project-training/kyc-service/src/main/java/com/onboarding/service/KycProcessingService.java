@@ -23,12 +23,15 @@ public class KycProcessingService {
     private final KafkaProducerService kafkaProducerService;
     private final AccountClient accountClient;
     private final CustomerClient customerClient;
+    private final Customer360Service customer360Service;
 
-    public KycProcessingService(KycApplicationRepository kycRepo, KafkaProducerService kafka, AccountClient accClient, CustomerClient custClient) {
+    public KycProcessingService(KycApplicationRepository kycRepo, KafkaProducerService kafka, AccountClient accClient, CustomerClient custClient,
+                                Customer360Service customer360Service) {
         this.kycRepo = kycRepo;
         this.kafkaProducerService = kafka;
         this.accountClient = accClient;
         this.customerClient = custClient;
+        this.customer360Service = customer360Service;
     }
 
     @Transactional
@@ -41,6 +44,7 @@ public class KycProcessingService {
         }
 
         KycStatusUpdateEvent emailEvent = new KycStatusUpdateEvent();
+        emailEvent.setKycApplicationId(applicationId);
         emailEvent.setCustomerName(application.getFullName());
         emailEvent.setCustomerEmail(application.getEmail());
 
@@ -53,6 +57,7 @@ public class KycProcessingService {
             
             createInactiveAccountInAccountService(newCustomer.getId(), application);
             AccountDTO activeAccount = accountClient.activateAccount(newCustomer.getId());
+            customer360Service.recordApproval(application, newCustomer, activeAccount);
 
             emailEvent.setKycStatus("VERIFIED");
             emailEvent.setAccountNumber(activeAccount.getAccountNumber());
@@ -135,12 +140,12 @@ public class KycProcessingService {
         accountClient.createInactiveAccount(creationData);
     }
     
-    private String extractBase64Data(String dataUri) {
+    String extractBase64Data(String dataUri) {
         if (dataUri == null || !dataUri.contains(",")) return null;
         return dataUri.split(",")[1];
     }
     
-    private String extractMimeType(String dataUri) {
+    String extractMimeType(String dataUri) {
         if (dataUri == null || !dataUri.contains(",")) return null;
         return dataUri.split(",")[0].split(":")[1].split(";")[0];
     }
@@ -3,9 +3,11 @@ package com.onboarding.service;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.util.Base64;
+import java.util.Set;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +22,8 @@ import com.onboarding.model.KycNominee;
 import com.onboarding.model.KycStatus;
 import com.onboarding.repository.KycApplicationRepository;
 import com.onboarding.repository.KycNomineeRepository;
+import com.onboarding.validation.UniqueKey;
+import com.onboarding.validation.UniquenessValidator;
 
 @Service
 public class RegistrationService {
@@ -30,12 +34,14 @@ public class RegistrationService {
     private final KycNomineeRepository kycNomineeRepo;
     private final PasswordEncoder passwordEncoder;
     private final KafkaProducerService kafkaProducerService;
+    private final UniquenessValidator uniquenessValidator;
 
-    public RegistrationService(KycApplicationRepository kycRepo, KycNomineeRepository kycNomineeRepo, PasswordEncoder passwordEncoder, KafkaProducerService kafkaProducerService) {
+    public RegistrationService(KycApplicationRepository kycRepo, KycNomineeRepository kycNomineeRepo, PasswordEncoder passwordEncoder, KafkaProducerService kafkaProducerService, UniquenessValidator uniquenessValidator) {
         this.kycRepo = kycRepo;
         this.kycNomineeRepo = kycNomineeRepo;
         this.passwordEncoder = passwordEncoder;
         this.kafkaProducerService = kafkaProducerService;
+        this.uniquenessValidator = uniquenessValidator;
     }
 
     @Transactional
@@ -51,7 +57,14 @@ public class RegistrationService {
             handleNominee(application, request.getNominee());
         }
 
-        KycApplication savedApplication = kycRepo.save(application);
+        KycApplication savedApplication;
+        try {
+            // Flush now so a duplicate the uniqueness check couldn't see is reported like any other
+            savedApplication = kycRepo.saveAndFlush(application);
+        } catch (DataIntegrityViolationException e) {
+            throw new CustomerAlreadyExistsException("A user with the same Email, Username, PAN, or Aadhaar already exists.");
+        }
+        uniquenessValidator.remember(savedApplication.getUsername(), savedApplication.getEmail(), savedApplication.getPan(), savedApplication.getAadhaar());
         
         LOGGER.info("New KYC application {} submitted for user {}.", savedApplication.getId(), savedApplication.getUsername());
         NewKycApplicationEvent event = new NewKycApplicationEvent(
@@ -121,8 +134,9 @@ public class RegistrationService {
     }
 
     private void validateUniqueness(FullRegistrationRequest request) {
-        if (kycRepo.existsByEmailOrUsernameOrPanOrAadhaar(request.getEmail(), request.getUsername(), request.getPan(), request.getAadhaar())) {
-            throw new CustomerAlreadyExistsException("A user with the same Email, Username, PAN, or Aadhaar already exists.");
+        Set<UniqueKey> collisions = uniquenessValidator.findCollisions(request.getUsername(), request.getEmail(), request.getPan(), request.getAadhaar());
+        if (!collisions.isEmpty()) {
+            throw new CustomerAlreadyExistsException(UniquenessValidator.describe(collisions));
         }
     }
 
@@ -156,7 +170,7 @@ public class RegistrationService {
         application.setKycNominee(nominee);
     }
 
-    private void processDocuments(KycApplication app, MultipartFile passport, MultipartFile pan, MultipartFile aadhaar) throws IOException {
+    void processDocuments(KycApplication app, MultipartFile passport, MultipartFile pan, MultipartFile aadhaar) throws IOException {
         // --- THE FIX IS APPLIED HERE ---
         if (passport != null && !passport.isEmpty()) {
             app.setPassportPhotoContentType(passport.getContentType());
@@ -0,0 +1,21 @@
+package com.onboarding.validation;
+
+/**
+ * The application fields that must be unique across all KYC applications.
+ */
+public enum UniqueKey {
+    USERNAME("Username"),
+    EMAIL("Email"),
+    PAN("PAN"),
+    AADHAAR("Aadhaar");
+
+    private final String label;
+
+    UniqueKey(String label) {
+        this.label = label;
+    }
+
+    public String getLabel() {
+        return label;
+    }
+}
@@ -0,0 +1,172 @@
+package com.onboarding.validation;
+
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.support.Acknowledgment;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.NewKycApplicationEvent;
+import com.onboarding.repository.KycApplicationRepository;
+import com.onboarding.repository.KycApplicationRepository.UniqueKeys;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Checks a new application's username, email, PAN and Aadhaar against all existing applications.
+ * A Bloom filter of every known key answers the usual "none of these are taken" case without
+ * touching the database. Anything the filter might have seen goes to a single query that reports
+ * exactly which keys collided.
+ *
+ * The filter is loaded once the application is ready. After that it is kept current from this
+ * instance's own registrations and from the registration events of the other instances.
+ * It only decides when the query can be skipped: the unique constraints on KYC_APPLICATIONS
+ * still reject anything it misses, e.g. an application another instance saved just before ours.
+ *
+ * Only applications are checked. Customers bulk-imported into customer-service never had one,
+ * so a registration reusing their keys passes here and is turned away when it is approved,
+ * by CustomerService.createApprovedCustomer.
+ */
+@Component
+public class UniquenessValidator {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(UniquenessValidator.class);
+
+    private final KycApplicationRepository kycRepo;
+    private final BloomFilter knownKeys;
+    private final Counter skipped;
+    private final Counter queried;
+    private final Counter collided;
+    private volatile boolean warmedUp;
+
+    public UniquenessValidator(KycApplicationRepository kycRepo, MeterRegistry registry,
+                               @Value("${registration.uniqueness.expected-applications:1000000}") long expectedApplications,
+                               @Value("${registration.uniqueness.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.kycRepo = kycRepo;
+        this.knownKeys = new BloomFilter(expectedApplications * UniqueKey.values().length, falsePositiveRate);
+        this.skipped = registry.counter("registration.uniqueness.checks", "outcome", "skipped");
+        this.queried = registry.counter("registration.uniqueness.checks", "outcome", "queried");
+        this.collided = registry.counter("registration.uniqueness.checks", "outcome", "collided");
+    }
+
+    /**
+     * Returns the keys that are already used by another application; empty if none are.
+     */
+    public Set<UniqueKey> findCollisions(String username, String email, String pan, String aadhaar) {
+        if (warmedUp && !mightBeKnown(UniqueKey.USERNAME, username) && !mightBeKnown(UniqueKey.EMAIL, email)
+                && !mightBeKnown(UniqueKey.PAN, pan) && !mightBeKnown(UniqueKey.AADHAAR, aadhaar)) {
+            skipped.increment();
+            return EnumSet.noneOf(UniqueKey.class);
+        }
+
+        queried.increment();
+        Set<UniqueKey> collisions = EnumSet.noneOf(UniqueKey.class);
+        for (UniqueKeys match : kycRepo.findUniqueKeyMatches(username, email, pan, aadhaar)) {
+            if (Objects.equals(match.getUsername(), username)) collisions.add(UniqueKey.USERNAME);
+            if (Objects.equals(match.getEmail(), email)) collisions.add(UniqueKey.EMAIL);
+            if (Objects.equals(match.getPan(), pan)) collisions.add(UniqueKey.PAN);
+            if (Objects.equals(match.getAadhaar(), aadhaar)) collisions.add(UniqueKey.AADHAAR);
+        }
+        if (!collisions.isEmpty()) {
+            collided.increment();
+        }
+        return collisions;
+    }
+
+    /**
+     * Message for a {@link com.onboarding.exception.CustomerAlreadyExistsException}, naming the colliding keys.
+     */
+    public static String describe(Set<UniqueKey> collisions) {
+        return "An application with the same " + collisions.stream().map(UniqueKey::getLabel).collect(Collectors.joining(", "))
+                + " already exists.";
+    }
+
+    /**
+     * Records the keys of a saved application. Keys of an application that is later rolled back
+     * only cost an extra query on a future check.
+     */
+    public void remember(String username, String email, String pan, String aadhaar) {
+        put(UniqueKey.USERNAME, username);
+        put(UniqueKey.EMAIL, email);
+        put(UniqueKey.PAN, pan);
+        put(UniqueKey.AADHAAR, aadhaar);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        long start = System.currentTimeMillis();
+        AtomicLong applications = new AtomicLong();
+        try (Stream<UniqueKeys> keys = kycRepo.streamAllUniqueKeys()) {
+            keys.forEach(k -> {
+                remember(k.getUsername(), k.getEmail(), k.getPan(), k.getAadhaar());
+                applications.incrementAndGet();
+            });
+            warmedUp = true;
+            LOGGER.info("Uniqueness filter loaded with {} applications in {} ms ({} KB).",
+                    applications.get(), System.currentTimeMillis() - start, knownKeys.sizeInBytes() / 1024);
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not load the uniqueness filter, every registration will be checked against the database: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Every kyc-service instance gets every registration event (one consumer group per instance)
+     * and adds the keys it hasn't seen yet. Its own registrations are already in the filter.
+     * The filter only has to be close, so nothing here is retried: a batch is acknowledged once
+     * it has been looked at.
+     */
+    @KafkaListener(
+            topics = KafkaTopicConfig.TOPIC_CUSTOMER_REGISTRATION,
+            groupId = "kyc-uniqueness-${random.uuid}",
+            properties = "auto.offset.reset=latest",
+            containerFactory = "kafkaListenerContainerFactory"
+    )
+    public void onNewApplications(List<ConsumerRecord<String, Object>> records, Acknowledgment acknowledgment) {
+        for (ConsumerRecord<String, Object> record : records) {
+            // Unreadable records arrive with a null value
+            if (record.value() instanceof NewKycApplicationEvent) {
+                onNewApplication((NewKycApplicationEvent) record.value());
+            }
+        }
+        acknowledgment.acknowledge();
+    }
+
+    private void onNewApplication(NewKycApplicationEvent event) {
+        if (event.getKycApplicationId() == null || mightBeKnown(UniqueKey.EMAIL, event.getApplicantEmail())) {
+            return;
+        }
+        try {
+            kycRepo.findUniqueKeysById(event.getKycApplicationId())
+                    .ifPresent(k -> remember(k.getUsername(), k.getEmail(), k.getPan(), k.getAadhaar()));
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not add application {} to the uniqueness filter: {}", event.getKycApplicationId(), e.getMessage());
+        }
+    }
+
+    private boolean mightBeKnown(UniqueKey key, String value) {
+        return value != null && knownKeys.mightContain(key.name() + ':' + value);
+    }
+
+    private void put(UniqueKey key, String value) {
+        if (value != null) {
+            knownKeys.put(key.name() + ':' + value);
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.onboarding.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.onboarding.model.Customer360;
+import com.onboarding.repository.Customer360Repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Replica routing as Spring Data repositories see it. SimpleJpaRepository runs every find in a
+ * read-only transaction, so this checks that those stay on the primary on the interactive lane.
+ * All pools point at one H2 database and record which of them handed out each connection.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import(RepositoryReplicaRoutingTests.RoutingConfig.class)
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class RepositoryReplicaRoutingTests {
+
+    private static final List<String> POOLS_USED = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private Customer360Repository repository;
+    @Autowired
+    private ReplicaLagMonitor monitor;
+
+    @BeforeEach
+    void setUp() {
+        repository.deleteAll();
+        monitor.beat();
+        assertThat(monitor.isUsable()).isTrue();
+        POOLS_USED.clear();
+    }
+
+    @Test
+    void interactiveRepositoryReadsSeeTheirOwnWritesOnThePrimary() {
+        repository.save(view(7L));
+
+        assertThat(repository.findById(7L)).isPresent();
+        assertThat(repository.findAll()).hasSize(1);
+        assertThat(POOLS_USED).isNotEmpty().containsOnly("interactive");
+    }
+
+    @Test
+    void reportingRepositoryReadsGoToTheReplica() {
+        QueryLane.REPORTING.call(() -> repository.findAll());
+        QueryLane.REPORTING.call(() -> repository.count());
+        assertThat(POOLS_USED).isNotEmpty().containsOnly("reporting-replica");
+
+        POOLS_USED.clear();
+        QueryLane.REPORTING.call(() -> repository.save(view(8L)));
+        assertThat(POOLS_USED).isNotEmpty().containsOnly("reporting");
+    }
+
+    private static Customer360 view(long customerId) {
+        Customer360 view = new Customer360();
+        view.setCustomerId(customerId);
+        view.setApplicationId(customerId + 100);
+        return view;
+    }
+
+    @TestConfiguration
+    static class RoutingConfig {
+
+        private final DataSource database = new DriverManagerDataSource(
+                "jdbc:h2:mem:routing-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+
+        @Bean
+        ReplicaLagMonitor replicaLagMonitor() {
+            return new ReplicaLagMonitor(database, database, "KYC-SERVICE", Duration.ofSeconds(30), new SimpleMeterRegistry());
+        }
+
+        @Bean
+        DataSource dataSource(ReplicaLagMonitor replicaLagMonitor) {
+            return new LazyConnectionDataSourceProxy(new QueryLaneRoutingDataSource(
+                    pool("interactive"), pool("reporting"), pool("reporting-replica"), replicaLagMonitor));
+        }
+
+        private DataSource pool(String name) {
+            return new DelegatingDataSource(database) {
+                @Override
+                public Connection getConnection() throws SQLException {
+                    POOLS_USED.add(name);
+                    return super.getConnection();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.onboarding.persistence;
+
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.opentest4j.AssertionFailedError;
+
+/**
+ * Enforces {@link SqlStatementBudget} using the statements {@link SqlStatementCounter} saw on the test thread.
+ */
+class SqlStatementBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    private static final ExtensionContext.Namespace NAMESPACE = ExtensionContext.Namespace.create(SqlStatementBudgetExtension.class);
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        context.getStore(NAMESPACE).put(context.getUniqueId(), SqlStatementCounter.current());
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementBudget budget = context.getRequiredTestMethod().getAnnotation(SqlStatementBudget.class);
+        Long start = context.getStore(NAMESPACE).remove(context.getUniqueId(), Long.class);
+        if (budget == null || start == null) {
+            return;
+        }
+        long statements = SqlStatementCounter.current() - start;
+        if (statements > budget.value()) {
+            throw new AssertionFailedError(context.getDisplayName() + " issued " + statements
+                    + " SQL statements, over its budget of " + budget.value(), budget.value(), statements);
+        }
+    }
+}
@@ -0,0 +1,258 @@
+package com.onboarding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.AccountDTO;
+import com.onboarding.dto.AccountStatusChangedEvent;
+import com.onboarding.dto.CustomerCreationResponseDTO;
+import com.onboarding.dto.CustomerDTO;
+import com.onboarding.dto.CustomerUpdatedEvent;
+import com.onboarding.dto.DomainEvent;
+import com.onboarding.dto.NomineeChangedEvent;
+import com.onboarding.dto.NomineeDTO;
+import com.onboarding.feign.AccountClient;
+import com.onboarding.feign.CustomerClient;
+import com.onboarding.model.Customer360;
+import com.onboarding.model.KycApplication;
+import com.onboarding.model.KycNominee;
+import com.onboarding.model.KycStatus;
+import com.onboarding.repository.Customer360Repository;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The customer 360 read model against H2 with mocked Feign clients: written on approval, moved forward
+ * by change events no older than the source row versions it holds, and loaded from the services once
+ * for customers it doesn't have.
+ */
+@DataJpaTest(showSql = false, properties = "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect")
+@Import({Customer360Service.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class Customer360ServiceTests {
+
+    private static final long CUSTOMER_ID = 7L;
+
+    @Autowired
+    private Customer360Service customer360Service;
+    @Autowired
+    private Customer360Repository viewRepo;
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockBean
+    private CustomerClient customerClient;
+    @MockBean
+    private AccountClient accountClient;
+
+    @BeforeEach
+    void setUp() {
+        viewRepo.deleteAll();
+    }
+
+    @Test
+    void approvedCustomersFollowNewerChangeEventsOnly() {
+        KycApplication application = approvedApplication();
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                customer360Service.recordApproval(application, created(0L), account("ACTIVE", 1L)));
+        Customer360 approved = viewRepo.findById(CUSTOMER_ID).orElseThrow();
+        assertThat(approved.getNomineeName()).isEqualTo("Nominee");
+        assertThat(approved.getAccountStatus()).isEqualTo("ACTIVE");
+        assertThat(approved.getProfileRowVersion()).isZero();
+        assertThat(approved.getAccountRowVersion()).isEqualTo(1L);
+
+        AtomicInteger acknowledged = new AtomicInteger();
+        customer360Service.onChanges(Arrays.asList(
+                // Two updates by the customer; the first is delivered again after the second
+                customerChange(updated("first@example.com", 2L)),
+                customerChange(nomineeChanged(NomineeChangedEvent.REMOVED, null, 2L)),
+                customerChange(updated("second@example.com", 3L)),
+                customerChange(nomineeChanged(NomineeChangedEvent.ADDED, "New Nominee", 3L)),
+                customerChange(updated("first@example.com", 2L)),
+                customerChange(nomineeChanged(NomineeChangedEvent.REMOVED, null, 2L)),
+                record(KafkaTopicConfig.TOPIC_ACCOUNT_CHANGES, null),
+                // The account is deactivated, then its activation is delivered again
+                accountChange(statusChanged("ACTIVE", "INACTIVE", 2L)),
+                accountChange(statusChanged("INACTIVE", "ACTIVE", 1L))),
+                acknowledged::incrementAndGet);
+
+        Customer360 view = viewRepo.findById(CUSTOMER_ID).orElseThrow();
+        assertThat(view.getEmail()).isEqualTo("second@example.com");
+        assertThat(view.getNomineeName()).isEqualTo("New Nominee");
+        assertThat(view.getProfileRowVersion()).isEqualTo(3L);
+        assertThat(view.getAccountStatus()).isEqualTo("INACTIVE");
+        assertThat(view.getBranchName()).isEqualTo("Main Branch");
+        assertThat(view.getAccountRowVersion()).isEqualTo(2L);
+        assertThat(acknowledged).hasValue(1);
+    }
+
+    @Test
+    void eventsForCustomersWithoutARowAreDropped() {
+        customer360Service.onChanges(Arrays.asList(customerChange(updated("new@example.com", 2L))), () -> { });
+
+        assertThat(viewRepo.count()).isZero();
+    }
+
+    @Test
+    void customersWithoutARowAreLoadedFromTheServicesOnce() {
+        when(customerClient.getCustomerById(CUSTOMER_ID)).thenReturn(customer(4L));
+        when(accountClient.getAccountByCustomerId(CUSTOMER_ID)).thenReturn(account("ACTIVE", 1L));
+        KycApplication application = approvedApplication();
+
+        customer360Service.forApplication(application);
+        Customer360 view = customer360Service.forApplication(application);
+
+        verify(customerClient, times(1)).getCustomerById(CUSTOMER_ID);
+        verify(accountClient, times(1)).getAccountByCustomerId(CUSTOMER_ID);
+        CustomerDTO shown = customer360Service.toCustomerDto(view, application);
+        assertThat(shown.getId()).isEqualTo(CUSTOMER_ID);
+        assertThat(shown.getEmail()).isEqualTo("applicant@example.com");
+        assertThat(shown.getNominee().getName()).isEqualTo("Nominee");
+        assertThat(shown.getPassportPhotoBase64()).isEqualTo("data:image/png;base64,AAAA");
+        assertThat(customer360Service.toAccountDto(view).getAccountNumber()).isEqualTo("1000000007");
+    }
+
+    @Test
+    void eventsOlderThanALoadedRowAreSkipped() {
+        when(customerClient.getCustomerById(CUSTOMER_ID)).thenReturn(customer(4L));
+        when(accountClient.getAccountByCustomerId(CUSTOMER_ID)).thenReturn(account("ACTIVE", 1L));
+        customer360Service.forApplication(approvedApplication());
+
+        // Still in flight when the row was loaded, and already part of what customer-service returned
+        customer360Service.onChanges(Arrays.asList(
+                customerChange(updated("older@example.com", 3L)),
+                customerChange(nomineeChanged(NomineeChangedEvent.REMOVED, null, 3L))), () -> { });
+        assertThat(viewRepo.findById(CUSTOMER_ID).orElseThrow().getEmail()).isEqualTo("applicant@example.com");
+        assertThat(viewRepo.findById(CUSTOMER_ID).orElseThrow().getNomineeName()).isEqualTo("Nominee");
+
+        customer360Service.onChanges(Arrays.asList(customerChange(updated("newer@example.com", 5L))), () -> { });
+        assertThat(viewRepo.findById(CUSTOMER_ID).orElseThrow().getEmail()).isEqualTo("newer@example.com");
+    }
+
+    private static ConsumerRecord<String, Object> record(String topic, Object value) {
+        return new ConsumerRecord<>(topic, 0, 0L, String.valueOf(CUSTOMER_ID), value);
+    }
+
+    private static ConsumerRecord<String, Object> customerChange(DomainEvent event) {
+        event.stamp();
+        return record(KafkaTopicConfig.TOPIC_CUSTOMER_CHANGES, event);
+    }
+
+    private static ConsumerRecord<String, Object> accountChange(DomainEvent event) {
+        event.stamp();
+        return record(KafkaTopicConfig.TOPIC_ACCOUNT_CHANGES, event);
+    }
+
+    // The whole editable profile, as CustomerService sends it
+    private static CustomerUpdatedEvent updated(String email, long version) {
+        CustomerUpdatedEvent event = new CustomerUpdatedEvent();
+        event.setCustomerId(CUSTOMER_ID);
+        event.setFullName("Applicant");
+        event.setEmail(email);
+        event.setPhone("9800000007");
+        event.setAddress("1 Test Street");
+        event.setMaritalStatus("Single");
+        event.setProfession("Engineer");
+        event.setFathersName("Father");
+        event.setKycStatus("VERIFIED");
+        event.setUpdatedBy(CustomerUpdatedEvent.BY_CUSTOMER);
+        event.setVersion(version);
+        return event;
+    }
+
+    private static NomineeChangedEvent nomineeChanged(String change, String name, long version) {
+        NomineeChangedEvent event = new NomineeChangedEvent();
+        event.setCustomerId(CUSTOMER_ID);
+        event.setChange(change);
+        if (name != null) {
+            event.setNomineeName(name);
+            event.setNomineeMobile("9700000007");
+            event.setNomineeAddress("1 Test Street");
+            event.setNomineeAadhaarNumber("567800000007");
+        }
+        event.setVersion(version);
+        return event;
+    }
+
+    // All the account details, as AccountService sends them
+    private static AccountStatusChangedEvent statusChanged(String previousStatus, String status, long version) {
+        AccountStatusChangedEvent event = new AccountStatusChangedEvent();
+        event.setCustomerId(CUSTOMER_ID);
+        event.setAccountNumber("1000000007");
+        event.setAccountType("SAVINGS");
+        event.setPreviousStatus(previousStatus);
+        event.setAccountStatus(status);
+        event.setBranchName("Main Branch");
+        event.setIfscCode("HDFC0000123");
+        event.setVersion(version);
+        return event;
+    }
+
+    private static CustomerCreationResponseDTO created(long version) {
+        CustomerCreationResponseDTO created = new CustomerCreationResponseDTO();
+        created.setId(CUSTOMER_ID);
+        created.setFullname("Applicant");
+        created.setVersion(version);
+        return created;
+    }
+
+    private static CustomerDTO customer(long version) {
+        CustomerDTO customer = new CustomerDTO();
+        customer.setId(CUSTOMER_ID);
+        customer.setFullName("Applicant");
+        customer.setEmail("applicant@example.com");
+        customer.setKycStatus("VERIFIED");
+        NomineeDTO nominee = new NomineeDTO();
+        nominee.setName("Nominee");
+        customer.setNominee(nominee);
+        customer.setVersion(version);
+        return customer;
+    }
+
+    private static AccountDTO account(String status, long version) {
+        AccountDTO account = new AccountDTO();
+        account.setCustomerId(CUSTOMER_ID);
+        account.setAccountNumber("1000000007");
+        account.setAccountType("SAVINGS");
+        account.setAccountStatus(status);
+        account.setBranchName("Main Branch");
+        account.setNomineeRegistered(true);
+        account.setNomineeName("Nominee");
+        account.setVersion(version);
+        return account;
+    }
+
+    private static KycApplication approvedApplication() {
+        KycApplication application = new KycApplication();
+        application.setId(3L);
+        application.setCustomerId(CUSTOMER_ID);
+        application.setKycStatus(KycStatus.VERIFIED);
+        application.setFullName("Applicant");
+        application.setEmail("applicant@example.com");
+        application.setDob(LocalDate.of(1990, 1, 1));
+        application.setPassportPhotoBase64("data:image/png;base64,AAAA");
+        KycNominee nominee = new KycNominee();
+        nominee.setName("Nominee");
+        application.setKycNominee(nominee);
+        return application;
+    }
+}
@@ -0,0 +1,232 @@
+package com.onboarding.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Import;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import com.onboarding.controller.ChatbotApiController;
+import com.onboarding.dto.AccountDTO;
+import com.onboarding.dto.CustomerCreationResponseDTO;
+import com.onboarding.dto.FullRegistrationRequest;
+import com.onboarding.dto.NomineeDTO;
+import com.onboarding.exception.CustomerAlreadyExistsException;
+import com.onboarding.export.ExportFormat;
+import com.onboarding.export.ExportWriter;
+import com.onboarding.feign.AccountClient;
+import com.onboarding.feign.CustomerClient;
+import com.onboarding.model.KycApplication;
+import com.onboarding.pagination.KeysetPage;
+import com.onboarding.persistence.SqlStatementBudget;
+import com.onboarding.persistence.SqlStatementCounter;
+import com.onboarding.repository.KycApplicationRepository;
+import com.onboarding.repository.KycApplicationRepository.ExportRow;
+import com.onboarding.validation.UniquenessValidator;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * Guards the number of JDBC statements registration and approval cost, so a change back to
+ * identity ids, per-row sequence calls or extra lookups shows up as a failing build.
+ * Runs against H2 with the batching settings from application.properties; statements are counted
+ * by {@link com.onboarding.persistence.SqlStatementCounter}.
+ */
+@DataJpaTest(showSql = false, properties = {
+        "spring.jpa.database-platform=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "logging.level.org.hibernate.engine.internal.StatisticalLoggingSessionEventListener=WARN"
+})
+@Import({RegistrationService.class, KycProcessingService.class, KycApplicationService.class, UniquenessValidator.class,
+        Customer360Service.class, SimpleMeterRegistry.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class PersistenceStatementCountTests {
+
+    private static final int REGISTRATIONS = 20;
+
+    @Autowired
+    private RegistrationService registrationService;
+    @Autowired
+    private KycProcessingService kycProcessingService;
+    @Autowired
+    private KycApplicationService kycApplicationService;
+    @Autowired
+    private KycApplicationRepository kycRepo;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @MockBean
+    private KafkaProducerService kafkaProducerService;
+    @MockBean
+    private PasswordEncoder passwordEncoder;
+    @MockBean
+    private CustomerClient customerClient;
+    @MockBean
+    private AccountClient accountClient;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void setUp() {
+        kycRepo.deleteAll();
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        when(passwordEncoder.encode(any())).thenReturn("{noop}secret");
+    }
+
+    // Per registration: the application and nominee inserts. The uniqueness filter knows none of
+    // the keys, so no uniqueness query is needed. Ids come in blocks of 50, so each sequence is
+    // called at most twice for the whole run.
+    @Test
+    @SqlStatementBudget(REGISTRATIONS * 2 + 4)
+    void registrationOfNewApplicantsIsTwoInserts() throws Exception {
+        statistics.clear();
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            registrationService.processRegistration(registration(i), null, null, null);
+        }
+
+        assertThat(statistics.getEntityInsertCount()).isEqualTo(REGISTRATIONS * 2);
+    }
+
+    @Test
+    void approvalLoadsTheApplicationOnceAndUpdatesIt() throws Exception {
+        registrationService.processRegistration(registration(100), null, null, null);
+        Long applicationId = kycRepo.findByUsername("applicant100").orElseThrow().getId();
+
+        CustomerCreationResponseDTO customer = new CustomerCreationResponseDTO();
+        customer.setId(1L);
+        when(customerClient.createApprovedCustomer(any())).thenReturn(customer);
+        when(accountClient.activateAccount(anyLong())).thenReturn(new AccountDTO());
+
+        long before = SqlStatementCounter.current();
+        kycProcessingService.processKyc(applicationId, true, null);
+
+        // The application, its nominee (inverse one-to-one, fetched eagerly), the status update and
+        // the customer 360 row
+        assertThat(SqlStatementCounter.current() - before).isLessThanOrEqualTo(4);
+        KycApplication approved = kycRepo.findById(applicationId).orElseThrow();
+        assertThat(approved.getCustomerId()).isEqualTo(1L);
+    }
+
+    @Test
+    void duplicateRegistrationReportsTheCollidingKeysFromOneQuery() throws Exception {
+        registrationService.processRegistration(registration(200), null, null, null);
+        FullRegistrationRequest duplicate = registration(201);
+        duplicate.setEmail("applicant200@example.com");
+        duplicate.setPan(String.format("ABCDE%04dF", 200));
+
+        long before = SqlStatementCounter.current();
+        assertThatThrownBy(() -> registrationService.processRegistration(duplicate, null, null, null))
+                .isInstanceOf(CustomerAlreadyExistsException.class)
+                .hasMessage("An application with the same Email, PAN already exists.");
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(1);
+    }
+
+    // Keyset pages seek from the cursor, so the last page costs what the first one does and no
+    // count query runs unless asked for
+    @Test
+    void createdBetweenPagesCostTheSameAtAnyDepth() throws Exception {
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            registrationService.processRegistration(registration(300 + i), null, null, null);
+        }
+        ChatbotApiController chatbot = new ChatbotApiController(kycRepo, accountClient, null);
+        LocalDateTime start = LocalDateTime.now().minusHours(1);
+        LocalDateTime end = LocalDateTime.now().plusHours(1);
+
+        List<Object> seen = new ArrayList<>();
+        List<Long> statementsPerPage = new ArrayList<>();
+        String cursor = null;
+        do {
+            long before = SqlStatementCounter.current();
+            KeysetPage<Map<String, Object>> page = chatbot.getApplicationPageByDate(start, end, cursor, 5, false).getBody();
+            statementsPerPage.add(SqlStatementCounter.current() - before);
+            page.getContent().forEach(app -> seen.add(app.get("id")));
+            assertThat(page.getTotal()).isNull();
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertThat(seen).hasSize(REGISTRATIONS).doesNotHaveDuplicates();
+        // The last page has no look-ahead row to load, so it may be one statement cheaper
+        assertThat(statementsPerPage).hasSize(REGISTRATIONS / 5);
+        assertThat(statementsPerPage.subList(0, statementsPerPage.size() - 1)).containsOnly(statementsPerPage.get(0));
+        assertThat(statementsPerPage.get(statementsPerPage.size() - 1)).isLessThanOrEqualTo(statementsPerPage.get(0));
+        assertThat(chatbot.getApplicationPageByDate(start, end, null, 5, true).getBody().getTotal()).isEqualTo((long) REGISTRATIONS);
+    }
+
+    // The export scrolls over one projection query: no document LOBs and no nominee lookup per row
+    @Test
+    void exportIsOneQueryWhateverTheRowCount() throws Exception {
+        for (int i = 0; i < REGISTRATIONS; i++) {
+            registrationService.processRegistration(registration(400 + i), null, null, null);
+        }
+        Map<String, Function<ExportRow, Object>> columns = new LinkedHashMap<>();
+        columns.put("id", ExportRow::getId);
+        columns.put("fullName", ExportRow::getFullName);
+        columns.put("kycStatus", ExportRow::getKycStatus);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ExportWriter<ExportRow> writer = new ExportWriter<>(ExportFormat.CSV, out, new ObjectMapper(), columns);
+
+        long before = SqlStatementCounter.current();
+        kycApplicationService.exportApplications(writer::write);
+        long rows = writer.finish();
+
+        assertThat(SqlStatementCounter.current() - before).isEqualTo(1);
+        assertThat(rows).isEqualTo(REGISTRATIONS);
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertThat(lines).hasSize(REGISTRATIONS + 1);
+        assertThat(lines[0]).isEqualTo("id,fullName,kycStatus");
+        assertThat(lines[1]).endsWith(",PENDING");
+    }
+
+    private FullRegistrationRequest registration(int n) {
+        FullRegistrationRequest request = new FullRegistrationRequest();
+        request.setFullname("Applicant " + n);
+        request.setEmail("applicant" + n + "@example.com");
+        request.setPhone(String.format("98%08d", n));
+        request.setDob(LocalDate.of(1990, 1, 1));
+        request.setAddress("1 Test Street");
+        request.setGender("Male");
+        request.setMaritalStatus("Single");
+        request.setFathersName("Father " + n);
+        request.setNationality("Indian");
+        request.setProfession("Engineer");
+        request.setPan(String.format("ABCDE%04dF", n));
+        request.setAadhaar(String.format("1234%08d", n));
+        request.setUsername("applicant" + n);
+        request.setPassword("password");
+        request.setRequestedAccountType("SAVINGS");
+
+        NomineeDTO nominee = new NomineeDTO();
+        nominee.setName("Nominee " + n);
+        nominee.setMobile(String.format("97%08d", n));
+        nominee.setAddress("1 Test Street");
+        nominee.setAadhaarNumber(String.format("5678%08d", n));
+        request.setNominee(nominee);
+        return request;
+    }
+}
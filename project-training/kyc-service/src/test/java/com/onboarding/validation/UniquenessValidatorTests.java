@@ -0,0 +1,90 @@
+package com.onboarding.validation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.Acknowledgment;
+
+import com.onboarding.config.KafkaTopicConfig;
+import com.onboarding.dto.NewKycApplicationEvent;
+import com.onboarding.repository.KycApplicationRepository;
+import com.onboarding.repository.KycApplicationRepository.UniqueKeys;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * The registration events of other instances, taken in batches the way kafkaListenerContainerFactory
+ * delivers them, and what they do to later checks.
+ */
+class UniquenessValidatorTests {
+
+    private final KycApplicationRepository kycRepo = mock(KycApplicationRepository.class);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final Acknowledgment acknowledgment = mock(Acknowledgment.class);
+    private UniquenessValidator validator;
+
+    @BeforeEach
+    void setUp() {
+        when(kycRepo.streamAllUniqueKeys()).thenReturn(Stream.empty());
+        validator = new UniquenessValidator(kycRepo, registry, 1000, 0.01);
+        validator.warmUp();
+    }
+
+    @Test
+    void keysFromOtherInstancesAreCheckedAgainstTheDatabase() {
+        UniqueKeys keys = keys("asha01", "asha@example.com", "ABCDE1234F", "123412341234");
+        when(kycRepo.findUniqueKeysById(7L)).thenReturn(Optional.of(keys));
+        when(kycRepo.findUniqueKeyMatches("asha01", "other@example.com", "ABCDE9999F", "999999999999"))
+                .thenReturn(Collections.singletonList(keys));
+
+        validator.onNewApplications(Arrays.asList(record(0, event(7L, "asha@example.com")), record(1, null)), acknowledgment);
+
+        verify(acknowledgment).acknowledge();
+        assertThat(validator.findCollisions("asha01", "other@example.com", "ABCDE9999F", "999999999999"))
+                .containsExactly(UniqueKey.USERNAME);
+        assertThat(validator.findCollisions("new-user", "new@example.com", "ABCDE0000F", "000000000000")).isEmpty();
+        assertThat(registry.counter("registration.uniqueness.checks", "outcome", "skipped").count()).isEqualTo(1);
+    }
+
+    @Test
+    void keysAlreadyInTheFilterAreNotLookedUpAgain() {
+        validator.remember("asha01", "asha@example.com", "ABCDE1234F", "123412341234");
+
+        validator.onNewApplications(Collections.singletonList(record(0, event(7L, "asha@example.com"))), acknowledgment);
+
+        verify(kycRepo, never()).findUniqueKeysById(any());
+        verify(acknowledgment).acknowledge();
+    }
+
+    private static ConsumerRecord<String, Object> record(long offset, Object value) {
+        return new ConsumerRecord<>(KafkaTopicConfig.TOPIC_CUSTOMER_REGISTRATION, 0, offset, "key", value);
+    }
+
+    private static NewKycApplicationEvent event(Long applicationId, String email) {
+        NewKycApplicationEvent event = new NewKycApplicationEvent();
+        event.setKycApplicationId(applicationId);
+        event.setApplicantEmail(email);
+        return event;
+    }
+
+    private static UniqueKeys keys(String username, String email, String pan, String aadhaar) {
+        UniqueKeys keys = mock(UniqueKeys.class);
+        when(keys.getUsername()).thenReturn(username);
+        when(keys.getEmail()).thenReturn(email);
+        when(keys.getPan()).thenReturn(pan);
+        when(keys.getAadhaar()).thenReturn(aadhaar);
+        return keys;
+    }
+}
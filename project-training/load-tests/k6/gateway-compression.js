@@ -0,0 +1,67 @@
+// Gateway compression / h2c load profile.
+//
+// Compares bytes on the wire (data_received) and p99 latency through the API gateway.
+// Run it twice against the same data set:
+//   1. gateway started with --spring.profiles.active=uncompressed,loadtest   (before)
+//   2. gateway started with --spring.profiles.active=loadtest                (after)
+//
+// The loadtest profile lifts the per-client rate limit: every request here comes from one
+// address, and 40 page requests plus 10 API calls a second are well over the default 10/s, so
+// without it the run would mostly measure 429s.
+//
+//   k6 run -e BASE_URL=http://localhost:8080 -e FROM=2024-01-01T00:00:00 -e TO=2030-01-01T00:00:00 gateway-compression.js
+//
+// The end-of-test summary prints data_received and the p(99) of each tagged request group.
+// Without k6: scripts/load-test.sh --scenario=gateway-compression [--gateway-profiles=uncompressed]
+// sends the same requests from the load-tests harness (numbers from one run in the README).
+import http from 'k6/http';
+import { check } from 'k6';
+import encoding from 'k6/encoding';
+
+const BASE_URL = __ENV.BASE_URL || 'http://localhost:8080';
+const FROM = __ENV.FROM || '2024-01-01T00:00:00';
+const TO = __ENV.TO || '2030-01-01T00:00:00';
+const INTERNAL_AUTH = 'Basic ' + encoding.b64encode('internal-user:internal-password');
+
+export const options = {
+    scenarios: {
+        pages: {
+            executor: 'constant-arrival-rate',
+            rate: 20, timeUnit: '1s', duration: '2m',
+            preAllocatedVUs: 20, maxVUs: 100,
+            exec: 'pages',
+        },
+        accountsApi: {
+            executor: 'constant-arrival-rate',
+            rate: 10, timeUnit: '1s', duration: '2m',
+            preAllocatedVUs: 10, maxVUs: 50,
+            exec: 'accountsApi',
+        },
+    },
+    summaryTrendStats: ['avg', 'p(50)', 'p(95)', 'p(99)', 'max'],
+    thresholds: {
+        // Per-group thresholds also make the summary list each group's latencies
+        'http_req_duration{group:pages}': ['p(99)<1000'],
+        'http_req_duration{group:accounts}': ['p(99)<3000'],
+        // Rejected requests are small and fast and would flatter both numbers
+        'http_req_failed': ['rate<0.01'],
+        'checks': ['rate>0.99'],
+    },
+};
+
+const COMMON_HEADERS = { 'Accept-Encoding': 'br, gzip' };
+
+export function pages() {
+    const res = http.get(`${BASE_URL}/ui/register`, { headers: COMMON_HEADERS, tags: { group: 'pages' } });
+    check(res, { 'page 200': (r) => r.status === 200 });
+    const css = http.get(`${BASE_URL}/css/style.css`, { headers: COMMON_HEADERS, tags: { group: 'pages' } });
+    check(css, { 'css 200': (r) => r.status === 200 });
+}
+
+export function accountsApi() {
+    const res = http.get(`${BASE_URL}/api/internal/accounts/created-between/pages?start=${FROM}&end=${TO}&size=500`, {
+        headers: Object.assign({ Authorization: INTERNAL_AUTH }, COMMON_HEADERS),
+        tags: { group: 'accounts' },
+    });
+    check(res, { 'accounts 200': (r) => r.status === 200 });
+}
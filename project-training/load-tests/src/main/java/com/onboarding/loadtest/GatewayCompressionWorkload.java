@@ -0,0 +1,111 @@
+package com.onboarding.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The requests of k6/gateway-compression.js, for when k6 isn't at hand: the registration page with
+ * its stylesheet, and a 500-row page of the accounts API, all asking for "br, gzip".
+ * <p>
+ * java.net.http doesn't decompress, so the bytes counted here are the ones on the wire: the body as
+ * sent plus the status line and headers, close to what k6 reports as data_received (only the chunk
+ * framing of chunked responses is missing).
+ */
+class GatewayCompressionWorkload {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+    private static final String INTERNAL_AUTH = "Basic "
+            + Base64.getEncoder().encodeToString("internal-user:internal-password".getBytes(StandardCharsets.UTF_8));
+
+    private final String baseUrl;
+    private final LoadReport report;
+    private final String accountsPath;
+    private final HttpClient http = HttpClient.newBuilder()
+            .version(HttpClient.Version.HTTP_1_1)
+            .connectTimeout(Duration.ofSeconds(10))
+            .build();
+    private final Map<String, AtomicLong> bytesReceived = new ConcurrentSkipListMap<>();
+    private final Map<String, String> encodings = new ConcurrentHashMap<>();
+
+    GatewayCompressionWorkload(String baseUrl, LoadReport report, String from, String to) {
+        this.baseUrl = baseUrl;
+        this.report = report;
+        this.accountsPath = "/api/internal/accounts/created-between/pages?start=" + from + "&end=" + to + "&size=500";
+    }
+
+    void openPage() {
+        send("compression.page", HttpRequest.newBuilder(uri("/ui/register")));
+        send("compression.css", HttpRequest.newBuilder(uri("/css/style.css")));
+    }
+
+    void fetchAccounts() {
+        send("compression.accounts", HttpRequest.newBuilder(uri(accountsPath)).header("Authorization", INTERNAL_AUTH));
+    }
+
+    /** Drops the byte counts, together with the report after the warm-up. */
+    void reset() {
+        bytesReceived.clear();
+    }
+
+    /** Bytes received per step, with the average per request and the Content-Encoding the gateway chose. */
+    Map<String, Object> totals() {
+        Map<String, Object> totals = new LinkedHashMap<>();
+        long all = 0;
+        for (Map.Entry<String, AtomicLong> entry : bytesReceived.entrySet()) {
+            long bytes = entry.getValue().get();
+            long requests = report.count(entry.getKey());
+            all += bytes;
+            totals.put("bytes received by " + entry.getKey(), bytes + " (" + (requests == 0 ? 0 : bytes / requests)
+                    + " per request, Content-Encoding: " + encodings.getOrDefault(entry.getKey(), "none") + ")");
+        }
+        totals.put("bytes received in total", all);
+        return totals;
+    }
+
+    private void send(String step, HttpRequest.Builder request) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<byte[]> response = http.send(request.header("Accept-Encoding", "br, gzip").timeout(TIMEOUT).build(),
+                    HttpResponse.BodyHandlers.ofByteArray());
+            boolean ok = response.statusCode() == 200;
+            report.record(step, System.nanoTime() - start, ok);
+            if (!ok) {
+                report.recordFailure(step, "HTTP " + response.statusCode());
+            }
+            bytesReceived.computeIfAbsent(step, s -> new AtomicLong()).addAndGet(wireSize(response));
+            response.headers().firstValue("Content-Encoding").ifPresent(encoding -> encodings.put(step, encoding));
+        } catch (IOException e) {
+            report.record(step, System.nanoTime() - start, false);
+            report.recordFailure(step, e.toString());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /** "HTTP/1.1 200 OK\r\n", each "Name: value\r\n", the blank line and the body. */
+    private static long wireSize(HttpResponse<byte[]> response) {
+        long size = "HTTP/1.1 200 OK\r\n\r\n".length() + response.body().length;
+        for (Map.Entry<String, List<String>> header : response.headers().map().entrySet()) {
+            for (String value : header.getValue()) {
+                size += header.getKey().length() + 2 + value.length() + 2;
+            }
+        }
+        return size;
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+}
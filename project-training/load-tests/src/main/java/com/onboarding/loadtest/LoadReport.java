@@ -0,0 +1,133 @@
+package com.onboarding.loadtest;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latency and error counts per workload step ("register.submit", "approval.process", ...).
+ */
+class LoadReport {
+
+    private final Map<String, StepStats> steps = new ConcurrentSkipListMap<>();
+    private final Map<String, String> firstFailures = new ConcurrentSkipListMap<>();
+    private volatile long startNanos = System.nanoTime();
+
+    void record(String step, long nanos, boolean ok) {
+        steps.computeIfAbsent(step, s -> new StepStats()).record(nanos, ok);
+    }
+
+    /** Keeps the first failed response of each step, to explain the error counts. */
+    void recordFailure(String step, String description) {
+        firstFailures.putIfAbsent(step, description);
+    }
+
+    /** Number of requests recorded for the step, failed ones included. */
+    long count(String step) {
+        StepStats stats = steps.get(step);
+        return stats == null ? 0 : stats.summarize().count;
+    }
+
+    /** Drops everything recorded so far, e.g. after the warm-up. */
+    void reset() {
+        steps.clear();
+        firstFailures.clear();
+        startNanos = System.nanoTime();
+    }
+
+    void print(PrintStream out, Map<String, Object> totals) {
+        double seconds = elapsedSeconds();
+        out.printf(Locale.ROOT, "%n%-38s %8s %7s %9s %9s %9s %9s %9s%n",
+                "step", "count", "errors", "req/s", "p50 ms", "p90 ms", "p99 ms", "max ms");
+        for (Map.Entry<String, StepStats> entry : steps.entrySet()) {
+            StepStats.Summary s = entry.getValue().summarize();
+            out.printf(Locale.ROOT, "%-38s %8d %7d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                    entry.getKey(), s.count, s.errors, s.count / seconds, s.p50, s.p90, s.p99, s.max);
+        }
+        for (Map.Entry<String, String> failure : firstFailures.entrySet()) {
+            out.println("first failure of " + failure.getKey() + ": " + failure.getValue());
+        }
+        out.printf(Locale.ROOT, "%nmeasured for %.0fs%n", seconds);
+        for (Map.Entry<String, Object> total : totals.entrySet()) {
+            out.println(total.getKey() + ": " + total.getValue());
+        }
+    }
+
+    void writeCsv(Path file) throws IOException {
+        double seconds = elapsedSeconds();
+        List<String> lines = new ArrayList<>();
+        lines.add("step,count,errors,throughput_per_s,p50_ms,p90_ms,p99_ms,max_ms");
+        for (Map.Entry<String, StepStats> entry : steps.entrySet()) {
+            StepStats.Summary s = entry.getValue().summarize();
+            lines.add(String.format(Locale.ROOT, "%s,%d,%d,%.2f,%.2f,%.2f,%.2f,%.2f",
+                    entry.getKey(), s.count, s.errors, s.count / seconds, s.p50, s.p90, s.p99, s.max));
+        }
+        Files.write(file, lines);
+    }
+
+    private double elapsedSeconds() {
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    private static class StepStats {
+
+        private long[] latencies = new long[1024];
+        private int count;
+        private int errors;
+
+        synchronized void record(long nanos, boolean ok) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!ok) {
+                errors++;
+            }
+        }
+
+        synchronized Summary summarize() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Summary(count, errors, percentile(sorted, 50), percentile(sorted, 90),
+                    percentile(sorted, 99), count == 0 ? 0 : millis(sorted[count - 1]));
+        }
+
+        private static double percentile(long[] sorted, double p) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int index = (int) Math.ceil(p / 100 * sorted.length) - 1;
+            return millis(sorted[Math.max(index, 0)]);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1);
+        }
+
+        static class Summary {
+            final int count;
+            final int errors;
+            final double p50;
+            final double p90;
+            final double p99;
+            final double max;
+
+            Summary(int count, int errors, double p50, double p90, double p99, double max) {
+                this.count = count;
+                this.errors = errors;
+                this.p50 = p50;
+                this.p90 = p90;
+                this.p99 = p99;
+                this.max = max;
+            }
+        }
+    }
+}
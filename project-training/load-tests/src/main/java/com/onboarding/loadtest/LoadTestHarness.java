@@ -0,0 +1,302 @@
+package com.onboarding.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs the whole onboarding system locally and puts load on it.
+ * <p>
+ * Starts the stand-ins (H2, Kafka, SMTP), then eureka-server, kyc/customer/account-service and the
+ * gateway with the loadtest profile, waits until they are registered, and runs the registration,
+ * approval, dashboard, export and chatbot workloads through the gateway. After a warm-up the numbers are
+ * reset, and at the end throughput and latency percentiles per step are printed and written to
+ * target/load-test-report.csv.
+ * <p>
+ * Options (--name=value): registrations, approvers, dashboards, exporters, chatbots (virtual users per
+ * workload), export-interval (seconds between one exporter's downloads), duration and warmup (seconds),
+ * document-kb (size of each uploaded document), service-heap.
+ * <p>
+ * --scenario=gateway-compression runs k6/gateway-compression.js instead (see runGatewayCompression), with
+ * the options seed-accounts, page-rate and api-rate (requests a second), from and to (the accounts'
+ * creation range), and gateway-profiles (extra profiles for the gateway, e.g. uncompressed).
+ */
+public class LoadTestHarness {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(LoadTestHarness.class);
+
+    private static final String GATEWAY_URL = "http://localhost:8080";
+    private static final String EUREKA_APPS_URL = "http://localhost:8761/eureka/apps";
+    private static final String[] REGISTERED_APPS = {"API-GATEWAY", "KYC-SERVICE", "CUSTOMER-SERVICE", "ACCOUNT-SERVICE"};
+
+    public static void main(String[] args) throws Exception {
+        Map<String, String> options = parseOptions(args);
+        String scenario = options.getOrDefault("scenario", "onboarding");
+        if (!scenario.equals("onboarding") && !scenario.equals("gateway-compression")) {
+            throw new IllegalArgumentException("Unknown scenario " + scenario + ", use onboarding or gateway-compression");
+        }
+        String heap = options.getOrDefault("service-heap", "512m");
+        String[] gatewayProfiles = options.containsKey("gateway-profiles")
+                ? options.get("gateway-profiles").split(",") : new String[0];
+
+        Path projectRoot = Paths.get(options.getOrDefault("project-root", "..")).toAbsolutePath().normalize();
+        Path logDir = Files.createDirectories(Paths.get("target", "logs"));
+
+        List<ServiceProcess> services = new ArrayList<>();
+        services.add(new ServiceProcess("eureka-server", "com.onboarding.eurekaserver.EurekaServerApplication", false));
+        services.add(new ServiceProcess("account-service", "com.onboarding.AccountServiceApplication", true));
+        services.add(new ServiceProcess("customer-service", "com.onboarding.CustomerServiceApplication", true));
+        services.add(new ServiceProcess("kyc-service", "com.onboarding.KycServiceApplication", true));
+        services.add(new ServiceProcess("api-gateway", "com.onboarding.apigateway.ApiGatewayApplication", false, gatewayProfiles));
+
+        StandIns standIns = new StandIns();
+        try {
+            standIns.start();
+
+            List<String> arguments = Collections.singletonList("--spring.kafka.bootstrap-servers=" + standIns.kafkaBootstrapServers());
+            ServiceProcess eureka = services.get(0);
+            eureka.start(projectRoot, logDir, heap, arguments);
+            eureka.awaitStarted(120);
+            for (ServiceProcess service : services.subList(1, services.size())) {
+                service.start(projectRoot, logDir, heap, arguments);
+            }
+            for (ServiceProcess service : services.subList(1, services.size())) {
+                service.awaitStarted(240);
+            }
+            awaitRegistration(120);
+
+            Path csv = Paths.get("target", "load-test-report.csv");
+            if (scenario.equals("gateway-compression")) {
+                runGatewayCompression(options, csv);
+            } else {
+                runOnboarding(options, standIns, csv);
+            }
+            LOGGER.info("Report written to {}, service logs in {}", csv.toAbsolutePath(), logDir.toAbsolutePath());
+        } finally {
+            for (int i = services.size() - 1; i >= 0; i--) {
+                services.get(i).close();
+            }
+            standIns.close();
+        }
+    }
+
+    private static void runOnboarding(Map<String, String> options, StandIns standIns, Path csv) throws Exception {
+        int registrations = Integer.parseInt(options.getOrDefault("registrations", "8"));
+        int approvers = Integer.parseInt(options.getOrDefault("approvers", "2"));
+        int dashboards = Integer.parseInt(options.getOrDefault("dashboards", "4"));
+        int exporters = Integer.parseInt(options.getOrDefault("exporters", "1"));
+        int exportInterval = Integer.parseInt(options.getOrDefault("export-interval", "20"));
+        int chatbots = Integer.parseInt(options.getOrDefault("chatbots", "2"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "120"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "30"));
+        int documentKb = Integer.parseInt(options.getOrDefault("document-kb", "128"));
+
+        LoadReport report = new LoadReport();
+        OnboardingWorkload workload = new OnboardingWorkload(GATEWAY_URL, report, documentKb);
+        ExecutorService users = Executors.newFixedThreadPool(registrations + approvers + dashboards + exporters + chatbots);
+        long end = System.nanoTime() + TimeUnit.SECONDS.toNanos(warmup + duration);
+
+        for (int i = 0; i < registrations; i++) {
+            users.submit(() -> {
+                while (System.nanoTime() < end) {
+                    workload.register();
+                }
+                return null;
+            });
+        }
+        for (int i = 0; i < approvers; i++) {
+            users.submit(() -> {
+                OnboardingClient admin = adminSession(report);
+                while (System.nanoTime() < end) {
+                    workload.approvePending(admin);
+                }
+                return null;
+            });
+        }
+        for (int i = 0; i < dashboards; i++) {
+            users.submit(() -> {
+                OnboardingClient admin = adminSession(report);
+                while (System.nanoTime() < end) {
+                    workload.openDashboards(admin);
+                }
+                return null;
+            });
+        }
+        for (int i = 0; i < exporters; i++) {
+            users.submit(() -> {
+                OnboardingClient admin = adminSession(report);
+                while (System.nanoTime() < end) {
+                    workload.downloadExports(admin);
+                    Thread.sleep(TimeUnit.SECONDS.toMillis(exportInterval));
+                }
+                return null;
+            });
+        }
+        for (int i = 0; i < chatbots; i++) {
+            users.submit(() -> {
+                OnboardingClient chatbot = new OnboardingClient(GATEWAY_URL, report);
+                while (System.nanoTime() < end) {
+                    workload.askChatbot(chatbot);
+                }
+                return null;
+            });
+        }
+
+        LOGGER.info("Warming up for {}s", warmup);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+        report.reset();
+        LOGGER.info("Measuring for {}s", duration);
+        users.shutdown();
+        if (!users.awaitTermination(duration + 120, TimeUnit.SECONDS)) {
+            users.shutdownNow();
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("applications registered (incl. warm-up)", workload.registeredCount());
+        totals.put("approvals submitted (incl. warm-up)", workload.approvedCount());
+        totals.put("KYC totals reported by kyc-service", kycTotals());
+        totals.put("mails received by the SMTP sink", standIns.receivedMails());
+        report.print(System.out, totals);
+        report.writeCsv(csv);
+    }
+
+    /**
+     * k6/gateway-compression.js: registers and approves seed-accounts applicants, so the accounts API
+     * has about that many accounts to list, then requests the registration page (with its stylesheet)
+     * page-rate times a second and a 500-row page of accounts api-rate times a second, at a fixed
+     * arrival rate like k6's constant-arrival-rate. Run it once with --gateway-profiles=uncompressed
+     * and once without.
+     */
+    private static void runGatewayCompression(Map<String, String> options, Path csv) throws Exception {
+        int seedAccounts = Integer.parseInt(options.getOrDefault("seed-accounts", "100"));
+        int registrations = Integer.parseInt(options.getOrDefault("registrations", "4"));
+        int pageRate = Integer.parseInt(options.getOrDefault("page-rate", "20"));
+        int apiRate = Integer.parseInt(options.getOrDefault("api-rate", "10"));
+        int duration = Integer.parseInt(options.getOrDefault("duration", "120"));
+        int warmup = Integer.parseInt(options.getOrDefault("warmup", "30"));
+        int documentKb = Integer.parseInt(options.getOrDefault("document-kb", "16"));
+
+        LoadReport seedReport = new LoadReport();
+        OnboardingWorkload seed = new OnboardingWorkload(GATEWAY_URL, seedReport, documentKb);
+        ExecutorService seeders = Executors.newFixedThreadPool(registrations);
+        for (int i = 0; i < registrations; i++) {
+            seeders.submit(() -> {
+                while (seed.registeredCount() < seedAccounts) {
+                    seed.register();
+                }
+                return null;
+            });
+        }
+        LOGGER.info("Registering {} applicants", seedAccounts);
+        seeders.shutdown();
+        if (!seeders.awaitTermination(30, TimeUnit.MINUTES)) {
+            seeders.shutdownNow();
+            throw new IllegalStateException("Could not register " + seedAccounts + " applicants within 30 minutes");
+        }
+        // An approval that fails (e.g. a 429 from the concurrency limit) is not retried, so stop once a
+        // round approves nothing new instead of waiting for an exact count
+        LOGGER.info("Approving them");
+        OnboardingClient admin = adminSession(seedReport);
+        long approvedBefore;
+        do {
+            approvedBefore = seed.approvedCount();
+            seed.approvePending(admin);
+        } while (seed.approvedCount() > approvedBefore);
+        // Accounts are opened from the approval events, a little after the approvals
+        Thread.sleep(10_000);
+
+        LoadReport report = new LoadReport();
+        GatewayCompressionWorkload workload = new GatewayCompressionWorkload(GATEWAY_URL, report,
+                options.getOrDefault("from", "2024-01-01T00:00:00"), options.getOrDefault("to", "2030-01-01T00:00:00"));
+        ExecutorService requests = Executors.newCachedThreadPool();
+        ScheduledExecutorService arrivals = Executors.newScheduledThreadPool(2);
+        arrivals.scheduleAtFixedRate(() -> requests.execute(workload::openPage), 0, 1_000_000 / pageRate, TimeUnit.MICROSECONDS);
+        arrivals.scheduleAtFixedRate(() -> requests.execute(workload::fetchAccounts), 0, 1_000_000 / apiRate, TimeUnit.MICROSECONDS);
+
+        LOGGER.info("Warming up for {}s", warmup);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(warmup));
+        report.reset();
+        workload.reset();
+        LOGGER.info("Measuring for {}s", duration);
+        Thread.sleep(TimeUnit.SECONDS.toMillis(duration));
+        arrivals.shutdownNow();
+        requests.shutdown();
+        if (!requests.awaitTermination(120, TimeUnit.SECONDS)) {
+            requests.shutdownNow();
+        }
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("gateway profiles", "loadtest,fast-discovery" + (options.containsKey("gateway-profiles")
+                ? "," + options.get("gateway-profiles") : ""));
+        totals.put("accounts seeded", seed.approvedCount());
+        totals.putAll(workload.totals());
+        report.print(System.out, totals);
+        report.writeCsv(csv);
+    }
+
+    private static OnboardingClient adminSession(LoadReport report) {
+        OnboardingClient admin = new OnboardingClient(GATEWAY_URL, report);
+        if (!admin.login("admin.login", OnboardingWorkload.ADMIN_USERNAME, OnboardingWorkload.ADMIN_PASSWORD)) {
+            throw new IllegalStateException("Admin login failed");
+        }
+        return admin;
+    }
+
+    /**
+     * Waits until every service is in Eureka, then gives the clients one registry fetch
+     * (5s with the fast-discovery profile) to see each other.
+     */
+    private static void awaitRegistration(long timeoutSeconds) throws Exception {
+        HttpClient http = HttpClient.newHttpClient();
+        HttpRequest request = HttpRequest.newBuilder(URI.create(EUREKA_APPS_URL)).header("Accept", "application/json").build();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (System.nanoTime() < deadline) {
+            String apps = http.send(request, HttpResponse.BodyHandlers.ofString()).body();
+            boolean all = true;
+            for (String app : REGISTERED_APPS) {
+                all &= apps.contains("\"" + app + "\"");
+            }
+            if (all) {
+                LOGGER.info("All services registered with Eureka");
+                Thread.sleep(10_000);
+                return;
+            }
+            Thread.sleep(1000);
+        }
+        throw new IllegalStateException("Services did not register with Eureka within " + timeoutSeconds + "s");
+    }
+
+    private static String kycTotals() {
+        HttpResponse<String> response = new OnboardingClient(GATEWAY_URL, new LoadReport()).getWithBasicAuth("totals",
+                "/api/chatbot/admin/dashboard-stats", OnboardingWorkload.ADMIN_USERNAME, OnboardingWorkload.ADMIN_PASSWORD);
+        return response == null ? "unavailable" : response.body();
+    }
+
+    private static Map<String, String> parseOptions(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Options look like --name=value, got " + arg);
+            }
+            options.put(arg.substring(2, arg.indexOf('=')), arg.substring(arg.indexOf('=') + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,174 @@
+package com.onboarding.loadtest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.CookieManager;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * A browser-like session against the gateway: keeps cookies, picks up the CSRF token from each
+ * page and doesn't follow redirects, so every request is timed as its own step.
+ */
+class OnboardingClient {
+
+    private static final Pattern CSRF = Pattern.compile("name=\"_csrf\"\\s+value=\"([^\"]+)\"");
+    private static final Duration TIMEOUT = Duration.ofSeconds(60);
+
+    private final String baseUrl;
+    private final LoadReport report;
+    private final HttpClient http;
+    private String csrfToken;
+
+    OnboardingClient(String baseUrl, LoadReport report) {
+        this.baseUrl = baseUrl;
+        this.report = report;
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .cookieHandler(new CookieManager())
+                .followRedirects(HttpClient.Redirect.NEVER)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+    }
+
+    /** GET a page; remembers its CSRF token for the next form post. */
+    HttpResponse<String> get(String step, String path) {
+        HttpResponse<String> response = send(step, HttpRequest.newBuilder(uri(path)).GET(), null);
+        rememberCsrf(response);
+        return response;
+    }
+
+    /** GET a JSON API with HTTP Basic credentials, as the chatbot does. */
+    HttpResponse<String> getWithBasicAuth(String step, String path, String username, String password) {
+        String credentials = Base64.getEncoder().encodeToString((username + ":" + password).getBytes(StandardCharsets.UTF_8));
+        return send(step, HttpRequest.newBuilder(uri(path))
+                .header("Authorization", "Basic " + credentials)
+                .header("Accept", "application/json")
+                .GET(), null);
+    }
+
+    /** POST a form; the step only counts as successful if it redirects to expectedRedirect. */
+    boolean postForm(String step, String path, Map<String, String> fields, String expectedRedirect) {
+        StringBuilder body = new StringBuilder();
+        for (Map.Entry<String, String> field : withCsrf(fields).entrySet()) {
+            if (body.length() > 0) {
+                body.append('&');
+            }
+            body.append(URLEncoder.encode(field.getKey(), StandardCharsets.UTF_8))
+                    .append('=')
+                    .append(URLEncoder.encode(field.getValue(), StandardCharsets.UTF_8));
+        }
+        return send(step, HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "application/x-www-form-urlencoded")
+                .POST(HttpRequest.BodyPublishers.ofString(body.toString())), expectedRedirect) != null;
+    }
+
+    boolean postMultipart(String step, String path, Map<String, String> fields, Map<String, Document> files, String expectedRedirect) {
+        String boundary = "----onboarding" + UUID.randomUUID().toString().replace("-", "");
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try {
+            for (Map.Entry<String, String> field : withCsrf(fields).entrySet()) {
+                body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + field.getKey() + "\"\r\n\r\n"
+                        + field.getValue() + "\r\n").getBytes(StandardCharsets.UTF_8));
+            }
+            for (Map.Entry<String, Document> file : files.entrySet()) {
+                Document document = file.getValue();
+                body.write(("--" + boundary + "\r\nContent-Disposition: form-data; name=\"" + file.getKey()
+                        + "\"; filename=\"" + document.fileName + "\"\r\nContent-Type: " + document.contentType
+                        + "\r\n\r\n").getBytes(StandardCharsets.UTF_8));
+                body.write(document.content);
+                body.write("\r\n".getBytes(StandardCharsets.UTF_8));
+            }
+            body.write(("--" + boundary + "--\r\n").getBytes(StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return send(step, HttpRequest.newBuilder(uri(path))
+                .header("Content-Type", "multipart/form-data; boundary=" + boundary)
+                .POST(HttpRequest.BodyPublishers.ofByteArray(body.toByteArray())), expectedRedirect) != null;
+    }
+
+    /** Form login: GET /login for the CSRF token, then POST the credentials. */
+    boolean login(String step, String username, String password) {
+        get(step + "-form", "/login");
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("username", username);
+        fields.put("password", password);
+        return postForm(step, "/login", fields, "/dashboard");
+    }
+
+    /**
+     * Sends the request and records its latency. Without an expected redirect, only a 200 counts
+     * (a 302 to /login means the session was lost). Returns null when the step failed.
+     */
+    private HttpResponse<String> send(String step, HttpRequest.Builder request, String expectedRedirect) {
+        long start = System.nanoTime();
+        try {
+            HttpResponse<String> response = http.send(request.timeout(TIMEOUT).build(), HttpResponse.BodyHandlers.ofString());
+            boolean ok = expectedRedirect == null
+                    ? response.statusCode() == 200
+                    : response.statusCode() == 302 && response.headers().firstValue("Location")
+                            .map(location -> location.endsWith(expectedRedirect)).orElse(false);
+            report.record(step, System.nanoTime() - start, ok);
+            if (!ok) {
+                String body = response.body().replaceAll("\\s+", " ");
+                report.recordFailure(step, "HTTP " + response.statusCode()
+                        + response.headers().firstValue("Location").map(location -> " -> " + location).orElse("")
+                        + " " + body.substring(0, Math.min(body.length(), 200)));
+            }
+            return ok ? response : null;
+        } catch (IOException e) {
+            report.record(step, System.nanoTime() - start, false);
+            report.recordFailure(step, e.toString());
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private Map<String, String> withCsrf(Map<String, String> fields) {
+        Map<String, String> all = new LinkedHashMap<>(fields);
+        if (csrfToken != null) {
+            all.put("_csrf", csrfToken);
+        }
+        return all;
+    }
+
+    private void rememberCsrf(HttpResponse<String> response) {
+        if (response == null) {
+            return;
+        }
+        Matcher matcher = CSRF.matcher(response.body());
+        if (matcher.find()) {
+            csrfToken = matcher.group(1);
+        }
+    }
+
+    private URI uri(String path) {
+        return URI.create(baseUrl + path);
+    }
+
+    static class Document {
+        final String fileName;
+        final String contentType;
+        final byte[] content;
+
+        Document(String fileName, String contentType, byte[] content) {
+            this.fileName = fileName;
+            this.contentType = contentType;
+            this.content = content;
+        }
+    }
+}
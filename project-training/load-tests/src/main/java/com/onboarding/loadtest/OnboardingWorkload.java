@@ -0,0 +1,204 @@
+package com.onboarding.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.onboarding.loadtest.OnboardingClient.Document;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The onboarding flows the virtual users run, each as one iteration of a loop:
+ * <ul>
+ *   <li>registration: the five-step registration wizard ending in the document upload</li>
+ *   <li>approval: an admin approves pending applications (creates the customer and the account)</li>
+ *   <li>dashboard: a registered applicant logs in and opens their dashboard, the admin opens theirs</li>
+ *   <li>export: an admin downloads the application, customer and account exports, a few times a minute</li>
+ *   <li>chatbot: the chatbot backend APIs, with the same Basic auth the chatbot uses</li>
+ * </ul>
+ */
+class OnboardingWorkload {
+
+    static final String ADMIN_USERNAME = "admin";
+    static final String ADMIN_PASSWORD = "password";
+    private static final String PASSWORD = "LoadTest#2024";
+    private static final ObjectMapper JSON = new ObjectMapper();
+
+    private final String baseUrl;
+    private final LoadReport report;
+    private final byte[] documentContent;
+    private final AtomicLong applicantSequence = new AtomicLong();
+    private final List<String> registeredUsernames = new CopyOnWriteArrayList<>();
+    private final Set<Long> claimedApplications = ConcurrentHashMap.newKeySet();
+    private final AtomicLong approved = new AtomicLong();
+
+    OnboardingWorkload(String baseUrl, LoadReport report, int documentKb) {
+        this.baseUrl = baseUrl;
+        this.report = report;
+        this.documentContent = new byte[documentKb * 1024];
+        new Random(42).nextBytes(documentContent);
+    }
+
+    long registeredCount() {
+        return registeredUsernames.size();
+    }
+
+    long approvedCount() {
+        return approved.get();
+    }
+
+    void register() {
+        long n = applicantSequence.incrementAndGet();
+        String username = "applicant" + n;
+        OnboardingClient client = new OnboardingClient(baseUrl, report);
+
+        client.get("register.personal-form", "/ui/register");
+        Map<String, String> personal = new LinkedHashMap<>();
+        personal.put("fullname", "Load Test Applicant " + n);
+        personal.put("email", username + "@loadtest.local");
+        personal.put("phone", String.format("9%09d", n));
+        personal.put("dob", LocalDate.of(1980, 1, 1).plusDays(n % 7000).toString());
+        personal.put("gender", n % 2 == 0 ? "Female" : "Male");
+        personal.put("maritalStatus", "Single");
+        personal.put("fathersName", "Load Test Parent " + n);
+        personal.put("nationality", "Indian");
+        personal.put("profession", "Engineer");
+        personal.put("address", n + " Load Test Road, Pune");
+        personal.put("pan", pan(n));
+        personal.put("aadhaar", String.format("%012d", 100_000_000_000L + n));
+        if (!client.postForm("register.personal", "/ui/register/step1", personal, "/ui/register/nominee")) {
+            return;
+        }
+
+        client.get("register.nominee-form", "/ui/register/nominee");
+        Map<String, String> nominee = new LinkedHashMap<>();
+        nominee.put("nominee.name", "Load Test Nominee " + n);
+        nominee.put("nominee.mobile", String.format("8%09d", n));
+        nominee.put("nominee.aadhaarNumber", String.format("%012d", 200_000_000_000L + n));
+        nominee.put("nominee.address", n + " Load Test Road, Pune");
+        nominee.put("addNominee", "true");
+        if (!client.postForm("register.nominee", "/ui/register/step2", nominee, "/ui/register/services")) {
+            return;
+        }
+
+        client.get("register.services-form", "/ui/register/services");
+        Map<String, String> services = new LinkedHashMap<>();
+        services.put("requestedAccountType", "Savings Account");
+        services.put("netBankingEnabled", "on");
+        services.put("debitCardIssued", "on");
+        if (!client.postForm("register.services", "/ui/register/step3", services, "/ui/register/documents")) {
+            return;
+        }
+
+        client.get("register.documents-form", "/ui/register/documents");
+        client.get("register.finish-form", "/ui/register/finish");
+        Map<String, String> credentials = new LinkedHashMap<>();
+        credentials.put("username", username);
+        credentials.put("password", PASSWORD);
+        Map<String, Document> documents = new LinkedHashMap<>();
+        documents.put("passportPhoto", new Document("passport.jpg", "image/jpeg", documentContent));
+        documents.put("panDoc", new Document("pan.pdf", "application/pdf", documentContent));
+        documents.put("aadhaarDoc", new Document("aadhaar.pdf", "application/pdf", documentContent));
+        if (client.postMultipart("register.submit", "/ui/register/submit", credentials, documents, "/login")) {
+            registeredUsernames.add(username);
+        }
+    }
+
+    /** One admin session per approver thread; each call approves whatever is pending right now. */
+    void approvePending(OnboardingClient admin) throws InterruptedException {
+        List<Long> pending = pendingApplicationIds(admin);
+        if (pending.isEmpty()) {
+            Thread.sleep(200);
+            return;
+        }
+        for (Long id : pending) {
+            if (!claimedApplications.add(id)) {
+                continue;
+            }
+            admin.get("approval.details", "/admin/customer/" + id);
+            Map<String, String> decision = new LinkedHashMap<>();
+            decision.put("approved", "true");
+            if (admin.postForm("approval.process", "/admin/customer/" + id + "/process", decision, "/admin/dashboard")) {
+                approved.incrementAndGet();
+            }
+        }
+    }
+
+    void openDashboards(OnboardingClient admin) throws InterruptedException {
+        if (registeredUsernames.isEmpty()) {
+            Thread.sleep(200);
+            return;
+        }
+        String username = randomRegisteredUsername();
+        OnboardingClient customer = new OnboardingClient(baseUrl, report);
+        if (customer.login("dashboard.customer-login", username, PASSWORD)) {
+            customer.get("dashboard.customer", "/customer/dashboard");
+        }
+        admin.get("dashboard.admin", "/admin/dashboard");
+    }
+
+    void downloadExports(OnboardingClient admin) {
+        admin.get("export.applications", "/admin/applications/export?format=csv");
+        admin.getWithBasicAuth("export.customers", "/api/admin/customers/export", ADMIN_USERNAME, ADMIN_PASSWORD);
+        admin.getWithBasicAuth("export.accounts", "/api/internal/accounts/export", ADMIN_USERNAME, ADMIN_PASSWORD);
+    }
+
+    void askChatbot(OnboardingClient chatbot) {
+        LocalDate today = LocalDate.now();
+        chatbot.getWithBasicAuth("chatbot.dashboard-stats", "/api/chatbot/admin/dashboard-stats", ADMIN_USERNAME, ADMIN_PASSWORD);
+        chatbot.getWithBasicAuth("chatbot.list-by-kyc", "/api/chatbot/admin/list-by-kyc?status=VERIFIED", ADMIN_USERNAME, ADMIN_PASSWORD);
+        if (!registeredUsernames.isEmpty()) {
+            // The search has to match a single application, so use the applicant's email
+            chatbot.getWithBasicAuth("chatbot.search-customer", "/api/chatbot/admin/search-customer?keyword="
+                    + randomRegisteredUsername() + "@loadtest.local", ADMIN_USERNAME, ADMIN_PASSWORD);
+        }
+        chatbot.getWithBasicAuth("chatbot.accounts-created-on-date", "/api/chatbot/admin/accounts-created-on-date?date=" + today,
+                ADMIN_USERNAME, ADMIN_PASSWORD);
+        chatbot.getWithBasicAuth("chatbot.applications-created-between", "/api/chatbot/admin/applications-created-between/pages?start="
+                + today.atStartOfDay() + "&end=" + LocalDateTime.now(), ADMIN_USERNAME, ADMIN_PASSWORD);
+    }
+
+    private List<Long> pendingApplicationIds(OnboardingClient admin) {
+        HttpResponse<String> response = admin.getWithBasicAuth("approval.find-pending",
+                "/api/chatbot/admin/list-by-kyc?status=PENDING", ADMIN_USERNAME, ADMIN_PASSWORD);
+        List<Long> ids = new ArrayList<>();
+        if (response == null) {
+            return ids;
+        }
+        try {
+            for (JsonNode application : JSON.readTree(response.body())) {
+                ids.add(application.get("id").asLong());
+            }
+        } catch (IOException e) {
+            // An unexpected body is already visible in the report as a slow or failed step
+        }
+        return ids;
+    }
+
+    private String randomRegisteredUsername() {
+        return registeredUsernames.get(ThreadLocalRandom.current().nextInt(registeredUsernames.size()));
+    }
+
+    /** A unique, valid PAN (five letters, four digits, one letter) for applicant n. */
+    private static String pan(long n) {
+        StringBuilder letters = new StringBuilder();
+        long rest = n / 10_000;
+        for (int i = 0; i < 5; i++) {
+            letters.insert(0, (char) ('A' + rest % 26));
+            rest /= 26;
+        }
+        return letters + String.format("%04d", n % 10_000) + "P";
+    }
+}
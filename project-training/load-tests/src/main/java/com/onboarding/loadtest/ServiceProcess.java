@@ -0,0 +1,118 @@
+package com.onboarding.loadtest;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * One service running in its own JVM from the jar built by "mvn -Pfast-start package".
+ * The services can't share a JVM because they have classes with the same names.
+ */
+class ServiceProcess implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ServiceProcess.class);
+
+    private final String name;
+    private final String mainClass;
+    private final boolean needsH2;
+    private final String[] extraProfiles;
+    private Process process;
+    private Path log;
+
+    ServiceProcess(String name, String mainClass, boolean needsH2, String... extraProfiles) {
+        this.name = name;
+        this.mainClass = mainClass;
+        this.needsH2 = needsH2;
+        this.extraProfiles = extraProfiles;
+    }
+
+    String getName() {
+        return name;
+    }
+
+    void start(Path projectRoot, Path logDir, String heap, List<String> arguments) throws IOException {
+        Path jar = findJar(projectRoot.resolve(name).resolve("target/fast-start"));
+        String classpath = jar.toString();
+        if (needsH2) {
+            // The services don't ship the H2 driver; use the one the harness runs with
+            classpath += File.pathSeparator + jarOf(org.h2.Driver.class);
+        }
+        log = logDir.resolve(name + ".log");
+
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        command.add("-Xmx" + heap);
+        // Keep the registry snapshots of the load test apart from the ones of a normal run
+        command.add("-Deureka.registry.snapshot.file=" + logDir.resolve(name + "-registry.json"));
+        command.add("-cp");
+        command.add(classpath);
+        command.add(mainClass);
+        StringBuilder profiles = new StringBuilder("loadtest,fast-discovery");
+        for (String profile : extraProfiles) {
+            profiles.append(',').append(profile);
+        }
+        command.add("--spring.profiles.active=" + profiles);
+        command.addAll(arguments);
+
+        LOGGER.info("Starting {} (log: {})", name, log);
+        process = new ProcessBuilder(command)
+                .redirectErrorStream(true)
+                .redirectOutput(log.toFile())
+                .start();
+    }
+
+    void awaitStarted(long timeoutSeconds) throws IOException, InterruptedException {
+        String marker = "Started " + mainClass.substring(mainClass.lastIndexOf('.') + 1) + " in";
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(timeoutSeconds);
+        while (System.nanoTime() < deadline) {
+            if (new String(Files.readAllBytes(log)).contains(marker)) {
+                LOGGER.info("{} is up", name);
+                return;
+            }
+            if (!process.isAlive()) {
+                throw new IllegalStateException(name + " exited during startup, see " + log);
+            }
+            Thread.sleep(500);
+        }
+        throw new IllegalStateException(name + " did not start within " + timeoutSeconds + "s, see " + log);
+    }
+
+    @Override
+    public void close() throws InterruptedException {
+        if (process == null || !process.isAlive()) {
+            return;
+        }
+        process.destroy();
+        if (!process.waitFor(30, TimeUnit.SECONDS)) {
+            process.destroyForcibly();
+        }
+    }
+
+    private Path findJar(Path dir) throws IOException {
+        if (!Files.isDirectory(dir)) {
+            throw new IllegalStateException(dir + " not found, build " + name + " with mvn -Pfast-start package first");
+        }
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(f -> f.getFileName().toString().endsWith("-fast-start.jar"))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalStateException("No fast-start jar in " + dir));
+        }
+    }
+
+    private static String jarOf(Class<?> type) {
+        try {
+            return Paths.get(type.getProtectionDomain().getCodeSource().getLocation().toURI()).toString();
+        } catch (Exception e) {
+            throw new IllegalStateException("Can't locate the jar of " + type.getName(), e);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.onboarding.loadtest;
+
+import com.icegreen.greenmail.configuration.GreenMailConfiguration;
+import com.icegreen.greenmail.util.GreenMail;
+import com.icegreen.greenmail.util.ServerSetup;
+import org.h2.tools.Server;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.kafka.test.EmbeddedKafkaKraftBroker;
+
+import java.sql.SQLException;
+
+/**
+ * Local replacements for the infrastructure the services normally need: H2 instead of Oracle,
+ * an embedded KRaft broker instead of Kafka and GreenMail instead of Gmail SMTP.
+ * The H2 and SMTP ports must match the services' application-loadtest.properties; the Kafka
+ * broker picks a free port, which is passed to the services on the command line.
+ */
+class StandIns implements AutoCloseable {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(StandIns.class);
+
+    static final int H2_PORT = 9123;
+    static final int SMTP_PORT = 3025;
+
+    private static final String[] TOPICS = {"customer.registration", "kyc.status.updates"};
+
+    private Server h2;
+    private EmbeddedKafkaKraftBroker kafka;
+    private GreenMail smtp;
+
+    void start() throws SQLException {
+        // -ifNotExists lets the first service create the in-memory database over TCP
+        h2 = Server.createTcpServer("-tcpPort", String.valueOf(H2_PORT), "-ifNotExists").start();
+        LOGGER.info("H2 listening on {}", h2.getURL());
+
+        kafka = new EmbeddedKafkaKraftBroker(1, 3, TOPICS);
+        kafka.afterPropertiesSet();
+        LOGGER.info("Embedded Kafka listening on {}", kafka.getBrokersAsString());
+
+        smtp = new GreenMail(new ServerSetup(SMTP_PORT, "localhost", ServerSetup.PROTOCOL_SMTP))
+                .withConfiguration(GreenMailConfiguration.aConfig().withDisabledAuthentication());
+        smtp.start();
+        LOGGER.info("GreenMail SMTP sink listening on localhost:{}", SMTP_PORT);
+    }
+
+    String kafkaBootstrapServers() {
+        return kafka.getBrokersAsString();
+    }
+
+    int receivedMails() {
+        return smtp == null ? 0 : smtp.getReceivedMessages().length;
+    }
+
+    @Override
+    public void close() {
+        if (smtp != null) {
+            smtp.stop();
+        }
+        if (kafka != null) {
+            kafka.destroy();
+        }
+        if (h2 != null) {
+            h2.stop();
+        }
+    }
+}
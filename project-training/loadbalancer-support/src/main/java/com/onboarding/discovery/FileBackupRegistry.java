@@ -0,0 +1,78 @@
+package com.onboarding.discovery;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.netflix.discovery.BackupRegistry;
+import com.netflix.discovery.converters.jackson.EurekaJsonJacksonCodec;
+import com.netflix.discovery.shared.Applications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+/**
+ * Fallback registry used by the Eureka client when it cannot reach eureka-server on startup.
+ * It loads the last registry written by {@link RegistrySnapshotWriter}, so a restarted service
+ * can route to the other services straight away.
+ *
+ * Eureka creates this class itself (eureka.client.backup-registry-impl), so it is not a Spring
+ * bean and the file location comes from the "eureka.registry.snapshot.file" system property.
+ * Without it the snapshot goes to java.io.tmpdir under the spring.application.name that
+ * {@link RegistrySnapshotEnvironmentPostProcessor} passes in, so services sharing a host
+ * don't overwrite each other's snapshot.
+ */
+public class FileBackupRegistry implements BackupRegistry {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(FileBackupRegistry.class);
+
+    public static final String SNAPSHOT_FILE_PROPERTY = "eureka.registry.snapshot.file";
+
+    private static final ObjectMapper MAPPER = new EurekaJsonJacksonCodec().getObjectMapper(Applications.class);
+
+    private static volatile String serviceName;
+
+    static void setServiceName(String name) {
+        serviceName = name;
+    }
+
+    static Path snapshotFile() {
+        String configured = System.getProperty(SNAPSHOT_FILE_PROPERTY);
+        if (configured != null && !configured.isBlank()) {
+            return Paths.get(configured);
+        }
+        String name = serviceName;
+        String fileName = name == null || name.isBlank()
+                ? "onboarding-eureka-registry.json"
+                : "onboarding-eureka-registry-" + name + ".json";
+        return Paths.get(System.getProperty("java.io.tmpdir"), fileName);
+    }
+
+    static ObjectMapper mapper() {
+        return MAPPER;
+    }
+
+    @Override
+    public Applications fetchRegistry() {
+        Path file = snapshotFile();
+        if (!Files.isReadable(file)) {
+            LOGGER.info("No registry snapshot at {}, starting with an empty registry", file);
+            return null;
+        }
+        try {
+            Applications applications = MAPPER.readValue(file.toFile(), Applications.class);
+            LOGGER.warn("Eureka server unavailable, using registry snapshot from {} ({} applications)",
+                    file, applications.getRegisteredApplications().size());
+            return applications;
+        } catch (IOException e) {
+            LOGGER.error("Could not read registry snapshot {}", file, e);
+            return null;
+        }
+    }
+
+    @Override
+    public Applications fetchRegistry(String[] includeRemoteRegions) {
+        return fetchRegistry();
+    }
+}
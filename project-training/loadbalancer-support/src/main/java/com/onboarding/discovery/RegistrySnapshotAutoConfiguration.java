@@ -0,0 +1,23 @@
+package com.onboarding.discovery;
+
+import com.netflix.discovery.EurekaClient;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Keeps a registry snapshot on disk in every application that uses the Eureka client,
+ * for {@link FileBackupRegistry} (eureka.client.backup-registry-impl) to start from.
+ */
+@AutoConfiguration
+@ConditionalOnClass(EurekaClient.class)
+public class RegistrySnapshotAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    public RegistrySnapshotWriter registrySnapshotWriter(ObjectProvider<EurekaClient> eurekaClient) {
+        return new RegistrySnapshotWriter(eurekaClient);
+    }
+}
@@ -0,0 +1,17 @@
+package com.onboarding.discovery;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.env.EnvironmentPostProcessor;
+import org.springframework.core.env.ConfigurableEnvironment;
+
+/**
+ * Hands spring.application.name to {@link FileBackupRegistry} before the Eureka client is
+ * created; Eureka instantiates the backup registry by class name, outside the Spring context.
+ */
+public class RegistrySnapshotEnvironmentPostProcessor implements EnvironmentPostProcessor {
+
+    @Override
+    public void postProcessEnvironment(ConfigurableEnvironment environment, SpringApplication application) {
+        FileBackupRegistry.setServiceName(environment.getProperty("spring.application.name"));
+    }
+}
@@ -0,0 +1,77 @@
+package com.onboarding.discovery;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.context.event.EventListener;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+/**
+ * Saves the Eureka registry to disk after every registry fetch that changed it,
+ * for {@link FileBackupRegistry} to load on the next start. Registered by
+ * {@link RegistrySnapshotAutoConfiguration}.
+ */
+public class RegistrySnapshotWriter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(RegistrySnapshotWriter.class);
+
+    private final ObjectProvider<EurekaClient> eurekaClient;
+
+    private volatile String lastWrittenSignature;
+
+    public RegistrySnapshotWriter(ObjectProvider<EurekaClient> eurekaClient) {
+        this.eurekaClient = eurekaClient;
+    }
+
+    // HeartbeatEvent is published by Spring Cloud each time the local registry cache is refreshed.
+    @EventListener(HeartbeatEvent.class)
+    public void onRegistryRefreshed() {
+        EurekaClient client = eurekaClient.getIfAvailable();
+        if (client == null) {
+            return;
+        }
+        Applications applications = client.getApplications();
+        if (applications == null || applications.getRegisteredApplications().isEmpty()) {
+            // Never overwrite a good snapshot with an empty registry.
+            return;
+        }
+        String signature = signature(applications);
+        if (signature.equals(lastWrittenSignature)) {
+            return;
+        }
+
+        Path target = FileBackupRegistry.snapshotFile();
+        try {
+            Path parent = target.toAbsolutePath().getParent();
+            Files.createDirectories(parent);
+            Path tmp = Files.createTempFile(parent, "eureka-registry", ".tmp");
+            FileBackupRegistry.mapper().writeValue(tmp.toFile(), applications);
+            Files.move(tmp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            lastWrittenSignature = signature;
+            LOGGER.debug("Wrote registry snapshot to {}", target);
+        } catch (IOException e) {
+            LOGGER.warn("Could not write registry snapshot to {}", target, e);
+        }
+    }
+
+    // Changes whenever an instance is added, removed or changes status.
+    private String signature(Applications applications) {
+        StringBuilder builder = new StringBuilder();
+        for (Application application : applications.getRegisteredApplications()) {
+            for (InstanceInfo instance : application.getInstances()) {
+                builder.append(instance.getId()).append('=').append(instance.getStatus())
+                        .append('@').append(instance.getLastDirtyTimestamp()).append(';');
+            }
+        }
+        return builder.toString();
+    }
+}
@@ -0,0 +1,45 @@
+package com.onboarding.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * What this client has observed about one service instance.
+ */
+public class InstanceStats {
+
+    // Weight of a new latency sample in the moving average.
+    private static final double SMOOTHING = 0.3;
+
+    private final AtomicInteger outstanding = new AtomicInteger();
+    private final long firstSeenMillis;
+
+    private volatile double latencyMs = -1;
+
+    public InstanceStats(long firstSeenMillis) {
+        this.firstSeenMillis = firstSeenMillis;
+    }
+
+    public void requestStarted() {
+        outstanding.incrementAndGet();
+    }
+
+    public synchronized void requestFinished(double sampleMs) {
+        outstanding.updateAndGet(current -> Math.max(0, current - 1));
+        latencyMs = latencyMs < 0 ? sampleMs : latencyMs + SMOOTHING * (sampleMs - latencyMs);
+    }
+
+    public int getOutstanding() {
+        return outstanding.get();
+    }
+
+    /**
+     * @return the moving average latency, or -1 if nothing has been measured yet.
+     */
+    public double getLatencyMs() {
+        return latencyMs;
+    }
+
+    public long getFirstSeenMillis() {
+        return firstSeenMillis;
+    }
+}
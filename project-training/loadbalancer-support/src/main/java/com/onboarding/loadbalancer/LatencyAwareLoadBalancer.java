@@ -0,0 +1,113 @@
+package com.onboarding.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.SelectedInstanceCallback;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.time.Clock;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Replaces round-robin with "power of two choices": pick two random instances and send the
+ * request to the one with the lower cost, where
+ *
+ *   cost = (outstanding requests + 1) * average latency / warm-up weight
+ *
+ * A slow or overloaded instance therefore gets less traffic, and a freshly registered one ramps
+ * up over the warm-up period instead of getting an equal share straight away. Zone filtering
+ * happens earlier, in the ServiceInstanceListSupplier (spring.cloud.loadbalancer.configurations).
+ */
+public class LatencyAwareLoadBalancer implements ReactorServiceInstanceLoadBalancer {
+
+    private final ObjectProvider<ServiceInstanceListSupplier> supplierProvider;
+    private final String serviceId;
+    private final LoadBalancerStats stats;
+    private final long warmUpMillis;
+    private final double minWarmUpWeight;
+    private final Clock clock;
+
+    public LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+                                    LoadBalancerStats stats, long warmUpMillis, double minWarmUpWeight) {
+        this(supplierProvider, serviceId, stats, warmUpMillis, minWarmUpWeight, Clock.systemUTC());
+    }
+
+    LatencyAwareLoadBalancer(ObjectProvider<ServiceInstanceListSupplier> supplierProvider, String serviceId,
+                             LoadBalancerStats stats, long warmUpMillis, double minWarmUpWeight, Clock clock) {
+        this.supplierProvider = supplierProvider;
+        this.serviceId = serviceId;
+        this.stats = stats;
+        this.warmUpMillis = warmUpMillis;
+        this.minWarmUpWeight = minWarmUpWeight;
+        this.clock = clock;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier supplier = supplierProvider.getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return supplier.get(request).next().map(instances -> {
+            Response<ServiceInstance> response = chooseFrom(instances);
+            if (supplier instanceof SelectedInstanceCallback && response.hasServer()) {
+                ((SelectedInstanceCallback) supplier).selectedServiceInstance(response.getServer());
+            }
+            return response;
+        });
+    }
+
+    private Response<ServiceInstance> chooseFrom(List<ServiceInstance> instances) {
+        if (instances.isEmpty()) {
+            return new EmptyResponse();
+        }
+        if (instances.size() == 1) {
+            return new DefaultResponse(instances.get(0));
+        }
+
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int first = random.nextInt(instances.size());
+        int second = random.nextInt(instances.size() - 1);
+        if (second >= first) {
+            second++;
+        }
+
+        double defaultLatency = averageLatency(instances);
+        ServiceInstance a = instances.get(first);
+        ServiceInstance b = instances.get(second);
+        return new DefaultResponse(cost(a, defaultLatency) <= cost(b, defaultLatency) ? a : b);
+    }
+
+    private double cost(ServiceInstance instance, double defaultLatency) {
+        InstanceStats instanceStats = stats.get(instance);
+        double latency = instanceStats.getLatencyMs() < 0 ? defaultLatency : instanceStats.getLatencyMs();
+        return (instanceStats.getOutstanding() + 1) * Math.max(latency, 1.0) / warmUpWeight(instanceStats);
+    }
+
+    private double warmUpWeight(InstanceStats instanceStats) {
+        if (warmUpMillis <= 0) {
+            return 1.0;
+        }
+        long age = clock.millis() - instanceStats.getFirstSeenMillis();
+        return Math.max(minWarmUpWeight, Math.min(1.0, (double) age / warmUpMillis));
+    }
+
+    // Instances we have no measurements for yet are assumed to be as fast as the others.
+    private double averageLatency(List<ServiceInstance> instances) {
+        double total = 0;
+        int measured = 0;
+        for (ServiceInstance instance : instances) {
+            double latency = stats.get(instance).getLatencyMs();
+            if (latency >= 0) {
+                total += latency;
+                measured++;
+            }
+        }
+        return measured == 0 ? 1.0 : total / measured;
+    }
+}
@@ -0,0 +1,38 @@
+package com.onboarding.loadbalancer;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+import org.springframework.cloud.client.discovery.event.HeartbeatEvent;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Uses the latency-aware load balancer for every service called through Feign or the gateway.
+ * Picked up by any application that has this jar on its classpath.
+ */
+@AutoConfiguration
+@LoadBalancerClients(defaultConfiguration = LatencyAwareLoadBalancerConfiguration.class)
+public class LatencyAwareLoadBalancerAutoConfiguration {
+
+    @Bean
+    public LoadBalancerStats loadBalancerStats() {
+        return new LoadBalancerStats();
+    }
+
+    @Bean
+    public LatencyTrackingLifecycle latencyTrackingLifecycle(
+            LoadBalancerStats stats,
+            @Value("${loadbalancer.latency-aware.failure-penalty-ms:5000}") double failurePenaltyMs) {
+        return new LatencyTrackingLifecycle(stats, failurePenaltyMs);
+    }
+
+    // The Eureka client publishes a HeartbeatEvent after each registry fetch.
+    @Bean
+    public ApplicationListener<HeartbeatEvent> loadBalancerStatsEviction(
+            LoadBalancerStats stats, ObjectProvider<DiscoveryClient> discoveryClient) {
+        return event -> discoveryClient.ifAvailable(stats::retainRegistered);
+    }
+}
@@ -0,0 +1,30 @@
+package com.onboarding.loadbalancer;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Load balancer configuration applied to every service (see LatencyAwareLoadBalancerAutoConfiguration).
+ * Deliberately NOT annotated with @Configuration: it is loaded into each per-service
+ * load balancer context, not the main application context.
+ */
+public class LatencyAwareLoadBalancerConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> latencyAwareLoadBalancer(
+            Environment environment,
+            LoadBalancerClientFactory clientFactory,
+            LoadBalancerStats stats,
+            @Value("${loadbalancer.latency-aware.warm-up-ms:60000}") long warmUpMillis,
+            @Value("${loadbalancer.latency-aware.min-warm-up-weight:0.1}") double minWarmUpWeight) {
+        String serviceId = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new LatencyAwareLoadBalancer(
+                clientFactory.getLazyProvider(serviceId, ServiceInstanceListSupplier.class),
+                serviceId, stats, warmUpMillis, minWarmUpWeight);
+    }
+}
@@ -0,0 +1,62 @@
+package com.onboarding.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+/**
+ * Feeds {@link LoadBalancerStats} with outstanding request counts and latencies.
+ * Spring Cloud calls this around every load-balanced call made through Feign and the gateway.
+ */
+public class LatencyTrackingLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final LoadBalancerStats stats;
+    private final double failurePenaltyMs;
+
+    public LatencyTrackingLifecycle(LoadBalancerStats stats, double failurePenaltyMs) {
+        this.stats = stats;
+        this.failurePenaltyMs = failurePenaltyMs;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext) {
+            ((TimedRequestContext) request.getContext()).setRequestStartTime(System.nanoTime());
+        }
+        stats.get(lbResponse.getServer()).requestStarted();
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (lbResponse == null || !lbResponse.hasServer()
+                || completionContext.status() == CompletionContext.Status.DISCARD) {
+            return;
+        }
+
+        double latencyMs = failurePenaltyMs;
+        Object context = completionContext.getLoadBalancerRequest().getContext();
+        if (completionContext.status() == CompletionContext.Status.SUCCESS && context instanceof TimedRequestContext) {
+            long startTime = ((TimedRequestContext) context).getRequestStartTime();
+            if (startTime > 0) {
+                latencyMs = (System.nanoTime() - startTime) / 1_000_000.0;
+            }
+        }
+        stats.get(lbResponse.getServer()).requestFinished(latencyMs);
+    }
+}
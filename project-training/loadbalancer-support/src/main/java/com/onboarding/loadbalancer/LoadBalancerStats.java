@@ -0,0 +1,76 @@
+package com.onboarding.loadbalancer;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+import java.time.Clock;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Per-instance statistics shared by every load balancer in this application.
+ * Lives in the main context so both the Feign/gateway lifecycle callbacks and the
+ * per-service load balancer child contexts see the same numbers.
+ *
+ * Instances are told apart by instance id plus the {@value #BOOT_ID} metadata entry, which each
+ * service sets to a new random value on every start. A restarted instance therefore gets fresh
+ * stats and goes through warm-up again instead of inheriting the numbers of its previous run.
+ */
+public class LoadBalancerStats {
+
+    public static final String BOOT_ID = "boot-id";
+
+    // serviceId -> instance key -> stats
+    private final Map<String, Map<String, InstanceStats>> stats = new ConcurrentHashMap<>();
+    private final Clock clock;
+
+    public LoadBalancerStats() {
+        this(Clock.systemUTC());
+    }
+
+    LoadBalancerStats(Clock clock) {
+        this.clock = clock;
+    }
+
+    public InstanceStats get(ServiceInstance instance) {
+        return stats.computeIfAbsent(serviceKey(instance.getServiceId()), serviceId -> new ConcurrentHashMap<>())
+                .computeIfAbsent(key(instance), key -> new InstanceStats(clock.millis()));
+    }
+
+    /**
+     * Drops the stats of instances that are no longer registered, or that have re-registered
+     * with a new boot id. Called whenever the discovery client refreshes its registry.
+     */
+    public void retainRegistered(DiscoveryClient discoveryClient) {
+        for (Map.Entry<String, Map<String, InstanceStats>> service : stats.entrySet()) {
+            Set<String> registered = new HashSet<>();
+            for (ServiceInstance instance : discoveryClient.getInstances(service.getKey())) {
+                registered.add(key(instance));
+            }
+            service.getValue().keySet().retainAll(registered);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Map<String, InstanceStats> service : stats.values()) {
+            size += service.size();
+        }
+        return size;
+    }
+
+    // Eureka reports service ids in upper case, the Feign clients use them as written.
+    private static String serviceKey(String serviceId) {
+        return serviceId == null ? "" : serviceId.toLowerCase();
+    }
+
+    private static String key(ServiceInstance instance) {
+        String id = instance.getInstanceId() != null
+                ? instance.getInstanceId()
+                : instance.getHost() + ":" + instance.getPort();
+        String bootId = instance.getMetadata() != null ? instance.getMetadata().get(BOOT_ID) : null;
+        return bootId != null ? id + "#" + bootId : id;
+    }
+}
@@ -0,0 +1,119 @@
+package com.onboarding.discovery;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
+import com.netflix.appinfo.InstanceInfo;
+import com.netflix.discovery.EurekaClient;
+import com.netflix.discovery.shared.Application;
+import com.netflix.discovery.shared.Applications;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.ObjectProvider;
+
+class FileBackupRegistryTests {
+
+    @TempDir
+    Path tempDir;
+
+    private Path snapshot;
+
+    @BeforeEach
+    void pointSnapshotAtTempDir() {
+        snapshot = tempDir.resolve("registry.json");
+        System.setProperty(FileBackupRegistry.SNAPSHOT_FILE_PROPERTY, snapshot.toString());
+    }
+
+    @AfterEach
+    void reset() {
+        System.clearProperty(FileBackupRegistry.SNAPSHOT_FILE_PROPERTY);
+        FileBackupRegistry.setServiceName(null);
+    }
+
+    @Test
+    void snapshotWrittenOnRefreshIsReadBackOnStart() {
+        Applications applications = new Applications();
+        applications.addApplication(application("CUSTOMER-SERVICE",
+                instance("CUSTOMER-SERVICE", "localhost:customer-service:8082", 8082),
+                instance("CUSTOMER-SERVICE", "localhost:customer-service:8092", 8092)));
+        applications.addApplication(application("ACCOUNT-SERVICE",
+                instance("ACCOUNT-SERVICE", "localhost:account-service:8083", 8083)));
+
+        writer(applications).onRegistryRefreshed();
+        Applications restored = new FileBackupRegistry().fetchRegistry();
+
+        assertThat(restored.getRegisteredApplications()).hasSize(2);
+        assertThat(restored.getRegisteredApplications("CUSTOMER-SERVICE").getInstances())
+                .extracting(InstanceInfo::getId, InstanceInfo::getPort, InstanceInfo::getStatus)
+                .containsExactlyInAnyOrder(
+                        tuple("localhost:customer-service:8082", 8082, InstanceInfo.InstanceStatus.UP),
+                        tuple("localhost:customer-service:8092", 8092, InstanceInfo.InstanceStatus.UP));
+        InstanceInfo account = restored.getRegisteredApplications("ACCOUNT-SERVICE").getByInstanceId("localhost:account-service:8083");
+        assertThat(account.getHostName()).isEqualTo("localhost");
+        assertThat(account.getMetadata()).containsEntry("boot-id", "boot-8083");
+    }
+
+    @Test
+    void emptyRegistryDoesNotOverwriteTheSnapshot() {
+        Applications applications = new Applications();
+        applications.addApplication(application("ACCOUNT-SERVICE",
+                instance("ACCOUNT-SERVICE", "localhost:account-service:8083", 8083)));
+        writer(applications).onRegistryRefreshed();
+
+        writer(new Applications()).onRegistryRefreshed();
+
+        assertThat(new FileBackupRegistry().fetchRegistry().getRegisteredApplications()).hasSize(1);
+    }
+
+    @Test
+    void missingSnapshotStartsWithAnEmptyRegistry() {
+        assertThat(Files.exists(snapshot)).isFalse();
+        assertThat(new FileBackupRegistry().fetchRegistry()).isNull();
+    }
+
+    @Test
+    void defaultLocationIsPerService() {
+        System.clearProperty(FileBackupRegistry.SNAPSHOT_FILE_PROPERTY);
+        FileBackupRegistry.setServiceName("customer-service");
+
+        assertThat(FileBackupRegistry.snapshotFile()).isEqualTo(
+                Paths.get(System.getProperty("java.io.tmpdir"), "onboarding-eureka-registry-customer-service.json"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static RegistrySnapshotWriter writer(Applications applications) {
+        EurekaClient client = mock(EurekaClient.class);
+        when(client.getApplications()).thenReturn(applications);
+        ObjectProvider<EurekaClient> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable()).thenReturn(client);
+        return new RegistrySnapshotWriter(provider);
+    }
+
+    private static Application application(String name, InstanceInfo... instances) {
+        Application application = new Application(name);
+        for (InstanceInfo instance : instances) {
+            application.addInstance(instance);
+        }
+        return application;
+    }
+
+    private static InstanceInfo instance(String app, String id, int port) {
+        return InstanceInfo.Builder.newBuilder()
+                .setAppName(app)
+                .setInstanceId(id)
+                .setHostName("localhost")
+                .setIPAddr("127.0.0.1")
+                .setPort(port)
+                .setStatus(InstanceInfo.InstanceStatus.UP)
+                .add("boot-id", "boot-" + port)
+                .build();
+    }
+}
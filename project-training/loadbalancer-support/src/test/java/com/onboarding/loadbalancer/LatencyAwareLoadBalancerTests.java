@@ -0,0 +1,193 @@
+package com.onboarding.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.ServiceInstanceListSuppliers;
+
+/**
+ * With two instances both are always the "two choices", so the pick only depends on the cost and
+ * every assertion below holds whatever the random numbers are.
+ */
+class LatencyAwareLoadBalancerTests {
+
+    private static final long WARM_UP_MILLIS = 60_000;
+    private static final double MIN_WARM_UP_WEIGHT = 0.1;
+
+    private final MutableClock clock = new MutableClock();
+    private final LoadBalancerStats stats = new LoadBalancerStats(clock);
+    private final ServiceInstance first = instance(8082);
+    private final ServiceInstance second = instance(8092);
+
+    @Test
+    void noInstancesGiveAnEmptyResponse() {
+        Response<ServiceInstance> response = balancer(WARM_UP_MILLIS).choose(new DefaultRequest<>()).block();
+
+        assertThat(response.hasServer()).isFalse();
+    }
+
+    @Test
+    void singleInstanceIsPickedHoweverBusyItIs() {
+        measure(first, 500, 20);
+
+        assertThat(chosen(balancer(WARM_UP_MILLIS, first))).isSameAs(first);
+    }
+
+    @Test
+    void fewerOutstandingRequestsWinAtEqualLatency() {
+        measure(first, 10, 3);
+        measure(second, 10, 0);
+
+        assertThat(chosen(balancer(WARM_UP_MILLIS, first, second))).isSameAs(second);
+    }
+
+    @Test
+    void lowerLatencyWinsAtEqualLoad() {
+        measure(first, 10, 1);
+        measure(second, 80, 1);
+
+        assertThat(chosen(balancer(WARM_UP_MILLIS, first, second))).isSameAs(first);
+    }
+
+    @Test
+    void costWeighsOutstandingRequestsAgainstLatency() {
+        // (1 + 1) * 10ms = 20 beats (0 + 1) * 30ms = 30
+        measure(first, 30, 0);
+        measure(second, 10, 1);
+        assertThat(chosen(balancer(WARM_UP_MILLIS, first, second))).isSameAs(second);
+
+        // (3 + 1) * 10ms = 40 loses to 30
+        stats.get(second).requestStarted();
+        stats.get(second).requestStarted();
+        assertThat(chosen(balancer(WARM_UP_MILLIS, first, second))).isSameAs(first);
+    }
+
+    @Test
+    void unmeasuredInstanceIsAssumedToHaveTheAverageLatency() {
+        // 2 * 50ms (the average) = 100 loses to 1 * 50ms; counted as 1ms it would win with 2
+        measure(first, 50, 0);
+        stats.get(second).requestStarted();
+
+        assertThat(chosen(balancer(WARM_UP_MILLIS, first, second))).isSameAs(first);
+    }
+
+    @Test
+    void withoutAnyMeasurementsOnlyOutstandingRequestsCount() {
+        stats.get(first).requestStarted();
+        stats.get(second);
+
+        assertThat(chosen(balancer(WARM_UP_MILLIS, first, second))).isSameAs(second);
+    }
+
+    @Test
+    void justRegisteredInstanceRampsUpOverTheWarmUp() {
+        measure(first, 10, 3);
+        clock.advance(Duration.ofMinutes(10));
+        measure(second, 10, 0);
+        LatencyAwareLoadBalancer balancer = balancer(WARM_UP_MILLIS, first, second);
+
+        // fresh: 10ms / 0.1 = 100 against the warm instance's 4 * 10ms = 40
+        assertThat(chosen(balancer)).isSameAs(first);
+        // half-way: 10ms / 0.5 = 20
+        clock.advance(Duration.ofSeconds(30));
+        assertThat(chosen(balancer)).isSameAs(second);
+    }
+
+    @Test
+    void warmUpWeightNeverDropsBelowTheFloor() {
+        measure(first, 10, 0);
+        clock.advance(Duration.ofMinutes(10));
+        measure(second, 10, 0);
+        clock.advance(Duration.ofSeconds(1));
+        LatencyAwareLoadBalancer balancer = balancer(WARM_UP_MILLIS, first, second);
+
+        // after 1s the weight would be 1/60, but the floor keeps it at 0.1: cost 100, not 600
+        addOutstanding(first, 8);
+        assertThat(chosen(balancer)).isSameAs(first);
+        addOutstanding(first, 2);
+        assertThat(chosen(balancer)).isSameAs(second);
+    }
+
+    @Test
+    void noWarmUpTreatsNewInstancesLikeTheOthers() {
+        measure(first, 10, 1);
+        clock.advance(Duration.ofMinutes(10));
+        measure(second, 10, 0);
+
+        assertThat(chosen(balancer(0, first, second))).isSameAs(second);
+    }
+
+    /** Records one latency sample, then leaves the given number of requests in flight. */
+    private void measure(ServiceInstance instance, double latencyMs, int outstanding) {
+        InstanceStats instanceStats = stats.get(instance);
+        instanceStats.requestStarted();
+        instanceStats.requestFinished(latencyMs);
+        addOutstanding(instance, outstanding);
+    }
+
+    private void addOutstanding(ServiceInstance instance, int requests) {
+        for (int i = 0; i < requests; i++) {
+            stats.get(instance).requestStarted();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private LatencyAwareLoadBalancer balancer(long warmUpMillis, ServiceInstance... instances) {
+        ServiceInstanceListSupplier supplier = ServiceInstanceListSuppliers.from("customer-service", instances);
+        ObjectProvider<ServiceInstanceListSupplier> provider = mock(ObjectProvider.class);
+        when(provider.getIfAvailable(any())).thenReturn(supplier);
+        return new LatencyAwareLoadBalancer(provider, "customer-service", stats, warmUpMillis, MIN_WARM_UP_WEIGHT, clock);
+    }
+
+    /** Chooses a few times to make sure the pick doesn't depend on which instance was drawn first. */
+    private static ServiceInstance chosen(LatencyAwareLoadBalancer balancer) {
+        ServiceInstance chosen = balancer.choose(new DefaultRequest<>()).block().getServer();
+        for (int i = 0; i < 20; i++) {
+            assertThat(balancer.choose(new DefaultRequest<>()).block().getServer()).isSameAs(chosen);
+        }
+        return chosen;
+    }
+
+    private static ServiceInstance instance(int port) {
+        return new DefaultServiceInstance("customer-service:" + port, "customer-service", "localhost", port, false);
+    }
+
+    private static class MutableClock extends Clock {
+
+        private Instant now = Instant.parse("2024-05-01T09:00:00Z");
+
+        void advance(Duration duration) {
+            now = now.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.onboarding.loadbalancer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.discovery.DiscoveryClient;
+
+class LoadBalancerStatsTests {
+
+    @Test
+    void restartedInstanceStartsWithFreshStats() {
+        LoadBalancerStats stats = new LoadBalancerStats();
+        InstanceStats firstRun = stats.get(instance("customer-service:8082", "boot-1"));
+        firstRun.requestStarted();
+        firstRun.requestFinished(40);
+
+        InstanceStats secondRun = stats.get(instance("customer-service:8082", "boot-2"));
+
+        assertThat(secondRun).isNotSameAs(firstRun);
+        assertThat(secondRun.getLatencyMs()).isEqualTo(-1);
+        assertThat(stats.get(instance("customer-service:8082", "boot-1"))).isSameAs(firstRun);
+    }
+
+    @Test
+    void instancesThatLeftTheRegistryAreEvicted() {
+        LoadBalancerStats stats = new LoadBalancerStats();
+        ServiceInstance restarted = instance("customer-service:8082", "boot-2");
+        ServiceInstance stopped = instance("customer-service:8092", "boot-3");
+        InstanceStats kept = stats.get(restarted);
+        stats.get(instance("customer-service:8082", "boot-1"));
+        stats.get(stopped);
+        stats.get(new DefaultServiceInstance("account-service:8083", "account-service", "localhost", 8083, false));
+
+        DiscoveryClient discoveryClient = mock(DiscoveryClient.class);
+        // Eureka reports the service id in upper case
+        when(discoveryClient.getInstances("customer-service")).thenReturn(Arrays.asList(
+                new DefaultServiceInstance("customer-service:8082", "CUSTOMER-SERVICE", "localhost", 8082, false,
+                        Collections.singletonMap(LoadBalancerStats.BOOT_ID, "boot-2"))));
+        when(discoveryClient.getInstances("account-service")).thenReturn(Collections.emptyList());
+        stats.retainRegistered(discoveryClient);
+
+        assertThat(stats.size()).isEqualTo(1);
+        assertThat(stats.get(restarted)).isSameAs(kept);
+    }
+
+    private static ServiceInstance instance(String instanceId, String bootId) {
+        int port = Integer.parseInt(instanceId.substring(instanceId.indexOf(':') + 1));
+        return new DefaultServiceInstance(instanceId, "customer-service", "localhost", port, false,
+                Collections.singletonMap(LoadBalancerStats.BOOT_ID, bootId));
+    }
+}
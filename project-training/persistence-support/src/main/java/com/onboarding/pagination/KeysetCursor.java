@@ -0,0 +1,64 @@
+package com.onboarding.pagination;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.regex.Pattern;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Cursor for keyset pagination: the sort key of the last row a page ended on, so the next page
+ * is a "WHERE key > cursor" seek on the index instead of an OFFSET scan. Encoded as URL-safe
+ * Base64, so clients hand it back as-is without depending on what is inside.
+ */
+public final class KeysetCursor {
+
+    private static final Pattern SEPARATOR = Pattern.compile("\\|");
+
+    private final String[] keys;
+
+    private KeysetCursor(String[] keys) {
+        this.keys = keys;
+    }
+
+    public static String of(Object... keys) {
+        StringBuilder joined = new StringBuilder();
+        for (Object key : keys) {
+            if (joined.length() > 0) {
+                joined.append('|');
+            }
+            joined.append(key);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(joined.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor parse(String cursor) {
+        try {
+            return new KeysetCursor(SEPARATOR.split(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8)));
+        } catch (IllegalArgumentException e) {
+            throw invalid();
+        }
+    }
+
+    public long longAt(int index) {
+        try {
+            return Long.parseLong(keys[index]);
+        } catch (RuntimeException e) {
+            throw invalid();
+        }
+    }
+
+    public LocalDateTime dateTimeAt(int index) {
+        try {
+            return LocalDateTime.parse(keys[index]);
+        } catch (RuntimeException e) {
+            throw invalid();
+        }
+    }
+
+    private static ResponseStatusException invalid() {
+        return new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid page cursor");
+    }
+}
@@ -0,0 +1,56 @@
+package com.onboarding.pagination;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * One page of a keyset-paginated listing. nextCursor is null on the last page; total is only
+ * filled in when the caller asked for the count, since that is the one part that costs more
+ * the more rows there are.
+ */
+public class KeysetPage<T> {
+
+    public static final int DEFAULT_SIZE = 100;
+    public static final int MAX_SIZE = 500;
+
+    private List<T> content;
+    private String nextCursor;
+    private Long total;
+
+    public KeysetPage() {
+    }
+
+    public KeysetPage(List<T> content, String nextCursor, Long total) {
+        this.content = content;
+        this.nextCursor = nextCursor;
+        this.total = total;
+    }
+
+    /**
+     * Builds a page from a query that fetched up to size + 1 rows; the extra row only tells
+     * whether there is a next page.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, String> cursorOf, Long total) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null, total);
+        }
+        List<T> content = rows.subList(0, size);
+        return new KeysetPage<>(content, cursorOf.apply(content.get(size - 1)), total);
+    }
+
+    public static int pageSize(int requested) {
+        return Math.max(1, Math.min(requested, MAX_SIZE));
+    }
+
+    public <R> KeysetPage<R> map(Function<T, R> mapper) {
+        return new KeysetPage<>(content.stream().map(mapper).collect(Collectors.toList()), nextCursor, total);
+    }
+
+    public List<T> getContent() { return content; }
+    public void setContent(List<T> content) { this.content = content; }
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+    public Long getTotal() { return total; }
+    public void setTotal(Long total) { this.total = total; }
+}
@@ -0,0 +1,38 @@
+package com.onboarding.persistence;
+
+import java.util.function.Supplier;
+
+/**
+ * The connection pool a thread's queries run on. Customer-facing work stays on INTERACTIVE;
+ * admin searches, dashboards and reports go to REPORTING, a smaller pool with a longer query
+ * timeout, so a slow report can use up its own connections but never the ones logins need.
+ *
+ * The lane is picked when a connection is taken from the pool, i.e. when the EntityManager or
+ * transaction starts, so it has to be set before then: {@link QueryLaneFilter} does this for web
+ * requests, {@link #call(Supplier)} for everything else.
+ */
+public enum QueryLane {
+    INTERACTIVE,
+    REPORTING;
+
+    private static final ThreadLocal<QueryLane> CURRENT = ThreadLocal.withInitial(() -> INTERACTIVE);
+
+    public static QueryLane current() {
+        return CURRENT.get();
+    }
+
+    public <T> T call(Supplier<T> work) {
+        QueryLane previous = switchTo(this);
+        try {
+            return work.get();
+        } finally {
+            switchTo(previous);
+        }
+    }
+
+    static QueryLane switchTo(QueryLane lane) {
+        QueryLane previous = CURRENT.get();
+        CURRENT.set(lane);
+        return previous;
+    }
+}
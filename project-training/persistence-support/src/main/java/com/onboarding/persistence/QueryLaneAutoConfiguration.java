@@ -0,0 +1,14 @@
+package com.onboarding.persistence;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Puts the requests for persistence.reporting.paths on the {@link QueryLane#REPORTING} lane.
+ */
+@AutoConfiguration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@Import(QueryLaneFilter.class)
+public class QueryLaneAutoConfiguration {
+}
@@ -0,0 +1,109 @@
+package com.onboarding.persistence;
+
+import java.time.Duration;
+
+import javax.sql.DataSource;
+
+import org.hibernate.jpa.SpecHints;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.orm.jpa.AbstractEntityManagerFactoryBean;
+
+import com.zaxxer.hikari.HikariDataSource;
+
+/**
+ * Two Hikari pools on the same database, one per {@link QueryLane}. Both take the connection
+ * settings from spring.datasource.*; the interactive pool is tuned under spring.datasource.hikari.*,
+ * the reporting pool under persistence.reporting.hikari.*. Actuator publishes hikaricp.connections.*
+ * for each, tagged with the pool name.
+ *
+ * With persistence.replica.url set, the reporting lane gets a second pool of the same size on the
+ * read replica, named reporting-replica, and {@link ReplicaLagMonitor} decides when it may be used.
+ * Interactive work always runs on the primary.
+ *
+ * Runs before Spring Boot's DataSourceAutoConfiguration, which then backs off because a
+ * DataSource exists.
+ */
+@AutoConfiguration(before = DataSourceAutoConfiguration.class)
+@ConditionalOnClass(HikariDataSource.class)
+@EnableConfigurationProperties(DataSourceProperties.class)
+@Import(ReplicaLagMonitor.class)
+public class QueryLaneDataSourceAutoConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource interactiveDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConfigurationProperties("persistence.reporting.hikari")
+    public HikariDataSource reportingDataSource(DataSourceProperties properties) {
+        return properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty("persistence.replica.url")
+    public HikariDataSource reportingReplicaDataSource(HikariDataSource reportingDataSource, Environment environment) {
+        return replicaOf(reportingDataSource, environment);
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource interactiveDataSource, HikariDataSource reportingDataSource,
+                                 @Qualifier("reportingReplicaDataSource") ObjectProvider<HikariDataSource> reportingReplicaDataSource,
+                                 ObjectProvider<ReplicaLagMonitor> replicaMonitor) {
+        ReplicaLagMonitor monitor = replicaMonitor.getIfAvailable();
+        if (monitor == null) {
+            return new QueryLaneRoutingDataSource(interactiveDataSource, reportingDataSource);
+        }
+        // Take the connection at the first statement, once it is known whether the transaction is read-only
+        return new LazyConnectionDataSourceProxy(new QueryLaneRoutingDataSource(interactiveDataSource, reportingDataSource,
+                reportingReplicaDataSource.getObject(), monitor));
+    }
+
+    /**
+     * Gives every EntityManager the query timeout of the lane it was opened on. A repository
+     * method can still set its own with a jakarta.persistence.query.timeout query hint.
+     */
+    @Bean
+    public static BeanPostProcessor laneQueryTimeouts(
+            @Value("${persistence.interactive.query-timeout:5s}") Duration interactiveTimeout,
+            @Value("${persistence.reporting.query-timeout:30s}") Duration reportingTimeout) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof AbstractEntityManagerFactoryBean) {
+                    ((AbstractEntityManagerFactoryBean) bean).setEntityManagerInitializer(em -> em.setProperty(
+                            SpecHints.HINT_SPEC_QUERY_TIMEOUT,
+                            (int) (QueryLane.current() == QueryLane.REPORTING ? reportingTimeout : interactiveTimeout).toMillis()));
+                }
+                return bean;
+            }
+        };
+    }
+
+    private static HikariDataSource replicaOf(HikariDataSource primary, Environment environment) {
+        HikariDataSource replica = new HikariDataSource();
+        primary.copyStateTo(replica);
+        replica.setJdbcUrl(environment.getRequiredProperty("persistence.replica.url"));
+        replica.setUsername(environment.getProperty("persistence.replica.username", primary.getUsername()));
+        replica.setPassword(environment.getProperty("persistence.replica.password", primary.getPassword()));
+        replica.setPoolName(primary.getPoolName() + "-replica");
+        return replica;
+    }
+}
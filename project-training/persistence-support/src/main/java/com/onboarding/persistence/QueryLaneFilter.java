@@ -0,0 +1,50 @@
+package com.onboarding.persistence;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Runs requests for the paths in persistence.reporting.paths on the {@link QueryLane#REPORTING} lane.
+ * Sits ahead of the security filters and the open-in-view interceptor so that every connection
+ * the request takes comes from the reporting pool.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class QueryLaneFilter extends OncePerRequestFilter {
+
+    private final AntPathMatcher matcher = new AntPathMatcher();
+    private final String[] reportingPaths;
+
+    public QueryLaneFilter(@Value("${persistence.reporting.paths:}") String[] reportingPaths) {
+        this.reportingPaths = reportingPaths;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        QueryLane previous = QueryLane.switchTo(laneFor(request.getRequestURI().substring(request.getContextPath().length())));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            QueryLane.switchTo(previous);
+        }
+    }
+
+    private QueryLane laneFor(String path) {
+        for (String pattern : reportingPaths) {
+            if (matcher.match(pattern, path)) {
+                return QueryLane.REPORTING;
+            }
+        }
+        return QueryLane.INTERACTIVE;
+    }
+}
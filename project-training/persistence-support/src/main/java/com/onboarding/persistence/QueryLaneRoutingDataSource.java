@@ -0,0 +1,61 @@
+package com.onboarding.persistence;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.sql.DataSource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Hands out connections from the pool of the calling thread's {@link QueryLane}, or from the
+ * reporting replica pool when reporting work only reads and the replica is fresh enough.
+ *
+ * Only the reporting lane reads from the replica: in read-only transactions and outside a
+ * transaction. The interactive lane always stays on the primary, read-only transactions included,
+ * because Spring Data repositories run every find in one and the page rendered right after a write
+ * has to see it. Work outside a web request opts in with {@code QueryLane.REPORTING.call(...)}.
+ * Whether a transaction is read-only is known only once it has started, so with a replica this
+ * must sit behind a LazyConnectionDataSourceProxy.
+ */
+public class QueryLaneRoutingDataSource extends AbstractRoutingDataSource {
+
+    private final ReplicaLagMonitor replicaMonitor;
+
+    public QueryLaneRoutingDataSource(DataSource interactive, DataSource reporting) {
+        this(interactive, reporting, null, null);
+    }
+
+    public QueryLaneRoutingDataSource(DataSource interactive, DataSource reporting, DataSource reportingReplica,
+                                      ReplicaLagMonitor replicaMonitor) {
+        Map<Object, Object> pools = new HashMap<>();
+        pools.put(key(QueryLane.INTERACTIVE, false), interactive);
+        pools.put(key(QueryLane.REPORTING, false), reporting);
+        if (replicaMonitor != null) {
+            pools.put(key(QueryLane.REPORTING, true), reportingReplica);
+        }
+        this.replicaMonitor = replicaMonitor;
+        setTargetDataSources(pools);
+        setDefaultTargetDataSource(interactive);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        QueryLane lane = QueryLane.current();
+        return key(lane, replicaMonitor != null && replicaMonitor.isUsable() && readsOnly(lane));
+    }
+
+    private static boolean readsOnly(QueryLane lane) {
+        if (lane != QueryLane.REPORTING) {
+            return false;
+        }
+        return !TransactionSynchronizationManager.isActualTransactionActive()
+                || TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+    }
+
+    private static String key(QueryLane lane, boolean replica) {
+        return replica ? lane.name() + "-replica" : lane.name();
+    }
+}
@@ -0,0 +1,39 @@
+package com.onboarding.persistence;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+/**
+ * One row per service, stamped on the primary and read back from the replica by
+ * {@link ReplicaLagMonitor} with plain JDBC. Mapped so that the table
+ * is created and validated with the rest of the schema.
+ */
+@Entity
+@Table(name = "REPLICA_HEARTBEAT")
+public class ReplicaHeartbeat {
+
+    @Id
+    @Column(name = "SERVICE_NAME", length = 64)
+    private String serviceName;
+
+    @Column(name = "BEAT_MILLIS", nullable = false)
+    private Long beatMillis;
+
+    public String getServiceName() {
+        return serviceName;
+    }
+
+    public void setServiceName(String serviceName) {
+        this.serviceName = serviceName;
+    }
+
+    public Long getBeatMillis() {
+        return beatMillis;
+    }
+
+    public void setBeatMillis(Long beatMillis) {
+        this.beatMillis = beatMillis;
+    }
+}
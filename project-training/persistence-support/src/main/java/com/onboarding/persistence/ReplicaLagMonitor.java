@@ -0,0 +1,91 @@
+package com.onboarding.persistence;
+
+import java.time.Duration;
+import java.util.List;
+
+import javax.sql.DataSource;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Decides whether the read replica is fresh enough to serve reads. Every few seconds it stamps this
+ * service's row in REPLICA_HEARTBEAT on the primary and reads the row back from the replica: the
+ * replica is as far behind as the stamp it returns. While that is more than persistence.replica.max-lag,
+ * or the replica can't be read at all, {@link QueryLaneRoutingDataSource} keeps every read on the primary.
+ *
+ * The measured lag can include up to one heartbeat interval, so max-lag should be well above it.
+ */
+@ConditionalOnProperty("persistence.replica.url")
+public class ReplicaLagMonitor {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final String serviceName;
+    private final long maxLagMillis;
+    private volatile long lagMillis = -1;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(@Qualifier("interactiveDataSource") DataSource primary,
+                             @Qualifier("reportingReplicaDataSource") DataSource replica,
+                             @Value("${spring.application.name}") String serviceName,
+                             @Value("${persistence.replica.max-lag:30s}") Duration maxLag,
+                             MeterRegistry registry) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.serviceName = serviceName;
+        this.maxLagMillis = maxLag.toMillis();
+        Gauge.builder("replica.lag", this, m -> m.lagMillis < 0 ? Double.NaN : m.lagMillis / 1000.0)
+                .baseUnit("seconds")
+                .description("How far the read replica is behind the primary")
+                .register(registry);
+        Gauge.builder("replica.usable", this, m -> m.usable ? 1 : 0)
+                .description("1 while reads may go to the replica, 0 while they fall back to the primary")
+                .register(registry);
+    }
+
+    public boolean isUsable() {
+        return usable;
+    }
+
+    @Scheduled(fixedDelayString = "${persistence.replica.heartbeat-interval-ms:5000}")
+    public void beat() {
+        long now = System.currentTimeMillis();
+        try {
+            if (primary.update("UPDATE REPLICA_HEARTBEAT SET BEAT_MILLIS = ? WHERE SERVICE_NAME = ?", now, serviceName) == 0) {
+                primary.update("INSERT INTO REPLICA_HEARTBEAT (SERVICE_NAME, BEAT_MILLIS) VALUES (?, ?)", serviceName, now);
+            }
+        } catch (DataAccessException e) {
+            LOGGER.warn("Could not write the replica heartbeat: {}", e.getMessage());
+        }
+
+        try {
+            List<Long> seen = replica.queryForList("SELECT BEAT_MILLIS FROM REPLICA_HEARTBEAT WHERE SERVICE_NAME = ?",
+                    Long.class, serviceName);
+            lagMillis = seen.isEmpty() ? -1 : Math.max(0, now - seen.get(0));
+        } catch (DataAccessException e) {
+            LOGGER.debug("Could not read the replica heartbeat: {}", e.getMessage());
+            lagMillis = -1;
+        }
+
+        boolean fresh = lagMillis >= 0 && lagMillis <= maxLagMillis;
+        if (fresh && !usable) {
+            LOGGER.info("Read replica is {} ms behind, sending reads to it.", lagMillis);
+        } else if (!fresh && usable) {
+            LOGGER.warn("Read replica is {}, sending all reads to the primary.",
+                    lagMillis < 0 ? "unreachable" : lagMillis + " ms behind");
+        }
+        usable = fresh;
+    }
+}
@@ -0,0 +1,14 @@
+package com.onboarding.persistence;
+
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.context.annotation.Import;
+
+/**
+ * Records the statements {@link SqlStatementCounter} sees per request and per transaction.
+ * The counter itself is registered by each service, with
+ * spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+@AutoConfiguration
+@Import({SqlStatementMetrics.class, SqlStatementRequestFilter.class, SqlStatementTransactionListener.class})
+public class SqlStatementAutoConfiguration {
+}
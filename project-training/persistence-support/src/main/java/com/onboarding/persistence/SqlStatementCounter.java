@@ -0,0 +1,24 @@
+package com.onboarding.persistence;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread.
+ * Hibernate creates it from hibernate.session_factory.statement_inspector, so the count lives in a
+ * thread local and callers take a reading before and after the work they want to measure.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = ThreadLocal.withInitial(() -> new long[1]);
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        return sql;
+    }
+
+    /** Statements prepared on this thread so far. */
+    public static long current() {
+        return COUNT.get()[0];
+    }
+}
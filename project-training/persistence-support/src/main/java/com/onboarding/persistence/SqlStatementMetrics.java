@@ -0,0 +1,56 @@
+package com.onboarding.persistence;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+
+/**
+ * Records SQL statement counts per HTTP request and per transaction as the
+ * sql.statements.per.request and sql.statements.per.transaction summaries,
+ * and logs the requests and transactions that go over the warning thresholds.
+ */
+public class SqlStatementMetrics {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(SqlStatementMetrics.class);
+
+    private final MeterRegistry registry;
+    private final long requestWarnThreshold;
+    private final long transactionWarnThreshold;
+
+    public SqlStatementMetrics(MeterRegistry registry,
+                               @Value("${persistence.sql.request-warn-threshold:25}") long requestWarnThreshold,
+                               @Value("${persistence.sql.transaction-warn-threshold:15}") long transactionWarnThreshold) {
+        this.registry = registry;
+        this.requestWarnThreshold = requestWarnThreshold;
+        this.transactionWarnThreshold = transactionWarnThreshold;
+    }
+
+    public void recordRequest(String method, String uri, long statements) {
+        DistributionSummary.builder("sql.statements.per.request")
+                .description("SQL statements issued while handling one HTTP request")
+                .baseUnit("statements")
+                .tags("method", method, "uri", uri)
+                .register(registry)
+                .record(statements);
+        if (statements > requestWarnThreshold) {
+            registry.counter("sql.statements.threshold.exceeded", "scope", "request").increment();
+            LOGGER.warn("{} {} issued {} SQL statements (warn threshold {})", method, uri, statements, requestWarnThreshold);
+        }
+    }
+
+    public void recordTransaction(String name, long statements) {
+        DistributionSummary.builder("sql.statements.per.transaction")
+                .description("SQL statements issued inside one transaction")
+                .baseUnit("statements")
+                .tags("transaction", name)
+                .register(registry)
+                .record(statements);
+        if (statements > transactionWarnThreshold) {
+            registry.counter("sql.statements.threshold.exceeded", "scope", "transaction").increment();
+            LOGGER.warn("Transaction {} issued {} SQL statements (warn threshold {})", name, statements, transactionWarnThreshold);
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package com.onboarding.persistence;
+
+import java.io.IOException;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+
+/**
+ * Counts the SQL statements each request issues, including those from the security filters
+ * and from lazy loading while the view renders. Tagged by the matched handler pattern.
+ */
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SqlStatementRequestFilter extends OncePerRequestFilter {
+
+    private final SqlStatementMetrics metrics;
+
+    public SqlStatementRequestFilter(SqlStatementMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long start = SqlStatementCounter.current();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            metrics.recordRequest(request.getMethod(), pattern != null ? pattern.toString() : "UNMAPPED",
+                    SqlStatementCounter.current() - start);
+        }
+    }
+}
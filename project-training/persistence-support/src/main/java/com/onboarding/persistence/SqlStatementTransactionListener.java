@@ -0,0 +1,58 @@
+package com.onboarding.persistence;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+import org.springframework.transaction.TransactionExecution;
+import org.springframework.transaction.TransactionExecutionListener;
+
+/**
+ * Counts the SQL statements each transaction issues, including the flush at commit.
+ * Spring Boot registers TransactionExecutionListener beans with the JPA transaction manager,
+ * which only calls them for transactions it actually starts, so joined transactions aren't counted twice.
+ */
+public class SqlStatementTransactionListener implements TransactionExecutionListener {
+
+    // A stack, because a REQUIRES_NEW transaction can start while another is open on the same thread
+    private static final ThreadLocal<Deque<Long>> STARTS = ThreadLocal.withInitial(ArrayDeque::new);
+
+    private final SqlStatementMetrics metrics;
+
+    public SqlStatementTransactionListener(SqlStatementMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public void afterBegin(TransactionExecution transaction, Throwable beginFailure) {
+        if (beginFailure == null) {
+            STARTS.get().push(SqlStatementCounter.current());
+        }
+    }
+
+    @Override
+    public void afterCommit(TransactionExecution transaction, Throwable commitFailure) {
+        complete(transaction);
+    }
+
+    @Override
+    public void afterRollback(TransactionExecution transaction, Throwable rollbackFailure) {
+        complete(transaction);
+    }
+
+    private void complete(TransactionExecution transaction) {
+        Long start = STARTS.get().poll();
+        if (start != null) {
+            metrics.recordTransaction(shortName(transaction.getTransactionName()), SqlStatementCounter.current() - start);
+        }
+    }
+
+    // "com.onboarding.service.RegistrationService.processRegistration" -> "RegistrationService.processRegistration"
+    private String shortName(String transactionName) {
+        if (transactionName == null || transactionName.isEmpty()) {
+            return "unnamed";
+        }
+        int methodDot = transactionName.lastIndexOf('.');
+        int classDot = methodDot > 0 ? transactionName.lastIndexOf('.', methodDot - 1) : -1;
+        return transactionName.substring(classDot + 1);
+    }
+}
@@ -0,0 +1,42 @@
+package com.onboarding.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.time.LocalDateTime;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class KeysetCursorTests {
+
+    @Test
+    void keysRoundTripThroughTheCursor() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 9, 30, 15, 123_000_000);
+
+        KeysetCursor cursor = KeysetCursor.parse(KeysetCursor.of(createdAt, 42L));
+
+        assertThat(cursor.dateTimeAt(0)).isEqualTo(createdAt);
+        assertThat(cursor.longAt(1)).isEqualTo(42L);
+    }
+
+    @Test
+    void cursorIsUrlSafe() {
+        assertThat(KeysetCursor.of(LocalDateTime.of(2024, 5, 1, 9, 30), Long.MAX_VALUE)).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void garbageIsABadRequest() {
+        assertBadRequest(() -> KeysetCursor.parse("not base64!"));
+        assertBadRequest(() -> KeysetCursor.parse(KeysetCursor.of("abc")).longAt(0));
+        assertBadRequest(() -> KeysetCursor.parse(KeysetCursor.of(7L)).dateTimeAt(0));
+        assertBadRequest(() -> KeysetCursor.parse(KeysetCursor.of(7L)).longAt(1));
+    }
+
+    private static void assertBadRequest(Runnable parse) {
+        assertThatThrownBy(parse::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+    }
+}
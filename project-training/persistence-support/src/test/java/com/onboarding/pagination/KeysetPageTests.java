@@ -0,0 +1,45 @@
+package com.onboarding.pagination;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Arrays;
+
+import org.junit.jupiter.api.Test;
+
+class KeysetPageTests {
+
+    @Test
+    void extraRowMeansThereIsANextPage() {
+        KeysetPage<Long> page = KeysetPage.of(Arrays.asList(1L, 2L, 3L), 2, id -> KeysetCursor.of(id), null);
+
+        assertThat(page.getContent()).containsExactly(1L, 2L);
+        assertThat(KeysetCursor.parse(page.getNextCursor()).longAt(0)).isEqualTo(2L);
+        assertThat(page.getTotal()).isNull();
+    }
+
+    @Test
+    void lastPageHasNoCursor() {
+        KeysetPage<Long> page = KeysetPage.of(Arrays.asList(1L, 2L), 2, id -> KeysetCursor.of(id), 2L);
+
+        assertThat(page.getContent()).containsExactly(1L, 2L);
+        assertThat(page.getNextCursor()).isNull();
+        assertThat(page.getTotal()).isEqualTo(2L);
+    }
+
+    @Test
+    void mappingKeepsCursorAndTotal() {
+        KeysetPage<String> page = KeysetPage.of(Arrays.asList(1L, 2L, 3L), 2, id -> KeysetCursor.of(id), 3L)
+                .map(id -> "#" + id);
+
+        assertThat(page.getContent()).containsExactly("#1", "#2");
+        assertThat(page.getNextCursor()).isNotNull();
+        assertThat(page.getTotal()).isEqualTo(3L);
+    }
+
+    @Test
+    void pageSizeIsClamped() {
+        assertThat(KeysetPage.pageSize(0)).isEqualTo(1);
+        assertThat(KeysetPage.pageSize(50)).isEqualTo(50);
+        assertThat(KeysetPage.pageSize(10_000)).isEqualTo(KeysetPage.MAX_SIZE);
+    }
+}
@@ -0,0 +1,130 @@
+package com.onboarding.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+
+/**
+ * The query timeouts laneQueryTimeouts gives each EntityManager, as they arrive at the JDBC
+ * statements Hibernate prepares against H2.
+ */
+class LaneQueryTimeoutTests {
+
+    private final List<Integer> statementTimeouts = new CopyOnWriteArrayList<>();
+    private LocalContainerEntityManagerFactoryBean factoryBean;
+    private EntityManagerFactory entityManagerFactory;
+
+    @BeforeEach
+    void setUp() {
+        factoryBean = new LocalContainerEntityManagerFactoryBean();
+        factoryBean.setDataSource(recordingTimeouts(
+                new DriverManagerDataSource("jdbc:h2:mem:lane-timeouts;DB_CLOSE_DELAY=-1", "sa", "")));
+        factoryBean.setPackagesToScan(ReplicaHeartbeat.class.getPackage().getName());
+        factoryBean.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factoryBean.setJpaPropertyMap(Collections.singletonMap("hibernate.hbm2ddl.auto", "create-drop"));
+        QueryLaneDataSourceAutoConfiguration.laneQueryTimeouts(Duration.ofSeconds(5), Duration.ofSeconds(30))
+                .postProcessBeforeInitialization(factoryBean, "entityManagerFactory");
+        factoryBean.afterPropertiesSet();
+        entityManagerFactory = factoryBean.getObject();
+    }
+
+    @AfterEach
+    void tearDown() {
+        factoryBean.destroy();
+    }
+
+    @Test
+    void reportingQueriesGetTheReportingTimeout() {
+        EntityManager entityManager = QueryLane.REPORTING.call(entityManagerFactory::createEntityManager);
+        try {
+            entityManager.createQuery("SELECT h FROM ReplicaHeartbeat h", ReplicaHeartbeat.class).getResultList();
+        } finally {
+            entityManager.close();
+        }
+
+        assertThat(statementTimeouts).containsExactly(30);
+    }
+
+    @Test
+    void interactiveQueriesGetTheInteractiveTimeout() {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.createQuery("SELECT h FROM ReplicaHeartbeat h", ReplicaHeartbeat.class).getResultList();
+        } finally {
+            entityManager.close();
+        }
+
+        assertThat(statementTimeouts).containsExactly(5);
+    }
+
+    @Test
+    void laneIsTakenWhenTheEntityManagerOpens() {
+        // The timeout sticks with the EntityManager, like the pool does with its connection
+        EntityManager entityManager = QueryLane.REPORTING.call(entityManagerFactory::createEntityManager);
+        try {
+            QueryLane.INTERACTIVE.call(() -> entityManager
+                    .createQuery("SELECT h FROM ReplicaHeartbeat h", ReplicaHeartbeat.class).getResultList());
+        } finally {
+            entityManager.close();
+        }
+
+        assertThat(statementTimeouts).containsExactly(30);
+    }
+
+    // Records the timeout (in seconds) each prepared statement runs with; Hibernate resets it afterwards
+    private DataSource recordingTimeouts(DataSource target) {
+        return proxy(DataSource.class, (dataSource, method, args) -> {
+            Object result = invoke(method, target, args);
+            if (result instanceof Connection) {
+                Connection connection = (Connection) result;
+                return proxy(Connection.class, (c, connectionMethod, connectionArgs) -> {
+                    Object statement = invoke(connectionMethod, connection, connectionArgs);
+                    if (statement instanceof PreparedStatement) {
+                        PreparedStatement prepared = (PreparedStatement) statement;
+                        return proxy(PreparedStatement.class, (s, statementMethod, statementArgs) -> {
+                            if (statementMethod.getName().startsWith("execute")) {
+                                statementTimeouts.add(prepared.getQueryTimeout());
+                            }
+                            return invoke(statementMethod, prepared, statementArgs);
+                        });
+                    }
+                    return statement;
+                });
+            }
+            return result;
+        });
+    }
+
+    private static <T> T proxy(Class<T> type, InvocationHandler handler) {
+        return type.cast(Proxy.newProxyInstance(LaneQueryTimeoutTests.class.getClassLoader(), new Class<?>[] {type}, handler));
+    }
+
+    private static Object invoke(Method method, Object target, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package com.onboarding.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import jakarta.servlet.ServletException;
+
+class QueryLaneFilterTests {
+
+    // persistence.reporting.paths of customer-service and kyc-service
+    private final QueryLaneFilter filter = new QueryLaneFilter(new String[] {
+            "/api/admin/customers", "/api/admin/customers/pages", "/api/admin/customers/import/*",
+            "/admin/dashboard", "/api/chatbot/admin/**"});
+
+    @Test
+    void listedPathsRunOnTheReportingLane() throws Exception {
+        assertThat(laneFor("/api/admin/customers")).isEqualTo(QueryLane.REPORTING);
+        assertThat(laneFor("/api/admin/customers/pages")).isEqualTo(QueryLane.REPORTING);
+        assertThat(laneFor("/admin/dashboard")).isEqualTo(QueryLane.REPORTING);
+    }
+
+    @Test
+    void wildcardsMatchLikeAntPatterns() throws Exception {
+        assertThat(laneFor("/api/admin/customers/import/42")).isEqualTo(QueryLane.REPORTING);
+        assertThat(laneFor("/api/admin/customers/import/42/errors")).isEqualTo(QueryLane.INTERACTIVE);
+        assertThat(laneFor("/api/chatbot/admin/dashboard-stats")).isEqualTo(QueryLane.REPORTING);
+        assertThat(laneFor("/api/chatbot/admin/applications/by-date/pages")).isEqualTo(QueryLane.REPORTING);
+    }
+
+    @Test
+    void everythingElseStaysInteractive() throws Exception {
+        assertThat(laneFor("/login")).isEqualTo(QueryLane.INTERACTIVE);
+        assertThat(laneFor("/api/admin/customers/17")).isEqualTo(QueryLane.INTERACTIVE);
+        assertThat(laneFor("/admin/dashboard/export")).isEqualTo(QueryLane.INTERACTIVE);
+        assertThat(laneFor("/api/chatbot/applications")).isEqualTo(QueryLane.INTERACTIVE);
+    }
+
+    @Test
+    void pathsAreMatchedWithoutTheContextPath() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/kyc/admin/dashboard");
+        request.setContextPath("/kyc");
+
+        assertThat(laneDuring(filter, request)).isEqualTo(QueryLane.REPORTING);
+    }
+
+    @Test
+    void withoutReportingPathsEveryRequestIsInteractive() throws Exception {
+        QueryLaneFilter unconfigured = new QueryLaneFilter(new String[0]);
+
+        assertThat(laneDuring(unconfigured, new MockHttpServletRequest("GET", "/admin/dashboard")))
+                .isEqualTo(QueryLane.INTERACTIVE);
+    }
+
+    @Test
+    void laneIsResetAfterTheRequestEvenWhenItFails() {
+        assertThatThrownBy(() -> filter.doFilter(new MockHttpServletRequest("GET", "/admin/dashboard"),
+                new MockHttpServletResponse(), (request, response) -> {
+                    throw new ServletException("report failed");
+                })).isInstanceOf(ServletException.class);
+
+        assertThat(QueryLane.current()).isEqualTo(QueryLane.INTERACTIVE);
+    }
+
+    private QueryLane laneFor(String path) throws Exception {
+        QueryLane lane = laneDuring(filter, new MockHttpServletRequest("GET", path));
+        assertThat(QueryLane.current()).isEqualTo(QueryLane.INTERACTIVE);
+        return lane;
+    }
+
+    private static QueryLane laneDuring(QueryLaneFilter filter, MockHttpServletRequest request) throws Exception {
+        AtomicReference<QueryLane> seen = new AtomicReference<>();
+        filter.doFilter(request, new MockHttpServletResponse(), (req, res) -> seen.set(QueryLane.current()));
+        return seen.get();
+    }
+}
@@ -0,0 +1,129 @@
+package com.onboarding.persistence;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.Duration;
+import java.util.UUID;
+
+import javax.sql.DataSource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+/**
+ * Routes reads between two embedded H2 databases standing in for the primary and the read replica.
+ * Each knows its own name; replication is simulated by copying the heartbeat row across by hand.
+ */
+class ReplicaRoutingTests {
+
+    private static final String SERVICE = "KYC-SERVICE";
+
+    private JdbcTemplate primary;
+    private JdbcTemplate replica;
+    private ReplicaLagMonitor monitor;
+    private JdbcTemplate routed;
+    private TransactionTemplate readOnlyTransaction;
+    private TransactionTemplate readWriteTransaction;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primaryDb = database("primary");
+        DataSource replicaDb = database("replica");
+        primary = new JdbcTemplate(primaryDb);
+        replica = new JdbcTemplate(replicaDb);
+        monitor = new ReplicaLagMonitor(primaryDb, replicaDb, SERVICE, Duration.ofSeconds(30), new SimpleMeterRegistry());
+
+        DataSource routing = new LazyConnectionDataSourceProxy(
+                new QueryLaneRoutingDataSource(primaryDb, primaryDb, replicaDb, monitor));
+        routed = new JdbcTemplate(routing);
+        readOnlyTransaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+        readOnlyTransaction.setReadOnly(true);
+        readWriteTransaction = new TransactionTemplate(new DataSourceTransactionManager(routing));
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.execute("SHUTDOWN");
+        replica.execute("SHUTDOWN");
+    }
+
+    @Test
+    void readsStayOnThePrimaryUntilTheReplicaHasCaughtUp() {
+        monitor.beat();
+
+        assertThat(monitor.isUsable()).isFalse();
+        assertThat(QueryLane.REPORTING.call(this::readOnly)).isEqualTo("primary");
+        assertThat(QueryLane.REPORTING.call(this::autoCommit)).isEqualTo("primary");
+    }
+
+    @Test
+    void reportingReadsGoToAFreshReplica() {
+        replicate(System.currentTimeMillis());
+        monitor.beat();
+
+        assertThat(monitor.isUsable()).isTrue();
+        assertThat(QueryLane.REPORTING.call(this::readOnly)).isEqualTo("replica");
+        assertThat(QueryLane.REPORTING.call(this::autoCommit)).isEqualTo("replica");
+        assertThat(QueryLane.REPORTING.call(this::readWrite)).isEqualTo("primary");
+    }
+
+    @Test
+    void interactiveWorkStaysOnThePrimaryEvenWhenReadOnly() {
+        replicate(System.currentTimeMillis());
+        monitor.beat();
+
+        assertThat(monitor.isUsable()).isTrue();
+        assertThat(readOnly()).isEqualTo("primary");
+        assertThat(readWrite()).isEqualTo("primary");
+        assertThat(autoCommit()).isEqualTo("primary");
+    }
+
+    @Test
+    void readsFallBackToThePrimaryOnceTheReplicaLags() {
+        replicate(System.currentTimeMillis());
+        monitor.beat();
+        replicate(System.currentTimeMillis() - 60_000);
+        monitor.beat();
+
+        assertThat(monitor.isUsable()).isFalse();
+        assertThat(QueryLane.REPORTING.call(this::readOnly)).isEqualTo("primary");
+        assertThat(QueryLane.REPORTING.call(this::autoCommit)).isEqualTo("primary");
+    }
+
+    private String readOnly() {
+        return readOnlyTransaction.execute(status -> whoAmI());
+    }
+
+    private String readWrite() {
+        return readWriteTransaction.execute(status -> whoAmI());
+    }
+
+    private String autoCommit() {
+        return whoAmI();
+    }
+
+    private String whoAmI() {
+        return routed.queryForObject("SELECT NAME FROM WHO_AM_I", String.class);
+    }
+
+    private void replicate(long beatMillis) {
+        replica.update("MERGE INTO REPLICA_HEARTBEAT (SERVICE_NAME, BEAT_MILLIS) KEY (SERVICE_NAME) VALUES (?, ?)", SERVICE, beatMillis);
+    }
+
+    private static DataSource database(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE REPLICA_HEARTBEAT (SERVICE_NAME VARCHAR(64) PRIMARY KEY, BEAT_MILLIS BIGINT NOT NULL)");
+        jdbc.execute("CREATE TABLE WHO_AM_I (NAME VARCHAR(16))");
+        jdbc.update("INSERT INTO WHO_AM_I (NAME) VALUES (?)", name);
+        return dataSource;
+    }
+}
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# Starts a service built with "mvn -Pfast-start package" using the AOT-generated context,
+# the fast-start Spring profile and a CDS archive. The first run creates the archive with a
+# training run (context refresh only), later runs reuse it until the jar is rebuilt.
+#
+# Usage: scripts/fast-start.sh <service-dir> [application args...]
+set -euo pipefail
+
+SERVICE=${1:?usage: fast-start.sh <service-dir> [args...]}
+shift
+DIR="$(cd "$(dirname "$0")/.." && pwd)/$SERVICE/target/fast-start"
+JAR=$(ls "$DIR"/*-fast-start.jar)
+CDS_ARCHIVE="$DIR/app.jsa"
+JAVA_OPTS="-Dspring.profiles.active=fast-start ${JAVA_OPTS:-}"
+
+# Use the AOT-generated context when the build produced one (not for eureka-server)
+if unzip -l "$JAR" | grep -q '__ApplicationContextInitializer'; then
+    JAVA_OPTS="-Dspring.aot.enabled=true $JAVA_OPTS"
+fi
+
+# An archive from an older build doesn't match the jar, and the JVM would silently run without it
+if [ -f "$CDS_ARCHIVE" ] && [ "$JAR" -nt "$CDS_ARCHIVE" ]; then
+    rm -f "$CDS_ARCHIVE"
+fi
+
+if [ ! -f "$CDS_ARCHIVE" ]; then
+    echo "Creating CDS archive for $SERVICE..."
+    java -XX:ArchiveClassesAtExit="$CDS_ARCHIVE" -Dspring.context.exit=onRefresh $JAVA_OPTS -jar "$JAR" "$@"
+fi
+
+exec java -XX:SharedArchiveFile="$CDS_ARCHIVE" $JAVA_OPTS -jar "$JAR" "$@"
@@ -0,0 +1,31 @@
+#!/usr/bin/env bash
+# End-to-end load test. Builds every service's fast-start jar, then runs the load-tests harness,
+# which starts H2, an embedded Kafka broker and an SMTP sink in place of Oracle, Kafka and Gmail,
+# starts all services with the loadtest profile and drives the onboarding workloads through the
+# gateway. Ports 8080-8083, 8761, 9123 and 3025 must be free.
+#
+# Usage: scripts/load-test.sh [--registrations=8] [--approvers=2] [--dashboards=4] [--chatbots=2]
+#                             [--exporters=1] [--export-interval=20]
+#                             [--duration=120] [--warmup=30] [--document-kb=128] [--service-heap=512m]
+#        scripts/load-test.sh --scenario=gateway-compression [--gateway-profiles=uncompressed]
+#                             [--seed-accounts=100] [--page-rate=20] [--api-rate=10]
+#            runs k6/gateway-compression.js without k6 and prints the bytes received per request.
+#        SKIP_BUILD=1 reuses the jars from the last build.
+# Results: load-tests/target/load-test-report.csv, service logs in load-tests/target/logs.
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+
+if [ -z "${SKIP_BUILD:-}" ]; then
+    for library in loadbalancer-support persistence-support; do
+        echo "Installing $library"
+        (cd "$ROOT/$library" && mvn -B -q -DskipTests install)
+    done
+    for service in eureka-server account-service customer-service kyc-service api-gateway; do
+        echo "Building $service"
+        (cd "$ROOT/$service" && mvn -B -q -Pfast-start -DskipTests package)
+    done
+fi
+
+cd "$ROOT/load-tests"
+mvn -B -q compile exec:java -Dexec.args="--project-root=$ROOT $*"
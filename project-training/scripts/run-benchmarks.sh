@@ -0,0 +1,46 @@
+#!/usr/bin/env bash
+# Builds the JMH benchmark modules and runs them. Results go to benchmarks/results/<module>.csv
+# and are compared with benchmarks/baseline/<module>.csv: a benchmark fails when even the low end
+# of its new error interval is more than THRESHOLD percent above the high end of the baseline's,
+# so run-to-run noise within the reported errors does not fail the build.
+# After an intentional change, copy the new results over the baseline and commit them with
+# the change, so the difference is visible in the review.
+#
+# Usage: scripts/run-benchmarks.sh [kyc|customer|account ...]   (default: all)
+#        Extra JMH options can be passed in JMH_OPTS, e.g. JMH_OPTS="-f 3".
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+THRESHOLD=${THRESHOLD:-15}
+MODULES=${*:-kyc customer account}
+
+(cd "$ROOT/benchmarks" && mvn -B -q -DskipTests package)
+
+mkdir -p "$ROOT/benchmarks/results"
+REGRESSED=0
+for module in $MODULES; do
+    name="$module-benchmarks"
+    result="$ROOT/benchmarks/results/$name.csv"
+    baseline="$ROOT/benchmarks/baseline/$name.csv"
+    # shellcheck disable=SC2086
+    java -jar "$ROOT/benchmarks/$name/target/$name.jar" -rf csv -rff "$result" ${JMH_OPTS:-}
+
+    [ -f "$baseline" ] || { echo "no baseline for $name"; continue; }
+    # Columns: "Benchmark","Mode","Threads","Samples","Score","Score Error (99.9%)","Unit"[,"Param: ..."]
+    # All benchmarks report average time, so a higher score is a regression.
+    if ! awk -F, -v threshold="$THRESHOLD" '
+        FNR == 1 { next }
+        { key = $1; for (i = 8; i <= NF; i++) key = key "," $i }
+        NR == FNR { base[key] = $5; baseError[key] = $6; next }
+        (key in base) && base[key] > 0 {
+            change = ($5 - base[key]) * 100 / base[key]
+            regressed = ($5 - $6) > (base[key] + baseError[key]) * (1 + threshold / 100)
+            printf "%-90s %12.3f -> %12.3f %s %+6.1f%%%s\n", key, base[key], $5, $7, change, regressed ? "  REGRESSED" : ""
+            if (regressed) failed = 1
+        }
+        END { exit failed }' "$baseline" "$result"; then
+        echo "$name: at least one benchmark is more than $THRESHOLD% slower than the baseline, beyond the error margins"
+        REGRESSED=1
+    fi
+done
+exit $REGRESSED
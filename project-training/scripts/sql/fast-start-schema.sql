@@ -0,0 +1,144 @@
+-- Creates the tables the services have gained since the fast-start profile was added.
+-- The fast-start profile runs with ddl-auto=validate, so unlike a normal start it doesn't create
+-- them and refuses to start while they are missing. Run it once after pooled-sequences.sql,
+-- e.g.  sqlplus SYSTEM/1234@localhost:1521/FREE @fast-start-schema.sql
+-- A normal start (ddl-auto=update) creates the same tables, so either one is enough.
+-- IF NOT EXISTS needs Oracle 23ai (the FREE image); the script can be run again safely.
+-- When an entity changes, add its DDL here in the same commit. customer-service and kyc-service
+-- keep field names as column names (PhysicalNamingStrategyStandardImpl), account-service uses snake_case.
+
+-- All services: replica lag heartbeat (ReplicaLagMonitor), one row per service
+CREATE TABLE IF NOT EXISTS replica_heartbeat (
+    service_name VARCHAR2(64 CHAR) NOT NULL,
+    beat_millis NUMBER(19,0) NOT NULL,
+    PRIMARY KEY (service_name)
+);
+
+-- customer-service: transactional outbox (EventOutbox)
+CREATE SEQUENCE IF NOT EXISTS customer_outbox_event_id_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS customer_outbox_event (
+    id NUMBER(19,0) NOT NULL,
+    topic VARCHAR2(255 CHAR) NOT NULL,
+    eventKey VARCHAR2(255 CHAR),
+    eventType VARCHAR2(200 CHAR) NOT NULL,
+    payload VARCHAR2(4000 CHAR) NOT NULL,
+    createdAt TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- customer-service: emails that could not be sent (MailDispatcher)
+CREATE SEQUENCE IF NOT EXISTS mail_dead_letter_id_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS mail_dead_letter (
+    id NUMBER(19,0) NOT NULL,
+    RECIPIENT VARCHAR2(255 CHAR) NOT NULL,
+    subject VARCHAR2(255 CHAR) NOT NULL,
+    HTML_BODY CLOB NOT NULL,
+    attempts NUMBER(10,0) NOT NULL,
+    lastError VARCHAR2(1000 CHAR),
+    failedAt TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- customer-service: applications waiting for the next admin digest email
+CREATE SEQUENCE IF NOT EXISTS admin_digest_entry_id_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS admin_digest_entry (
+    id NUMBER(19,0) NOT NULL,
+    applicationId NUMBER(19,0) NOT NULL,
+    applicantName VARCHAR2(255 CHAR),
+    reapplication NUMBER(1,0) NOT NULL CHECK (reapplication IN (0,1)),
+    receivedAt TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- customer-service: ids of handled Kafka events (ProcessedEventStore)
+CREATE TABLE IF NOT EXISTS processed_event (
+    event_id VARCHAR2(36 CHAR) NOT NULL,
+    processed_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (event_id)
+);
+CREATE INDEX IF NOT EXISTS idx_processed_event_at ON processed_event (processed_at);
+
+-- customer-service: bulk import progress and checkpoints (CustomerImportService)
+CREATE TABLE IF NOT EXISTS customer_import_job (
+    job_id VARCHAR2(64 CHAR) NOT NULL,
+    status VARCHAR2(16 CHAR) NOT NULL,
+    recordsProcessed NUMBER(19,0) NOT NULL,
+    imported NUMBER(19,0) NOT NULL,
+    duplicates NUMBER(19,0) NOT NULL,
+    rejected NUMBER(19,0) NOT NULL,
+    lastError VARCHAR2(255 CHAR),
+    startedAt TIMESTAMP(6) NOT NULL,
+    updatedAt TIMESTAMP(6),
+    version NUMBER(19,0),
+    PRIMARY KEY (job_id)
+);
+
+-- account-service: transactional outbox (EventOutbox)
+CREATE SEQUENCE IF NOT EXISTS account_outbox_event_id_seq START WITH 1 INCREMENT BY 50;
+CREATE TABLE IF NOT EXISTS account_outbox_event (
+    id NUMBER(19,0) NOT NULL,
+    topic VARCHAR2(255 CHAR) NOT NULL,
+    event_key VARCHAR2(255 CHAR),
+    event_type VARCHAR2(200 CHAR) NOT NULL,
+    payload VARCHAR2(4000 CHAR) NOT NULL,
+    created_at TIMESTAMP(6) NOT NULL,
+    PRIMARY KEY (id)
+);
+
+-- kyc-service: customer 360 read model (Customer360Service)
+CREATE TABLE IF NOT EXISTS customer_360 (
+    customerId NUMBER(19,0) NOT NULL,
+    applicationId NUMBER(19,0) NOT NULL UNIQUE,
+    fullName VARCHAR2(255 CHAR),
+    fathersName VARCHAR2(255 CHAR),
+    dob DATE,
+    gender VARCHAR2(255 CHAR),
+    maritalStatus VARCHAR2(255 CHAR),
+    nationality VARCHAR2(255 CHAR),
+    profession VARCHAR2(255 CHAR),
+    address VARCHAR2(255 CHAR),
+    email VARCHAR2(255 CHAR),
+    phone VARCHAR2(255 CHAR),
+    pan VARCHAR2(255 CHAR),
+    aadhaar VARCHAR2(255 CHAR),
+    requestedAccountType VARCHAR2(255 CHAR),
+    kycStatus VARCHAR2(255 CHAR),
+    nomineeName VARCHAR2(255 CHAR),
+    nomineeAadhaarNumber VARCHAR2(255 CHAR),
+    nomineeMobile VARCHAR2(255 CHAR),
+    nomineeAddress VARCHAR2(255 CHAR),
+    accountNumber VARCHAR2(255 CHAR),
+    accountType VARCHAR2(255 CHAR),
+    accountStatus VARCHAR2(255 CHAR),
+    balance NUMBER(38,2),
+    branchName VARCHAR2(255 CHAR),
+    ifscCode VARCHAR2(255 CHAR),
+    micrCode VARCHAR2(255 CHAR),
+    modeOfOperation VARCHAR2(255 CHAR),
+    dateOfAccountOpening TIMESTAMP(6),
+    debitCardIssued NUMBER(1,0) CHECK (debitCardIssued IN (0,1)),
+    debitCardLast4Digits VARCHAR2(255 CHAR),
+    chequeBookIssued NUMBER(1,0) CHECK (chequeBookIssued IN (0,1)),
+    chequeBookLeaves NUMBER(10,0),
+    netBankingEnabled NUMBER(1,0) CHECK (netBankingEnabled IN (0,1)),
+    accountNomineeRegistered NUMBER(1,0) CHECK (accountNomineeRegistered IN (0,1)),
+    accountNomineeName VARCHAR2(255 CHAR),
+    PRIMARY KEY (customerId)
+);
+
+-- customer-service / kyc-service: admin lists page newest first on (createdAt, id)
+ALTER TABLE customers ADD IF NOT EXISTS (createdAt TIMESTAMP(6) DEFAULT CURRENT_TIMESTAMP NOT NULL);
+CREATE INDEX IF NOT EXISTS idx_customers_created ON customers (createdAt, id);
+CREATE INDEX IF NOT EXISTS idx_kyc_applications_created ON kyc_applications (createdAt, id);
+
+-- customer-service / account-service: the outbox relay claims a batch before sending it
+ALTER TABLE customer_outbox_event ADD IF NOT EXISTS (claimedUntil TIMESTAMP(6));
+ALTER TABLE account_outbox_event ADD IF NOT EXISTS (claimed_until TIMESTAMP(6));
+
+-- customer-service / account-service / kyc-service: customer 360 sections are versioned by the source rows
+ALTER TABLE customers ADD IF NOT EXISTS (version NUMBER(19,0) DEFAULT 0 NOT NULL);
+ALTER TABLE accounts ADD IF NOT EXISTS (version NUMBER(19,0) DEFAULT 0 NOT NULL);
+ALTER TABLE customer_360 ADD IF NOT EXISTS (profileRowVersion NUMBER(19,0));
+ALTER TABLE customer_360 ADD IF NOT EXISTS (nomineeRowVersion NUMBER(19,0));
+ALTER TABLE customer_360 ADD IF NOT EXISTS (accountRowVersion NUMBER(19,0));
+ALTER TABLE customer_360 ADD IF NOT EXISTS (accountNomineeRowVersion NUMBER(19,0));
@@ -0,0 +1,31 @@
+-- One-off migration of an existing onboarding schema to pooled sequence ids.
+-- Run it once with all services stopped, e.g.  sqlplus SYSTEM/1234@localhost:1521/FREE @pooled-sequences.sql
+-- New schemas don't need it: Hibernate creates the sequences with INCREMENT BY 50 itself.
+--
+-- The entities now take ids from sequences with allocationSize = 50. Hibernate's pooled optimizer
+-- treats each NEXTVAL as the top of a block of 50 ids, and refuses to start if a sequence
+-- increments by anything else.
+
+-- customers and nominee already used sequences, one id per NEXTVAL.
+-- The next NEXTVAL lands 50 above the last id handed out, so the first block starts right after it.
+ALTER SEQUENCE customer_id_seq INCREMENT BY 50;
+ALTER SEQUENCE nominee_id_seq INCREMENT BY 50;
+
+-- APP_USER, KYC_APPLICATIONS, KYC_NOMINEES and ACCOUNTS used identity columns.
+-- Identity columns reject explicit ids, so drop the identity and start each new sequence
+-- so that its first block begins above the highest existing id.
+DECLARE
+    PROCEDURE move_to_sequence(p_table VARCHAR2, p_sequence VARCHAR2) IS
+        v_start NUMBER;
+    BEGIN
+        EXECUTE IMMEDIATE 'ALTER TABLE ' || p_table || ' MODIFY (id DROP IDENTITY)';
+        EXECUTE IMMEDIATE 'SELECT NVL(MAX(id), 0) + 50 FROM ' || p_table INTO v_start;
+        EXECUTE IMMEDIATE 'CREATE SEQUENCE ' || p_sequence || ' START WITH ' || v_start || ' INCREMENT BY 50';
+    END;
+BEGIN
+    move_to_sequence('APP_USER', 'app_user_id_seq');
+    move_to_sequence('KYC_APPLICATIONS', 'kyc_application_id_seq');
+    move_to_sequence('KYC_NOMINEES', 'kyc_nominee_id_seq');
+    move_to_sequence('ACCOUNTS', 'account_id_seq');
+END;
+/
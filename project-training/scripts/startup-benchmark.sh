@@ -0,0 +1,60 @@
+#!/usr/bin/env bash
+# Measures startup time of a service started normally and started through fast-start.sh
+# (AOT + CDS + fast-start profile), and appends the results to scripts/startup-times.csv
+# so they can be compared over time. Both modes use the same jar from target/fast-start,
+# so build it first with "mvn -Pfast-start package" in the service directory.
+# The services need their usual dependencies (Eureka, Oracle, Kafka) to be up.
+#
+# Usage: scripts/startup-benchmark.sh <service-dir> [runs]
+set -euo pipefail
+
+SERVICE=${1:?usage: startup-benchmark.sh <service-dir> [runs]}
+RUNS=${2:-5}
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+RESULTS="$ROOT/scripts/startup-times.csv"
+JAR=$(ls "$ROOT/$SERVICE"/target/fast-start/*-fast-start.jar)
+LOG=$(mktemp)
+
+[ -f "$RESULTS" ] || echo "date,service,mode,run,started_in_seconds,process_seconds" > "$RESULTS"
+
+# Runs the given command until "Started ..." shows up in its log, then stops it
+# and records "Started X in <a> seconds (process running for <b>)".
+measure() {
+    local mode=$1 run=$2
+    shift 2
+    "$@" > "$LOG" 2>&1 &
+    local pid=$!
+    for _ in $(seq 1 240); do
+        if grep -q "Started .* in .* seconds" "$LOG"; then
+            break
+        fi
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "$SERVICE ($mode) exited before it started, see $LOG" >&2
+            return 1
+        fi
+        sleep 0.5
+    done
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+    if [ "$run" = warm-up ]; then
+        return 0
+    fi
+    local line started process
+    line=$(grep -o "Started .* in [0-9.]* seconds (process running for [0-9.]*)" "$LOG" | head -1)
+    started=$(echo "$line" | sed -E 's/.* in ([0-9.]+) seconds.*/\1/')
+    process=$(echo "$line" | sed -E 's/.*process running for ([0-9.]+)\)/\1/')
+    echo "$(date -u +%Y-%m-%dT%H:%M:%SZ),$SERVICE,$mode,$run,$started,$process" >> "$RESULTS"
+    echo "$SERVICE $mode run $run: started in ${started}s (process ${process}s)"
+}
+
+for run in $(seq 1 "$RUNS"); do
+    measure default "$run" java -jar "$JAR"
+done
+
+# The first fast-start run creates the CDS archive, so it isn't recorded.
+measure fast-start warm-up "$ROOT/scripts/fast-start.sh" "$SERVICE"
+
+for run in $(seq 1 "$RUNS"); do
+    measure fast-start "$run" "$ROOT/scripts/fast-start.sh" "$SERVICE"
+done
+rm -f "$LOG"